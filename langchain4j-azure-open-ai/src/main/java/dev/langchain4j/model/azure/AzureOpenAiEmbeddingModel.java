@@ -1,5 +1,6 @@
 package dev.langchain4j.model.azure;
 
+import com.azure.ai.openai.OpenAIAsyncClient;
 import com.azure.ai.openai.OpenAIClient;
 import com.azure.ai.openai.models.EmbeddingItem;
 import com.azure.ai.openai.models.Embeddings;
@@ -11,6 +12,7 @@ import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.Tokenizer;
 import dev.langchain4j.model.azure.spi.AzureOpenAiEmbeddingModelBuilderFactory;
+import dev.langchain4j.model.embedding.BatchingEmbeddingModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.embedding.TokenCountEstimator;
 import dev.langchain4j.model.output.Response;
@@ -21,6 +23,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import static dev.langchain4j.internal.Utils.getOrDefault;
+import static dev.langchain4j.internal.ValidationUtils.ensureGreaterThanZero;
 import static dev.langchain4j.model.azure.InternalAzureOpenAiHelper.setupOpenAIClient;
 import static dev.langchain4j.spi.ServiceHelper.loadFactories;
 import static java.util.stream.Collectors.toList;
@@ -49,20 +52,30 @@ import static java.util.stream.Collectors.toList;
  * As an example, DefaultAzureCredential can be used to authenticate the client: Set the values of the client ID, tenant ID, and
  * client secret of the AAD application as environment variables: AZURE_CLIENT_ID, AZURE_TENANT_ID, AZURE_CLIENT_SECRET.
  * Then, provide the DefaultAzureCredential instance to the builder: `builder.tokenCredential(new DefaultAzureCredentialBuilder().build())`.
+ * <p>
+ * Text segments are embedded in batches of up to maxSegmentsPerBatch segments (16 by default),
+ * and up to parallelism batches (1 by default) are sent concurrently.
+ * You can also provide your own OpenAIAsyncClient instance, in which case batches are sent with it.
  */
 public class AzureOpenAiEmbeddingModel implements EmbeddingModel, TokenCountEstimator {
 
-    private static final int BATCH_SIZE = 16;
+    private static final int DEFAULT_MAX_SEGMENTS_PER_BATCH = 16;
 
     private OpenAIClient client;
+    private OpenAIAsyncClient asyncClient;
     private final String deploymentName;
     private final Tokenizer tokenizer;
+    private final EmbeddingModel batchingModel;
 
     private AzureOpenAiEmbeddingModel(OpenAIClient client,
+                                      OpenAIAsyncClient asyncClient,
                                       String deploymentName,
-                                      Tokenizer tokenizer) {
-        this(deploymentName, tokenizer);
+                                      Tokenizer tokenizer,
+                                      Integer maxSegmentsPerBatch,
+                                      Integer parallelism) {
+        this(deploymentName, tokenizer, maxSegmentsPerBatch, parallelism);
         this.client = client;
+        this.asyncClient = asyncClient;
     }
 
     public AzureOpenAiEmbeddingModel(String endpoint,
@@ -75,8 +88,7 @@ public class AzureOpenAiEmbeddingModel implements EmbeddingModel, TokenCountEsti
                                      ProxyOptions proxyOptions,
                                      boolean logRequestsAndResponses) {
 
-        this(deploymentName, tokenizer);
-        this.client = setupOpenAIClient(endpoint, serviceVersion, apiKey, timeout, maxRetries, proxyOptions, logRequestsAndResponses);
+        this(endpoint, serviceVersion, apiKey, deploymentName, tokenizer, timeout, maxRetries, proxyOptions, logRequestsAndResponses, null, null);
     }
 
     public AzureOpenAiEmbeddingModel(String endpoint,
@@ -89,8 +101,7 @@ public class AzureOpenAiEmbeddingModel implements EmbeddingModel, TokenCountEsti
                                      ProxyOptions proxyOptions,
                                      boolean logRequestsAndResponses) {
 
-        this(deploymentName, tokenizer);
-        this.client = setupOpenAIClient(endpoint, serviceVersion, keyCredential, timeout, maxRetries, proxyOptions, logRequestsAndResponses);
+        this(endpoint, serviceVersion, keyCredential, deploymentName, tokenizer, timeout, maxRetries, proxyOptions, logRequestsAndResponses, null, null);
     }
 
     public AzureOpenAiEmbeddingModel(String endpoint,
@@ -103,57 +114,110 @@ public class AzureOpenAiEmbeddingModel implements EmbeddingModel, TokenCountEsti
                                      ProxyOptions proxyOptions,
                                      boolean logRequestsAndResponses) {
 
-        this(deploymentName, tokenizer);
+        this(endpoint, serviceVersion, tokenCredential, deploymentName, tokenizer, timeout, maxRetries, proxyOptions, logRequestsAndResponses, null, null);
+    }
+
+    public AzureOpenAiEmbeddingModel(String endpoint,
+                                     String serviceVersion,
+                                     String apiKey,
+                                     String deploymentName,
+                                     Tokenizer tokenizer,
+                                     Duration timeout,
+                                     Integer maxRetries,
+                                     ProxyOptions proxyOptions,
+                                     boolean logRequestsAndResponses,
+                                     Integer maxSegmentsPerBatch,
+                                     Integer parallelism) {
+
+        this(deploymentName, tokenizer, maxSegmentsPerBatch, parallelism);
+        this.client = setupOpenAIClient(endpoint, serviceVersion, apiKey, timeout, maxRetries, proxyOptions, logRequestsAndResponses);
+    }
+
+    public AzureOpenAiEmbeddingModel(String endpoint,
+                                     String serviceVersion,
+                                     KeyCredential keyCredential,
+                                     String deploymentName,
+                                     Tokenizer tokenizer,
+                                     Duration timeout,
+                                     Integer maxRetries,
+                                     ProxyOptions proxyOptions,
+                                     boolean logRequestsAndResponses,
+                                     Integer maxSegmentsPerBatch,
+                                     Integer parallelism) {
+
+        this(deploymentName, tokenizer, maxSegmentsPerBatch, parallelism);
+        this.client = setupOpenAIClient(endpoint, serviceVersion, keyCredential, timeout, maxRetries, proxyOptions, logRequestsAndResponses);
+    }
+
+    public AzureOpenAiEmbeddingModel(String endpoint,
+                                     String serviceVersion,
+                                     TokenCredential tokenCredential,
+                                     String deploymentName,
+                                     Tokenizer tokenizer,
+                                     Duration timeout,
+                                     Integer maxRetries,
+                                     ProxyOptions proxyOptions,
+                                     boolean logRequestsAndResponses,
+                                     Integer maxSegmentsPerBatch,
+                                     Integer parallelism) {
+
+        this(deploymentName, tokenizer, maxSegmentsPerBatch, parallelism);
         this.client = setupOpenAIClient(endpoint, serviceVersion, tokenCredential, timeout, maxRetries, proxyOptions, logRequestsAndResponses);
     }
 
     private AzureOpenAiEmbeddingModel(String deploymentName,
-                                      Tokenizer tokenizer) {
+                                      Tokenizer tokenizer,
+                                      Integer maxSegmentsPerBatch,
+                                      Integer parallelism) {
 
         this.deploymentName = getOrDefault(deploymentName, "text-embedding-ada-002");
         this.tokenizer = tokenizer;
+        this.batchingModel = BatchingEmbeddingModel.builder()
+                .delegate(this::embedBatch)
+                .maxSegmentsPerBatch(ensureGreaterThanZero(
+                        getOrDefault(maxSegmentsPerBatch, DEFAULT_MAX_SEGMENTS_PER_BATCH), "maxSegmentsPerBatch"))
+                .parallelism(ensureGreaterThanZero(getOrDefault(parallelism, 1), "parallelism"))
+                .build();
     }
 
     /**
-     * Embeds the provided text segments, processing a maximum of 16 segments at a time.
+     * Embeds the provided text segments, processing a maximum of maxSegmentsPerBatch segments at a time
+     * (16 by default), and up to parallelism batches concurrently.
      * For more information, refer to the documentation <a href="https://learn.microsoft.com/en-us/azure/ai-services/openai/faq#i-am-trying-to-use-embeddings-and-received-the-error--invalidrequesterror--too-many-inputs--the-max-number-of-inputs-is-1---how-do-i-fix-this-">here</a>.
      *
      * @param textSegments A list of text segments.
-     * @return A list of corresponding embeddings.
+     * @return A list of corresponding embeddings, in the order of the text segments.
      */
     @Override
     public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        return batchingModel.embedAll(textSegments);
+    }
 
+    private Response<List<Embedding>> embedBatch(List<TextSegment> textSegments) {
+        EmbeddingsOptions options = toEmbeddingsOptions(textSegments);
+        Embeddings response = asyncClient != null
+                ? asyncClient.getEmbeddings(deploymentName, options).block()
+                : client.getEmbeddings(deploymentName, options);
+        return toResponse(response);
+    }
+
+    private static EmbeddingsOptions toEmbeddingsOptions(List<TextSegment> textSegments) {
         List<String> texts = textSegments.stream()
                 .map(TextSegment::text)
                 .collect(toList());
 
-        return embedTexts(texts);
+        return new EmbeddingsOptions(texts);
     }
 
-    private Response<List<Embedding>> embedTexts(List<String> texts) {
-
+    private static Response<List<Embedding>> toResponse(Embeddings response) {
         List<Embedding> embeddings = new ArrayList<>();
-
-        int inputTokenCount = 0;
-        for (int i = 0; i < texts.size(); i += BATCH_SIZE) {
-
-            List<String> batch = texts.subList(i, Math.min(i + BATCH_SIZE, texts.size()));
-
-            EmbeddingsOptions options = new EmbeddingsOptions(batch);
-            Embeddings response =  client.getEmbeddings(deploymentName, options);
-
-            for (EmbeddingItem embeddingItem : response.getData()) {
-                Embedding embedding = from(embeddingItem.getEmbedding());
-                embeddings.add(embedding);
-            }
-
-            inputTokenCount += response.getUsage().getPromptTokens();
+        for (EmbeddingItem embeddingItem : response.getData()) {
+            embeddings.add(from(embeddingItem.getEmbedding()));
         }
 
         return Response.from(
                 embeddings,
-                new TokenUsage(inputTokenCount)
+                new TokenUsage(response.getUsage().getPromptTokens())
         );
     }
 
@@ -191,6 +255,9 @@ public class AzureOpenAiEmbeddingModel implements EmbeddingModel, TokenCountEsti
         private ProxyOptions proxyOptions;
         private boolean logRequestsAndResponses;
         private OpenAIClient openAIClient;
+        private OpenAIAsyncClient openAIAsyncClient;
+        private Integer maxSegmentsPerBatch;
+        private Integer parallelism;
 
         /**
          * Sets the Azure OpenAI endpoint. This is a mandatory parameter.
@@ -295,8 +362,42 @@ public class AzureOpenAiEmbeddingModel implements EmbeddingModel, TokenCountEsti
             return this;
         }
 
+        /**
+         * Sets the Azure OpenAI async client. This is an optional parameter, if you need more flexibility than using the endpoint, serviceVersion, apiKey, deploymentName parameters.
+         * When set, batches are sent with this client rather than with an OpenAIClient.
+         *
+         * @param openAIAsyncClient The Azure OpenAI async client.
+         * @return builder
+         */
+        public Builder openAIAsyncClient(OpenAIAsyncClient openAIAsyncClient) {
+            this.openAIAsyncClient = openAIAsyncClient;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of text segments sent in a single request. Default: 16
+         *
+         * @param maxSegmentsPerBatch The maximum number of text segments per request.
+         * @return builder
+         */
+        public Builder maxSegmentsPerBatch(Integer maxSegmentsPerBatch) {
+            this.maxSegmentsPerBatch = maxSegmentsPerBatch;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of requests sent concurrently. Default: 1
+         *
+         * @param parallelism The maximum number of concurrent requests.
+         * @return builder
+         */
+        public Builder parallelism(Integer parallelism) {
+            this.parallelism = parallelism;
+            return this;
+        }
+
         public AzureOpenAiEmbeddingModel build() {
-            if (openAIClient == null) {
+            if (openAIClient == null && openAIAsyncClient == null) {
                 if (tokenCredential != null) {
                     return new AzureOpenAiEmbeddingModel(
                             endpoint,
@@ -307,7 +408,9 @@ public class AzureOpenAiEmbeddingModel implements EmbeddingModel, TokenCountEsti
                             timeout,
                             maxRetries,
                             proxyOptions,
-                            logRequestsAndResponses
+                            logRequestsAndResponses,
+                            maxSegmentsPerBatch,
+                            parallelism
                     );
                 } else if (keyCredential != null) {
                     return new AzureOpenAiEmbeddingModel(
@@ -319,7 +422,9 @@ public class AzureOpenAiEmbeddingModel implements EmbeddingModel, TokenCountEsti
                             timeout,
                             maxRetries,
                             proxyOptions,
-                            logRequestsAndResponses
+                            logRequestsAndResponses,
+                            maxSegmentsPerBatch,
+                            parallelism
                     );
                 }
                 return new AzureOpenAiEmbeddingModel(
@@ -331,13 +436,18 @@ public class AzureOpenAiEmbeddingModel implements EmbeddingModel, TokenCountEsti
                         timeout,
                         maxRetries,
                         proxyOptions,
-                        logRequestsAndResponses
+                        logRequestsAndResponses,
+                        maxSegmentsPerBatch,
+                        parallelism
                 );
             } else {
                 return new AzureOpenAiEmbeddingModel(
                         openAIClient,
+                        openAIAsyncClient,
                         deploymentName,
-                        tokenizer
+                        tokenizer,
+                        maxSegmentsPerBatch,
+                        parallelism
                 );
             }
         }
@@ -68,4 +68,32 @@ public class AzureOpenAiEmbeddingModelIT {
 
         assertThat(response.finishReason()).isNull();
     }
+
+    @Test
+    void should_embed_in_concurrent_batches() {
+
+        EmbeddingModel model = AzureOpenAiEmbeddingModel.builder()
+                .endpoint(System.getenv("AZURE_OPENAI_ENDPOINT"))
+                .apiKey(System.getenv("AZURE_OPENAI_KEY"))
+                .deploymentName("text-embedding-ada-002")
+                .maxSegmentsPerBatch(4)
+                .parallelism(3)
+                .logRequestsAndResponses(true)
+                .build();
+
+        int numberOfSegments = 4 * 5 + 1;
+        List<TextSegment> segments = new ArrayList<>();
+        for (int i = 0; i < numberOfSegments; i++) {
+            segments.add(TextSegment.from("text " + i));
+        }
+
+        Response<List<Embedding>> response = model.embedAll(segments);
+
+        assertThat(response.content()).hasSize(numberOfSegments);
+        assertThat(response.content().get(numberOfSegments - 1).dimension()).isEqualTo(1536);
+
+        TokenUsage tokenUsage = response.tokenUsage();
+        assertThat(tokenUsage.inputTokenCount()).isEqualTo(numberOfSegments * 3);
+        assertThat(tokenUsage.totalTokenCount()).isEqualTo(numberOfSegments * 3);
+    }
 }
@@ -0,0 +1,207 @@
+package dev.langchain4j.model.azure;
+
+import com.azure.ai.openai.OpenAIClientBuilder;
+import com.azure.core.credential.AzureKeyCredential;
+import com.azure.core.http.HttpClient;
+import com.azure.core.http.HttpHeaders;
+import com.azure.core.http.HttpRequest;
+import com.azure.core.http.HttpResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AzureOpenAiEmbeddingModelTest {
+
+    private static final String ENDPOINT = "https://test.openai.azure.com";
+
+    /**
+     * Embeds each input as its length, and counts 2 prompt tokens per input.
+     */
+    static class StubHttpClient implements HttpClient {
+
+        private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+        final List<List<String>> requests = new ArrayList<>();
+        final AtomicInteger concurrentRequests = new AtomicInteger();
+        final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+
+        @Override
+        public Mono<HttpResponse> send(HttpRequest request) {
+            return Mono.fromCallable(() -> respond(request));
+        }
+
+        private HttpResponse respond(HttpRequest request) throws Exception {
+            maxConcurrentRequests.accumulateAndGet(concurrentRequests.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+                List<String> input = new ArrayList<>();
+                OBJECT_MAPPER.readTree(request.getBodyAsBinaryData().toString())
+                        .get("input")
+                        .forEach(text -> input.add(text.asText()));
+                synchronized (requests) {
+                    requests.add(input);
+                }
+
+                StringBuilder data = new StringBuilder();
+                for (int i = 0; i < input.size(); i++) {
+                    if (i > 0) {
+                        data.append(',');
+                    }
+                    data.append(String.format("{\"object\":\"embedding\",\"index\":%s,\"embedding\":[%s]}",
+                            i, input.get(i).length()));
+                }
+                String body = String.format("{\"object\":\"list\",\"data\":[%s],"
+                        + "\"usage\":{\"prompt_tokens\":%s,\"total_tokens\":%s}}", data, 2 * input.size(), 2 * input.size());
+                return new JsonResponse(request, body);
+            } finally {
+                concurrentRequests.decrementAndGet();
+            }
+        }
+    }
+
+    static class JsonResponse extends HttpResponse {
+
+        private final byte[] body;
+        private final HttpHeaders headers = new HttpHeaders().set("Content-Type", "application/json");
+
+        JsonResponse(HttpRequest request, String body) {
+            super(request);
+            this.body = body.getBytes(UTF_8);
+        }
+
+        @Override
+        public int getStatusCode() {
+            return 200;
+        }
+
+        @Override
+        public String getHeaderValue(String name) {
+            return headers.getValue(name);
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public Flux<ByteBuffer> getBody() {
+            return Flux.just(ByteBuffer.wrap(body));
+        }
+
+        @Override
+        public Mono<byte[]> getBodyAsByteArray() {
+            return Mono.just(body);
+        }
+
+        @Override
+        public Mono<String> getBodyAsString() {
+            return Mono.just(new String(body, UTF_8));
+        }
+
+        @Override
+        public Mono<String> getBodyAsString(Charset charset) {
+            return Mono.just(new String(body, charset));
+        }
+    }
+
+    @Test
+    void should_embed_batches_concurrently_in_order() {
+
+        // given
+        StubHttpClient httpClient = new StubHttpClient();
+        AzureOpenAiEmbeddingModel model = AzureOpenAiEmbeddingModel.builder()
+                .openAIClient(clientBuilder(httpClient).buildClient())
+                .maxSegmentsPerBatch(2)
+                .parallelism(3)
+                .build();
+        List<String> texts = range(0, 9).mapToObj(i -> text(i + 1)).collect(toList());
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(texts.stream().map(TextSegment::from).collect(toList()));
+
+        // then
+        assertThat(response.content()).extracting(embedding -> embedding.vector()[0])
+                .containsExactly(1f, 2f, 3f, 4f, 5f, 6f, 7f, 8f, 9f);
+        assertThat(response.tokenUsage()).isEqualTo(new TokenUsage(18));
+        assertThat(httpClient.requests).hasSize(5).allSatisfy(input -> assertThat(input).hasSizeLessThanOrEqualTo(2));
+        assertThat(httpClient.maxConcurrentRequests.get()).isBetween(2, 3);
+    }
+
+    @Test
+    void should_embed_batches_with_async_client() {
+
+        // given
+        StubHttpClient httpClient = new StubHttpClient();
+        AzureOpenAiEmbeddingModel model = AzureOpenAiEmbeddingModel.builder()
+                .openAIAsyncClient(clientBuilder(httpClient).buildAsyncClient())
+                .maxSegmentsPerBatch(3)
+                .parallelism(2)
+                .build();
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(segments(7));
+
+        // then
+        assertThat(response.content()).extracting(embedding -> embedding.vector()[0])
+                .containsExactly(1f, 2f, 3f, 4f, 5f, 6f, 7f);
+        assertThat(response.tokenUsage()).isEqualTo(new TokenUsage(14));
+        assertThat(httpClient.requests).extracting(List::size).containsExactlyInAnyOrder(3, 3, 1);
+    }
+
+    @Test
+    void should_send_16_segments_per_batch_by_default() {
+
+        // given
+        StubHttpClient httpClient = new StubHttpClient();
+        AzureOpenAiEmbeddingModel model = AzureOpenAiEmbeddingModel.builder()
+                .openAIClient(clientBuilder(httpClient).buildClient())
+                .build();
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(segments(17));
+
+        // then
+        assertThat(response.content()).hasSize(17);
+        assertThat(httpClient.requests).extracting(List::size).containsExactly(16, 1);
+        assertThat(httpClient.maxConcurrentRequests.get()).isEqualTo(1);
+    }
+
+    private static OpenAIClientBuilder clientBuilder(HttpClient httpClient) {
+        return new OpenAIClientBuilder()
+                .endpoint(ENDPOINT)
+                .credential(new AzureKeyCredential("test-api-key"))
+                .httpClient(httpClient);
+    }
+
+    private static List<TextSegment> segments(int count) {
+        return range(0, count).mapToObj(i -> TextSegment.from(text(i + 1))).collect(toList());
+    }
+
+    private static String text(int length) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append('x');
+        }
+        return text.toString();
+    }
+}
@@ -13,6 +13,7 @@ import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
 import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelResponse;
@@ -21,8 +22,10 @@ import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 import static dev.langchain4j.internal.RetryUtils.withRetry;
+import static dev.langchain4j.model.bedrock.internal.BedrockAsyncInvocations.invokeWithRetry;
 import static java.util.stream.Collectors.joining;
 
 /**
@@ -54,9 +57,32 @@ public abstract class AbstractBedrockChatModel<T extends BedrockChatModelRespons
     private final String[] stopSequences = new String[]{};
     @Getter(lazy = true)
     private final BedrockRuntimeClient client = initClient();
+    @Getter(lazy = true)
+    private final BedrockRuntimeAsyncClient asyncClient = initAsyncClient();
 
     @Override
     public Response<AiMessage> generate(List<ChatMessage> messages) {
+        final String body = toRequestBody(messages);
+
+        InvokeModelResponse invokeModelResponse = withRetry(() -> invoke(body), maxRetries);
+        return toResponse(invokeModelResponse);
+    }
+
+    /**
+     * Generates a response with the {@link BedrockRuntimeAsyncClient}, without blocking any thread while waiting
+     * for the model. The request is attempted up to {@code maxRetries} times, with a growing delay between attempts.
+     *
+     * @param messages chat messages
+     * @return the response
+     */
+    public CompletableFuture<Response<AiMessage>> generateAsync(List<ChatMessage> messages) {
+        final String body = toRequestBody(messages);
+
+        return invokeWithRetry(getAsyncClient(), invokeModelRequest(body), maxRetries)
+                .thenApply(this::toResponse);
+    }
+
+    private String toRequestBody(List<ChatMessage> messages) {
 
         final String context = messages.stream()
                 .filter(message -> message.type() == ChatMessageType.SYSTEM)
@@ -70,9 +96,10 @@ public abstract class AbstractBedrockChatModel<T extends BedrockChatModelRespons
 
         final String prompt = String.format("%s\n\n%s\n%s", context, userMessages, ASSISTANT_PROMPT);
         final Map<String, Object> requestParameters = getRequestParameters(prompt);
-        final String body = Json.toJson(requestParameters);
+        return Json.toJson(requestParameters);
+    }
 
-        InvokeModelResponse invokeModelResponse = withRetry(() -> invoke(body), maxRetries);
+    private Response<AiMessage> toResponse(InvokeModelResponse invokeModelResponse) {
         final String response = invokeModelResponse.body().asUtf8String();
         final T result = Json.fromJson(response, getResponseClassType());
 
@@ -133,12 +160,15 @@ public abstract class AbstractBedrockChatModel<T extends BedrockChatModelRespons
      */
     protected InvokeModelResponse invoke(final String body) {
         // Invoke model
-        InvokeModelRequest invokeModelRequest = InvokeModelRequest
+        return getClient().invokeModel(invokeModelRequest(body));
+    }
+
+    private InvokeModelRequest invokeModelRequest(final String body) {
+        return InvokeModelRequest
                 .builder()
                 .modelId(getModelId())
                 .body(SdkBytes.fromString(body, Charset.defaultCharset()))
                 .build();
-        return getClient().invokeModel(invokeModelRequest);
     }
 
     /**
@@ -165,4 +195,16 @@ public abstract class AbstractBedrockChatModel<T extends BedrockChatModelRespons
                 .credentialsProvider(credentialsProvider)
                 .build();
     }
+
+    /**
+     * Initialize bedrock async client
+     *
+     * @return bedrock async client
+     */
+    private BedrockRuntimeAsyncClient initAsyncClient() {
+        return BedrockRuntimeAsyncClient.builder()
+                .region(region)
+                .credentialsProvider(credentialsProvider)
+                .build();
+    }
 }
@@ -13,6 +13,7 @@ import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.core.SdkBytes;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
 import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeClient;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
 import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelResponse;
@@ -22,12 +23,20 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static dev.langchain4j.internal.RetryUtils.withRetry;
+import static dev.langchain4j.model.bedrock.internal.BedrockAsyncInvocations.invokeAll;
+import static dev.langchain4j.model.bedrock.internal.BedrockAsyncInvocations.invokeWithRetry;
+import static dev.langchain4j.model.bedrock.internal.BedrockAsyncInvocations.join;
 
 /**
  * Abstract bedrock embedding model
+ * <p>
+ * Each request embeds a single text. When {@code maxConcurrentRequests} is greater than 1,
+ * {@link #embedAll(List)} sends up to this number of requests concurrently with a {@link BedrockRuntimeAsyncClient},
+ * see {@link #embedAllAsync(List)}. Otherwise, the requests are sent one after the other.
  */
 @SuperBuilder
 @Getter
@@ -39,11 +48,19 @@ public abstract class AbstractBedrockEmbeddingModel<T extends BedrockEmbeddingRe
     private final AwsCredentialsProvider credentialsProvider = DefaultCredentialsProvider.builder().build();
     @Getter(lazy = true)
     private final BedrockRuntimeClient client = initClient();
+    @Getter(lazy = true)
+    private final BedrockRuntimeAsyncClient asyncClient = initAsyncClient();
     @Builder.Default
     private final Integer maxRetries = 5;
+    @Builder.Default
+    private final Integer maxConcurrentRequests = 1;
 
     @Override
     public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        if (maxConcurrentRequests > 1) {
+            return join(embedAllAsync(textSegments));
+        }
+
         final List<Map<String, Object>> requestParameters = getRequestParameters(textSegments);
         final List<T> responses = requestParameters.stream()
                 .map(Json::toJson)
@@ -52,6 +69,31 @@ public abstract class AbstractBedrockEmbeddingModel<T extends BedrockEmbeddingRe
                 .map(response -> Json.fromJson(response, getResponseClassType()))
                 .collect(Collectors.toList());
 
+        return toResponse(responses);
+    }
+
+    /**
+     * Embeds the text segments with the {@link BedrockRuntimeAsyncClient}, without blocking the calling thread.
+     * Up to {@code maxConcurrentRequests} requests are in flight at once, each being attempted up to
+     * {@code maxRetries} times with a growing delay between attempts.
+     * Once a request has failed on all attempts, no more requests are sent and the returned future fails.
+     *
+     * @param textSegments Input texts to convert to embedding
+     * @return the embeddings, in the order of the text segments, and the sum of the token usages of the requests
+     */
+    public CompletableFuture<Response<List<Embedding>>> embedAllAsync(List<TextSegment> textSegments) {
+        final List<String> bodies = getRequestParameters(textSegments).stream()
+                .map(Json::toJson)
+                .collect(Collectors.toList());
+
+        return invokeAll(bodies, maxConcurrentRequests,
+                body -> invokeWithRetry(getAsyncClient(), invokeModelRequest(body), maxRetries)
+                        .thenApply(invokeModelResponse -> invokeModelResponse.body().asUtf8String())
+                        .thenApply(response -> Json.fromJson(response, getResponseClassType())))
+                .thenApply(this::toResponse);
+    }
+
+    private Response<List<Embedding>> toResponse(List<T> responses) {
         int totalInputToken = 0;
         final List<Embedding> embeddings = new ArrayList<>();
         for (T response : responses) {
@@ -94,12 +136,15 @@ public abstract class AbstractBedrockEmbeddingModel<T extends BedrockEmbeddingRe
      */
     protected InvokeModelResponse invoke(final String body) {
         // Invoke model
-        InvokeModelRequest invokeModelRequest = InvokeModelRequest
+        return getClient().invokeModel(invokeModelRequest(body));
+    }
+
+    private InvokeModelRequest invokeModelRequest(final String body) {
+        return InvokeModelRequest
                 .builder()
                 .modelId(getModelId())
                 .body(SdkBytes.fromString(body, Charset.defaultCharset()))
                 .build();
-        return getClient().invokeModel(invokeModelRequest);
     }
 
     /**
@@ -127,4 +172,16 @@ public abstract class AbstractBedrockEmbeddingModel<T extends BedrockEmbeddingRe
                 .credentialsProvider(credentialsProvider)
                 .build();
     }
+
+    /**
+     * Initialize bedrock async client
+     *
+     * @return bedrock async client
+     */
+    private BedrockRuntimeAsyncClient initAsyncClient() {
+        return BedrockRuntimeAsyncClient.builder()
+                .region(region)
+                .credentialsProvider(credentialsProvider)
+                .build();
+    }
 }
@@ -0,0 +1,180 @@
+package dev.langchain4j.model.bedrock.internal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelResponse;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static dev.langchain4j.internal.RetryUtils.DEFAULT_RETRY_POLICY;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Invokes Bedrock models with a {@link BedrockRuntimeAsyncClient}, without blocking any thread while waiting
+ * for the responses or between attempts.
+ */
+final class BedrockAsyncInvocations {
+
+    private static final Logger log = LoggerFactory.getLogger(BedrockAsyncInvocations.class);
+
+    private static final ScheduledExecutorService RETRY_SCHEDULER = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "langchain4j-bedrock-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private BedrockAsyncInvocations() {
+    }
+
+    /**
+     * Invokes a model, attempting again after a growing delay when the invocation fails,
+     * like {@link dev.langchain4j.internal.RetryUtils#withRetry} does for blocking calls.
+     *
+     * @param client      the client
+     * @param request     the request
+     * @param maxAttempts the maximum number of attempts
+     * @return the response, or the last failure wrapped in a RuntimeException
+     */
+    static CompletableFuture<InvokeModelResponse> invokeWithRetry(BedrockRuntimeAsyncClient client,
+                                                                  InvokeModelRequest request,
+                                                                  int maxAttempts) {
+        CompletableFuture<InvokeModelResponse> result = new CompletableFuture<>();
+        attempt(client, request, 1, maxAttempts, result);
+        return result;
+    }
+
+    private static void attempt(BedrockRuntimeAsyncClient client,
+                                InvokeModelRequest request,
+                                int attempt,
+                                int maxAttempts,
+                                CompletableFuture<InvokeModelResponse> result) {
+        CompletableFuture<InvokeModelResponse> invocation;
+        try {
+            invocation = client.invokeModel(request);
+        } catch (RuntimeException e) {
+            invocation = new CompletableFuture<>();
+            invocation.completeExceptionally(e);
+        }
+        invocation.whenComplete((response, error) -> {
+            if (error == null) {
+                result.complete(response);
+                return;
+            }
+            Throwable cause = unwrap(error);
+            if (attempt >= maxAttempts) {
+                result.completeExceptionally(new RuntimeException(cause));
+                return;
+            }
+            log.warn(String.format("Exception was thrown on attempt %s of %s", attempt, maxAttempts), cause);
+            RETRY_SCHEDULER.schedule(() -> attempt(client, request, attempt + 1, maxAttempts, result),
+                    DEFAULT_RETRY_POLICY.jitterDelayMillis(attempt), MILLISECONDS);
+        });
+    }
+
+    /**
+     * Invokes an asynchronous operation for each input, with at most {@code maxInFlight} operations in progress
+     * at once. Once an operation fails, no more operations are started and the result fails as well.
+     *
+     * @param inputs      the inputs
+     * @param maxInFlight the maximum number of operations in progress at once
+     * @param operation   the operation
+     * @param <I>         the type of the inputs
+     * @param <O>         the type of the outputs
+     * @return the outputs, in the order of the inputs
+     */
+    static <I, O> CompletableFuture<List<O>> invokeAll(List<I> inputs,
+                                                      int maxInFlight,
+                                                      Function<I, CompletableFuture<O>> operation) {
+        if (inputs.isEmpty()) {
+            return CompletableFuture.completedFuture(emptyList());
+        }
+        OrderedInvocations<I, O> invocations = new OrderedInvocations<>(inputs, operation);
+        for (int i = 0; i < Math.min(maxInFlight, inputs.size()); i++) {
+            invocations.invokeNext();
+        }
+        return invocations.result;
+    }
+
+    /**
+     * Waits for the result of an asynchronous invocation, throwing its failure as is.
+     */
+    static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static class OrderedInvocations<I, O> {
+
+        private final List<I> inputs;
+        private final Function<I, CompletableFuture<O>> operation;
+        private final Object[] outputs;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<List<O>> result = new CompletableFuture<>();
+
+        OrderedInvocations(List<I> inputs, Function<I, CompletableFuture<O>> operation) {
+            this.inputs = inputs;
+            this.operation = operation;
+            this.outputs = new Object[inputs.size()];
+            this.remaining = new AtomicInteger(inputs.size());
+        }
+
+        void invokeNext() {
+            int index = nextIndex.getAndIncrement();
+            if (index >= inputs.size() || result.isDone()) {
+                return;
+            }
+            CompletableFuture<O> invocation;
+            try {
+                invocation = operation.apply(inputs.get(index));
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return;
+            }
+            invocation.whenComplete((output, error) -> {
+                if (error != null) {
+                    result.completeExceptionally(unwrap(error));
+                    return;
+                }
+                outputs[index] = output;
+                if (remaining.decrementAndGet() == 0) {
+                    complete();
+                } else {
+                    invokeNext();
+                }
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete() {
+            result.complete((List<O>) Arrays.asList(outputs));
+        }
+    }
+}
@@ -9,10 +9,33 @@ import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import software.amazon.awssdk.regions.Region;
 
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class BedrockChatModelIT {
 
+    @Test
+    @Disabled("To run this test, you must have provide your own access key, secret, region")
+    void testBedrockAnthropicChatModelAsync() {
+
+        BedrockAnthropicChatModel bedrockChatModel = BedrockAnthropicChatModel
+                .builder()
+                .temperature(0.50f)
+                .maxTokens(300)
+                .region(Region.US_EAST_1)
+                .model(BedrockAnthropicChatModel.Types.AnthropicClaudeV2)
+                .maxRetries(1)
+                .build();
+
+        Response<AiMessage> response = bedrockChatModel
+                .generateAsync(singletonList(UserMessage.from("hi, how are you doing?")))
+                .join();
+
+        assertThat(response).isNotNull();
+        assertThat(response.content().text()).isNotBlank();
+        assertThat(response.finishReason()).isEqualTo(FinishReason.STOP);
+    }
+
     @Test
     @Disabled("To run this test, you must have provide your own access key, secret, region")
     void testBedrockAnthropicChatModel() {
@@ -11,6 +11,7 @@ import software.amazon.awssdk.regions.Region;
 import java.util.Collections;
 import java.util.List;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class BedrockEmbeddingIT {
@@ -47,4 +48,35 @@ public class BedrockEmbeddingIT {
         assertThat(response.finishReason()).isNull();
     }
 
+    @Test
+    @Disabled("To run this test, you must have provide your own access key, secret, region")
+    void testBedrockTitanEmbeddingModelWithConcurrentRequests() {
+
+        BedrockTitanEmbeddingModel embeddingModel = BedrockTitanEmbeddingModel
+                .builder()
+                .region(Region.US_EAST_1)
+                .maxRetries(1)
+                .maxConcurrentRequests(3)
+                .model(BedrockTitanEmbeddingModel.Types.TitanEmbedTextV1)
+                .build();
+
+        List<TextSegment> segments = asList(
+                TextSegment.from("one"),
+                TextSegment.from("two"),
+                TextSegment.from("three"),
+                TextSegment.from("four"),
+                TextSegment.from("five")
+        );
+
+        Response<List<Embedding>> response = embeddingModel.embedAll(segments);
+
+        List<Embedding> embeddings = response.content();
+        assertThat(embeddings).hasSize(5);
+        assertThat(embeddings).allSatisfy(embedding -> assertThat(embedding.vector()).hasSize(1536));
+        assertThat(embeddings.get(0).vector())
+                .isNotEqualTo(embeddings.get(4).vector());
+
+        TokenUsage tokenUsage = response.tokenUsage();
+        assertThat(tokenUsage.inputTokenCount()).isGreaterThanOrEqualTo(5);
+    }
 }
@@ -0,0 +1,174 @@
+package dev.langchain4j.model.bedrock.internal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.bedrockruntime.BedrockRuntimeAsyncClient;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelRequest;
+import software.amazon.awssdk.services.bedrockruntime.model.InvokeModelResponse;
+import software.amazon.awssdk.services.bedrockruntime.model.ThrottlingException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BedrockAsyncInvocationsTest {
+
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdownExecutor() {
+        executor.shutdown();
+    }
+
+    /**
+     * Responds to each request with its body, after the given number of throttling failures.
+     */
+    static class FakeAsyncClient implements BedrockRuntimeAsyncClient {
+
+        final AtomicInteger invocations = new AtomicInteger();
+        final int failures;
+
+        FakeAsyncClient(int failures) {
+            this.failures = failures;
+        }
+
+        @Override
+        public CompletableFuture<InvokeModelResponse> invokeModel(InvokeModelRequest request) {
+            CompletableFuture<InvokeModelResponse> response = new CompletableFuture<>();
+            if (invocations.incrementAndGet() <= failures) {
+                response.completeExceptionally(ThrottlingException.builder().message("Too many requests").build());
+            } else {
+                response.complete(InvokeModelResponse.builder().body(request.body()).build());
+            }
+            return response;
+        }
+
+        @Override
+        public String serviceName() {
+            return "bedrock-runtime";
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    @Test
+    void should_return_outputs_in_order_of_inputs() {
+
+        // given
+        List<Integer> inputs = range(0, 20).boxed().collect(toList());
+        Function<Integer, CompletableFuture<String>> operation = input -> CompletableFuture.supplyAsync(() -> {
+            sleep((20 - input) * 2);
+            return "output " + input;
+        }, executor);
+
+        // when
+        List<String> outputs = BedrockAsyncInvocations.join(BedrockAsyncInvocations.invokeAll(inputs, 5, operation));
+
+        // then
+        assertThat(outputs).isEqualTo(inputs.stream().map(input -> "output " + input).collect(toList()));
+    }
+
+    @Test
+    void should_keep_at_most_max_in_flight_operations() {
+
+        // given
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        Function<Integer, CompletableFuture<Integer>> operation = input -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return CompletableFuture.supplyAsync(() -> {
+                sleep(10);
+                inFlight.decrementAndGet();
+                return input;
+            }, executor);
+        };
+
+        // when
+        List<Integer> outputs = BedrockAsyncInvocations.join(
+                BedrockAsyncInvocations.invokeAll(range(0, 30).boxed().collect(toList()), 3, operation));
+
+        // then
+        assertThat(outputs).hasSize(30);
+        assertThat(maxInFlight.get()).isEqualTo(3);
+    }
+
+    @Test
+    void should_fail_once_an_operation_failed() {
+
+        // given
+        AtomicInteger started = new AtomicInteger();
+        Function<Integer, CompletableFuture<Integer>> operation = input -> {
+            started.incrementAndGet();
+            CompletableFuture<Integer> output = new CompletableFuture<>();
+            if (input == 1) {
+                output.completeExceptionally(new IllegalStateException("Failed " + input));
+            } else {
+                output.complete(input);
+            }
+            return output;
+        };
+
+        // then
+        assertThatThrownBy(() -> BedrockAsyncInvocations.join(
+                BedrockAsyncInvocations.invokeAll(range(0, 10).boxed().collect(toList()), 1, operation)))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("Failed 1");
+        assertThat(started).hasValue(2);
+    }
+
+    @Test
+    void should_retry_throttled_invocation() {
+
+        // given
+        FakeAsyncClient client = new FakeAsyncClient(1);
+
+        // when
+        InvokeModelResponse response = BedrockAsyncInvocations.join(
+                BedrockAsyncInvocations.invokeWithRetry(client, request("hello"), 3));
+
+        // then
+        assertThat(response.body().asUtf8String()).isEqualTo("hello");
+        assertThat(client.invocations).hasValue(2);
+    }
+
+    @Test
+    void should_fail_once_all_attempts_were_throttled() {
+
+        // given
+        FakeAsyncClient client = new FakeAsyncClient(Integer.MAX_VALUE);
+
+        // then
+        assertThatThrownBy(() -> BedrockAsyncInvocations.join(
+                BedrockAsyncInvocations.invokeWithRetry(client, request("hello"), 2)))
+                .isExactlyInstanceOf(RuntimeException.class)
+                .hasCauseExactlyInstanceOf(ThrottlingException.class);
+        assertThat(client.invocations).hasValue(2);
+    }
+
+    private static InvokeModelRequest request(String body) {
+        return InvokeModelRequest.builder()
+                .modelId("test-model")
+                .body(SdkBytes.fromUtf8String(body))
+                .build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -249,6 +249,18 @@ public class Metadata {
                 "It cannot be returned as a Double.", key, value, value.getClass().getName());
     }
 
+    /**
+     * Returns the value associated with the given key as it is stored, without any conversion.
+     * Unlike {@link #toMap()}, this method does not copy the key-value pairs.
+     *
+     * @param key the key
+     * @return the value associated with the given key, or {@code null} if the key is not present.
+     */
+    @Experimental
+    public Object getObject(String key) {
+        return metadata.get(key);
+    }
+
     /**
      * Check whether this {@code Metadata} contains a given key.
      *
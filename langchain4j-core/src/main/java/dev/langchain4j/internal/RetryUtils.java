@@ -128,6 +128,14 @@ public final class RetryUtils {
             this.backoffExp = backoffExp;
         }
 
+        /**
+         * This method returns the maximum number of attempts.
+         * @return The maximum number of attempts.
+         */
+        public int maxAttempts() {
+            return maxAttempts;
+        }
+
         /**
          * This method returns the raw delay in milliseconds for a given attempt.
          * @param attempt The attempt number.
@@ -0,0 +1,137 @@
+package dev.langchain4j.internal;
+
+import java.nio.ByteBuffer;
+
+import static dev.langchain4j.store.embedding.CosineSimilarity.EPSILON;
+
+/**
+ * The default {@link VectorKernels}, written in plain Java.
+ * <p>
+ * Loops are unrolled by four into independent accumulators. Without them, each addition would depend on the
+ * previous one, and since floating point addition is not associative, the JIT compiler could not reorder them.
+ */
+public class ScalarVectorKernels implements VectorKernels {
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public float dot(ByteBuffer a, int aOffset, float[] b, int bOffset, int length) {
+        int aIndex = aOffset * Float.BYTES;
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4, aIndex += 4 * Float.BYTES) {
+            s0 += a.getFloat(aIndex) * b[bOffset + i];
+            s1 += a.getFloat(aIndex + Float.BYTES) * b[bOffset + i + 1];
+            s2 += a.getFloat(aIndex + 2 * Float.BYTES) * b[bOffset + i + 2];
+            s3 += a.getFloat(aIndex + 3 * Float.BYTES) * b[bOffset + i + 3];
+        }
+        for (; i < length; i++, aIndex += Float.BYTES) {
+            s0 += a.getFloat(aIndex) * b[bOffset + i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public float dot(ByteBuffer a, int aOffset, ByteBuffer b, int bOffset, int length) {
+        int aIndex = aOffset * Float.BYTES;
+        int bIndex = bOffset * Float.BYTES;
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4, aIndex += 4 * Float.BYTES, bIndex += 4 * Float.BYTES) {
+            s0 += a.getFloat(aIndex) * b.getFloat(bIndex);
+            s1 += a.getFloat(aIndex + Float.BYTES) * b.getFloat(bIndex + Float.BYTES);
+            s2 += a.getFloat(aIndex + 2 * Float.BYTES) * b.getFloat(bIndex + 2 * Float.BYTES);
+            s3 += a.getFloat(aIndex + 3 * Float.BYTES) * b.getFloat(bIndex + 3 * Float.BYTES);
+        }
+        for (; i < length; i++, aIndex += Float.BYTES, bIndex += Float.BYTES) {
+            s0 += a.getFloat(aIndex) * b.getFloat(bIndex);
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    @Override
+    public int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        int s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+            s1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            s2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            s3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            s0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return s0 + s1 + s2 + s3;
+    }
+
+    @Override
+    public float cosineSimilarity(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float dot0 = 0, dot1 = 0, normA0 = 0, normA1 = 0, normB0 = 0, normB1 = 0;
+        int i = 0;
+        for (int bound = length & ~1; i < bound; i += 2) {
+            float a0 = a[aOffset + i], a1 = a[aOffset + i + 1];
+            float b0 = b[bOffset + i], b1 = b[bOffset + i + 1];
+            dot0 += a0 * b0;
+            dot1 += a1 * b1;
+            normA0 += a0 * a0;
+            normA1 += a1 * a1;
+            normB0 += b0 * b0;
+            normB1 += b1 * b1;
+        }
+        for (; i < length; i++) {
+            float a0 = a[aOffset + i], b0 = b[bOffset + i];
+            dot0 += a0 * b0;
+            normA0 += a0 * a0;
+            normB0 += b0 * b0;
+        }
+        return cosineSimilarity(dot0 + dot1, normA0 + normA1, normB0 + normB1);
+    }
+
+    @Override
+    public float squaredEuclideanDistance(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float s0 = 0, s1 = 0, s2 = 0, s3 = 0;
+        int i = 0;
+        for (int bound = length & ~3; i < bound; i += 4) {
+            float d0 = a[aOffset + i] - b[bOffset + i];
+            float d1 = a[aOffset + i + 1] - b[bOffset + i + 1];
+            float d2 = a[aOffset + i + 2] - b[bOffset + i + 2];
+            float d3 = a[aOffset + i + 3] - b[bOffset + i + 3];
+            s0 += d0 * d0;
+            s1 += d1 * d1;
+            s2 += d2 * d2;
+            s3 += d3 * d3;
+        }
+        for (; i < length; i++) {
+            float d = a[aOffset + i] - b[bOffset + i];
+            s0 += d * d;
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+
+    /**
+     * Combines the sums of a cosine similarity kernel, avoiding division by zero.
+     *
+     * @param dot   the dot product
+     * @param normA the squared norm of the first vector
+     * @param normB the squared norm of the second vector
+     * @return the cosine similarity
+     */
+    public static float cosineSimilarity(float dot, float normA, float normB) {
+        return (float) (dot / Math.max(Math.sqrt(normA) * Math.sqrt(normB), EPSILON));
+    }
+}
@@ -0,0 +1,91 @@
+package dev.langchain4j.internal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Similarity kernels over ranges of vectors stored in arrays or buffers.
+ * <p>
+ * Implementations are not required to check the bounds of the ranges beyond what array and buffer accesses do,
+ * callers go through {@link Vectors}, which validates the lengths of whole vectors.
+ *
+ * @see ScalarVectorKernels
+ * @see dev.langchain4j.spi.vector.VectorKernelsFactory
+ */
+public interface VectorKernels {
+
+    /**
+     * Calculates the dot product of {@code a[aOffset, aOffset + length)} and {@code b[bOffset, bOffset + length)}.
+     *
+     * @param a       first vector
+     * @param aOffset offset of the first component in {@code a}
+     * @param b       second vector
+     * @param bOffset offset of the first component in {@code b}
+     * @param length  number of components
+     * @return the dot product
+     */
+    float dot(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Calculates the dot product of a range of components stored in a buffer, typically a direct or mapped one,
+     * and a range of components of an array.
+     * Components are read from the buffer at absolute positions, in the byte order of the buffer.
+     *
+     * @param a       first vector
+     * @param aOffset offset of the first component in {@code a}, in floats
+     * @param b       second vector
+     * @param bOffset offset of the first component in {@code b}
+     * @param length  number of components
+     * @return the dot product
+     */
+    float dot(ByteBuffer a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Calculates the dot product of two ranges of components stored in buffers.
+     *
+     * @param a       first vector
+     * @param aOffset offset of the first component in {@code a}, in floats
+     * @param b       second vector
+     * @param bOffset offset of the first component in {@code b}, in floats
+     * @param length  number of components
+     * @return the dot product
+     * @see #dot(ByteBuffer, int, float[], int, int)
+     */
+    float dot(ByteBuffer a, int aOffset, ByteBuffer b, int bOffset, int length);
+
+    /**
+     * Calculates the dot product of two ranges of quantized components.
+     *
+     * @param a       first vector
+     * @param aOffset offset of the first component in {@code a}
+     * @param b       second vector
+     * @param bOffset offset of the first component in {@code b}
+     * @param length  number of components
+     * @return the dot product
+     */
+    int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length);
+
+    /**
+     * Calculates the cosine similarity of two ranges of components, in a single pass.
+     * Ranges of all zeros are orthogonal to all other ranges.
+     *
+     * @param a       first vector
+     * @param aOffset offset of the first component in {@code a}
+     * @param b       second vector
+     * @param bOffset offset of the first component in {@code b}
+     * @param length  number of components
+     * @return the cosine similarity in the range [-1..1]
+     */
+    float cosineSimilarity(float[] a, int aOffset, float[] b, int bOffset, int length);
+
+    /**
+     * Calculates the squared Euclidean (L2) distance between two ranges of components.
+     *
+     * @param a       first vector
+     * @param aOffset offset of the first component in {@code a}
+     * @param b       second vector
+     * @param bOffset offset of the first component in {@code b}
+     * @param length  number of components
+     * @return the squared Euclidean distance
+     */
+    float squaredEuclideanDistance(float[] a, int aOffset, float[] b, int bOffset, int length);
+}
@@ -0,0 +1,118 @@
+package dev.langchain4j.internal;
+
+import dev.langchain4j.spi.vector.VectorKernelsFactory;
+
+import java.nio.ByteBuffer;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+import static dev.langchain4j.spi.ServiceHelper.loadFactories;
+
+/**
+ * The single entry point of the similarity kernels used by embedding stores, classifiers and aggregators.
+ * <p>
+ * By default, the kernels are {@link ScalarVectorKernels}. Faster implementations, for example using SIMD
+ * instructions of newer JDKs, can be provided through {@link VectorKernelsFactory}.
+ */
+public class Vectors {
+    private Vectors() {
+    }
+
+    private static final VectorKernels KERNELS = loadKernels();
+
+    private static VectorKernels loadKernels() {
+        for (VectorKernelsFactory factory : loadFactories(VectorKernelsFactory.class)) {
+            VectorKernels kernels = factory.create();
+            if (kernels != null) {
+                return kernels;
+            }
+        }
+        return new ScalarVectorKernels();
+    }
+
+    /**
+     * @return the kernels in use.
+     */
+    public static VectorKernels kernels() {
+        return KERNELS;
+    }
+
+    /**
+     * Calculates the dot product of two vectors.
+     *
+     * @param a first vector
+     * @param b second vector
+     * @return the dot product
+     */
+    public static float dot(float[] a, float[] b) {
+        ensureSameLength(a.length, b.length);
+        return KERNELS.dot(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Calculates the dot product of two ranges of components.
+     *
+     * @see VectorKernels#dot(float[], int, float[], int, int)
+     */
+    public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        return KERNELS.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Calculates the dot product of a range of components stored in a buffer and a range of components of an array.
+     *
+     * @see VectorKernels#dot(ByteBuffer, int, float[], int, int)
+     */
+    public static float dot(ByteBuffer a, int aOffset, float[] b, int bOffset, int length) {
+        return KERNELS.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Calculates the dot product of two ranges of components stored in buffers.
+     *
+     * @see VectorKernels#dot(ByteBuffer, int, ByteBuffer, int, int)
+     */
+    public static float dot(ByteBuffer a, int aOffset, ByteBuffer b, int bOffset, int length) {
+        return KERNELS.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Calculates the dot product of two ranges of quantized components.
+     *
+     * @see VectorKernels#dot(byte[], int, byte[], int, int)
+     */
+    public static int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        return KERNELS.dot(a, aOffset, b, bOffset, length);
+    }
+
+    /**
+     * Calculates the cosine similarity of two vectors.
+     * Vectors of all zeros are orthogonal to all other vectors.
+     *
+     * @param a first vector
+     * @param b second vector
+     * @return the cosine similarity in the range [-1..1]
+     */
+    public static float cosineSimilarity(float[] a, float[] b) {
+        ensureSameLength(a.length, b.length);
+        return KERNELS.cosineSimilarity(a, 0, b, 0, a.length);
+    }
+
+    /**
+     * Calculates the squared Euclidean (L2) distance between two vectors.
+     *
+     * @param a first vector
+     * @param b second vector
+     * @return the squared Euclidean distance
+     */
+    public static float squaredEuclideanDistance(float[] a, float[] b) {
+        ensureSameLength(a.length, b.length);
+        return KERNELS.squaredEuclideanDistance(a, 0, b, 0, a.length);
+    }
+
+    private static void ensureSameLength(int lengthA, int lengthB) {
+        if (lengthA != lengthB) {
+            throw illegalArgument("Length of vector a (%s) must be equal to the length of vector b (%s)",
+                    lengthA, lengthB);
+        }
+    }
+}
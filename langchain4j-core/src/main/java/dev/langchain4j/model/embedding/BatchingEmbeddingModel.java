@@ -0,0 +1,205 @@
+package dev.langchain4j.model.embedding;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import lombok.Builder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static dev.langchain4j.internal.Utils.getOrDefault;
+import static dev.langchain4j.internal.ValidationUtils.ensureEq;
+import static dev.langchain4j.internal.ValidationUtils.ensureGreaterThanZero;
+import static dev.langchain4j.internal.ValidationUtils.ensureNotNull;
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * An {@link EmbeddingModel} splitting the segments given to {@link #embedAll(List)} into batches
+ * that fit the limits of the model it delegates to, and reassembling the embeddings in the order of the segments.
+ * <p>
+ * Consecutive segments are grouped into batches of at most {@code maxSegmentsPerBatch} segments
+ * and, when a {@link TokenCountEstimator} is available, of at most {@code maxTokensPerBatch} tokens.
+ * A segment exceeding {@code maxTokensPerBatch} on its own is sent in a batch of its own.
+ * By default, tokens are estimated by the delegate if it implements {@link TokenCountEstimator},
+ * otherwise only the number of segments is limited.
+ * <p>
+ * Up to {@code parallelism} batches are embedded concurrently: the calling thread embeds batches as well,
+ * other batches are embedded on the {@code executor}. Once a batch fails, no more batches are sent,
+ * and the failure is thrown once the batches in progress complete.
+ * The token usage of the response is the sum of the token usages of all batches.
+ * The delegate is not called when there are no segments.
+ * <p>
+ * Provider modules use this class to enforce the limits of their API, see for example
+ * {@code OpenAiEmbeddingModel} or {@code VertexAiEmbeddingModel}.
+ */
+public class BatchingEmbeddingModel implements EmbeddingModel {
+
+    private final EmbeddingModel delegate;
+    private final int maxSegmentsPerBatch;
+    private final int maxTokensPerBatch;
+    private final TokenCountEstimator tokenCountEstimator;
+    private final int parallelism;
+    private final Executor executor;
+
+    /**
+     * Creates a batching embedding model.
+     *
+     * @param delegate            The model embedding each batch.
+     * @param maxSegmentsPerBatch The maximum number of segments sent to the delegate at once. Default: unlimited
+     * @param maxTokensPerBatch   The maximum number of tokens sent to the delegate at once,
+     *                            only enforced when a token count estimator is available. Default: unlimited
+     * @param tokenCountEstimator Estimates the number of tokens of each segment.
+     *                            Default: the delegate, if it is a {@link TokenCountEstimator}
+     * @param parallelism         The maximum number of batches embedded concurrently. Default: 1
+     * @param executor            The executor embedding batches concurrently with the calling thread.
+     *                            Default: a pool of {@code parallelism - 1} daemon threads, stopped when idle
+     */
+    @Builder
+    public BatchingEmbeddingModel(EmbeddingModel delegate,
+                                  Integer maxSegmentsPerBatch,
+                                  Integer maxTokensPerBatch,
+                                  TokenCountEstimator tokenCountEstimator,
+                                  Integer parallelism,
+                                  Executor executor) {
+        this.delegate = ensureNotNull(delegate, "delegate");
+        this.maxSegmentsPerBatch = ensureGreaterThanZero(
+                getOrDefault(maxSegmentsPerBatch, Integer.MAX_VALUE), "maxSegmentsPerBatch");
+        this.maxTokensPerBatch = ensureGreaterThanZero(
+                getOrDefault(maxTokensPerBatch, Integer.MAX_VALUE), "maxTokensPerBatch");
+        if (tokenCountEstimator == null && delegate instanceof TokenCountEstimator) {
+            tokenCountEstimator = (TokenCountEstimator) delegate;
+        }
+        this.tokenCountEstimator = tokenCountEstimator;
+        this.parallelism = ensureGreaterThanZero(getOrDefault(parallelism, 1), "parallelism");
+        if (executor == null && this.parallelism > 1) {
+            executor = newExecutor(this.parallelism - 1);
+        }
+        this.executor = executor;
+    }
+
+    private static Executor newExecutor(int threadCount) {
+        AtomicInteger createdThreads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 60, SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "langchain4j-embedding-" + createdThreads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        ensureNotNull(textSegments, "textSegments");
+
+        List<List<TextSegment>> batches = groupByBatches(textSegments);
+        if (batches.isEmpty()) {
+            return Response.from(emptyList());
+        }
+        if (batches.size() == 1) {
+            return delegate.embedAll(batches.get(0));
+        }
+
+        Embedding[] embeddings = new Embedding[textSegments.size()];
+        int[] offsets = new int[batches.size()];
+        for (int i = 1; i < batches.size(); i++) {
+            offsets[i] = offsets[i - 1] + batches.get(i - 1).size();
+        }
+        TokenUsage[] tokenUsages = new TokenUsage[batches.size()];
+        AtomicInteger nextBatch = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        // each worker embeds batches until none is left, the calling thread being one of them
+        Runnable worker = () -> {
+            int index;
+            while (failure.get() == null && (index = nextBatch.getAndIncrement()) < batches.size()) {
+                try {
+                    List<TextSegment> batch = batches.get(index);
+                    Response<List<Embedding>> response = delegate.embedAll(batch);
+                    List<Embedding> batchEmbeddings = response.content();
+                    ensureEq(batchEmbeddings.size(), batch.size(),
+                            "Expected %s embeddings, but got %s", batch.size(), batchEmbeddings.size());
+                    for (int i = 0; i < batchEmbeddings.size(); i++) {
+                        embeddings[offsets[index] + i] = batchEmbeddings.get(i);
+                    }
+                    tokenUsages[index] = response.tokenUsage();
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        };
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 1; i < Math.min(parallelism, batches.size()); i++) {
+            workers.add(CompletableFuture.runAsync(worker, executor));
+        }
+        worker.run();
+        for (CompletableFuture<Void> other : workers) {
+            try {
+                other.join();
+            } catch (CompletionException e) {
+                failure.compareAndSet(null, e.getCause());
+            }
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new RuntimeException(error);
+        }
+
+        TokenUsage tokenUsage = null;
+        for (TokenUsage batchTokenUsage : tokenUsages) {
+            if (batchTokenUsage != null) {
+                tokenUsage = tokenUsage == null ? batchTokenUsage : tokenUsage.add(batchTokenUsage);
+            }
+        }
+        return Response.from(Arrays.asList(embeddings), tokenUsage);
+    }
+
+    /**
+     * Groups consecutive segments into batches, so that each batch fits the limits.
+     *
+     * @param textSegments the segments.
+     * @return the batches, in the order of the segments.
+     */
+    List<List<TextSegment>> groupByBatches(List<TextSegment> textSegments) {
+        if (textSegments.isEmpty()) {
+            return emptyList();
+        }
+        boolean countsTokens = tokenCountEstimator != null && maxTokensPerBatch != Integer.MAX_VALUE;
+        if (textSegments.size() <= maxSegmentsPerBatch && !countsTokens) {
+            return singletonList(textSegments);
+        }
+        List<List<TextSegment>> batches = new ArrayList<>();
+        int batchStart = 0;
+        long batchTokenCount = 0;
+        for (int i = 0; i < textSegments.size(); i++) {
+            int tokenCount = countsTokens ? tokenCountEstimator.estimateTokenCount(textSegments.get(i)) : 0;
+            if (i > batchStart
+                    && (i - batchStart == maxSegmentsPerBatch || batchTokenCount + tokenCount > maxTokensPerBatch)) {
+                batches.add(textSegments.subList(batchStart, i));
+                batchStart = i;
+                batchTokenCount = 0;
+            }
+            batchTokenCount += tokenCount;
+        }
+        batches.add(textSegments.subList(batchStart, textSegments.size()));
+        return batches;
+    }
+}
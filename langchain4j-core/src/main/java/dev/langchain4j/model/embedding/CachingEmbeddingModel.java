@@ -0,0 +1,232 @@
+package dev.langchain4j.model.embedding;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import lombok.Builder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dev.langchain4j.internal.Utils.getOrDefault;
+import static dev.langchain4j.internal.ValidationUtils.ensureEq;
+import static dev.langchain4j.internal.ValidationUtils.ensureGreaterThanZero;
+import static dev.langchain4j.internal.ValidationUtils.ensureNotBlank;
+import static dev.langchain4j.internal.ValidationUtils.ensureNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * An {@link EmbeddingModel} caching the embeddings computed by another model,
+ * so that texts that have already been embedded are not sent to the model again.
+ * <p>
+ * Embeddings are keyed by the SHA-256 hash of the {@code modelId} and of the text of the segment,
+ * metadata is ignored. The {@code maxCacheSize} most recently used embeddings are kept in memory.
+ * When a {@code cacheFile} is set, along with a {@code modelId}, all embeddings are also appended to this file and survive restarts,
+ * see {@link EmbeddingCacheFile}. Embeddings missing from memory are then looked up in the file.
+ * <p>
+ * {@link #embedAll(List)} only sends the segments missing from the cache to the model, each distinct text once,
+ * and returns all embeddings in the order of the segments.
+ * The token usage of the response is the one reported by the model for the missing segments,
+ * or zero tokens if all embeddings were found in the cache.
+ * <p>
+ * This class is thread-safe. Concurrent calls missing the same text may both send it to the model.
+ */
+public class CachingEmbeddingModel implements EmbeddingModel, AutoCloseable {
+
+    private final EmbeddingModel delegate;
+    private final String modelId;
+    private final Map<Key, float[]> memoryCache;
+    private final EmbeddingCacheFile cacheFile;
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+
+    /**
+     * Creates a caching embedding model.
+     *
+     * @param delegate     The model computing the embeddings missing from the cache.
+     * @param modelId      Identifies the model and its settings in the cache keys, so that a cache file
+     *                     can be shared by several models. Mandatory when a {@code cacheFile} is set,
+     *                     as embeddings computed with other settings would be returned otherwise.
+     *                     Default: the class name of the delegate
+     * @param maxCacheSize The maximum number of embeddings kept in memory. Default: 10000
+     * @param cacheFile    The file embeddings are appended to, created if it does not exist. Default: none
+     */
+    @Builder
+    public CachingEmbeddingModel(EmbeddingModel delegate, String modelId, Integer maxCacheSize, Path cacheFile) {
+        this.delegate = ensureNotNull(delegate, "delegate");
+        this.modelId = cacheFile == null
+                ? getOrDefault(modelId, delegate.getClass().getName())
+                : ensureNotBlank(modelId, "modelId");
+        int capacity = ensureGreaterThanZero(getOrDefault(maxCacheSize, 10_000), "maxCacheSize");
+        this.memoryCache = new LinkedHashMap<Key, float[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, float[]> eldest) {
+                return size() > capacity;
+            }
+        };
+        if (cacheFile == null) {
+            this.cacheFile = null;
+        } else {
+            try {
+                this.cacheFile = EmbeddingCacheFile.open(cacheFile);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        ensureNotNull(textSegments, "textSegments");
+
+        Embedding[] embeddings = new Embedding[textSegments.size()];
+        Map<Key, List<Integer>> missingIndices = new LinkedHashMap<>();
+        List<TextSegment> missingSegments = new ArrayList<>();
+        for (int i = 0; i < textSegments.size(); i++) {
+            TextSegment segment = textSegments.get(i);
+            Key key = key(segment.text());
+            float[] vector = get(key);
+            if (vector != null) {
+                hitCount.incrementAndGet();
+                embeddings[i] = Embedding.from(vector);
+                continue;
+            }
+            missCount.incrementAndGet();
+            List<Integer> indices = missingIndices.get(key);
+            if (indices == null) {
+                indices = new ArrayList<>();
+                missingIndices.put(key, indices);
+                missingSegments.add(segment);
+            }
+            indices.add(i);
+        }
+
+        if (missingSegments.isEmpty()) {
+            return Response.from(Arrays.asList(embeddings), new TokenUsage(0));
+        }
+
+        Response<List<Embedding>> response = delegate.embedAll(missingSegments);
+        List<Embedding> computed = response.content();
+        ensureEq(computed.size(), missingSegments.size(),
+                "Expected %s embeddings, but got %s", missingSegments.size(), computed.size());
+        int i = 0;
+        for (Map.Entry<Key, List<Integer>> entry : missingIndices.entrySet()) {
+            float[] vector = computed.get(i++).vector();
+            put(entry.getKey(), vector);
+            for (int index : entry.getValue()) {
+                embeddings[index] = Embedding.from(vector.clone());
+            }
+        }
+        return Response.from(Arrays.asList(embeddings), response.tokenUsage(), response.finishReason());
+    }
+
+    /**
+     * Returns a copy of the cached vector, so that callers normalizing their embedding do not alter the cache.
+     */
+    private float[] get(Key key) {
+        float[] vector;
+        synchronized (memoryCache) {
+            vector = memoryCache.get(key);
+        }
+        if (vector == null && cacheFile != null) {
+            vector = cacheFile.get(key);
+            if (vector != null) {
+                synchronized (memoryCache) {
+                    memoryCache.put(key, vector);
+                }
+            }
+        }
+        return vector == null ? null : vector.clone();
+    }
+
+    private void put(Key key, float[] vector) {
+        float[] copy = vector.clone();
+        synchronized (memoryCache) {
+            memoryCache.put(key, copy);
+        }
+        if (cacheFile != null) {
+            try {
+                cacheFile.put(key, copy);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private Key key(String text) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(modelId.getBytes(UTF_8));
+        digest.update((byte) 0);
+        return new Key(digest.digest(text.getBytes(UTF_8)));
+    }
+
+    /**
+     * @return The number of segments whose embedding was found in memory or in the cache file.
+     */
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+    /**
+     * @return The number of segments whose embedding was not found in the cache.
+     */
+    public long missCount() {
+        return missCount.get();
+    }
+
+    /**
+     * Closes the cache file, if any. The model must not be used afterwards.
+     */
+    @Override
+    public void close() {
+        if (cacheFile != null) {
+            try {
+                cacheFile.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * The SHA-256 hash of a model ID and a text.
+     */
+    static class Key {
+
+        static final int SIZE = 32;
+
+        final byte[] bytes;
+        private final int hashCode;
+
+        Key(byte[] bytes) {
+            this.bytes = bytes;
+            this.hashCode = Arrays.hashCode(bytes);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            return Arrays.equals(bytes, ((Key) o).bytes);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package dev.langchain4j.model.embedding;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import lombok.Builder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static dev.langchain4j.internal.Utils.getOrDefault;
+import static dev.langchain4j.internal.ValidationUtils.ensureEq;
+import static dev.langchain4j.internal.ValidationUtils.ensureGreaterThanZero;
+import static dev.langchain4j.internal.ValidationUtils.ensureNotNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * An {@link EmbeddingModel} coalescing concurrent calls to {@link #embed(TextSegment)} into calls to
+ * {@link EmbeddingModel#embedAll(List)} of the model it delegates to, e.g. when many concurrent queries are
+ * embedded by an {@code EmbeddingStoreContentRetriever}.
+ * <p>
+ * The segments to embed are collected into a window, which is sent to the delegate as a single batch
+ * once it holds {@code maxBatchSize} segments, or {@code maxWait} after its first segment was added,
+ * whichever comes first. No caller therefore waits more than {@code maxWait} before its segment is sent.
+ * Batches are sent on the {@code executor}, and each caller receives its own embedding.
+ * If the batch fails, each of its callers receives the failure.
+ * <p>
+ * The responses of coalesced calls carry no token usage, as the delegate only reports it for the whole batch.
+ * {@link #embedAll(List)} is not coalesced, it calls the delegate directly.
+ * <p>
+ * This class is thread-safe. It should be closed once it is no longer used, to stop its threads.
+ */
+public class CoalescingEmbeddingModel implements EmbeddingModel, AutoCloseable {
+
+    private final EmbeddingModel delegate;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final ScheduledExecutorService scheduler;
+    private final Executor executor;
+    private final ExecutorService ownExecutor;
+    private final AtomicLong batchCount = new AtomicLong();
+
+    private final Object lock = new Object();
+    private List<PendingEmbedding> window = new ArrayList<>();
+    private boolean closed;
+
+    /**
+     * Creates a coalescing embedding model.
+     *
+     * @param delegate     The model embedding each batch of coalesced segments.
+     * @param maxBatchSize The maximum number of segments sent to the delegate at once. Default: 64
+     * @param maxWait      The maximum time a segment waits for other segments before being sent. Default: 5 ms
+     * @param executor     The executor sending batches to the delegate.
+     *                     Default: a pool of daemon threads, created as needed and stopped when idle
+     */
+    @Builder
+    public CoalescingEmbeddingModel(EmbeddingModel delegate, Integer maxBatchSize, Duration maxWait, Executor executor) {
+        this.delegate = ensureNotNull(delegate, "delegate");
+        this.maxBatchSize = ensureGreaterThanZero(getOrDefault(maxBatchSize, 64), "maxBatchSize");
+        this.maxWaitNanos = getOrDefault(maxWait, Duration.ofMillis(5)).toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("langchain4j-coalescing-timer-"));
+        this.ownExecutor = executor == null ? Executors.newCachedThreadPool(daemonThreads("langchain4j-coalescing-")) : null;
+        this.executor = executor == null ? ownExecutor : executor;
+    }
+
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @Override
+    public Response<Embedding> embed(TextSegment textSegment) {
+        try {
+            return embedAsync(textSegment).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    /**
+     * Embeds the text content of a TextSegment, along with the segments of concurrent calls.
+     *
+     * @param textSegment the text segment to embed.
+     * @return the embedding, completed once the batch of the segment is embedded,
+     * or failed with an {@link IllegalStateException} if the model is closed.
+     */
+    public CompletableFuture<Response<Embedding>> embedAsync(TextSegment textSegment) {
+        PendingEmbedding pending = new PendingEmbedding(ensureNotNull(textSegment, "textSegment"));
+        List<PendingEmbedding> fullWindow = null;
+        synchronized (lock) {
+            if (closed) {
+                pending.future.completeExceptionally(new IllegalStateException("The model is closed"));
+                return pending.future;
+            }
+            window.add(pending);
+            if (window.size() >= maxBatchSize) {
+                fullWindow = window;
+                window = new ArrayList<>();
+            } else if (window.size() == 1) {
+                List<PendingEmbedding> newWindow = window;
+                scheduler.schedule(() -> flush(newWindow), maxWaitNanos, NANOSECONDS);
+            }
+        }
+        if (fullWindow != null) {
+            dispatch(fullWindow);
+        }
+        return pending.future;
+    }
+
+    /**
+     * Sends the window once its maximum wait has elapsed, unless it was sent already because it was full.
+     */
+    private void flush(List<PendingEmbedding> expiredWindow) {
+        synchronized (lock) {
+            if (window != expiredWindow) {
+                return;
+            }
+            window = new ArrayList<>();
+        }
+        dispatch(expiredWindow);
+    }
+
+    private void dispatch(List<PendingEmbedding> batch) {
+        try {
+            executor.execute(() -> embedBatch(batch));
+        } catch (RejectedExecutionException e) {
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+    }
+
+    private void embedBatch(List<PendingEmbedding> batch) {
+        batchCount.incrementAndGet();
+        try {
+            List<TextSegment> segments = batch.stream().map(pending -> pending.segment).collect(toList());
+            List<Embedding> embeddings = delegate.embedAll(segments).content();
+            ensureEq(embeddings.size(), batch.size(),
+                    "Expected %s embeddings, but got %s", batch.size(), embeddings.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).future.complete(Response.from(embeddings.get(i)));
+            }
+        } catch (Throwable e) {
+            batch.forEach(pending -> pending.future.completeExceptionally(e));
+        }
+    }
+
+    @Override
+    public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        return delegate.embedAll(textSegments);
+    }
+
+    /**
+     * @return The number of batches of coalesced segments sent to the delegate.
+     */
+    public long batchCount() {
+        return batchCount.get();
+    }
+
+    /**
+     * Stops the threads of the model. The segments waiting to be sent are sent beforehand,
+     * and segments embedded afterwards fail.
+     */
+    @Override
+    public void close() {
+        List<PendingEmbedding> remaining;
+        synchronized (lock) {
+            closed = true;
+            remaining = window;
+            window = new ArrayList<>();
+        }
+        if (!remaining.isEmpty()) {
+            dispatch(remaining);
+        }
+        scheduler.shutdownNow();
+        if (ownExecutor != null) {
+            ownExecutor.shutdown();
+        }
+    }
+
+    private static class PendingEmbedding {
+
+        final TextSegment segment;
+        final CompletableFuture<Response<Embedding>> future = new CompletableFuture<>();
+
+        PendingEmbedding(TextSegment segment) {
+            this.segment = segment;
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package dev.langchain4j.model.embedding;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * The disk tier of {@link CachingEmbeddingModel}: an append-only file of embeddings keyed by content hash.
+ * <p>
+ * The file starts with a magic number and a format version, followed by one record per embedding:
+ * the 32 bytes of the key, the int32 dimension and the float32 components. All numbers are little-endian.
+ * Only the offsets of the records are kept on the heap. Records are read through memory-mapped regions of
+ * {@link #REGION_SIZE} bytes and never cross the boundary of a region: when a record does not fit into
+ * the rest of a region, a padding record with a dimension of -1 is written there, and the record is appended
+ * at the start of the next region.
+ * A record that was only partially written when the process crashed is discarded when the file is opened.
+ * <p>
+ * The mapping of the last region only extends to the end of the file when it was mapped.
+ * Records appended afterwards are read from the file, until they make up {@code 1/16} of a region
+ * and the region is mapped again.
+ * <p>
+ * Reads can run concurrently with appends, appends are serialized.
+ */
+class EmbeddingCacheFile {
+
+    static final int REGION_SIZE = 1 << 30;
+
+    private static final int MAGIC = 0x4C34454D;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int RECORD_HEADER_SIZE = CachingEmbeddingModel.Key.SIZE + Integer.BYTES;
+    private static final int PADDING_DIMENSION = -1;
+
+    private final FileChannel channel;
+    private final int regionSize;
+    private final Map<CachingEmbeddingModel.Key, Long> offsets = new ConcurrentHashMap<>();
+    private final Object mappingLock = new Object();
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+    private volatile long size;
+
+    private EmbeddingCacheFile(FileChannel channel, int regionSize) {
+        this.channel = channel;
+        this.regionSize = regionSize;
+    }
+
+    static EmbeddingCacheFile open(Path path) throws IOException {
+        return open(path, REGION_SIZE);
+    }
+
+    static EmbeddingCacheFile open(Path path, int regionSize) throws IOException {
+        FileChannel channel = FileChannel.open(path, CREATE, READ, WRITE);
+        try {
+            EmbeddingCacheFile file = new EmbeddingCacheFile(channel, regionSize);
+            file.load(path);
+            return file;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private void load(Path path) throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(LITTLE_ENDIAN);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            write(header, 0);
+            size = HEADER_SIZE;
+            return;
+        }
+        size = fileSize;
+        ByteBuffer header = read(0, HEADER_SIZE);
+        if (header.getInt(0) != MAGIC || header.getInt(Integer.BYTES) != VERSION) {
+            throw illegalArgument("%s is not an embedding cache file of version %s", path, VERSION);
+        }
+
+        // the end of the last complete record, the file is truncated there
+        long end = HEADER_SIZE;
+        long offset = HEADER_SIZE;
+        while (true) {
+            if (offset % regionSize + RECORD_HEADER_SIZE > regionSize) {
+                offset = nextRegion(offset);
+            }
+            if (offset + RECORD_HEADER_SIZE > fileSize) {
+                break;
+            }
+            int position = (int) (offset % regionSize);
+            ByteBuffer recordHeader = read(offset, RECORD_HEADER_SIZE);
+            int dimension = recordHeader.getInt(CachingEmbeddingModel.Key.SIZE);
+            if (dimension == PADDING_DIMENSION) {
+                offset = nextRegion(offset);
+                continue;
+            }
+            long recordSize = RECORD_HEADER_SIZE + (long) dimension * Float.BYTES;
+            if (dimension <= 0 || position + recordSize > regionSize) {
+                // the record was never completed, its length is garbage: the next regions cannot be trusted
+                break;
+            }
+            if (offset + recordSize > fileSize) {
+                break;
+            }
+            byte[] key = new byte[CachingEmbeddingModel.Key.SIZE];
+            recordHeader.get(key);
+            offsets.put(new CachingEmbeddingModel.Key(key), offset);
+            offset += recordSize;
+            end = offset;
+        }
+        if (end < fileSize) {
+            channel.truncate(end);
+            size = end;
+        }
+    }
+
+    private long nextRegion(long offset) {
+        return offset + regionSize - offset % regionSize;
+    }
+
+    private static int recordSize(int dimension) {
+        return RECORD_HEADER_SIZE + dimension * Float.BYTES;
+    }
+
+    /**
+     * @return The number of embeddings in the file.
+     */
+    int size() {
+        return offsets.size();
+    }
+
+    /**
+     * @return The vector stored for the key, or {@code null} if there is none.
+     */
+    float[] get(CachingEmbeddingModel.Key key) {
+        Long offset = offsets.get(key);
+        if (offset == null) {
+            return null;
+        }
+        int dimension = read(offset, RECORD_HEADER_SIZE).getInt(CachingEmbeddingModel.Key.SIZE);
+        ByteBuffer record = read(offset, recordSize(dimension));
+        float[] vector = new float[dimension];
+        int index = RECORD_HEADER_SIZE;
+        for (int i = 0; i < dimension; i++, index += Float.BYTES) {
+            vector[i] = record.getFloat(index);
+        }
+        return vector;
+    }
+
+    /**
+     * Appends the vector, unless the file already contains one for the key.
+     */
+    synchronized void put(CachingEmbeddingModel.Key key, float[] vector) throws IOException {
+        if (offsets.containsKey(key)) {
+            return;
+        }
+        int recordSize = recordSize(vector.length);
+        if (recordSize > regionSize) {
+            throw illegalArgument("An embedding of dimension %s does not fit into a region of the cache file",
+                    vector.length);
+        }
+        ByteBuffer record = ByteBuffer.allocate(recordSize).order(LITTLE_ENDIAN);
+        record.put(key.bytes).putInt(vector.length);
+        for (float component : vector) {
+            record.putFloat(component);
+        }
+        record.flip();
+
+        long offset = size;
+        if (offset % regionSize + recordSize > regionSize) {
+            if (offset % regionSize + RECORD_HEADER_SIZE <= regionSize) {
+                ByteBuffer padding = ByteBuffer.allocate(RECORD_HEADER_SIZE).order(LITTLE_ENDIAN);
+                padding.position(CachingEmbeddingModel.Key.SIZE);
+                padding.putInt(PADDING_DIMENSION).flip();
+                write(padding, offset);
+            }
+            offset = nextRegion(offset);
+        }
+        write(record, offset);
+        size = offset + recordSize;
+        offsets.put(key, offset);
+    }
+
+    private void write(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Reads {@code length} bytes at the given offset, from the mapping of their region if it covers them,
+     * or from the file otherwise.
+     *
+     * @return A little-endian buffer starting at the offset.
+     */
+    private ByteBuffer read(long offset, int length) {
+        int position = (int) (offset % regionSize);
+        ByteBuffer region = region((int) (offset / regionSize), position + length);
+        if (region != null) {
+            ByteBuffer buffer = region.duplicate();
+            buffer.position(position).limit(position + length);
+            return buffer.slice().order(LITTLE_ENDIAN);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(LITTLE_ENDIAN);
+        try {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, offset + buffer.position()) < 0) {
+                    throw new EOFException();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Returns the mapping of the region if it extends to {@code end}. The region is mapped up to the end of the file
+     * when it was not mapped yet, and mapped again once it is complete or the bytes appended to it since it was mapped
+     * make up 1/16 of a region.
+     *
+     * @return The mapping, or {@code null} if the bytes up to {@code end} must be read from the file.
+     */
+    private ByteBuffer region(int index, int end) {
+        MappedByteBuffer[] regions = this.regions;
+        if (index < regions.length && regions[index] != null && regions[index].capacity() >= end) {
+            return regions[index];
+        }
+        synchronized (mappingLock) {
+            regions = this.regions;
+            int mappedSize = index < regions.length && regions[index] != null ? regions[index].capacity() : 0;
+            if (mappedSize >= end) {
+                return regions[index];
+            }
+            long start = (long) index * regionSize;
+            int availableSize = (int) Math.min(size - start, regionSize);
+            if (availableSize < end) {
+                return null;
+            }
+            if (mappedSize > 0 && availableSize < regionSize && availableSize - mappedSize < regionSize / 16) {
+                return null;
+            }
+            regions = Arrays.copyOf(regions, Math.max(regions.length, index + 1));
+            try {
+                regions[index] = channel.map(FileChannel.MapMode.READ_ONLY, start, availableSize);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            regions[index].order(LITTLE_ENDIAN);
+            this.regions = regions;
+            return regions[index];
+        }
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+}
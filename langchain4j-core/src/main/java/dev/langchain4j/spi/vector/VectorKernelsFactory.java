@@ -0,0 +1,15 @@
+package dev.langchain4j.spi.vector;
+
+import dev.langchain4j.internal.VectorKernels;
+
+/**
+ * A factory for creating {@link VectorKernels} instances through SPI.
+ */
+public interface VectorKernelsFactory {
+    /**
+     * Create a new {@link VectorKernels}.
+     * @return the new {@link VectorKernels}, or {@code null} if they are not supported by the current runtime,
+     * in which case the next factory, or the scalar kernels, are used.
+     */
+    VectorKernels create();
+}
@@ -0,0 +1,165 @@
+package dev.langchain4j.store.embedding;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.internal.RetryUtils.RetryPolicy;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Embeds and stores the batches of segments of a single ingestion performed by an {@link EmbeddingStoreIngestor},
+ * notifies the listeners and counts what was done.
+ * <p>
+ * When a stage fails, only this stage is attempted again, as long as the {@code retryPolicy} allows it:
+ * a batch whose storage fails is not embedded again. Once all attempts have failed, the batch is handed to the
+ * {@code deadLetterHandler}, if any, and the ingestion goes on. Otherwise, the last failure is thrown.
+ * <p>
+ * This class is thread-safe, batches can be processed concurrently.
+ */
+class BatchIngestion {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchIngestion.class);
+
+    private final EmbeddingModel embeddingModel;
+    private final EmbeddingStore<TextSegment> embeddingStore;
+    private final List<IngestionListener> listeners;
+    private final RetryPolicy retryPolicy;
+    private final BiConsumer<List<TextSegment>, Throwable> deadLetterHandler;
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger documentCount = new AtomicInteger();
+    private final AtomicInteger addedCount = new AtomicInteger();
+    private final AtomicInteger failedCount = new AtomicInteger();
+    private TokenUsage tokenUsage;
+
+    BatchIngestion(EmbeddingModel embeddingModel,
+                   EmbeddingStore<TextSegment> embeddingStore,
+                   List<IngestionListener> listeners,
+                   RetryPolicy retryPolicy,
+                   BiConsumer<List<TextSegment>, Throwable> deadLetterHandler) {
+        this.embeddingModel = embeddingModel;
+        this.embeddingStore = embeddingStore;
+        this.listeners = listeners;
+        this.retryPolicy = retryPolicy;
+        this.deadLetterHandler = deadLetterHandler;
+    }
+
+    void documentsIngested(int count) {
+        documentCount.addAndGet(count);
+    }
+
+    void documentsTransformed(List<Document> documents) {
+        notifyListeners(listener -> listener.onDocumentsTransformed(documents));
+    }
+
+    void segmentsSplit(List<TextSegment> segments) {
+        notifyListeners(listener -> listener.onSegmentsSplit(segments));
+    }
+
+    /**
+     * @return the IDs of the embeddings, or null if the batch was dead-lettered.
+     */
+    List<String> embedAndStore(List<TextSegment> batch) {
+        List<Embedding> embeddings = embed(batch);
+        return embeddings == null ? null : store(batch, embeddings);
+    }
+
+    /**
+     * @return the embeddings, or null if the batch was dead-lettered.
+     */
+    List<Embedding> embed(List<TextSegment> batch) {
+        return attempt(batch, () -> {
+            long start = System.nanoTime();
+            Response<List<Embedding>> response = embeddingModel.embedAll(batch);
+            Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            addTokenUsage(response.tokenUsage());
+            notifyListeners(listener -> listener.onBatchEmbedded(batch, response.tokenUsage(), latency));
+            return response.content();
+        });
+    }
+
+    /**
+     * @return the IDs of the embeddings, or null if the batch was dead-lettered.
+     */
+    List<String> store(List<TextSegment> batch, List<Embedding> embeddings) {
+        List<String> embeddingIds = attempt(batch, () -> {
+            long start = System.nanoTime();
+            List<String> ids = embeddingStore.addAll(embeddings, batch);
+            Duration latency = Duration.ofNanos(System.nanoTime() - start);
+            notifyListeners(listener -> listener.onBatchStored(batch, ids, latency));
+            return ids;
+        });
+        if (embeddingIds != null) {
+            addedCount.addAndGet(batch.size());
+        }
+        return embeddingIds;
+    }
+
+    private <T> T attempt(List<TextSegment> batch, Supplier<T> stage) {
+        int maxAttempts = retryPolicy == null ? 1 : retryPolicy.maxAttempts();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return stage.get();
+            } catch (RuntimeException e) {
+                int failedAttempt = attempt;
+                notifyListeners(listener -> listener.onBatchFailed(batch, e, failedAttempt));
+                if (attempt < maxAttempts) {
+                    retryPolicy.sleep(attempt);
+                    continue;
+                }
+                if (deadLetterHandler == null) {
+                    throw e;
+                }
+                deadLetterHandler.accept(batch, e);
+                failedCount.addAndGet(batch.size());
+                return null;
+            }
+        }
+    }
+
+    private synchronized void addTokenUsage(TokenUsage batchTokenUsage) {
+        if (batchTokenUsage != null) {
+            tokenUsage = tokenUsage == null ? batchTokenUsage : tokenUsage.add(batchTokenUsage);
+        }
+    }
+
+    IngestionSummary complete(int skippedCount, int removedCount, int keptStaleCount) {
+        TokenUsage totalTokenUsage;
+        synchronized (this) {
+            totalTokenUsage = tokenUsage;
+        }
+        IngestionSummary summary = new IngestionSummary(
+                documentCount.get(),
+                addedCount.get(),
+                skippedCount,
+                removedCount,
+                keptStaleCount,
+                failedCount.get(),
+                totalTokenUsage,
+                Duration.ofNanos(System.nanoTime() - startNanos)
+        );
+        notifyListeners(listener -> listener.onIngestionCompleted(summary));
+        return summary;
+    }
+
+    private void notifyListeners(Consumer<IngestionListener> event) {
+        for (IngestionListener listener : listeners) {
+            try {
+                event.accept(listener);
+            } catch (RuntimeException e) {
+                log.warn("Ingestion listener {} failed", listener, e);
+            }
+        }
+    }
+}
@@ -4,8 +4,12 @@ import dev.langchain4j.Experimental;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.store.embedding.filter.Filter;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
+import static java.util.Collections.singletonList;
+
 /**
  * Represents a store for embeddings, also known as a vector database.
  *
@@ -55,6 +59,38 @@ public interface EmbeddingStore<Embedded> {
      */
     List<String> addAll(List<Embedding> embeddings, List<Embedded> embedded);
 
+    /**
+     * Removes a single embedding from the store by ID.
+     *
+     * @param id The unique identifier of the embedding to be removed.
+     */
+    @Experimental
+    default void remove(String id) {
+        removeAll(singletonList(id));
+    }
+
+    /**
+     * Removes all embeddings with the given IDs from the store.
+     * IDs that are not present in the store are ignored.
+     *
+     * @param ids A collection of unique identifiers of the embeddings to be removed.
+     */
+    @Experimental
+    default void removeAll(Collection<String> ids) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
+    /**
+     * Removes all embeddings whose {@link dev.langchain4j.data.document.Metadata} matches the given {@link Filter}
+     * from the store.
+     *
+     * @param filter The filter to be applied to the metadata of the embedded content.
+     */
+    @Experimental
+    default void removeAll(Filter filter) {
+        throw new UnsupportedOperationException("Not implemented");
+    }
+
     /**
      * Searches for the most similar (closest in the embedding space) {@link Embedding}s.
      * <br>
@@ -73,6 +109,26 @@ public interface EmbeddingStore<Embedded> {
         return new EmbeddingSearchResult<>(matches);
     }
 
+    /**
+     * Performs several searches at once, for example for all queries produced by a
+     * {@link dev.langchain4j.rag.query.transformer.QueryTransformer}.
+     * <br>
+     * By default, {@link #search(EmbeddingSearchRequest)} is called for each request.
+     * Implementations can override this method to process all requests in a single pass over the data
+     * or in a single round trip to the database.
+     *
+     * @param requests Requests to search in an {@link EmbeddingStore}.
+     * @return An {@link EmbeddingSearchResult} for each request, in the same order as the requests.
+     */
+    @Experimental
+    default List<EmbeddingSearchResult<Embedded>> searchAll(List<EmbeddingSearchRequest> requests) {
+        List<EmbeddingSearchResult<Embedded>> results = new ArrayList<>(requests.size());
+        for (EmbeddingSearchRequest request : requests) {
+            results.add(search(request));
+        }
+        return results;
+    }
+
     /**
      * Finds the most relevant (closest in space) embeddings to the provided reference embedding.
      * By default, minScore is set to 0, which means that the results may include embeddings with low relevance.
@@ -3,15 +3,42 @@ package dev.langchain4j.store.embedding;
 import dev.langchain4j.data.document.Document;
 import dev.langchain4j.data.document.DocumentSplitter;
 import dev.langchain4j.data.document.DocumentTransformer;
-import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.data.segment.TextSegmentTransformer;
+import dev.langchain4j.internal.RetryUtils.RetryPolicy;
 import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.IngestionManifest.DocumentRecord;
+import dev.langchain4j.store.embedding.IngestionManifest.SegmentRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+import static dev.langchain4j.internal.Utils.generateUUIDFrom;
+import static dev.langchain4j.internal.Utils.getOrDefault;
+import static dev.langchain4j.internal.ValidationUtils.ensureGreaterThanZero;
 import static dev.langchain4j.internal.ValidationUtils.ensureNotNull;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 
 /**
@@ -22,14 +49,52 @@ import static java.util.Collections.singletonList;
  * Optionally, it can also transform documents before splitting them, which can be useful if you want
  * to clean your data, format it differently, etc.
  * Additionally, it can optionally transform segments after they have been split.
+ * <p>
+ * When an {@link IngestionManifest} is set, ingestion is incremental: each document is identified
+ * using the {@code documentIdProvider} and hashed along with its metadata. Unchanged documents are skipped
+ * without being transformed or split. The segments of changed documents are hashed as well:
+ * only new or changed segments are embedded and added to the store, and the segments that no longer exist
+ * are removed from it. When the store does not support removal, they are kept in the store and in the manifest,
+ * and reported by {@link IngestionSummary#keptStaleCount()}.
+ * Documents must be ingested again with a new manifest when the transformers or the splitter change.
+ * <p>
+ * Large or unbounded collections of documents can be streamed using {@link #ingest(Iterator)}:
+ * documents are transformed and split on an {@code executor}, their segments are embedded in batches of
+ * {@code embeddingBatchSize}, up to {@code embeddingParallelism} batches at a time, and stored as soon as
+ * they are embedded. Each stage waits for the next one to catch up, so the memory used does not depend
+ * on the number of documents.
+ * <p>
+ * {@link IngestionListener}s are notified as documents are transformed and split, and as batches of segments
+ * are embedded and stored. Each ingestion returns an {@link IngestionSummary}, with its duration and throughput.
+ * Segments are embedded and stored in batches of {@code embeddingBatchSize} segments.
+ * A batch failing to be embedded or stored fails the whole ingestion, unless a {@code batchRetryPolicy}
+ * allows it to be attempted again, or a {@code deadLetterHandler} is set: the batch is then handed to it
+ * once all attempts have failed, and the ingestion goes on with the next batches.
+ * In incremental ingestions, the manifest is updated as batches complete, and a document with dead-lettered
+ * segments keeps its previous segments in the store: it is ingested again next time.
+ * A manifest kept in a file is written at the end of each ingestion, whether it succeeds or fails,
+ * and every 30 seconds during long ingestions.
  */
 public class EmbeddingStoreIngestor {
 
+    private static final Logger log = LoggerFactory.getLogger(EmbeddingStoreIngestor.class);
+
+    private static final long MANIFEST_SAVE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
     private final DocumentTransformer documentTransformer;
     private final DocumentSplitter documentSplitter;
     private final TextSegmentTransformer textSegmentTransformer;
     private final EmbeddingModel embeddingModel;
     private final EmbeddingStore<TextSegment> embeddingStore;
+    private final IngestionManifest manifest;
+    private final Function<Document, String> documentIdProvider;
+    private final Executor executor;
+    private final int embeddingBatchSize;
+    private final int embeddingParallelism;
+    private final int maxPendingDocuments;
+    private final List<IngestionListener> listeners;
+    private final RetryPolicy batchRetryPolicy;
+    private final BiConsumer<List<TextSegment>, Throwable> deadLetterHandler;
 
     /**
      * Creates a new EmbeddingStoreIngestor.
@@ -44,43 +109,395 @@ public class EmbeddingStoreIngestor {
                                   TextSegmentTransformer textSegmentTransformer,
                                   EmbeddingModel embeddingModel,
                                   EmbeddingStore<TextSegment> embeddingStore) {
+        this(documentTransformer, documentSplitter, textSegmentTransformer, embeddingModel, embeddingStore,
+                null, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Creates a new EmbeddingStoreIngestor.
+     * @param documentTransformer the document transformer to use, or null if no transformation is needed.
+     * @param documentSplitter the document splitter to use.
+     * @param textSegmentTransformer the text segment transformer to use, or null if no transformation is needed.
+     * @param embeddingModel the embedding model to use.
+     * @param embeddingStore the embedding store to use.
+     * @param manifest the manifest to ingest incrementally with, or null to always ingest everything.
+     * @param documentIdProvider identifies documents in the manifest, or null to identify them
+     *                           by their file path or URL.
+     * @param executor the executor running the stages of {@link #ingest(Iterator)}, or null to use
+     *                 a thread pool created for each ingestion.
+     * @param embeddingBatchSize the number of segments embedded at once. Default: 128
+     * @param embeddingParallelism the maximum number of batches embedded or stored concurrently
+     *                             by {@link #ingest(Iterator)}. Default: 4
+     * @param maxPendingDocuments the maximum number of documents transformed and split concurrently
+     *                            by {@link #ingest(Iterator)}. Default: twice the number of available processors
+     * @param listeners the listeners notified of the progress of ingestions, or null if there are none.
+     * @param batchRetryPolicy the policy retrying the embedding or the storage of a batch that failed,
+     *                         or null to never retry.
+     * @param deadLetterHandler receives the batches that failed all attempts, along with the last failure,
+     *                          or null to fail the ingestion instead.
+     */
+    public EmbeddingStoreIngestor(DocumentTransformer documentTransformer,
+                                  DocumentSplitter documentSplitter,
+                                  TextSegmentTransformer textSegmentTransformer,
+                                  EmbeddingModel embeddingModel,
+                                  EmbeddingStore<TextSegment> embeddingStore,
+                                  IngestionManifest manifest,
+                                  Function<Document, String> documentIdProvider,
+                                  Executor executor,
+                                  Integer embeddingBatchSize,
+                                  Integer embeddingParallelism,
+                                  Integer maxPendingDocuments,
+                                  List<IngestionListener> listeners,
+                                  RetryPolicy batchRetryPolicy,
+                                  BiConsumer<List<TextSegment>, Throwable> deadLetterHandler) {
         this.documentTransformer = documentTransformer;
         this.documentSplitter = ensureNotNull(documentSplitter, "documentSplitter");
         this.textSegmentTransformer = textSegmentTransformer;
         this.embeddingModel = ensureNotNull(embeddingModel, "embeddingModel");
         this.embeddingStore = ensureNotNull(embeddingStore, "embeddingStore");
+        this.manifest = manifest;
+        this.documentIdProvider = getOrDefault(documentIdProvider, EmbeddingStoreIngestor::defaultDocumentId);
+        this.executor = executor;
+        this.embeddingBatchSize = ensureGreaterThanZero(getOrDefault(embeddingBatchSize, 128), "embeddingBatchSize");
+        this.embeddingParallelism = ensureGreaterThanZero(getOrDefault(embeddingParallelism, 4), "embeddingParallelism");
+        this.maxPendingDocuments = ensureGreaterThanZero(
+                getOrDefault(maxPendingDocuments, 2 * Runtime.getRuntime().availableProcessors()), "maxPendingDocuments");
+        this.listeners = listeners == null ? emptyList() : new ArrayList<>(listeners);
+        this.batchRetryPolicy = batchRetryPolicy;
+        this.deadLetterHandler = deadLetterHandler;
+    }
+
+    private static String defaultDocumentId(Document document) {
+        String fileName = document.metadata().getString(Document.FILE_NAME);
+        if (fileName != null) {
+            String directory = document.metadata().getString(Document.ABSOLUTE_DIRECTORY_PATH);
+            return directory == null ? fileName : directory + "/" + fileName;
+        }
+        String url = document.metadata().getString(Document.URL);
+        if (url != null) {
+            return url;
+        }
+        throw illegalArgument("The document has neither a file name nor a URL in its metadata, " +
+                "a documentIdProvider is needed to identify it");
     }
 
     /**
      * Ingests a single document.
      * @param document the document.
+     * @return the summary of the ingestion.
      */
-    public void ingest(Document document) {
-        ingest(singletonList(document));
+    public IngestionSummary ingest(Document document) {
+        return ingest(singletonList(document));
     }
 
     /**
      * Ingests multiple documents.
      * @param documents the documents.
+     * @return the summary of the ingestion.
      */
-    public void ingest(Document... documents) {
-        ingest(asList(documents));
+    public IngestionSummary ingest(Document... documents) {
+        return ingest(asList(documents));
     }
 
     /**
      * Ingests multiple documents.
      * @param documents the documents.
+     * @return the summary of the ingestion.
      */
-    public void ingest(List<Document> documents) {
+    public IngestionSummary ingest(List<Document> documents) {
+        BatchIngestion batches = newBatchIngestion();
+        batches.documentsIngested(documents.size());
+        if (manifest != null) {
+            return ingestIncrementally(documents, batches);
+        }
         if (documentTransformer != null) {
             documents = documentTransformer.transformAll(documents);
+            batches.documentsTransformed(documents);
         }
         List<TextSegment> segments = documentSplitter.splitAll(documents);
         if (textSegmentTransformer != null) {
             segments = textSegmentTransformer.transformAll(segments);
         }
-        List<Embedding> embeddings = embeddingModel.embedAll(segments).content();
-        embeddingStore.addAll(embeddings, segments);
+        batches.segmentsSplit(segments);
+        for (int start = 0; start < segments.size(); start += embeddingBatchSize) {
+            batches.embedAndStore(segments.subList(start, Math.min(start + embeddingBatchSize, segments.size())));
+        }
+        return batches.complete(0, 0, 0);
+    }
+
+    /**
+     * Ingests a stream of documents, overlapping their transformation and splitting,
+     * the embedding of their segments and the storage of the embeddings.
+     * <p>
+     * Segments are stored in the order their documents are split, which may differ from the order of the documents.
+     * If a stage fails, no more documents are pulled, and the failure is thrown once the batches in progress
+     * complete. Batches stored before the failure are kept in the store.
+     * Failed batches can be retried or dead-lettered instead, see {@link EmbeddingStoreIngestor}.
+     * Incremental ingestion is not supported.
+     *
+     * @param documents the documents, pulled as the pipeline progresses.
+     * @return the summary of the ingestion.
+     */
+    public IngestionSummary ingest(Iterator<Document> documents) {
+        ensureNotNull(documents, "documents");
+        if (manifest != null) {
+            throw new IllegalStateException("Streamed documents cannot be ingested incrementally");
+        }
+        BatchIngestion batches = newBatchIngestion();
+        ExecutorService ownExecutor = executor == null ? newExecutor() : null;
+        try {
+            new IngestionPipeline(
+                    document -> split(document, batches),
+                    batches,
+                    executor == null ? ownExecutor : executor,
+                    embeddingBatchSize,
+                    embeddingParallelism,
+                    maxPendingDocuments
+            ).run(documents);
+            return batches.complete(0, 0, 0);
+        } finally {
+            if (ownExecutor != null) {
+                ownExecutor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Ingests a stream of documents, see {@link #ingest(Iterator)}.
+     *
+     * @param documents the documents, consumed as the pipeline progresses.
+     * @return the summary of the ingestion.
+     */
+    public IngestionSummary ingest(Stream<Document> documents) {
+        ensureNotNull(documents, "documents");
+        return ingest(documents.iterator());
+    }
+
+    private BatchIngestion newBatchIngestion() {
+        return new BatchIngestion(embeddingModel, embeddingStore, listeners, batchRetryPolicy, deadLetterHandler);
+    }
+
+    /**
+     * Creates a pool with enough threads for all pending documents and batches.
+     */
+    private ExecutorService newExecutor() {
+        AtomicInteger threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(maxPendingDocuments + embeddingParallelism, runnable -> {
+            Thread thread = new Thread(runnable, "langchain4j-ingestion-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private IngestionSummary ingestIncrementally(List<Document> documents, BatchIngestion batches) {
+        synchronized (manifest) {
+            // when a document is given several times, only the last one is ingested
+            Map<String, Document> documentsById = new LinkedHashMap<>();
+            for (Document document : documents) {
+                documentsById.put(ensureNotNull(documentIdProvider.apply(document), "documentId"), document);
+            }
+
+            List<ChangedDocument> changedDocuments = new ArrayList<>();
+            List<TextSegment> newSegments = new ArrayList<>();
+            int skippedCount = 0;
+            for (Map.Entry<String, Document> entry : documentsById.entrySet()) {
+                Document document = entry.getValue();
+                String documentHash = hash(document.text(), document.metadata().toMap());
+                DocumentRecord record = manifest.get(entry.getKey());
+                if (record != null && record.hash.equals(documentHash)) {
+                    skippedCount += record.segments.size();
+                    continue;
+                }
+
+                // previous segments, by hash, in case the same segment occurs several times
+                Map<String, Deque<SegmentRecord>> previousSegments = new HashMap<>();
+                if (record != null) {
+                    for (SegmentRecord segment : record.segments) {
+                        previousSegments.computeIfAbsent(segment.hash, hash -> new ArrayDeque<>()).add(segment);
+                    }
+                }
+
+                List<TextSegment> segments = split(document, batches);
+                ChangedDocument changedDocument = new ChangedDocument(entry.getKey(), documentHash, segments.size());
+                for (int i = 0; i < segments.size(); i++) {
+                    TextSegment segment = segments.get(i);
+                    String segmentHash = hash(segment.text(), segment.metadata().toMap());
+                    changedDocument.segmentHashes.add(segmentHash);
+                    Deque<SegmentRecord> previous = previousSegments.get(segmentHash);
+                    if (previous != null && !previous.isEmpty()) {
+                        changedDocument.embeddingIds[i] = previous.poll().embeddingId;
+                        skippedCount++;
+                    } else {
+                        changedDocument.newSegmentIndices[i] = newSegments.size();
+                        newSegments.add(segment);
+                    }
+                }
+                changedDocument.newSegmentsEnd = newSegments.size();
+                previousSegments.values().forEach(changedDocument.staleSegments::addAll);
+                changedDocuments.add(changedDocument);
+            }
+
+            // the new segments are embedded and stored in batches, each changed document being recorded
+            // in the manifest once all the batches holding its new segments are done
+            String[] newEmbeddingIds = new String[newSegments.size()];
+            Iterator<ChangedDocument> pendingDocuments = changedDocuments.iterator();
+            ChangedDocument pendingDocument = pendingDocuments.hasNext() ? pendingDocuments.next() : null;
+            boolean removalSupported = true;
+            int removedCount = 0;
+            int keptStaleCount = 0;
+            // the manifest is written once per ingestion, and periodically while long ingestions go on,
+            // so that the documents completed before a failure are not ingested again
+            long lastSave = System.nanoTime();
+            try {
+                for (int start = 0; start <= newSegments.size(); start += embeddingBatchSize) {
+                    int end = Math.min(start + embeddingBatchSize, newSegments.size());
+                    if (start < end) {
+                        List<String> embeddingIds = batches.embedAndStore(newSegments.subList(start, end));
+                        if (embeddingIds != null) {
+                            for (int i = start; i < end; i++) {
+                                newEmbeddingIds[i] = embeddingIds.get(i - start);
+                            }
+                        }
+                    }
+
+                    List<ChangedDocument> completedDocuments = new ArrayList<>();
+                    List<String> staleEmbeddingIds = new ArrayList<>();
+                    while (pendingDocument != null && pendingDocument.newSegmentsEnd <= end) {
+                        if (pendingDocument.resolveNewEmbeddingIds(newEmbeddingIds)) {
+                            pendingDocument.staleSegments.forEach(segment -> staleEmbeddingIds.add(segment.embeddingId));
+                        }
+                        completedDocuments.add(pendingDocument);
+                        pendingDocument = pendingDocuments.hasNext() ? pendingDocuments.next() : null;
+                    }
+
+                    // stale segments are removed before the manifest forgets them, and kept in it when they can't be
+                    boolean staleSegmentsRemoved = false;
+                    if (!staleEmbeddingIds.isEmpty() && removalSupported) {
+                        try {
+                            embeddingStore.removeAll(staleEmbeddingIds);
+                            removedCount += staleEmbeddingIds.size();
+                            staleSegmentsRemoved = true;
+                        } catch (UnsupportedOperationException e) {
+                            log.warn("{} does not support removal, stale segments are kept in the store and in the manifest",
+                                    embeddingStore.getClass().getName());
+                            removalSupported = false;
+                        }
+                    }
+                    if (!staleSegmentsRemoved) {
+                        keptStaleCount += staleEmbeddingIds.size();
+                    }
+                    for (ChangedDocument completedDocument : completedDocuments) {
+                        manifest.put(completedDocument.id, completedDocument.toRecord(staleSegmentsRemoved));
+                    }
+                    if (System.nanoTime() - lastSave >= MANIFEST_SAVE_INTERVAL_NANOS) {
+                        manifest.save();
+                        lastSave = System.nanoTime();
+                    }
+                }
+            } finally {
+                manifest.save();
+            }
+            return batches.complete(skippedCount, removedCount, keptStaleCount);
+        }
+    }
+
+    private List<TextSegment> split(Document document, BatchIngestion batches) {
+        if (documentTransformer != null) {
+            document = documentTransformer.transform(document);
+            if (document == null) {
+                return Collections.emptyList();
+            }
+            batches.documentsTransformed(singletonList(document));
+        }
+        List<TextSegment> segments = documentSplitter.split(document);
+        if (textSegmentTransformer != null) {
+            segments = textSegmentTransformer.transformAll(segments);
+        }
+        batches.segmentsSplit(segments);
+        return segments;
+    }
+
+    private static String hash(String text, Map<String, Object> metadata) {
+        return generateUUIDFrom(text + new TreeMap<>(metadata));
+    }
+
+    /**
+     * A document whose hash is not the one in the manifest, with the embedding IDs of its segments
+     * that are already in the store.
+     */
+    private static class ChangedDocument {
+
+        /**
+         * Never equal to the hash of a document, so that a document recorded with it is ingested again.
+         */
+        static final String INCOMPLETE_HASH = "";
+
+        final String id;
+        final String hash;
+        final List<String> segmentHashes;
+        final String[] embeddingIds;
+        /**
+         * The index of each segment within the segments to embed, or -1 if it is already in the store.
+         */
+        final int[] newSegmentIndices;
+        /**
+         * The index following the last segment of this document within the segments to embed.
+         */
+        int newSegmentsEnd;
+        /**
+         * The previous segments of this document that no longer exist.
+         */
+        final List<SegmentRecord> staleSegments = new ArrayList<>();
+        boolean complete = true;
+
+        ChangedDocument(String id, String hash, int segmentCount) {
+            this.id = id;
+            this.hash = hash;
+            this.segmentHashes = new ArrayList<>(segmentCount);
+            this.embeddingIds = new String[segmentCount];
+            this.newSegmentIndices = new int[segmentCount];
+            Arrays.fill(newSegmentIndices, -1);
+        }
+
+        /**
+         * Resolves the IDs of the new segments of this document once they have been embedded and stored.
+         *
+         * @param newEmbeddingIds the IDs of the new segments, null for the dead-lettered ones.
+         * @return whether all the segments of this document are in the store.
+         */
+        boolean resolveNewEmbeddingIds(String[] newEmbeddingIds) {
+            for (int i = 0; i < embeddingIds.length; i++) {
+                if (newSegmentIndices[i] != -1) {
+                    embeddingIds[i] = newEmbeddingIds[newSegmentIndices[i]];
+                }
+                if (embeddingIds[i] == null) {
+                    complete = false;
+                }
+            }
+            return complete;
+        }
+
+        /**
+         * Creates the record of this document, with the segments that are in the store.
+         * <p>
+         * When some of them were dead-lettered, the document is recorded as incomplete: it is ingested again
+         * next time, and only the missing segments are embedded then.
+         *
+         * @param staleSegmentsRemoved whether the stale segments of this document were removed from the store.
+         * @return the record.
+         */
+        DocumentRecord toRecord(boolean staleSegmentsRemoved) {
+            List<SegmentRecord> segments = new ArrayList<>(embeddingIds.length);
+            for (int i = 0; i < embeddingIds.length; i++) {
+                if (embeddingIds[i] != null) {
+                    segments.add(new SegmentRecord(segmentHashes.get(i), embeddingIds[i]));
+                }
+            }
+            if (!complete || !staleSegmentsRemoved) {
+                segments.addAll(staleSegments);
+            }
+            return new DocumentRecord(complete ? hash : INCOMPLETE_HASH, segments);
+        }
     }
 
     /**
@@ -101,6 +518,15 @@ public class EmbeddingStoreIngestor {
         private TextSegmentTransformer textSegmentTransformer;
         private EmbeddingModel embeddingModel;
         private EmbeddingStore<TextSegment> embeddingStore;
+        private IngestionManifest manifest;
+        private Function<Document, String> documentIdProvider;
+        private Executor executor;
+        private Integer embeddingBatchSize;
+        private Integer embeddingParallelism;
+        private Integer maxPendingDocuments;
+        private final List<IngestionListener> listeners = new ArrayList<>();
+        private RetryPolicy batchRetryPolicy;
+        private BiConsumer<List<TextSegment>, Throwable> deadLetterHandler;
 
         /**
          * Creates a new EmbeddingStoreIngestor builder.
@@ -159,6 +585,115 @@ public class EmbeddingStoreIngestor {
             return this;
         }
 
+        /**
+         * Sets the manifest, making ingestion incremental.
+         * Use {@link IngestionManifest#load(java.nio.file.Path)} to keep it in a file across runs.
+         * @param manifest the manifest.
+         * @return {@code this}
+         */
+        public Builder manifest(IngestionManifest manifest) {
+            this.manifest = manifest;
+            return this;
+        }
+
+        /**
+         * Sets how documents are identified in the manifest.
+         * By default, they are identified by their file path or their URL.
+         * @param documentIdProvider the function returning the ID of a document.
+         * @return {@code this}
+         */
+        public Builder documentIdProvider(Function<Document, String> documentIdProvider) {
+            this.documentIdProvider = documentIdProvider;
+            return this;
+        }
+
+        /**
+         * Sets the executor running the stages of {@link EmbeddingStoreIngestor#ingest(Iterator)}.
+         * By default, a thread pool is created for each ingestion.
+         * @param executor the executor.
+         * @return {@code this}
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the number of segments embedded and stored at once.
+         * @param embeddingBatchSize the batch size. Default: 128
+         * @return {@code this}
+         */
+        public Builder embeddingBatchSize(Integer embeddingBatchSize) {
+            this.embeddingBatchSize = embeddingBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of batches embedded or stored concurrently
+         * by {@link EmbeddingStoreIngestor#ingest(Iterator)}.
+         * @param embeddingParallelism the maximum number of concurrent batches. Default: 4
+         * @return {@code this}
+         */
+        public Builder embeddingParallelism(Integer embeddingParallelism) {
+            this.embeddingParallelism = embeddingParallelism;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of documents transformed and split concurrently
+         * by {@link EmbeddingStoreIngestor#ingest(Iterator)}.
+         * @param maxPendingDocuments the maximum number of pending documents.
+         *                            Default: twice the number of available processors
+         * @return {@code this}
+         */
+        public Builder maxPendingDocuments(Integer maxPendingDocuments) {
+            this.maxPendingDocuments = maxPendingDocuments;
+            return this;
+        }
+
+        /**
+         * Adds a listener notified of the progress of ingestions.
+         * @param listener the listener.
+         * @return {@code this}
+         */
+        public Builder listener(IngestionListener listener) {
+            this.listeners.add(ensureNotNull(listener, "listener"));
+            return this;
+        }
+
+        /**
+         * Adds listeners notified of the progress of ingestions.
+         * @param listeners the listeners.
+         * @return {@code this}
+         */
+        public Builder listeners(List<IngestionListener> listeners) {
+            ensureNotNull(listeners, "listeners").forEach(this::listener);
+            return this;
+        }
+
+        /**
+         * Sets the policy retrying the embedding or the storage of a batch that failed.
+         * Only the stage that failed is attempted again. By default, batches are not retried.
+         * @param batchRetryPolicy the retry policy, see {@link dev.langchain4j.internal.RetryUtils#retryPolicyBuilder()}.
+         * @return {@code this}
+         */
+        public Builder batchRetryPolicy(RetryPolicy batchRetryPolicy) {
+            this.batchRetryPolicy = batchRetryPolicy;
+            return this;
+        }
+
+        /**
+         * Sets the handler receiving the batches that failed all attempts, along with the last failure.
+         * The ingestion then goes on with the next batches, and the segments of the failed batches are counted in
+         * {@link IngestionSummary#failedCount()}. By default, a failed batch fails the whole ingestion.
+         * @param deadLetterHandler the handler.
+         * @return {@code this}
+         */
+        public Builder deadLetterHandler(BiConsumer<List<TextSegment>, Throwable> deadLetterHandler) {
+            this.deadLetterHandler = deadLetterHandler;
+            return this;
+        }
+
         /**
          * Builds the EmbeddingStoreIngestor.
          * @return the EmbeddingStoreIngestor.
@@ -169,7 +704,16 @@ public class EmbeddingStoreIngestor {
                     documentSplitter,
                     textSegmentTransformer,
                     embeddingModel,
-                    embeddingStore
+                    embeddingStore,
+                    manifest,
+                    documentIdProvider,
+                    executor,
+                    embeddingBatchSize,
+                    embeddingParallelism,
+                    maxPendingDocuments,
+                    listeners,
+                    batchRetryPolicy,
+                    deadLetterHandler
             );
         }
     }
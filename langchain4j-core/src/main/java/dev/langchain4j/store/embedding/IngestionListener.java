@@ -0,0 +1,78 @@
+package dev.langchain4j.store.embedding;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.TokenUsage;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Observes the progress of the ingestions performed by an {@link EmbeddingStoreIngestor},
+ * e.g. to report metrics or to log failures.
+ * <p>
+ * All methods do nothing by default. When documents are streamed using
+ * {@link EmbeddingStoreIngestor#ingest(java.util.Iterator)}, methods are called concurrently from the threads
+ * running the stages, so implementations must be thread-safe.
+ * Exceptions thrown by a listener are logged and do not affect the ingestion.
+ */
+public interface IngestionListener {
+
+    /**
+     * Called once documents have been transformed by the {@link dev.langchain4j.data.document.DocumentTransformer}.
+     * Not called when no transformer is set.
+     *
+     * @param documents the transformed documents.
+     */
+    default void onDocumentsTransformed(List<Document> documents) {
+    }
+
+    /**
+     * Called once documents have been split into segments,
+     * and the segments transformed by the {@link dev.langchain4j.data.segment.TextSegmentTransformer}, if any.
+     *
+     * @param segments the segments.
+     */
+    default void onSegmentsSplit(List<TextSegment> segments) {
+    }
+
+    /**
+     * Called once a batch of segments has been embedded.
+     *
+     * @param segments   the segments of the batch.
+     * @param tokenUsage the token usage reported by the embedding model, or null if it did not report any.
+     * @param latency    the time the embedding model took to embed the batch.
+     */
+    default void onBatchEmbedded(List<TextSegment> segments, TokenUsage tokenUsage, Duration latency) {
+    }
+
+    /**
+     * Called once the embeddings of a batch of segments have been added to the store.
+     *
+     * @param segments     the segments of the batch.
+     * @param embeddingIds the IDs of the embeddings, in the order of the segments.
+     * @param latency      the time the embedding store took to add the batch.
+     */
+    default void onBatchStored(List<TextSegment> segments, List<String> embeddingIds, Duration latency) {
+    }
+
+    /**
+     * Called each time a batch of segments fails to be embedded or stored.
+     * The batch is then retried, dead-lettered or fails the ingestion,
+     * depending on how the {@link EmbeddingStoreIngestor} is configured.
+     *
+     * @param segments the segments of the batch.
+     * @param error    the failure.
+     * @param attempt  the number of the attempt that failed, starting at 1.
+     */
+    default void onBatchFailed(List<TextSegment> segments, Throwable error, int attempt) {
+    }
+
+    /**
+     * Called once an ingestion has completed without failing.
+     *
+     * @param summary the summary of the ingestion.
+     */
+    default void onIngestionCompleted(IngestionSummary summary) {
+    }
+}
@@ -0,0 +1,142 @@
+package dev.langchain4j.store.embedding;
+
+import dev.langchain4j.internal.Json;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static dev.langchain4j.internal.ValidationUtils.ensureNotNull;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Records what an {@link EmbeddingStoreIngestor} has stored for each document, so that ingesting
+ * the same documents again only embeds the segments that have changed.
+ * <p>
+ * For each document ID, the manifest keeps the hash of the document, and the hash and the embedding ID
+ * of each of its segments.
+ * A manifest loaded from a file using {@link #load(Path)} is written back to this file
+ * by the ingestor at the end of each ingestion, and every 30 seconds during long ones,
+ * replacing it atomically.
+ * <p>
+ * This class is not thread-safe: the ingestor serializes all calls.
+ */
+public class IngestionManifest {
+
+    private final Map<String, DocumentRecord> documents = new LinkedHashMap<>();
+    private transient Path file;
+
+    /**
+     * Creates an empty manifest that is only kept in memory.
+     */
+    public IngestionManifest() {
+    }
+
+    /**
+     * Loads the manifest from a file, or creates an empty one if the file does not exist.
+     *
+     * @param file the file the manifest is read from and written to.
+     * @return the manifest.
+     */
+    public static IngestionManifest load(Path file) {
+        ensureNotNull(file, "file");
+        IngestionManifest manifest;
+        if (Files.exists(file)) {
+            try {
+                manifest = Json.fromJson(new String(Files.readAllBytes(file), UTF_8), IngestionManifest.class);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        } else {
+            manifest = new IngestionManifest();
+        }
+        manifest.file = file;
+        return manifest;
+    }
+
+    /**
+     * Writes the manifest to the file it was loaded from. Does nothing if it was not loaded from a file.
+     */
+    public void save() {
+        if (file == null) {
+            return;
+        }
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(temporaryFile, Json.toJson(this).getBytes(UTF_8));
+            Files.move(temporaryFile, file, ATOMIC_MOVE, REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return the IDs of the documents in the manifest.
+     */
+    public Set<String> documentIds() {
+        return Collections.unmodifiableSet(documents.keySet());
+    }
+
+    /**
+     * @param documentId the ID of the document.
+     * @return the IDs of the embeddings stored for the segments of the document, empty if it is unknown.
+     */
+    public List<String> embeddingIds(String documentId) {
+        DocumentRecord record = documents.get(documentId);
+        if (record == null) {
+            return Collections.emptyList();
+        }
+        List<String> embeddingIds = new ArrayList<>(record.segments.size());
+        for (SegmentRecord segment : record.segments) {
+            embeddingIds.add(segment.embeddingId);
+        }
+        return embeddingIds;
+    }
+
+    DocumentRecord get(String documentId) {
+        return documents.get(documentId);
+    }
+
+    void put(String documentId, DocumentRecord record) {
+        documents.put(documentId, record);
+    }
+
+    /**
+     * Removes the document from the manifest, without removing its embeddings from the store.
+     *
+     * @param documentId the ID of the document.
+     */
+    public void remove(String documentId) {
+        documents.remove(documentId);
+    }
+
+    static class DocumentRecord {
+
+        final String hash;
+        final List<SegmentRecord> segments;
+
+        DocumentRecord(String hash, List<SegmentRecord> segments) {
+            this.hash = hash;
+            this.segments = segments;
+        }
+    }
+
+    static class SegmentRecord {
+
+        final String hash;
+        final String embeddingId;
+
+        SegmentRecord(String hash, String embeddingId) {
+            this.hash = hash;
+            this.embeddingId = embeddingId;
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package dev.langchain4j.store.embedding;
+
+import dev.langchain4j.data.document.Document;
+import dev.langchain4j.data.segment.TextSegment;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+/**
+ * Ingests a stream of documents in overlapping stages, see {@link EmbeddingStoreIngestor#ingest(Iterator)}.
+ * <p>
+ * The calling thread pulls documents and coordinates the stages, all work runs on the executor:
+ * <ol>
+ *     <li>At most {@code maxPendingDocuments} documents are transformed and split concurrently.</li>
+ *     <li>Their segments are grouped into batches of {@code batchSize} segments, in the order splitting completes.</li>
+ *     <li>At most {@code parallelism} batches are embedded or stored concurrently.
+ *     Once a batch is embedded, it is stored by a separate task.</li>
+ * </ol>
+ * When all permits of a stage are taken, the calling thread waits, and no more documents are pulled.
+ * The memory used is therefore bounded, regardless of the number of documents.
+ * <p>
+ * Batches are embedded and stored by a {@link BatchIngestion}, which retries or dead-letters failed batches.
+ * Once a stage fails nevertheless, no more work is started. The pipeline waits for the batches in progress
+ * and throws the first failure. Batches stored before the failure are kept in the store.
+ */
+class IngestionPipeline {
+
+    private final Function<Document, List<TextSegment>> splitter;
+    private final BatchIngestion batches;
+    private final Executor executor;
+    private final int batchSize;
+    private final int parallelism;
+    private final int maxPendingDocuments;
+
+    private final Semaphore batchPermits;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    IngestionPipeline(Function<Document, List<TextSegment>> splitter,
+                      BatchIngestion batches,
+                      Executor executor,
+                      int batchSize,
+                      int parallelism,
+                      int maxPendingDocuments) {
+        this.splitter = splitter;
+        this.batches = batches;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.parallelism = parallelism;
+        this.maxPendingDocuments = maxPendingDocuments;
+        this.batchPermits = new Semaphore(parallelism);
+    }
+
+    void run(Iterator<Document> documents) {
+        BlockingQueue<SplitResult> splitResults = new LinkedBlockingQueue<>();
+        int pendingDocuments = 0;
+        List<TextSegment> batch = new ArrayList<>(batchSize);
+        try {
+            while (failure.get() == null) {
+                while (pendingDocuments < maxPendingDocuments && documents.hasNext()) {
+                    Document document = documents.next();
+                    batches.documentsIngested(1);
+                    CompletableFuture.supplyAsync(() -> splitter.apply(document), executor)
+                            .whenComplete((segments, error) -> splitResults.add(new SplitResult(segments, error)));
+                    pendingDocuments++;
+                }
+                if (pendingDocuments == 0) {
+                    break;
+                }
+                SplitResult result = splitResults.take();
+                pendingDocuments--;
+                if (result.error != null) {
+                    fail(result.error);
+                    break;
+                }
+                for (TextSegment segment : result.segments) {
+                    batch.add(segment);
+                    if (batch.size() == batchSize) {
+                        dispatch(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+            }
+            if (!batch.isEmpty() && failure.get() == null) {
+                dispatch(batch);
+            }
+            // waits for the batches in progress
+            batchPermits.acquire(parallelism);
+            batchPermits.release(parallelism);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        } else if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+
+    private void dispatch(List<TextSegment> batch) throws InterruptedException {
+        batchPermits.acquire();
+        if (failure.get() != null) {
+            batchPermits.release();
+            return;
+        }
+        try {
+            CompletableFuture.supplyAsync(() -> batches.embed(batch), executor)
+                    .thenAcceptAsync(embeddings -> {
+                        if (embeddings != null) {
+                            batches.store(batch, embeddings);
+                        }
+                    }, executor)
+                    .whenComplete((ignored, error) -> {
+                        if (error != null) {
+                            fail(error);
+                        }
+                        batchPermits.release();
+                    });
+        } catch (RuntimeException e) {
+            batchPermits.release();
+            throw e;
+        }
+    }
+
+    private void fail(Throwable error) {
+        failure.compareAndSet(null, error instanceof CompletionException && error.getCause() != null
+                ? error.getCause()
+                : error);
+    }
+
+    private static class SplitResult {
+
+        final List<TextSegment> segments;
+        final Throwable error;
+
+        SplitResult(List<TextSegment> segments, Throwable error) {
+            this.segments = segments;
+            this.error = error;
+        }
+    }
+}
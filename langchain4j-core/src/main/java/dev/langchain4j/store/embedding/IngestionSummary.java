@@ -0,0 +1,165 @@
+package dev.langchain4j.store.embedding;
+
+import dev.langchain4j.model.output.TokenUsage;
+
+import java.time.Duration;
+import java.util.Objects;
+
+import static dev.langchain4j.internal.ValidationUtils.ensureNotNull;
+
+/**
+ * Summarizes an ingestion performed by an {@link EmbeddingStoreIngestor}.
+ */
+public class IngestionSummary {
+
+    private final int documentCount;
+    private final int addedCount;
+    private final int skippedCount;
+    private final int removedCount;
+    private final int keptStaleCount;
+    private final int failedCount;
+    private final TokenUsage tokenUsage;
+    private final Duration duration;
+
+    /**
+     * Creates a new IngestionSummary.
+     *
+     * @param documentCount  the number of documents that were ingested.
+     * @param addedCount     the number of segments that were embedded and added to the store.
+     * @param skippedCount   the number of segments that were already in the store.
+     * @param removedCount   the number of segments that were removed from the store.
+     * @param keptStaleCount the number of segments that no longer exist but were kept in the store,
+     *                       because it does not support removal.
+     * @param failedCount    the number of segments whose batch failed and was dead-lettered.
+     * @param tokenUsage     the token usage reported by the embedding model, or null if it did not report any.
+     * @param duration       the duration of the ingestion.
+     */
+    public IngestionSummary(int documentCount,
+                            int addedCount,
+                            int skippedCount,
+                            int removedCount,
+                            int keptStaleCount,
+                            int failedCount,
+                            TokenUsage tokenUsage,
+                            Duration duration) {
+        this.documentCount = documentCount;
+        this.addedCount = addedCount;
+        this.skippedCount = skippedCount;
+        this.removedCount = removedCount;
+        this.keptStaleCount = keptStaleCount;
+        this.failedCount = failedCount;
+        this.tokenUsage = tokenUsage;
+        this.duration = ensureNotNull(duration, "duration");
+    }
+
+    /**
+     * @return the number of documents that were ingested, including the unchanged ones.
+     */
+    public int documentCount() {
+        return documentCount;
+    }
+
+    /**
+     * @return the number of segments that were embedded and added to the store.
+     */
+    public int addedCount() {
+        return addedCount;
+    }
+
+    /**
+     * @return the number of segments that were already in the store, unchanged, and were not embedded again.
+     */
+    public int skippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * @return the number of segments of changed documents that no longer exist and were removed from the store.
+     */
+    public int removedCount() {
+        return removedCount;
+    }
+
+    /**
+     * @return the number of segments of changed documents that no longer exist but were kept in the store,
+     * because it does not support removal. They are kept in the manifest as well, with their document.
+     */
+    public int keptStaleCount() {
+        return keptStaleCount;
+    }
+
+    /**
+     * @return the number of segments that were not added to the store because their batch failed
+     * and was handed to the dead-letter handler.
+     */
+    public int failedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return the token usage summed over all batches, or null if the embedding model did not report any.
+     */
+    public TokenUsage tokenUsage() {
+        return tokenUsage;
+    }
+
+    /**
+     * @return the duration of the ingestion, from the first document to the last stored batch.
+     */
+    public Duration duration() {
+        return duration;
+    }
+
+    /**
+     * @return the number of documents ingested per second.
+     */
+    public double documentsPerSecond() {
+        return perSecond(documentCount);
+    }
+
+    /**
+     * @return the number of segments embedded and added to the store per second.
+     */
+    public double segmentsPerSecond() {
+        return perSecond(addedCount);
+    }
+
+    private double perSecond(int count) {
+        long nanos = duration.toNanos();
+        return nanos == 0 ? 0 : count * 1_000_000_000.0 / nanos;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        IngestionSummary that = (IngestionSummary) o;
+        return this.documentCount == that.documentCount
+                && this.addedCount == that.addedCount
+                && this.skippedCount == that.skippedCount
+                && this.removedCount == that.removedCount
+                && this.keptStaleCount == that.keptStaleCount
+                && this.failedCount == that.failedCount
+                && Objects.equals(this.tokenUsage, that.tokenUsage)
+                && Objects.equals(this.duration, that.duration);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(documentCount, addedCount, skippedCount, removedCount, keptStaleCount, failedCount, tokenUsage, duration);
+    }
+
+    @Override
+    public String toString() {
+        return "IngestionSummary {" +
+                " documentCount = " + documentCount +
+                ", addedCount = " + addedCount +
+                ", skippedCount = " + skippedCount +
+                ", removedCount = " + removedCount +
+                ", keptStaleCount = " + keptStaleCount +
+                ", failedCount = " + failedCount +
+                ", tokenUsage = " + tokenUsage +
+                ", duration = " + duration +
+                " }";
+    }
+}
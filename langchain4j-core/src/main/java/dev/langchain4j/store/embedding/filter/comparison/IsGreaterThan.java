@@ -7,7 +7,7 @@ import lombok.ToString;
 
 import static dev.langchain4j.internal.ValidationUtils.ensureNotBlank;
 import static dev.langchain4j.internal.ValidationUtils.ensureNotNull;
-import static dev.langchain4j.store.embedding.filter.comparison.NumberComparator.compareAsBigDecimals;
+import static dev.langchain4j.store.embedding.filter.comparison.NumberComparator.compareNumbers;
 import static dev.langchain4j.store.embedding.filter.comparison.TypeChecker.ensureTypesAreCompatible;
 
 @ToString
@@ -36,16 +36,15 @@ public class IsGreaterThan implements Filter {
             return false;
         }
 
-        Metadata metadata = (Metadata) object;
-        if (!metadata.containsKey(key)) {
+        Object actualValue = ((Metadata) object).getObject(key);
+        if (actualValue == null) {
             return false;
         }
 
-        Object actualValue = metadata.toMap().get(key);
         ensureTypesAreCompatible(actualValue, comparisonValue, key);
 
         if (actualValue instanceof Number) {
-            return compareAsBigDecimals(actualValue, comparisonValue) > 0;
+            return compareNumbers(actualValue, comparisonValue) > 0;
         }
 
         return ((Comparable) actualValue).compareTo(comparisonValue) > 0;
@@ -2,6 +2,7 @@ package dev.langchain4j.store.embedding.filter.comparison;
 
 import dev.langchain4j.data.document.Metadata;
 import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.comparison.NumberComparator.NumberSet;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 
@@ -10,7 +11,6 @@ import java.util.HashSet;
 import java.util.Set;
 
 import static dev.langchain4j.internal.ValidationUtils.*;
-import static dev.langchain4j.store.embedding.filter.comparison.NumberComparator.containsAsBigDecimals;
 import static dev.langchain4j.store.embedding.filter.comparison.TypeChecker.ensureTypesAreCompatible;
 import static java.util.Collections.unmodifiableSet;
 
@@ -20,12 +20,20 @@ public class IsNotIn implements Filter {
 
     private final String key;
     private final Collection<?> comparisonValues;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Object firstComparisonValue;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final NumberSet comparisonNumbers;
 
     public IsNotIn(String key, Collection<?> comparisonValues) {
         this.key = ensureNotBlank(key, "key");
         Set<?> copy = new HashSet<>(ensureNotEmpty(comparisonValues, "comparisonValues with key '" + key + "'"));
         comparisonValues.forEach(value -> ensureNotNull(value, "comparisonValue with key '" + key + "'"));
         this.comparisonValues = unmodifiableSet(copy);
+        this.firstComparisonValue = copy.iterator().next();
+        this.comparisonNumbers = firstComparisonValue instanceof Number ? new NumberSet(copy) : null;
     }
 
     public String key() {
@@ -42,16 +50,15 @@ public class IsNotIn implements Filter {
             return false;
         }
 
-        Metadata metadata = (Metadata) object;
-        if (!metadata.containsKey(key)) {
+        Object actualValue = ((Metadata) object).getObject(key);
+        if (actualValue == null) {
             return true;
         }
 
-        Object actualValue = metadata.toMap().get(key);
-        ensureTypesAreCompatible(actualValue, comparisonValues.iterator().next(), key);
+        ensureTypesAreCompatible(actualValue, firstComparisonValue, key);
 
-        if (comparisonValues.iterator().next() instanceof Number) {
-            return !containsAsBigDecimals(actualValue, comparisonValues);
+        if (comparisonNumbers != null) {
+            return !comparisonNumbers.contains(actualValue);
         }
 
         return !comparisonValues.contains(actualValue);
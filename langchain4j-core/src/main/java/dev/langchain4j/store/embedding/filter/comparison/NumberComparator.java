@@ -1,11 +1,34 @@
 package dev.langchain4j.store.embedding.filter.comparison;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collection;
 
+/**
+ * Compares numbers of different types by their decimal values.
+ * <p>
+ * Whenever the result is guaranteed to be the same as when comparing {@link BigDecimal}s,
+ * numbers are compared as primitives, so that no objects are allocated for the metadata entries being filtered.
+ */
 class NumberComparator {
 
-    static int compareAsBigDecimals(Object actualNumber, Object comparisonNumber) {
+    /**
+     * Integers up to this magnitude can be represented exactly as {@code double}.
+     */
+    private static final long MAX_EXACT_DOUBLE_INTEGER = 1L << 53;
+
+    static int compareNumbers(Object actualNumber, Object comparisonNumber) {
+        if (isIntegral(actualNumber) && isIntegral(comparisonNumber)) {
+            return Long.compare(((Number) actualNumber).longValue(), ((Number) comparisonNumber).longValue());
+        }
+        // Double.toString() produces the shortest decimal identifying the double, which preserves the order
+        if (isExactDouble(actualNumber) && isExactDouble(comparisonNumber)) {
+            return compare(((Number) actualNumber).doubleValue(), ((Number) comparisonNumber).doubleValue());
+        }
+        if (actualNumber instanceof Float && comparisonNumber instanceof Float
+                && isFinite((Float) actualNumber) && isFinite((Float) comparisonNumber)) {
+            return compare((Float) actualNumber, (Float) comparisonNumber);
+        }
         return new BigDecimal(actualNumber.toString()).compareTo(new BigDecimal(comparisonNumber.toString()));
     }
 
@@ -30,4 +53,86 @@ class NumberComparator {
 
         throw new IllegalArgumentException("Unsupported type: " + actualNumber.getClass().getName());
     }
+
+    private static boolean isIntegral(Object number) {
+        return number instanceof Integer || number instanceof Long;
+    }
+
+    /**
+     * Checks whether the number can be compared as {@code double} without changing the result.
+     * {@code Float} is excluded, because its decimal value is taken from {@link Float#toString(float)}.
+     */
+    private static boolean isExactDouble(Object number) {
+        if (number instanceof Integer) {
+            return true;
+        } else if (number instanceof Long) {
+            long value = (Long) number;
+            return value >= -MAX_EXACT_DOUBLE_INTEGER && value <= MAX_EXACT_DOUBLE_INTEGER;
+        } else if (number instanceof Double) {
+            return isFinite((Double) number);
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link #isExactDouble(Object)}, but for {@link #toBigDecimal(Object)},
+     * which takes the decimal value of a {@code Float} from the {@code double} it widens to.
+     */
+    private static boolean isExactDoubleForSet(Object number) {
+        if (number instanceof Float) {
+            return isFinite((Float) number);
+        }
+        return isExactDouble(number);
+    }
+
+    private static int compare(double a, double b) {
+        // unlike Double.compare(), treats -0.0 and 0.0 as equal, just like BigDecimal
+        return a < b ? -1 : (a > b ? 1 : 0);
+    }
+
+    private static boolean isFinite(double value) {
+        return !Double.isNaN(value) && !Double.isInfinite(value);
+    }
+
+    /**
+     * Comparison numbers prepared for repeated lookups, equivalent to {@link #containsAsBigDecimals}.
+     * <p>
+     * When all comparison numbers can be represented exactly as {@code double}, they are kept in a sorted array
+     * and looked up without allocating.
+     */
+    static class NumberSet {
+
+        private final Collection<?> numbers;
+        private final double[] sortedValues;
+
+        NumberSet(Collection<?> numbers) {
+            this.numbers = numbers;
+            this.sortedValues = toSortedValues(numbers);
+        }
+
+        boolean contains(Object actualNumber) {
+            if (sortedValues != null && isExactDoubleForSet(actualNumber)) {
+                return Arrays.binarySearch(sortedValues, normalize(((Number) actualNumber).doubleValue())) >= 0;
+            }
+            return containsAsBigDecimals(actualNumber, numbers);
+        }
+
+        private static double[] toSortedValues(Collection<?> numbers) {
+            double[] values = new double[numbers.size()];
+            int i = 0;
+            for (Object number : numbers) {
+                if (!isExactDoubleForSet(number)) {
+                    return null;
+                }
+                values[i++] = normalize(((Number) number).doubleValue());
+            }
+            Arrays.sort(values);
+            return values;
+        }
+
+        private static double normalize(double value) {
+            // turns -0.0 into 0.0, Arrays.binarySearch() distinguishes them
+            return value + 0.0;
+        }
+    }
 }
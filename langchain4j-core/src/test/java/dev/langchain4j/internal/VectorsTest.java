@@ -0,0 +1,105 @@
+package dev.langchain4j.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class VectorsTest {
+
+    private final VectorKernels kernels = new ScalarVectorKernels();
+
+    @Test
+    void should_use_scalar_kernels_by_default() {
+        assertThat(Vectors.kernels()).isInstanceOf(ScalarVectorKernels.class);
+    }
+
+    @Test
+    void should_compute_float_kernels_for_all_lengths_and_offsets() {
+        Random random = new Random(1);
+        for (int length = 0; length < 40; length++) {
+            for (int offset = 0; offset < 3; offset++) {
+                float[] a = randomVector(random, length + offset);
+                float[] b = randomVector(random, length + 2 * offset);
+
+                double dot = 0, normA = 0, normB = 0, distance = 0;
+                for (int i = 0; i < length; i++) {
+                    double x = a[offset + i], y = b[2 * offset + i];
+                    dot += x * y;
+                    normA += x * x;
+                    normB += y * y;
+                    distance += (x - y) * (x - y);
+                }
+                double cosineSimilarity = length == 0 ? 0 : dot / Math.sqrt(normA * normB);
+
+                assertThat(kernels.dot(a, offset, b, 2 * offset, length)).isCloseTo((float) dot, offset(1e-4f));
+                assertThat(kernels.dot(buffer(a, LITTLE_ENDIAN), offset, b, 2 * offset, length))
+                        .isCloseTo((float) dot, offset(1e-4f));
+                assertThat(kernels.dot(buffer(a, BIG_ENDIAN), offset, buffer(b, LITTLE_ENDIAN), 2 * offset, length))
+                        .isCloseTo((float) dot, offset(1e-4f));
+                assertThat(kernels.cosineSimilarity(a, offset, b, 2 * offset, length))
+                        .isCloseTo((float) cosineSimilarity, offset(1e-5f));
+                assertThat(kernels.squaredEuclideanDistance(a, offset, b, 2 * offset, length))
+                        .isCloseTo((float) distance, offset(1e-4f));
+            }
+        }
+    }
+
+    @Test
+    void should_compute_byte_dot_product_for_all_lengths_and_offsets() {
+        Random random = new Random(1);
+        for (int length = 0; length < 40; length++) {
+            for (int offset = 0; offset < 3; offset++) {
+                byte[] a = new byte[length + offset];
+                byte[] b = new byte[length];
+                random.nextBytes(a);
+                random.nextBytes(b);
+
+                int dot = 0;
+                for (int i = 0; i < length; i++) {
+                    dot += a[offset + i] * b[i];
+                }
+
+                assertThat(kernels.dot(a, offset, b, 0, length)).isEqualTo(dot);
+            }
+        }
+    }
+
+    @Test
+    void should_consider_zero_vectors_orthogonal() {
+        assertThat(Vectors.cosineSimilarity(new float[]{0, 0, 0}, new float[]{0, 0, 0})).isZero();
+        assertThat(Vectors.cosineSimilarity(new float[]{1, 1, 1}, new float[]{0, 0, 0})).isZero();
+    }
+
+    @Test
+    void should_fail_for_vectors_of_different_lengths() {
+        assertThatThrownBy(() -> Vectors.dot(new float[]{1, 1}, new float[]{1, 1, 1}))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Length of vector a (2) must be equal to the length of vector b (3)");
+        assertThatThrownBy(() -> Vectors.squaredEuclideanDistance(new float[]{1, 1}, new float[]{1}))
+                .isExactlyInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ByteBuffer buffer(float[] vector, ByteOrder order) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(vector.length * Float.BYTES).order(order);
+        for (float value : vector) {
+            buffer.putFloat(value);
+        }
+        return buffer;
+    }
+
+    private static float[] randomVector(Random random, int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
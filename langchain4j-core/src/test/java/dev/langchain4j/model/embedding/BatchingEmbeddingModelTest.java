@@ -0,0 +1,247 @@
+package dev.langchain4j.model.embedding;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+class BatchingEmbeddingModelTest implements WithAssertions {
+
+    /**
+     * Embeds each text as its length, counting one token per character.
+     */
+    static class RecordingEmbeddingModel implements EmbeddingModel, TokenCountEstimator {
+
+        final List<List<String>> requests = new ArrayList<>();
+        final AtomicInteger concurrentRequests = new AtomicInteger();
+        final AtomicInteger maxConcurrentRequests = new AtomicInteger();
+        volatile long latencyMillis;
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+            maxConcurrentRequests.accumulateAndGet(concurrentRequests.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                concurrentRequests.decrementAndGet();
+            }
+            synchronized (requests) {
+                requests.add(textSegments.stream().map(TextSegment::text).collect(toList()));
+            }
+            return Response.from(textSegments.stream()
+                    .map(segment -> Embedding.from(new float[]{segment.text().length()}))
+                    .collect(toList()), new TokenUsage(estimateTokenCount(textSegments)));
+        }
+
+        @Override
+        public int estimateTokenCount(String text) {
+            return text.length();
+        }
+    }
+
+    @Test
+    void should_split_by_number_of_segments_and_keep_order() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        BatchingEmbeddingModel model = BatchingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxSegmentsPerBatch(2)
+                .build();
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(segments("a", "bb", "ccc", "dddd", "eeeee"));
+
+        // then
+        assertThat(delegate.requests).containsExactly(asList("a", "bb"), asList("ccc", "dddd"), singletonList("eeeee"));
+        assertThat(response.content()).extracting(embedding -> embedding.vector()[0]).containsExactly(1f, 2f, 3f, 4f, 5f);
+        assertThat(response.tokenUsage()).isEqualTo(new TokenUsage(15));
+    }
+
+    @Test
+    void should_split_by_number_of_tokens_estimated_by_delegate() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        BatchingEmbeddingModel model = BatchingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxTokensPerBatch(5)
+                .build();
+
+        // when
+        model.embedAll(segments("a", "bb", "ccc", "dddddddd", "e", "ff"));
+
+        // then
+        assertThat(delegate.requests).containsExactly(
+                asList("a", "bb"), singletonList("ccc"), singletonList("dddddddd"), asList("e", "ff"));
+    }
+
+    @Test
+    void should_use_given_token_count_estimator() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        BatchingEmbeddingModel model = BatchingEmbeddingModel.builder()
+                .delegate(delegate::embedAll)
+                .maxTokensPerBatch(2)
+                .tokenCountEstimator(text -> 1)
+                .build();
+
+        // when
+        model.embedAll(segments("aaa", "bbb", "ccc"));
+
+        // then
+        assertThat(delegate.requests).containsExactly(asList("aaa", "bbb"), singletonList("ccc"));
+    }
+
+    @Test
+    void should_not_limit_tokens_without_token_count_estimator() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        BatchingEmbeddingModel model = BatchingEmbeddingModel.builder()
+                .delegate(delegate::embedAll)
+                .maxTokensPerBatch(1)
+                .build();
+
+        // when
+        model.embedAll(segments("aaa", "bbb"));
+
+        // then
+        assertThat(delegate.requests).containsExactly(asList("aaa", "bbb"));
+    }
+
+    @Test
+    void should_embed_batches_concurrently_up_to_parallelism() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        delegate.latencyMillis = 50;
+        BatchingEmbeddingModel model = BatchingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxSegmentsPerBatch(1)
+                .parallelism(3)
+                .build();
+        List<String> texts = IntStream.range(0, 12).mapToObj(i -> "text " + i).collect(toList());
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(segments(texts.toArray(new String[0])));
+
+        // then
+        assertThat(delegate.requests).hasSize(12);
+        assertThat(delegate.maxConcurrentRequests.get()).isBetween(2, 3);
+        assertThat(response.content()).extracting(embedding -> embedding.vector()[0])
+                .containsExactlyElementsOf(texts.stream().map(text -> (float) text.length()).collect(toList()));
+        assertThat(response.tokenUsage()).isEqualTo(new TokenUsage(texts.stream().mapToInt(String::length).sum()));
+    }
+
+    @Test
+    void should_not_call_delegate_without_segments() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        BatchingEmbeddingModel model = BatchingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxSegmentsPerBatch(1)
+                .build();
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(new ArrayList<>());
+
+        // then
+        assertThat(response.content()).isEmpty();
+        assertThat(delegate.requests).isEmpty();
+    }
+
+    @Test
+    void should_throw_failure_of_any_batch() {
+
+        // given
+        BatchingEmbeddingModel model = BatchingEmbeddingModel.builder()
+                .delegate(textSegments -> {
+                    if (textSegments.get(0).text().equals("c")) {
+                        throw new IllegalStateException("Embedding failed");
+                    }
+                    return new RecordingEmbeddingModel().embedAll(textSegments);
+                })
+                .maxSegmentsPerBatch(1)
+                .parallelism(2)
+                .build();
+
+        // when-then
+        assertThatThrownBy(() -> model.embedAll(segments("a", "b", "c", "d")))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("Embedding failed");
+    }
+
+    @Test
+    void should_embed_batches_on_given_executor() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        delegate.latencyMillis = 50;
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            BatchingEmbeddingModel model = BatchingEmbeddingModel.builder()
+                    .delegate(delegate)
+                    .maxSegmentsPerBatch(1)
+                    .parallelism(2)
+                    .executor(executor)
+                    .build();
+
+            // when
+            Response<List<Embedding>> response = model.embedAll(segments("a", "bb", "ccc", "dddd"));
+
+            // then
+            assertThat(response.content()).extracting(embedding -> embedding.vector()[0]).containsExactly(1f, 2f, 3f, 4f);
+            assertThat(delegate.maxConcurrentRequests.get()).isEqualTo(2);
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void should_fail_when_delegate_returns_wrong_number_of_embeddings() {
+
+        // given
+        BatchingEmbeddingModel model = BatchingEmbeddingModel.builder()
+                .delegate(textSegments -> Response.from(singletonList(Embedding.from(new float[]{1}))))
+                .maxSegmentsPerBatch(2)
+                .build();
+
+        // when-then
+        assertThatThrownBy(() -> model.embedAll(segments("a", "b", "c")))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Expected 2 embeddings, but got 1");
+    }
+
+    @Test
+    void should_fail_to_build_with_invalid_limits() {
+
+        assertThatThrownBy(() -> BatchingEmbeddingModel.builder()
+                .delegate(new RecordingEmbeddingModel())
+                .maxSegmentsPerBatch(0)
+                .build())
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("maxSegmentsPerBatch must be greater than zero, but is: 0");
+    }
+
+    private static List<TextSegment> segments(String... texts) {
+        return asList(texts).stream().map(TextSegment::from).collect(toList());
+    }
+}
@@ -0,0 +1,242 @@
+package dev.langchain4j.model.embedding;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+
+class CachingEmbeddingModelTest implements WithAssertions {
+
+    @TempDir
+    Path directory;
+
+    static class CountingEmbeddingModel implements EmbeddingModel {
+
+        final List<List<String>> requests = new ArrayList<>();
+
+        @Override
+        public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+            requests.add(textSegments.stream().map(TextSegment::text).collect(toList()));
+            List<Embedding> embeddings = textSegments.stream()
+                    .map(segment -> Embedding.from(new float[]{segment.text().length(), segment.text().hashCode()}))
+                    .collect(toList());
+            int tokens = textSegments.stream().mapToInt(segment -> segment.text().length()).sum();
+            return Response.from(embeddings, new TokenUsage(tokens));
+        }
+    }
+
+    @Test
+    void should_only_embed_missing_segments() {
+
+        // given
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(delegate)
+                .build();
+        model.embedAll(segments("a", "bb"));
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(segments("ccc", "a", "dddd", "ccc", "bb"));
+
+        // then
+        assertThat(delegate.requests).containsExactly(asList("a", "bb"), asList("ccc", "dddd"));
+        assertThat(response.content()).isEqualTo(new CountingEmbeddingModel()
+                .embedAll(segments("ccc", "a", "dddd", "ccc", "bb")).content());
+        assertThat(response.tokenUsage()).isEqualTo(new TokenUsage(7));
+        assertThat(model.hitCount()).isEqualTo(2);
+        assertThat(model.missCount()).isEqualTo(5);
+    }
+
+    @Test
+    void should_report_no_token_usage_when_all_embeddings_are_cached() {
+
+        // given
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(delegate)
+                .build();
+        model.embed("hello");
+
+        // when
+        Response<Embedding> response = model.embed("hello");
+
+        // then
+        assertThat(delegate.requests).hasSize(1);
+        assertThat(response.content().vector()).containsExactly(5, "hello".hashCode());
+        assertThat(response.tokenUsage()).isEqualTo(new TokenUsage(0));
+    }
+
+    @Test
+    void should_not_share_vectors_with_callers() {
+
+        // given
+        CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(new CountingEmbeddingModel())
+                .build();
+        model.embed("hello").content().normalize();
+
+        // when
+        Embedding embedding = model.embed("hello").content();
+
+        // then
+        assertThat(embedding.vector()).containsExactly(5, "hello".hashCode());
+    }
+
+    @Test
+    void should_evict_least_recently_used_embeddings() {
+
+        // given
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxCacheSize(2)
+                .build();
+        model.embedAll(segments("a", "b"));
+        model.embed("a");
+
+        // when
+        model.embed("c");
+        model.embedAll(segments("a", "b", "c"));
+
+        // then
+        assertThat(delegate.requests).containsExactly(asList("a", "b"), singletonList("c"), singletonList("b"));
+    }
+
+    @Test
+    void should_key_embeddings_by_model_id() throws IOException {
+
+        // given
+        Path cacheFile = directory.resolve("embeddings.bin");
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        try (CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(delegate)
+                .modelId("model-1")
+                .cacheFile(cacheFile)
+                .build()) {
+            model.embed("hello");
+        }
+
+        // when
+        try (CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(delegate)
+                .modelId("model-2")
+                .cacheFile(cacheFile)
+                .build()) {
+            model.embed("hello");
+        }
+
+        // then
+        assertThat(delegate.requests).hasSize(2);
+    }
+
+    @Test
+    void should_read_embeddings_from_cache_file_after_restart() throws IOException {
+
+        // given
+        Path cacheFile = directory.resolve("embeddings.bin");
+        try (CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(new CountingEmbeddingModel())
+                .modelId("model")
+                .cacheFile(cacheFile)
+                .build()) {
+            model.embedAll(segments("a", "bb", "ccc"));
+        }
+
+        // when
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        try (CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(delegate)
+                .modelId("model")
+                .cacheFile(cacheFile)
+                .maxCacheSize(1)
+                .build()) {
+            Response<List<Embedding>> response = model.embedAll(segments("ccc", "dddd", "a"));
+
+            // then
+            assertThat(delegate.requests).containsExactly(singletonList("dddd"));
+            assertThat(response.content()).isEqualTo(new CountingEmbeddingModel()
+                    .embedAll(segments("ccc", "dddd", "a")).content());
+            assertThat(model.hitCount()).isEqualTo(2);
+            assertThat(model.missCount()).isEqualTo(1);
+        }
+    }
+
+    @Test
+    void should_discard_partially_written_record() throws IOException {
+
+        // given
+        Path cacheFile = directory.resolve("embeddings.bin");
+        try (CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(new CountingEmbeddingModel())
+                .modelId("model")
+                .cacheFile(cacheFile)
+                .build()) {
+            model.embed("a");
+            model.embed("bb");
+        }
+        long size = Files.size(cacheFile);
+        try (FileChannel channel = FileChannel.open(cacheFile, WRITE)) {
+            channel.truncate(size - 3);
+        }
+
+        // when
+        CountingEmbeddingModel delegate = new CountingEmbeddingModel();
+        try (CachingEmbeddingModel model = CachingEmbeddingModel.builder()
+                .delegate(delegate)
+                .modelId("model")
+                .cacheFile(cacheFile)
+                .build()) {
+            model.embedAll(segments("a", "bb"));
+            model.embed("bb");
+        }
+
+        // then
+        assertThat(delegate.requests).containsExactly(singletonList("bb"));
+        assertThat(Files.size(cacheFile)).isEqualTo(size);
+    }
+
+    @Test
+    void should_fail_to_open_other_files() throws IOException {
+
+        Path file = directory.resolve("other.txt");
+        Files.write(file, "not an embedding cache".getBytes());
+
+        assertThatThrownBy(() -> CachingEmbeddingModel.builder()
+                .delegate(new CountingEmbeddingModel())
+                .modelId("model")
+                .cacheFile(file)
+                .build())
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage(file + " is not an embedding cache file of version 1");
+    }
+
+    @Test
+    void should_require_model_id_with_cache_file() {
+
+        assertThatThrownBy(() -> CachingEmbeddingModel.builder()
+                .delegate(new CountingEmbeddingModel())
+                .cacheFile(directory.resolve("embeddings.bin"))
+                .build())
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("modelId cannot be null or blank");
+    }
+
+    private static List<TextSegment> segments(String... texts) {
+        return asList(texts).stream().map(TextSegment::from).collect(toList());
+    }
+}
@@ -0,0 +1,258 @@
+package dev.langchain4j.model.embedding;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.output.Response;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.nCopies;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+
+class CoalescingEmbeddingModelTest implements WithAssertions {
+
+    static class RecordingEmbeddingModel implements EmbeddingModel {
+
+        final List<List<String>> requests = new ArrayList<>();
+
+        @Override
+        public synchronized Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+            requests.add(textSegments.stream().map(TextSegment::text).collect(toList()));
+            return Response.from(textSegments.stream()
+                    .map(segment -> Embedding.from(new float[]{segment.text().length()}))
+                    .collect(toList()));
+        }
+    }
+
+    @Test
+    void should_coalesce_concurrent_calls_into_single_batch() throws Exception {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        ExecutorService callers = Executors.newFixedThreadPool(20);
+        try (CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxBatchSize(20)
+                .maxWait(Duration.ofSeconds(10))
+                .build()) {
+            CountDownLatch start = new CountDownLatch(1);
+
+            // when
+            List<Future<Response<Embedding>>> responses = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                String text = String.join("", nCopies(i + 1, "x"));
+                responses.add(callers.submit(() -> {
+                    start.await();
+                    return model.embed(text);
+                }));
+            }
+            start.countDown();
+
+            // then
+            for (int i = 0; i < 20; i++) {
+                assertThat(responses.get(i).get(30, SECONDS).content().vector()).containsExactly(i + 1);
+            }
+            assertThat(delegate.requests).hasSize(1);
+            assertThat(delegate.requests.get(0)).hasSize(20);
+            assertThat(model.batchCount()).isEqualTo(1);
+        } finally {
+            callers.shutdown();
+        }
+    }
+
+    @Test
+    void should_send_batch_once_max_wait_elapsed() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        try (CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxBatchSize(100)
+                .maxWait(Duration.ofMillis(100))
+                .build()) {
+
+            // when
+            long start = System.nanoTime();
+            CompletableFuture<Response<Embedding>> first = model.embedAsync(TextSegment.from("a"));
+            CompletableFuture<Response<Embedding>> second = model.embedAsync(TextSegment.from("bb"));
+            Embedding embedding = model.embed("ccc").content();
+
+            // then
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+            assertThat(embedding.vector()).containsExactly(3);
+            assertThat(first.join().content().vector()).containsExactly(1);
+            assertThat(second.join().content().vector()).containsExactly(2);
+            assertThat(delegate.requests).containsExactly(asList("a", "bb", "ccc"));
+        }
+    }
+
+    @Test
+    void should_send_full_batches_without_waiting() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        try (CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxBatchSize(2)
+                .maxWait(Duration.ofMinutes(1))
+                .build()) {
+
+            // when
+            CompletableFuture<Response<Embedding>> first = model.embedAsync(TextSegment.from("a"));
+            CompletableFuture<Response<Embedding>> second = model.embedAsync(TextSegment.from("bb"));
+            CompletableFuture<Response<Embedding>> third = model.embedAsync(TextSegment.from("ccc"));
+
+            // then
+            assertThat(first.join().content().vector()).containsExactly(1);
+            assertThat(second.join().content().vector()).containsExactly(2);
+            assertThat(third).isNotDone();
+            assertThat(delegate.requests).containsExactly(asList("a", "bb"));
+        }
+    }
+
+    @Test
+    void should_propagate_failure_to_each_caller() {
+
+        // given
+        try (CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(textSegments -> {
+                    throw new IllegalStateException("Embedding failed");
+                })
+                .maxBatchSize(2)
+                .build()) {
+
+            // when
+            CompletableFuture<Response<Embedding>> first = model.embedAsync(TextSegment.from("a"));
+
+            // then
+            assertThatThrownBy(() -> model.embed("b"))
+                    .isExactlyInstanceOf(IllegalStateException.class)
+                    .hasMessage("Embedding failed");
+            assertThatThrownBy(first::join)
+                    .hasCauseExactlyInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    @Test
+    void should_fail_when_delegate_returns_wrong_number_of_embeddings() {
+
+        // given
+        try (CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(textSegments -> Response.from(new ArrayList<>()))
+                .maxBatchSize(1)
+                .build()) {
+
+            // when-then
+            assertThatThrownBy(() -> model.embed("a"))
+                    .isExactlyInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Expected 1 embeddings, but got 0");
+        }
+    }
+
+    @Test
+    void should_fail_when_executor_rejects_batch() {
+
+        // given
+        try (CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(new RecordingEmbeddingModel())
+                .maxBatchSize(1)
+                .executor(runnable -> {
+                    throw new RejectedExecutionException("Executor is shut down");
+                })
+                .build()) {
+
+            // when-then
+            assertThatThrownBy(() -> model.embed("a"))
+                    .isExactlyInstanceOf(RejectedExecutionException.class)
+                    .hasMessage("Executor is shut down");
+        }
+    }
+
+    @Test
+    void should_stop_waiting_when_interrupted() {
+
+        // given
+        try (CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(new RecordingEmbeddingModel())
+                .maxWait(Duration.ofMinutes(1))
+                .build()) {
+            Thread.currentThread().interrupt();
+
+            // when-then
+            assertThatThrownBy(() -> model.embed("a"))
+                    .isExactlyInstanceOf(RuntimeException.class)
+                    .hasCauseExactlyInstanceOf(InterruptedException.class);
+            assertThat(Thread.interrupted()).isTrue();
+        }
+    }
+
+    @Test
+    void should_send_waiting_segments_when_closed() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxWait(Duration.ofMinutes(1))
+                .build();
+        CompletableFuture<Response<Embedding>> pending = model.embedAsync(TextSegment.from("a"));
+
+        // when
+        model.close();
+
+        // then
+        assertThat(pending.join().content().vector()).containsExactly(1);
+    }
+
+    @Test
+    void should_fail_to_embed_once_closed() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(delegate)
+                .build();
+
+        // when
+        model.close();
+
+        // then
+        assertThat(model.embedAsync(TextSegment.from("a")))
+                .isCompletedExceptionally();
+        assertThatThrownBy(() -> model.embed("a"))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("The model is closed");
+        assertThat(delegate.requests).isEmpty();
+    }
+
+    @Test
+    void should_not_coalesce_embed_all() {
+
+        // given
+        RecordingEmbeddingModel delegate = new RecordingEmbeddingModel();
+        try (CoalescingEmbeddingModel model = CoalescingEmbeddingModel.builder()
+                .delegate(delegate)
+                .maxWait(Duration.ofMinutes(1))
+                .build()) {
+
+            // when
+            model.embedAll(asList(TextSegment.from("a"), TextSegment.from("b")));
+
+            // then
+            assertThat(delegate.requests).containsExactly(asList("a", "b"));
+            assertThat(model.batchCount()).isZero();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package dev.langchain4j.model.embedding;
+
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static java.nio.file.StandardOpenOption.WRITE;
+
+class EmbeddingCacheFileTest implements WithAssertions {
+
+    // a record of dimension d takes 36 + 4 * d bytes
+    static final int REGION_SIZE = 256;
+
+    @TempDir
+    Path directory;
+
+    @ParameterizedTest
+    @ValueSource(ints = {REGION_SIZE, 4096})
+    void should_keep_records_of_all_regions_after_reopen(int regionSize) throws IOException {
+
+        // given
+        Path path = directory.resolve("embeddings.bin");
+        EmbeddingCacheFile file = EmbeddingCacheFile.open(path, regionSize);
+        for (int i = 0; i < 200; i++) {
+            file.put(key(i), vector(i));
+            // records appended after the region was mapped are readable
+            assertThat(file.get(key(i))).isEqualTo(vector(i));
+        }
+        file.close();
+        long size = Files.size(path);
+
+        // when
+        EmbeddingCacheFile reopened = EmbeddingCacheFile.open(path, regionSize);
+
+        // then
+        assertThat(size).isGreaterThan(5L * regionSize);
+        assertThat(Files.size(path)).isEqualTo(size);
+        assertThat(reopened.size()).isEqualTo(200);
+        for (int i = 0; i < 200; i++) {
+            assertThat(reopened.get(key(i))).isEqualTo(vector(i));
+        }
+        reopened.close();
+    }
+
+    @Test
+    void should_discard_only_partially_written_record_of_last_region() throws IOException {
+
+        // given
+        Path path = directory.resolve("embeddings.bin");
+        EmbeddingCacheFile file = EmbeddingCacheFile.open(path, REGION_SIZE);
+        for (int i = 0; i < 20; i++) {
+            file.put(key(i), vector(i));
+        }
+        file.close();
+        long size = Files.size(path);
+        try (FileChannel channel = FileChannel.open(path, WRITE)) {
+            // the header of a record whose components were never written
+            ByteBuffer header = ByteBuffer.allocate(36);
+            header.putInt(32, 1_000).flip();
+            channel.write(header, size);
+        }
+
+        // when
+        EmbeddingCacheFile reopened = EmbeddingCacheFile.open(path, REGION_SIZE);
+
+        // then
+        assertThat(reopened.size()).isEqualTo(20);
+        assertThat(reopened.get(key(19))).isEqualTo(vector(19));
+        assertThat(Files.size(path)).isEqualTo(size);
+        reopened.close();
+    }
+
+    private static CachingEmbeddingModel.Key key(int i) {
+        byte[] bytes = new byte[CachingEmbeddingModel.Key.SIZE];
+        bytes[0] = (byte) i;
+        bytes[1] = (byte) (i >> 8);
+        bytes[2] = 1;
+        return new CachingEmbeddingModel.Key(bytes);
+    }
+
+    /**
+     * Vectors of varying dimensions, so that the gaps left at the end of regions
+     * are sometimes large enough for a padding record, and sometimes not.
+     */
+    private static float[] vector(int i) {
+        float[] vector = new float[1 + i % 13 * 3];
+        for (int j = 0; j < vector.length; j++) {
+            vector[j] = i + j / 10f;
+        }
+        return vector;
+    }
+}
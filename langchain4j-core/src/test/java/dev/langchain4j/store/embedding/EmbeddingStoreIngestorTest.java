@@ -8,11 +8,33 @@ import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.data.segment.TextSegmentTransformer;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import dev.langchain4j.data.document.Metadata;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 import static dev.langchain4j.data.segment.TextSegment.textSegment;
+import static dev.langchain4j.internal.RetryUtils.retryPolicyBuilder;
 import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.*;
 
 class EmbeddingStoreIngestorTest {
@@ -169,4 +191,584 @@ class EmbeddingStoreIngestorTest {
                 ));
         verifyNoMoreInteractions(embeddingStore);
     }
-}
\ No newline at end of file
+
+    @TempDir
+    Path directory;
+
+    static final DocumentSplitter LINE_SPLITTER = document -> asList(document.text().split("\n")).stream()
+            .map(line -> TextSegment.from(line, document.metadata().copy()))
+            .collect(toList());
+
+    static class CountingEmbeddingModel implements EmbeddingModel {
+
+        final List<String> embeddedTexts = new ArrayList<>();
+        final List<Integer> batchSizes = new ArrayList<>();
+
+        @Override
+        public synchronized Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+            textSegments.forEach(segment -> embeddedTexts.add(segment.text()));
+            batchSizes.add(textSegments.size());
+            return Response.from(textSegments.stream()
+                    .map(segment -> Embedding.from(new float[]{segment.text().length()}))
+                    .collect(toList()), new TokenUsage(textSegments.size()));
+        }
+    }
+
+    static class MapEmbeddingStore implements EmbeddingStore<TextSegment> {
+
+        final Map<String, TextSegment> segments = new LinkedHashMap<>();
+        final boolean supportsRemoval;
+        int nextId;
+
+        MapEmbeddingStore(boolean supportsRemoval) {
+            this.supportsRemoval = supportsRemoval;
+        }
+
+        @Override
+        public String add(Embedding embedding) {
+            return add(embedding, null);
+        }
+
+        @Override
+        public void add(String id, Embedding embedding) {
+            segments.put(id, null);
+        }
+
+        @Override
+        public synchronized String add(Embedding embedding, TextSegment textSegment) {
+            String id = "id-" + nextId++;
+            segments.put(id, textSegment);
+            return id;
+        }
+
+        @Override
+        public List<String> addAll(List<Embedding> embeddings) {
+            return embeddings.stream().map(this::add).collect(toList());
+        }
+
+        @Override
+        public synchronized List<String> addAll(List<Embedding> embeddings, List<TextSegment> embedded) {
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < embeddings.size(); i++) {
+                ids.add(add(embeddings.get(i), embedded.get(i)));
+            }
+            return ids;
+        }
+
+        @Override
+        public void removeAll(Collection<String> ids) {
+            if (!supportsRemoval) {
+                throw new UnsupportedOperationException("Not implemented");
+            }
+            ids.forEach(segments::remove);
+        }
+
+        @Override
+        public List<EmbeddingMatch<TextSegment>> findRelevant(Embedding referenceEmbedding, int maxResults, double minScore) {
+            throw new UnsupportedOperationException();
+        }
+
+        synchronized List<String> texts() {
+            return segments.values().stream().map(TextSegment::text).collect(toList());
+        }
+    }
+
+    @Test
+    void should_only_embed_new_or_changed_segments() {
+
+        // given
+        CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(true);
+        IngestionManifest manifest = new IngestionManifest();
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(embeddingModel)
+                .embeddingStore(embeddingStore)
+                .manifest(manifest)
+                .documentIdProvider(document -> document.metadata().getString("id"))
+                .build();
+        IngestionSummary first = ingestor.ingest(
+                document("a", "A1\nA2\nA3"),
+                document("b", "B1\nB2"));
+
+        // when
+        IngestionSummary second = ingestor.ingest(
+                document("a", "A1\nA2 changed\nA3\nA4"),
+                document("b", "B1\nB2"),
+                document("c", "C1"));
+
+        // then
+        assertCounts(first, 5, 0, 0);
+        assertCounts(second, 3, 4, 1);
+        assertThat(embeddingModel.embeddedTexts).containsExactly("A1", "A2", "A3", "B1", "B2", "A2 changed", "A4", "C1");
+        assertThat(embeddingStore.texts()).containsExactlyInAnyOrder("A1", "A3", "B1", "B2", "A2 changed", "A4", "C1");
+        assertThat(manifest.documentIds()).containsExactly("a", "b", "c");
+        assertThat(manifest.embeddingIds("a")).hasSize(4);
+        assertThat(embeddingStore.segments.keySet()).containsAll(manifest.embeddingIds("a"));
+    }
+
+    @Test
+    void should_keep_manifest_in_file() {
+
+        // given
+        Path file = directory.resolve("manifest.json");
+        CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(true);
+        EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(embeddingModel)
+                .embeddingStore(embeddingStore)
+                .manifest(IngestionManifest.load(file))
+                .build()
+                .ingest(fileDocument("a.txt", "A1\nA2"));
+
+        // when
+        IngestionSummary summary = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(embeddingModel)
+                .embeddingStore(embeddingStore)
+                .manifest(IngestionManifest.load(file))
+                .build()
+                .ingest(fileDocument("a.txt", "A1\nA2"), fileDocument("b.txt", "B1"));
+
+        // then
+        assertCounts(summary, 1, 2, 0);
+        assertThat(embeddingModel.embeddedTexts).containsExactly("A1", "A2", "B1");
+        assertThat(IngestionManifest.load(file).documentIds()).containsExactly("/docs/a.txt", "/docs/b.txt");
+    }
+
+    @Test
+    void should_save_documents_completed_before_ingestion_failed() {
+
+        // given
+        Path file = directory.resolve("manifest.json");
+        CountingEmbeddingModel countingModel = new CountingEmbeddingModel();
+        EmbeddingModel failingEmbeddingModel = textSegments -> {
+            if (textSegments.stream().anyMatch(segment -> segment.text().equals("B1"))) {
+                throw new IllegalStateException("Embedding failed");
+            }
+            return countingModel.embedAll(textSegments);
+        };
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(failingEmbeddingModel)
+                .embeddingStore(new MapEmbeddingStore(true))
+                .manifest(IngestionManifest.load(file))
+                .embeddingBatchSize(2)
+                .build();
+
+        // when
+        assertThatThrownBy(() -> ingestor.ingest(fileDocument("a.txt", "A1\nA2"), fileDocument("b.txt", "B1")))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("Embedding failed");
+
+        // then
+        assertThat(IngestionManifest.load(file).documentIds()).containsExactly("/docs/a.txt");
+    }
+
+    @Test
+    void should_keep_stale_segments_when_store_does_not_support_removal() {
+
+        // given
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(false);
+        CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+        IngestionManifest manifest = new IngestionManifest();
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(embeddingModel)
+                .embeddingStore(embeddingStore)
+                .manifest(manifest)
+                .build();
+        ingestor.ingest(fileDocument("a.txt", "A1\nA2"));
+
+        // when
+        IngestionSummary summary = ingestor.ingest(fileDocument("a.txt", "A1\nA3"));
+        IngestionSummary reverted = ingestor.ingest(fileDocument("a.txt", "A1\nA2"));
+
+        // then
+        assertCounts(summary, 1, 1, 0);
+        assertThat(summary.keptStaleCount()).isEqualTo(1);
+        assertThat(embeddingStore.texts()).containsExactly("A1", "A2", "A3");
+        assertThat(manifest.embeddingIds("/docs/a.txt")).containsExactlyInAnyOrderElementsOf(embeddingStore.segments.keySet());
+        assertCounts(reverted, 0, 2, 0);
+        assertThat(reverted.keptStaleCount()).isEqualTo(1);
+        assertThat(embeddingModel.embeddedTexts).containsExactly("A1", "A2", "A3");
+    }
+
+    @Test
+    void should_fail_to_identify_document_without_file_name_or_url() {
+
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(new CountingEmbeddingModel())
+                .embeddingStore(new MapEmbeddingStore(true))
+                .manifest(new IngestionManifest())
+                .build();
+
+        assertThatThrownBy(() -> ingestor.ingest(Document.from("text")))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The document has neither a file name nor a URL in its metadata, " +
+                        "a documentIdProvider is needed to identify it");
+    }
+
+    @Test
+    void should_ingest_stream_of_documents_in_batches() {
+
+        // given
+        CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(true);
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .textSegmentTransformer(segment -> segment.text().startsWith("skip") ? null : segment)
+                .embeddingModel(embeddingModel)
+                .embeddingStore(embeddingStore)
+                .embeddingBatchSize(7)
+                .embeddingParallelism(3)
+                .maxPendingDocuments(5)
+                .build();
+
+        // when
+        IngestionSummary summary = ingestor.ingest(IntStream.range(0, 100)
+                .mapToObj(i -> Document.from(i + "-1\n" + i + "-2\nskip " + i + "\n" + i + "-3")));
+
+        // then
+        List<String> expectedTexts = IntStream.range(0, 100)
+                .boxed()
+                .flatMap(i -> Stream.of(i + "-1", i + "-2", i + "-3"))
+                .collect(toList());
+        assertCounts(summary, 300, 0, 0);
+        assertThat(embeddingStore.texts()).containsExactlyInAnyOrderElementsOf(expectedTexts);
+        assertThat(embeddingModel.embeddedTexts).containsExactlyInAnyOrderElementsOf(expectedTexts);
+        assertThat(embeddingModel.batchSizes).allMatch(size -> size <= 7);
+        assertThat(embeddingModel.batchSizes.stream().filter(size -> size < 7)).hasSizeLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void should_stop_pulling_documents_while_embedding_is_behind() throws Exception {
+
+        // given
+        CountDownLatch embeddingReleased = new CountDownLatch(1);
+        EmbeddingModel blockedEmbeddingModel = textSegments -> {
+            try {
+                embeddingReleased.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            return Response.from(textSegments.stream()
+                    .map(segment -> Embedding.from(new float[]{1}))
+                    .collect(toList()));
+        };
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(true);
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(blockedEmbeddingModel)
+                .embeddingStore(embeddingStore)
+                .embeddingBatchSize(1)
+                .embeddingParallelism(2)
+                .maxPendingDocuments(2)
+                .build();
+        AtomicInteger pulledDocuments = new AtomicInteger();
+        Iterator<Document> documents = IntStream.range(0, 1_000)
+                .mapToObj(i -> {
+                    pulledDocuments.incrementAndGet();
+                    return Document.from("segment " + i);
+                })
+                .iterator();
+
+        // when
+        CompletableFuture<IngestionSummary> summary = CompletableFuture.supplyAsync(() -> ingestor.ingest(documents));
+        Thread.sleep(500);
+
+        // then
+        assertThat(pulledDocuments.get()).isLessThanOrEqualTo(6);
+
+        // when
+        embeddingReleased.countDown();
+
+        // then
+        assertCounts(summary.get(30, SECONDS), 1_000, 0, 0);
+        assertThat(embeddingStore.segments).hasSize(1_000);
+    }
+
+    @Test
+    void should_throw_first_failure_of_stream_ingestion() {
+
+        // given
+        EmbeddingModel failingEmbeddingModel = textSegments -> {
+            if (textSegments.stream().anyMatch(segment -> segment.text().equals("segment 50"))) {
+                throw new IllegalStateException("Embedding failed");
+            }
+            return Response.from(textSegments.stream()
+                    .map(segment -> Embedding.from(new float[]{1}))
+                    .collect(toList()));
+        };
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(true);
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(failingEmbeddingModel)
+                .embeddingStore(embeddingStore)
+                .embeddingBatchSize(10)
+                .build();
+
+        // when-then
+        assertThatThrownBy(() -> ingestor.ingest(IntStream.range(0, 1_000).mapToObj(i -> Document.from("segment " + i))))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("Embedding failed");
+        assertThat(embeddingStore.texts()).doesNotContain("segment 50").hasSizeLessThan(1_000);
+    }
+
+    @Test
+    void should_fail_to_stream_documents_incrementally() {
+
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(new CountingEmbeddingModel())
+                .embeddingStore(new MapEmbeddingStore(true))
+                .manifest(new IngestionManifest())
+                .build();
+
+        assertThatThrownBy(() -> ingestor.ingest(Stream.of(Document.from("text"))))
+                .isExactlyInstanceOf(IllegalStateException.class)
+                .hasMessage("Streamed documents cannot be ingested incrementally");
+    }
+
+    static class RecordingListener implements IngestionListener {
+
+        final List<String> events = new ArrayList<>();
+        final List<Integer> failedAttempts = new ArrayList<>();
+        IngestionSummary summary;
+
+        @Override
+        public synchronized void onDocumentsTransformed(List<Document> documents) {
+            events.add("transformed " + documents.size());
+        }
+
+        @Override
+        public synchronized void onSegmentsSplit(List<TextSegment> segments) {
+            events.add("split " + segments.size());
+        }
+
+        @Override
+        public synchronized void onBatchEmbedded(List<TextSegment> segments, TokenUsage tokenUsage, Duration latency) {
+            assertThat(latency.isNegative()).isFalse();
+            events.add("embedded " + segments.size() + " " + tokenUsage.inputTokenCount());
+        }
+
+        @Override
+        public synchronized void onBatchStored(List<TextSegment> segments, List<String> embeddingIds, Duration latency) {
+            assertThat(embeddingIds).hasSameSizeAs(segments);
+            events.add("stored " + segments.size());
+        }
+
+        @Override
+        public synchronized void onBatchFailed(List<TextSegment> segments, Throwable error, int attempt) {
+            failedAttempts.add(attempt);
+        }
+
+        @Override
+        public synchronized void onIngestionCompleted(IngestionSummary summary) {
+            this.summary = summary;
+        }
+    }
+
+    @Test
+    void should_notify_listeners_and_summarize_ingestion() {
+
+        // given
+        RecordingListener listener = new RecordingListener();
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentTransformer(document -> document)
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(new CountingEmbeddingModel())
+                .embeddingStore(new MapEmbeddingStore(true))
+                .listener(listener)
+                .listener(new IngestionListener() {
+                    @Override
+                    public void onBatchEmbedded(List<TextSegment> segments, TokenUsage tokenUsage, Duration latency) {
+                        throw new IllegalStateException("Listener failed");
+                    }
+                })
+                .build();
+
+        // when
+        IngestionSummary summary = ingestor.ingest(Document.from("A1\nA2"), Document.from("B1\nB2\nB3"));
+
+        // then
+        assertThat(listener.events).containsExactly("transformed 2", "split 5", "embedded 5 5", "stored 5");
+        assertThat(listener.summary).isSameAs(summary);
+        assertThat(summary.documentCount()).isEqualTo(2);
+        assertCounts(summary, 5, 0, 0);
+        assertThat(summary.failedCount()).isZero();
+        assertThat(summary.tokenUsage()).isEqualTo(new TokenUsage(5));
+        assertThat(summary.duration()).isPositive();
+        assertThat(summary.segmentsPerSecond()).isPositive();
+        assertThat(summary.documentsPerSecond()).isPositive();
+    }
+
+    @Test
+    void should_retry_failed_batches_and_dead_letter_them_once_all_attempts_failed() {
+
+        // given
+        AtomicInteger flakyFailures = new AtomicInteger();
+        CountingEmbeddingModel countingModel = new CountingEmbeddingModel();
+        EmbeddingModel failingEmbeddingModel = textSegments -> {
+            List<String> texts = textSegments.stream().map(TextSegment::text).collect(toList());
+            if (texts.contains("segment 42")) {
+                throw new IllegalStateException("Poisoned batch");
+            }
+            if (texts.contains("segment 7") && flakyFailures.getAndIncrement() == 0) {
+                throw new IllegalStateException("Flaky batch");
+            }
+            return countingModel.embedAll(textSegments);
+        };
+        RecordingListener listener = new RecordingListener();
+        Map<List<String>, String> deadLetters = new LinkedHashMap<>();
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(true);
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(failingEmbeddingModel)
+                .embeddingStore(embeddingStore)
+                .embeddingBatchSize(1)
+                .listener(listener)
+                .batchRetryPolicy(retryPolicyBuilder().maxAttempts(3).delayMillis(10).build())
+                .deadLetterHandler((segments, error) -> {
+                    synchronized (deadLetters) {
+                        deadLetters.put(segments.stream().map(TextSegment::text).collect(toList()), error.getMessage());
+                    }
+                })
+                .build();
+
+        // when
+        IngestionSummary summary = ingestor.ingest(IntStream.range(0, 100).mapToObj(i -> Document.from("segment " + i)));
+
+        // then
+        assertThat(deadLetters).containsOnlyKeys(singletonList("segment 42"));
+        assertThat(deadLetters).containsValue("Poisoned batch");
+        assertThat(listener.failedAttempts).containsExactlyInAnyOrder(1, 1, 2, 3);
+        assertThat(embeddingStore.texts()).hasSize(99).contains("segment 7").doesNotContain("segment 42");
+        assertThat(summary.documentCount()).isEqualTo(100);
+        assertCounts(summary, 99, 0, 0);
+        assertThat(summary.failedCount()).isEqualTo(1);
+        assertThat(summary.tokenUsage()).isEqualTo(new TokenUsage(99));
+    }
+
+    @Test
+    void should_not_record_dead_lettered_documents_in_manifest() {
+
+        // given
+        IngestionManifest manifest = new IngestionManifest();
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(true);
+        EmbeddingModel failingEmbeddingModel = textSegments -> {
+            throw new IllegalStateException("Embedding failed");
+        };
+        List<List<TextSegment>> deadLetters = new ArrayList<>();
+        EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(failingEmbeddingModel)
+                .embeddingStore(embeddingStore)
+                .manifest(manifest)
+                .deadLetterHandler((segments, error) -> deadLetters.add(segments))
+                .build()
+                .ingest(fileDocument("a.txt", "A1\nA2"));
+
+        // when
+        IngestionSummary summary = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(new CountingEmbeddingModel())
+                .embeddingStore(embeddingStore)
+                .manifest(manifest)
+                .build()
+                .ingest(fileDocument("a.txt", "A1\nA2"));
+
+        // then
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0)).extracting(TextSegment::text).containsExactly("A1", "A2");
+        assertCounts(summary, 2, 0, 0);
+        assertThat(manifest.documentIds()).hasSize(1);
+        assertThat(embeddingStore.texts()).containsExactly("A1", "A2");
+    }
+
+    @Test
+    void should_embed_list_of_documents_in_batches() {
+
+        // given
+        CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(true);
+        EmbeddingStoreIngestor ingestor = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(embeddingModel)
+                .embeddingStore(embeddingStore)
+                .embeddingBatchSize(2)
+                .build();
+
+        // when
+        IngestionSummary summary = ingestor.ingest(Document.from("1\n2\n3"), Document.from("4\n5"));
+
+        // then
+        assertCounts(summary, 5, 0, 0);
+        assertThat(embeddingModel.batchSizes).containsExactly(2, 2, 1);
+        assertThat(embeddingStore.texts()).containsExactly("1", "2", "3", "4", "5");
+    }
+
+    @Test
+    void should_only_ingest_again_documents_of_dead_lettered_batches() {
+
+        // given
+        IngestionManifest manifest = new IngestionManifest();
+        MapEmbeddingStore embeddingStore = new MapEmbeddingStore(true);
+        CountingEmbeddingModel countingModel = new CountingEmbeddingModel();
+        EmbeddingModel failingEmbeddingModel = textSegments -> {
+            if (textSegments.stream().anyMatch(segment -> segment.text().equals("B1"))) {
+                throw new IllegalStateException("Embedding failed");
+            }
+            return countingModel.embedAll(textSegments);
+        };
+        List<List<TextSegment>> deadLetters = new ArrayList<>();
+        IngestionSummary first = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(failingEmbeddingModel)
+                .embeddingStore(embeddingStore)
+                .manifest(manifest)
+                .embeddingBatchSize(2)
+                .deadLetterHandler((segments, error) -> deadLetters.add(segments))
+                .build()
+                .ingest(fileDocument("a.txt", "A1\nA2"), fileDocument("b.txt", "B1\nB2\nB3"), fileDocument("c.txt", "C1"));
+
+        // when
+        CountingEmbeddingModel embeddingModel = new CountingEmbeddingModel();
+        IngestionSummary second = EmbeddingStoreIngestor.builder()
+                .documentSplitter(LINE_SPLITTER)
+                .embeddingModel(embeddingModel)
+                .embeddingStore(embeddingStore)
+                .manifest(manifest)
+                .embeddingBatchSize(2)
+                .build()
+                .ingest(fileDocument("a.txt", "A1\nA2"), fileDocument("b.txt", "B1\nB2\nB3"), fileDocument("c.txt", "C1"));
+
+        // then
+        assertThat(deadLetters).hasSize(1);
+        assertThat(deadLetters.get(0)).extracting(TextSegment::text).containsExactly("B1", "B2");
+        assertCounts(first, 4, 0, 0);
+        assertThat(first.failedCount()).isEqualTo(2);
+        assertCounts(second, 2, 4, 0);
+        assertThat(embeddingModel.embeddedTexts).containsExactly("B1", "B2");
+        assertThat(embeddingStore.texts()).containsExactlyInAnyOrder("A1", "A2", "B1", "B2", "B3", "C1");
+        assertThat(manifest.embeddingIds("/docs/b.txt")).hasSize(3);
+    }
+
+    private static void assertCounts(IngestionSummary summary, int addedCount, int skippedCount, int removedCount) {
+        assertThat(summary.addedCount()).isEqualTo(addedCount);
+        assertThat(summary.skippedCount()).isEqualTo(skippedCount);
+        assertThat(summary.removedCount()).isEqualTo(removedCount);
+    }
+
+    private static Document document(String id, String text) {
+        return Document.from(text, Metadata.from("id", id));
+    }
+
+    private static Document fileDocument(String fileName, String text) {
+        return Document.from(text, new Metadata()
+                .put(Document.FILE_NAME, fileName)
+                .put(Document.ABSOLUTE_DIRECTORY_PATH, "/docs"));
+    }
+}
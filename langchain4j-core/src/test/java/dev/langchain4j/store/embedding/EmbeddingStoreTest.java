@@ -4,10 +4,13 @@ import dev.langchain4j.data.embedding.Embedding;
 import org.assertj.core.api.WithAssertions;
 import org.junit.jupiter.api.Test;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Locale;
 
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+
 class EmbeddingStoreTest implements WithAssertions {
     public static class MinimalEmbeddingStore implements EmbeddingStore<String> {
         @Override
@@ -103,4 +106,37 @@ class EmbeddingStoreTest implements WithAssertions {
                                 referenceEmbedding,
                                 "abc, [0.5, 1.5], 12, 0.00"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void test_searchAll() {
+        EmbeddingStore<String> store = new MinimalEmbeddingStore();
+
+        Embedding first = new Embedding(new float[]{0.5f, 1.5f});
+        Embedding second = new Embedding(new float[]{2.5f, 3.5f});
+
+        List<EmbeddingSearchResult<String>> results = store.searchAll(Arrays.asList(
+                EmbeddingSearchRequest.builder().queryEmbedding(first).maxResults(12).build(),
+                EmbeddingSearchRequest.builder().queryEmbedding(second).maxResults(3).minScore(0.5).build()));
+
+        assertThat(results).hasSize(2);
+        assertThat(results.get(0).matches())
+                .containsExactly(new EmbeddingMatch<>(0.5, "id", first, "[0.5, 1.5], 12, 0.00"));
+        assertThat(results.get(1).matches())
+                .containsExactly(new EmbeddingMatch<>(0.5, "id", second, "[2.5, 3.5], 3, 0.50"));
+    }
+
+    @Test
+    public void test_remove_not_implemented() {
+        EmbeddingStore<String> store = new MinimalEmbeddingStore();
+
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> store.remove("id"))
+                .withMessage("Not implemented");
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> store.removeAll(Arrays.asList("id1", "id2")))
+                .withMessage("Not implemented");
+        assertThatExceptionOfType(UnsupportedOperationException.class)
+                .isThrownBy(() -> store.removeAll(metadataKey("key").isEqualTo("value")))
+                .withMessage("Not implemented");
+    }
+}
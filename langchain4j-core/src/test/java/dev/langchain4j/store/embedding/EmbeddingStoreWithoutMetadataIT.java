@@ -301,6 +301,39 @@ public abstract class EmbeddingStoreWithoutMetadataIT {
                 .build()).matches()).isEqualTo(relevant);
     }
 
+    @Test
+    void should_search_all() {
+
+        Embedding firstEmbedding = embeddingModel().embed("hello").content();
+        Embedding secondEmbedding = embeddingModel().embed("hi").content();
+        embeddingStore().addAll(asList(firstEmbedding, secondEmbedding));
+
+        awaitUntilPersisted();
+
+        EmbeddingSearchRequest first = EmbeddingSearchRequest.builder()
+                .queryEmbedding(firstEmbedding)
+                .maxResults(10)
+                .build();
+        EmbeddingSearchRequest second = EmbeddingSearchRequest.builder()
+                .queryEmbedding(secondEmbedding)
+                .maxResults(1)
+                .build();
+        EmbeddingSearchRequest third = EmbeddingSearchRequest.builder()
+                .queryEmbedding(embeddingModel().embed("bye").content())
+                .maxResults(10)
+                .minScore(0.99)
+                .build();
+
+        List<EmbeddingSearchResult<TextSegment>> results = embeddingStore().searchAll(asList(first, second, third));
+
+        assertThat(results).hasSize(3);
+        assertThat(results.get(0).matches()).hasSize(2);
+        assertThat(results.get(0).matches()).isEqualTo(embeddingStore().search(first).matches());
+        assertThat(results.get(1).matches()).hasSize(1);
+        assertThat(results.get(1).matches()).isEqualTo(embeddingStore().search(second).matches());
+        assertThat(results.get(2).matches()).isEmpty();
+    }
+
     protected void awaitUntilPersisted() {
         // not waiting by default
     }
@@ -1,8 +1,12 @@
 package dev.langchain4j.store.embedding.filter;
 
 import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.store.embedding.filter.comparison.*;
 import org.junit.jupiter.api.Test;
 
+import java.math.BigDecimal;
+import java.util.List;
+
 import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
@@ -289,4 +293,59 @@ class FilterTest {
                 .isExactlyInstanceOf(IllegalArgumentException.class)
                 .hasMessage("comparisonValue with key 'id' cannot be null");
     }
-}
\ No newline at end of file
+
+    @Test
+    void test_numbers_of_different_types_are_compared_by_decimal_value() {
+
+        // given
+        List<Number> numbers = asList(
+                0, 1, -1, 42, Integer.MAX_VALUE,
+                0L, 42L, (1L << 53) + 1, Long.MAX_VALUE, Long.MIN_VALUE,
+                0f, -0f, 1.1f, 42f, 16777217f,
+                0d, -0d, 1.1, 42d, 1.1f * 1d, 9.007199254740993E15, 1e300
+        );
+
+        for (Number actual : numbers) {
+            Metadata metadata = new Metadata();
+            putNumber(metadata, actual);
+
+            for (Number comparison : numbers) {
+
+                // when
+                int expected = new BigDecimal(actual.toString()).compareTo(new BigDecimal(comparison.toString()));
+                boolean expectedIn = toBigDecimal(actual).compareTo(toBigDecimal(comparison)) == 0;
+
+                // then
+                String description = actual.getClass().getSimpleName() + " " + actual + " vs "
+                        + comparison.getClass().getSimpleName() + " " + comparison;
+                assertThat(new IsEqualTo("key", comparison).test(metadata)).as(description).isEqualTo(expected == 0);
+                assertThat(new IsNotEqualTo("key", comparison).test(metadata)).as(description).isEqualTo(expected != 0);
+                assertThat(new IsGreaterThan("key", (Comparable<?>) comparison).test(metadata)).as(description).isEqualTo(expected > 0);
+                assertThat(new IsGreaterThanOrEqualTo("key", (Comparable<?>) comparison).test(metadata)).as(description).isEqualTo(expected >= 0);
+                assertThat(new IsLessThan("key", (Comparable<?>) comparison).test(metadata)).as(description).isEqualTo(expected < 0);
+                assertThat(new IsLessThanOrEqualTo("key", (Comparable<?>) comparison).test(metadata)).as(description).isEqualTo(expected <= 0);
+                assertThat(new IsIn("key", asList(comparison, 7)).test(metadata)).as(description).isEqualTo(expectedIn);
+                assertThat(new IsNotIn("key", singletonList(comparison)).test(metadata)).as(description).isEqualTo(!expectedIn);
+            }
+        }
+    }
+
+    private static void putNumber(Metadata metadata, Number number) {
+        if (number instanceof Integer) {
+            metadata.put("key", (Integer) number);
+        } else if (number instanceof Long) {
+            metadata.put("key", (Long) number);
+        } else if (number instanceof Float) {
+            metadata.put("key", (Float) number);
+        } else {
+            metadata.put("key", (Double) number);
+        }
+    }
+
+    private static BigDecimal toBigDecimal(Number number) {
+        if (number instanceof Float) {
+            return BigDecimal.valueOf(number.floatValue());
+        }
+        return number instanceof Double ? BigDecimal.valueOf(number.doubleValue()) : new BigDecimal(number.toString());
+    }
+}
@@ -10,8 +10,13 @@ import co.elastic.clients.elasticsearch._types.query_dsl.Query;
 import co.elastic.clients.elasticsearch._types.query_dsl.ScriptScoreQuery;
 import co.elastic.clients.elasticsearch.core.BulkRequest;
 import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.MsearchRequest;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
 import co.elastic.clients.elasticsearch.core.SearchResponse;
 import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.RequestItem;
+import co.elastic.clients.elasticsearch.core.search.ResponseBody;
 import co.elastic.clients.json.JsonData;
 import co.elastic.clients.json.JsonpMapper;
 import co.elastic.clients.json.jackson.JacksonJsonpMapper;
@@ -41,6 +46,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -269,6 +275,50 @@ public class ElasticsearchEmbeddingStore implements EmbeddingStore<TextSegment>
         }
     }
 
+    /**
+     * Performs all searches in a single round trip using the
+     * <a href="https://www.elastic.co/guide/en/elasticsearch/reference/current/search-multi-search.html">multi search API</a>.
+     */
+    @Override
+    public List<EmbeddingSearchResult<TextSegment>> searchAll(List<EmbeddingSearchRequest> embeddingSearchRequests) {
+        if (isNullOrEmpty(embeddingSearchRequests)) {
+            return new ArrayList<>();
+        }
+        try {
+            List<RequestItem> searches = new ArrayList<>(embeddingSearchRequests.size());
+            for (EmbeddingSearchRequest embeddingSearchRequest : embeddingSearchRequests) {
+                ScriptScoreQuery scriptScoreQuery = buildScriptScoreQuery(
+                        embeddingSearchRequest.queryEmbedding().vector(),
+                        (float) embeddingSearchRequest.minScore(),
+                        embeddingSearchRequest.filter()
+                );
+                searches.add(RequestItem.of(r -> r
+                        .header(h -> h.index(indexName))
+                        .body(b -> b
+                                .query(q -> q.scriptScore(scriptScoreQuery))
+                                .size(embeddingSearchRequest.maxResults()))));
+            }
+
+            MsearchResponse<Document> response = client.msearch(
+                    MsearchRequest.of(m -> m.index(indexName).searches(searches)),
+                    Document.class
+            );
+
+            List<EmbeddingSearchResult<TextSegment>> results = new ArrayList<>(searches.size());
+            for (MultiSearchResponseItem<Document> item : response.responses()) {
+                if (item.isFailure()) {
+                    throw new ElasticsearchRequestFailedException("type: " + item.failure().error().type()
+                            + ", reason: " + item.failure().error().reason());
+                }
+                results.add(new EmbeddingSearchResult<>(toMatches(item.result())));
+            }
+            return results;
+        } catch (IOException e) {
+            log.error("[ElasticSearch encounter I/O Exception]", e);
+            throw new ElasticsearchRequestFailedException(e.getMessage());
+        }
+    }
+
     private ScriptScoreQuery buildScriptScoreQuery(float[] vector,
                                                    float minScore,
                                                    Filter filter
@@ -367,7 +417,7 @@ public class ElasticsearchEmbeddingStore implements EmbeddingStore<TextSegment>
         }
     }
 
-    private List<EmbeddingMatch<TextSegment>> toMatches(SearchResponse<Document> response) {
+    private List<EmbeddingMatch<TextSegment>> toMatches(ResponseBody<Document> response) {
         return response.hits().hits().stream()
                 .map(hit -> Optional.ofNullable(hit.source())
                         .map(document -> new EmbeddingMatch<>(
@@ -58,9 +58,18 @@ class CollectionRequestBuilder {
                                           int maxResults,
                                           MetricType metricType,
                                           ConsistencyLevelEnum consistencyLevel) {
+        return buildBatchSearchRequest(collectionName, singletonList(vector), filter, maxResults, metricType, consistencyLevel);
+    }
+
+    static SearchParam buildBatchSearchRequest(String collectionName,
+                                               List<List<Float>> vectors,
+                                               Filter filter,
+                                               int maxResults,
+                                               MetricType metricType,
+                                               ConsistencyLevelEnum consistencyLevel) {
         SearchParam.Builder builder = SearchParam.newBuilder()
                 .withCollectionName(collectionName)
-                .withVectors(singletonList(vector))
+                .withVectors(vectors)
                 .withVectorFieldName(VECTOR_FIELD_NAME)
                 .withTopK(maxResults)
                 .withMetricType(metricType)
@@ -56,12 +56,26 @@ class Mapper {
                                                                 String collectionName,
                                                                 ConsistencyLevelEnum consistencyLevel,
                                                                 boolean queryForVectorOnSearch) {
+        return toEmbeddingMatches(milvusClient, resultsWrapper, 0, collectionName, consistencyLevel, queryForVectorOnSearch);
+    }
+
+    /**
+     * Maps the results of one of the query vectors of a search request.
+     *
+     * @param indexOfTarget The index of the query vector in the search request.
+     */
+    static List<EmbeddingMatch<TextSegment>> toEmbeddingMatches(MilvusServiceClient milvusClient,
+                                                                SearchResultsWrapper resultsWrapper,
+                                                                int indexOfTarget,
+                                                                String collectionName,
+                                                                ConsistencyLevelEnum consistencyLevel,
+                                                                boolean queryForVectorOnSearch) {
         List<EmbeddingMatch<TextSegment>> matches = new ArrayList<>();
 
         Map<String, Embedding> idToEmbedding = new HashMap<>();
         if (queryForVectorOnSearch) {
             try {
-                List<String> rowIds = (List<String>) resultsWrapper.getFieldWrapper(ID_FIELD_NAME).getFieldData();
+                List<String> rowIds = (List<String>) resultsWrapper.getFieldData(ID_FIELD_NAME, indexOfTarget);
                 idToEmbedding.putAll(queryEmbeddings(milvusClient, collectionName, rowIds, consistencyLevel));
             } catch (ParamException e) {
                 // There is no way to check if the result is empty or not.
@@ -69,11 +83,12 @@ class Mapper {
             }
         }
 
-        for (int i = 0; i < resultsWrapper.getRowRecords().size(); i++) {
-            double score = resultsWrapper.getIDScore(0).get(i).getScore();
-            String rowId = resultsWrapper.getIDScore(0).get(i).getStrID();
+        List<RowRecord> rowRecords = resultsWrapper.getRowRecords(indexOfTarget);
+        for (int i = 0; i < rowRecords.size(); i++) {
+            double score = resultsWrapper.getIDScore(indexOfTarget).get(i).getScore();
+            String rowId = resultsWrapper.getIDScore(indexOfTarget).get(i).getStrID();
             Embedding embedding = idToEmbedding.get(rowId);
-            TextSegment textSegment = toTextSegment(resultsWrapper.getRowRecords().get(i));
+            TextSegment textSegment = toTextSegment(rowRecords.get(i));
             EmbeddingMatch<TextSegment> embeddingMatch = new EmbeddingMatch<>(
                     RelevanceScore.fromCosineSimilarity(score),
                     rowId,
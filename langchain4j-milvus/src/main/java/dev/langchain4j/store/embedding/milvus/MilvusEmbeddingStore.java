@@ -3,6 +3,7 @@ package dev.langchain4j.store.embedding.milvus;
 import static dev.langchain4j.internal.Utils.getOrDefault;
 import static dev.langchain4j.internal.ValidationUtils.ensureNotNull;
 import static dev.langchain4j.store.embedding.milvus.CollectionOperationsExecutor.*;
+import static dev.langchain4j.store.embedding.milvus.CollectionRequestBuilder.buildBatchSearchRequest;
 import static dev.langchain4j.store.embedding.milvus.CollectionRequestBuilder.buildSearchRequest;
 import static dev.langchain4j.store.embedding.milvus.Generator.generateRandomIds;
 import static dev.langchain4j.store.embedding.milvus.Mapper.*;
@@ -30,7 +31,10 @@ import io.milvus.param.dml.InsertParam;
 import io.milvus.param.dml.SearchParam;
 import io.milvus.response.SearchResultsWrapper;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Represents an <a href="https://milvus.io/">Milvus</a> index as an embedding store.
@@ -155,6 +159,66 @@ public class MilvusEmbeddingStore implements EmbeddingStore<TextSegment> {
     return new EmbeddingSearchResult<>(result);
   }
 
+  /**
+   * Requests with the same {@link Filter} are sent to Milvus as a single search request with several query vectors,
+   * so all searches take a single round trip when they share the same filter.
+   *
+   * @param embeddingSearchRequests Requests to search in the collection.
+   * @return An {@link EmbeddingSearchResult} for each request, in the same order as the requests.
+   */
+  @Override
+  public List<EmbeddingSearchResult<TextSegment>> searchAll(List<EmbeddingSearchRequest> embeddingSearchRequests) {
+
+    Map<Filter, List<Integer>> requestIndicesByFilter = new LinkedHashMap<>();
+    for (int i = 0; i < embeddingSearchRequests.size(); i++) {
+      requestIndicesByFilter
+              .computeIfAbsent(embeddingSearchRequests.get(i).filter(), filter -> new ArrayList<>())
+              .add(i);
+    }
+
+    List<EmbeddingSearchResult<TextSegment>> results =
+            new ArrayList<>(Collections.nCopies(embeddingSearchRequests.size(), null));
+    requestIndicesByFilter.forEach((filter, requestIndices) -> {
+
+      List<List<Float>> vectors = new ArrayList<>();
+      int maxResults = 0;
+      for (int requestIndex : requestIndices) {
+        EmbeddingSearchRequest request = embeddingSearchRequests.get(requestIndex);
+        vectors.add(request.queryEmbedding().vectorAsList());
+        maxResults = Math.max(maxResults, request.maxResults());
+      }
+
+      SearchParam searchParam = buildBatchSearchRequest(
+              collectionName,
+              vectors,
+              filter,
+              maxResults,
+              metricType,
+              consistencyLevel
+      );
+
+      SearchResultsWrapper resultsWrapper = CollectionOperationsExecutor.search(milvusClient, searchParam);
+
+      for (int i = 0; i < requestIndices.size(); i++) {
+        EmbeddingSearchRequest request = embeddingSearchRequests.get(requestIndices.get(i));
+        List<EmbeddingMatch<TextSegment>> matches = toEmbeddingMatches(
+                milvusClient,
+                resultsWrapper,
+                i,
+                collectionName,
+                consistencyLevel,
+                retrieveEmbeddingsOnSearch
+        );
+        List<EmbeddingMatch<TextSegment>> result = matches.stream()
+                .filter(match -> match.score() >= request.minScore())
+                .limit(request.maxResults())
+                .collect(toList());
+        results.set(requestIndices.get(i), new EmbeddingSearchResult<>(result));
+      }
+    });
+    return results;
+  }
+
   private void addInternal(String id, Embedding embedding, TextSegment textSegment) {
     addAllInternal(
       singletonList(id),
@@ -0,0 +1,19 @@
+package dev.langchain4j.model.ollama;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+class EmbedResponse {
+
+    private String model;
+    private List<float[]> embeddings;
+    private Integer promptEvalCount;
+}
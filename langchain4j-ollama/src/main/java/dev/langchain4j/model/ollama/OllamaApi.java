@@ -19,6 +19,10 @@ interface OllamaApi {
     @Headers({"Content-Type: application/json"})
     Call<EmbeddingResponse> embedd(@Body EmbeddingRequest embeddingRequest);
 
+    @POST("/api/embed")
+    @Headers({"Content-Type: application/json"})
+    Call<EmbedResponse> embedBatch(@Body EmbedRequest embedRequest);
+
     @POST("/api/chat")
     @Headers({"Content-Type: application/json"})
     Call<ChatResponse> chat(@Body ChatRequest chatRequest);
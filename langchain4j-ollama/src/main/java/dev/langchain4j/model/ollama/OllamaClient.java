@@ -7,6 +7,7 @@ import dev.langchain4j.model.StreamingResponseHandler;
 import dev.langchain4j.model.output.Response;
 import dev.langchain4j.model.output.TokenUsage;
 import lombok.Builder;
+import okhttp3.ConnectionPool;
 import okhttp3.OkHttpClient;
 import okhttp3.ResponseBody;
 import retrofit2.Call;
@@ -20,6 +21,7 @@ import java.time.Duration;
 
 import static com.google.gson.FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES;
 import static java.lang.Boolean.TRUE;
+import static java.util.concurrent.TimeUnit.MINUTES;
 
 class OllamaClient {
 
@@ -27,12 +29,19 @@ class OllamaClient {
             .setFieldNamingPolicy(LOWER_CASE_WITH_UNDERSCORES)
             .create();
 
+    /**
+     * Shared by all clients, so that models talking to the same server reuse their connections,
+     * and large enough to keep the connections of concurrent embedding requests alive.
+     */
+    private static final ConnectionPool CONNECTION_POOL = new ConnectionPool(32, 5, MINUTES);
+
     private final OllamaApi ollamaApi;
 
     @Builder
     public OllamaClient(String baseUrl, Duration timeout) {
 
         OkHttpClient okHttpClient = new OkHttpClient.Builder()
+                .connectionPool(CONNECTION_POOL)
                 .callTimeout(timeout)
                 .connectTimeout(timeout)
                 .readTimeout(timeout)
@@ -172,6 +181,27 @@ class OllamaClient {
         }
     }
 
+    /**
+     * Embeds several inputs at once, using the batch embedding endpoint of recent versions of Ollama.
+     *
+     * @return the response, or null if the endpoint was not found.
+     */
+    public EmbedResponse embedBatch(EmbedRequest request) {
+        try {
+            retrofit2.Response<EmbedResponse> retrofitResponse = ollamaApi.embedBatch(request).execute();
+            if (retrofitResponse.isSuccessful()) {
+                return retrofitResponse.body();
+            } else if (retrofitResponse.code() == 404) {
+                retrofitResponse.errorBody().close();
+                return null;
+            } else {
+                throw toException(retrofitResponse);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public ModelsListResponse listModels() {
         try {
             retrofit2.Response<ModelsListResponse> retrofitResponse = ollamaApi.listModels().execute();
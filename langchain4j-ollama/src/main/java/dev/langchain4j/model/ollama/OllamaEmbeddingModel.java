@@ -2,9 +2,11 @@ package dev.langchain4j.model.ollama;
 
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.BatchingEmbeddingModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.ollama.spi.OllamaEmbeddingModelBuilderFactory;
 import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
 import lombok.Builder;
 
 import java.time.Duration;
@@ -16,34 +18,80 @@ import static dev.langchain4j.internal.Utils.getOrDefault;
 import static dev.langchain4j.internal.ValidationUtils.ensureNotBlank;
 import static dev.langchain4j.spi.ServiceHelper.loadFactories;
 import static java.time.Duration.ofSeconds;
+import static java.util.stream.Collectors.toList;
 
 /**
  * <a href="https://github.com/jmorganca/ollama/blob/main/docs/api.md">Ollama API reference</a>
+ * <br>
+ * Text segments are sent in batches of up to {@code maxSegmentsPerBatch} segments to the batch embedding endpoint
+ * ({@code /api/embed}). When the server does not provide it (Ollama versions before 0.3.0), each segment of the batch
+ * is sent to the single prompt endpoint ({@code /api/embeddings}) instead, and the batch endpoint is not tried again.
+ * <br>
+ * Up to {@code parallelism} batches are sent concurrently, over connections shared by all Ollama models.
+ * To actually embed them concurrently, the server should allow it as well, see {@code OLLAMA_NUM_PARALLEL}.
  */
 public class OllamaEmbeddingModel implements EmbeddingModel {
 
     private final OllamaClient client;
     private final String modelName;
     private final Integer maxRetries;
+    private final EmbeddingModel batchingModel;
+    private volatile boolean batchEndpointUnavailable;
 
     @Builder
     public OllamaEmbeddingModel(String baseUrl,
                                 String modelName,
                                 Duration timeout,
-                                Integer maxRetries) {
+                                Integer maxRetries,
+                                Integer maxSegmentsPerBatch,
+                                Integer parallelism) {
         this.client = OllamaClient.builder()
                 .baseUrl(baseUrl)
                 .timeout(getOrDefault(timeout, ofSeconds(60)))
                 .build();
         this.modelName = ensureNotBlank(modelName, "modelName");
         this.maxRetries = getOrDefault(maxRetries, 3);
+        this.batchingModel = BatchingEmbeddingModel.builder()
+                .delegate(this::embedBatch)
+                .maxSegmentsPerBatch(getOrDefault(maxSegmentsPerBatch, 32))
+                .parallelism(parallelism)
+                .build();
     }
 
+    /**
+     * Embeds the segments in batches, see {@link OllamaEmbeddingModel}.
+     * <p>
+     * The token usage of the response is the number of prompt tokens reported by the batch embedding endpoint.
+     * The single prompt endpoint used with Ollama versions before 0.3.0 does not report it:
+     * the response then has no token usage.
+     *
+     * @param textSegments the text segments to embed.
+     * @return the embeddings, in the order of the segments.
+     */
     @Override
     public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
-        List<Embedding> embeddings = new ArrayList<>();
+        return batchingModel.embedAll(textSegments);
+    }
+
+    private Response<List<Embedding>> embedBatch(List<TextSegment> textSegments) {
+        if (!batchEndpointUnavailable) {
+            EmbedRequest request = EmbedRequest.builder()
+                    .model(modelName)
+                    .input(textSegments.stream().map(TextSegment::text).collect(toList()))
+                    .build();
 
-        textSegments.forEach(textSegment -> {
+            EmbedResponse response = withRetry(() -> client.embedBatch(request), maxRetries);
+
+            if (response != null) {
+                List<Embedding> embeddings = response.getEmbeddings().stream()
+                        .map(Embedding::from)
+                        .collect(toList());
+                return Response.from(embeddings, new TokenUsage(response.getPromptEvalCount()));
+            }
+        }
+
+        List<Embedding> embeddings = new ArrayList<>();
+        for (TextSegment textSegment : textSegments) {
             EmbeddingRequest request = EmbeddingRequest.builder()
                     .model(modelName)
                     .prompt(textSegment.text())
@@ -52,8 +100,10 @@ public class OllamaEmbeddingModel implements EmbeddingModel {
             EmbeddingResponse response = withRetry(() -> client.embed(request), maxRetries);
 
             embeddings.add(Embedding.from(response.getEmbedding()));
-        });
-
+        }
+        // only remembered once the single prompt endpoint succeeded, as a missing model is reported with a 404 as well
+        batchEndpointUnavailable = true;
+        // the single prompt endpoint does not report the number of prompt tokens
         return Response.from(embeddings);
     }
 
@@ -1,10 +1,15 @@
 package dev.langchain4j.model.ollama;
 
 import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.output.Response;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
 import static org.assertj.core.api.Assertions.assertThat;
 
 class OllamaEmbeddingModelIT extends AbstractOllamaInfrastructure {
@@ -27,7 +32,31 @@ class OllamaEmbeddingModelIT extends AbstractOllamaInfrastructure {
         // then
         assertThat(response.content().vector()).isNotEmpty();
 
-        assertThat(response.tokenUsage()).isNull();
+        assertThat(response.tokenUsage().inputTokenCount()).isPositive();
         assertThat(response.finishReason()).isNull();
     }
+
+    @Test
+    void should_embed_segments_in_concurrent_batches() {
+
+        // given
+        EmbeddingModel model = OllamaEmbeddingModel.builder()
+                .baseUrl(getBaseUrl())
+                .modelName(MODEL)
+                .maxSegmentsPerBatch(2)
+                .parallelism(3)
+                .build();
+        List<TextSegment> segments = range(0, 7)
+                .mapToObj(i -> TextSegment.from("text number " + i))
+                .collect(toList());
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(segments);
+
+        // then
+        assertThat(response.content()).hasSize(7);
+        assertThat(response.content()).allSatisfy(embedding -> assertThat(embedding.dimension())
+                .isEqualTo(this.model.embed("text number 6").content().dimension()));
+        assertThat(response.tokenUsage().inputTokenCount()).isPositive();
+    }
 }
@@ -0,0 +1,138 @@
+package dev.langchain4j.model.ollama;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.model.output.Response;
+import dev.langchain4j.model.output.TokenUsage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+import static java.util.stream.IntStream.range;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Embeds segments against a fake Ollama server, which embeds each text as its length.
+ */
+class OllamaEmbeddingModelTest {
+
+    HttpServer server;
+    AtomicInteger batchRequests = new AtomicInteger();
+    AtomicInteger singlePromptRequests = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(0), 0);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void should_report_prompt_tokens_of_batch_endpoint() {
+
+        // given
+        server.createContext("/api/embed", exchange -> {
+            batchRequests.incrementAndGet();
+            JsonArray input = readBody(exchange).getAsJsonArray("input");
+            JsonArray embeddings = new JsonArray();
+            for (JsonElement text : input) {
+                embeddings.add(vector(text.getAsString()));
+            }
+            JsonObject response = new JsonObject();
+            response.add("embeddings", embeddings);
+            response.addProperty("prompt_eval_count", 2 * input.size());
+            respond(exchange, 200, response.toString());
+        });
+        EmbeddingModel model = model();
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(segments(5));
+
+        // then
+        assertThat(response.content()).extracting(embedding -> embedding.vector()[0])
+                .containsExactly(1f, 2f, 3f, 4f, 5f);
+        assertThat(response.tokenUsage()).isEqualTo(new TokenUsage(10));
+        assertThat(batchRequests).hasValue(3);
+    }
+
+    @Test
+    void should_fall_back_to_single_prompt_endpoint_without_token_usage() {
+
+        // given
+        server.createContext("/api/embed", exchange -> {
+            batchRequests.incrementAndGet();
+            respond(exchange, 404, "404 page not found");
+        });
+        server.createContext("/api/embeddings", exchange -> {
+            singlePromptRequests.incrementAndGet();
+            JsonObject response = new JsonObject();
+            response.add("embedding", vector(readBody(exchange).get("prompt").getAsString()));
+            respond(exchange, 200, response.toString());
+        });
+        EmbeddingModel model = model();
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(segments(5));
+
+        // then
+        assertThat(response.content()).extracting(embedding -> embedding.vector()[0])
+                .containsExactly(1f, 2f, 3f, 4f, 5f);
+        assertThat(response.tokenUsage()).isNull();
+        assertThat(batchRequests).hasValue(1);
+        assertThat(singlePromptRequests).hasValue(5);
+    }
+
+    private EmbeddingModel model() {
+        return OllamaEmbeddingModel.builder()
+                .baseUrl("http://localhost:" + server.getAddress().getPort())
+                .modelName("test-model")
+                .maxRetries(1)
+                .maxSegmentsPerBatch(2)
+                .build();
+    }
+
+    private static JsonObject readBody(HttpExchange exchange) throws IOException {
+        try (InputStreamReader reader = new InputStreamReader(exchange.getRequestBody(), UTF_8)) {
+            return JsonParser.parseReader(reader).getAsJsonObject();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private static JsonArray vector(String text) {
+        JsonArray vector = new JsonArray();
+        vector.add(text.length());
+        return vector;
+    }
+
+    private static List<TextSegment> segments(int count) {
+        return range(1, count + 1)
+                .mapToObj(length -> TextSegment.from(new String(new char[length]).replace('\0', 'x')))
+                .collect(toList());
+    }
+}
@@ -6,6 +6,7 @@ import dev.ai4j.openai4j.embedding.EmbeddingResponse;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.Tokenizer;
+import dev.langchain4j.model.embedding.BatchingEmbeddingModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.embedding.TokenCountEstimator;
 import dev.langchain4j.model.openai.spi.OpenAiEmbeddingModelBuilderFactory;
@@ -26,15 +27,26 @@ import static java.util.stream.Collectors.toList;
 
 /**
  * Represents an OpenAI embedding model, such as text-embedding-ada-002.
+ * <br>
+ * Text segments are sent in batches that fit the limits of a single request of the OpenAI API:
+ * at most {@code maxSegmentsPerBatch} segments, 2048 by default,
+ * and at most {@code maxTokensPerBatch} tokens, 300,000 by default, as estimated by the {@code tokenizer}.
+ * The token limit is only enforced for the models known to {@link OpenAiEmbeddingModelName},
+ * or when a {@code tokenizer} is set explicitly.
+ * Up to {@code parallelism} batches are sent concurrently, 1 by default.
  */
 public class OpenAiEmbeddingModel implements EmbeddingModel, TokenCountEstimator {
 
+    private static final int DEFAULT_MAX_SEGMENTS_PER_BATCH = 2048;
+    private static final int DEFAULT_MAX_TOKENS_PER_BATCH = 300_000;
+
     private final OpenAiClient client;
     private final String modelName;
     private final Integer dimensions;
     private final String user;
     private final Integer maxRetries;
     private final Tokenizer tokenizer;
+    private final EmbeddingModel batchingModel;
 
     @Builder
     public OpenAiEmbeddingModel(String baseUrl,
@@ -48,7 +60,10 @@ public class OpenAiEmbeddingModel implements EmbeddingModel, TokenCountEstimator
                                 Proxy proxy,
                                 Boolean logRequests,
                                 Boolean logResponses,
-                                Tokenizer tokenizer) {
+                                Tokenizer tokenizer,
+                                Integer maxSegmentsPerBatch,
+                                Integer maxTokensPerBatch,
+                                Integer parallelism) {
 
         baseUrl = getOrDefault(baseUrl, OPENAI_URL);
         if (OPENAI_DEMO_API_KEY.equals(apiKey)) {
@@ -74,11 +89,33 @@ public class OpenAiEmbeddingModel implements EmbeddingModel, TokenCountEstimator
         this.dimensions = dimensions;
         this.user = user;
         this.maxRetries = getOrDefault(maxRetries, 3);
+        // the default tokenizer cannot count the tokens of models unknown to JTokkit
+        boolean canCountTokens = tokenizer != null || isKnownModel(this.modelName);
         this.tokenizer = getOrDefault(tokenizer, () -> new OpenAiTokenizer(this.modelName));
+        this.batchingModel = BatchingEmbeddingModel.builder()
+                .delegate(this::embedBatch)
+                .maxSegmentsPerBatch(getOrDefault(maxSegmentsPerBatch, DEFAULT_MAX_SEGMENTS_PER_BATCH))
+                .maxTokensPerBatch(getOrDefault(maxTokensPerBatch, DEFAULT_MAX_TOKENS_PER_BATCH))
+                .tokenCountEstimator(canCountTokens ? this : null)
+                .parallelism(parallelism)
+                .build();
+    }
+
+    private static boolean isKnownModel(String modelName) {
+        for (OpenAiEmbeddingModelName knownModelName : OpenAiEmbeddingModelName.values()) {
+            if (knownModelName.toString().equals(modelName)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
     public Response<List<Embedding>> embedAll(List<TextSegment> textSegments) {
+        return batchingModel.embedAll(textSegments);
+    }
+
+    private Response<List<Embedding>> embedBatch(List<TextSegment> textSegments) {
 
         List<String> texts = textSegments.stream()
                 .map(TextSegment::text)
@@ -70,6 +70,38 @@ class OpenAiEmbeddingModelIT {
         assertThat(response.finishReason()).isNull();
     }
 
+    @Test
+    void should_embed_segments_in_concurrent_batches() {
+
+        // given
+        EmbeddingModel model = OpenAiEmbeddingModel.builder()
+                .baseUrl(System.getenv("OPENAI_BASE_URL"))
+                .apiKey(System.getenv("OPENAI_API_KEY"))
+                .organizationId(System.getenv("OPENAI_ORGANIZATION_ID"))
+                .maxSegmentsPerBatch(2)
+                .maxTokensPerBatch(3)
+                .parallelism(3)
+                .logRequests(true)
+                .logResponses(true)
+                .build();
+
+        List<TextSegment> segments = asList(
+                TextSegment.from("hello"),
+                TextSegment.from("world"),
+                TextSegment.from("hello world"),
+                TextSegment.from("hello"),
+                TextSegment.from("world")
+        );
+
+        // when
+        Response<List<Embedding>> response = model.embedAll(segments);
+
+        // then
+        assertThat(response.content()).hasSize(5);
+        assertThat(response.content()).allMatch(embedding -> embedding.dimension() == 1536);
+        assertThat(response.tokenUsage().inputTokenCount()).isEqualTo(6);
+    }
+
     @Test
     void should_embed_text_with_embedding_shortening() {
 
@@ -16,12 +16,15 @@ import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.store.embedding.CosineSimilarity;
 import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.RelevanceScore;
 import io.qdrant.client.QdrantClient;
 import io.qdrant.client.QdrantGrpcClient;
 import io.qdrant.client.WithVectorsSelectorFactory;
 import io.qdrant.client.grpc.JsonWithInt.Value;
+import io.qdrant.client.grpc.Points.BatchResult;
 import io.qdrant.client.grpc.Points.DeletePoints;
 import io.qdrant.client.grpc.Points.Filter;
 import io.qdrant.client.grpc.Points.PointStruct;
@@ -168,23 +171,68 @@ public class QdrantEmbeddingStore implements EmbeddingStore<TextSegment> {
   public List<EmbeddingMatch<TextSegment>> findRelevant(
       Embedding referenceEmbedding, int maxResults, double minScore) {
 
-    SearchPoints search =
-        SearchPoints.newBuilder()
-            .setCollectionName(collectionName)
-            .addAllVector(referenceEmbedding.vectorAsList())
-            .setWithVectors(WithVectorsSelectorFactory.enable(true))
-            .setWithPayload(enable(true))
-            .setLimit(maxResults)
-            .build();
-
     List<ScoredPoint> results;
 
     try {
-      results = client.searchAsync(search).get();
+      results = client.searchAsync(toSearchPoints(referenceEmbedding, maxResults)).get();
+    } catch (InterruptedException | ExecutionException e) {
+      throw new RuntimeException(e);
+    }
+
+    return toEmbeddingMatches(results, referenceEmbedding, minScore);
+  }
+
+  /**
+   * Performs all searches in a single round trip using the Qdrant batch search API.
+   *
+   * @param requests Requests to search in the collection.
+   * @return An {@link EmbeddingSearchResult} for each request, in the same order as the requests.
+   */
+  @Override
+  public List<EmbeddingSearchResult<TextSegment>> searchAll(List<EmbeddingSearchRequest> requests) {
+    if (requests.isEmpty()) {
+      return new ArrayList<>();
+    }
+
+    List<SearchPoints> searches =
+        requests.stream()
+            .map(request -> toSearchPoints(request.queryEmbedding(), request.maxResults()))
+            .collect(toList());
+
+    List<BatchResult> batchResults;
+
+    try {
+      batchResults = client.searchBatchAsync(collectionName, searches, null).get();
     } catch (InterruptedException | ExecutionException e) {
       throw new RuntimeException(e);
     }
 
+    List<EmbeddingSearchResult<TextSegment>> results = new ArrayList<>(requests.size());
+    for (int i = 0; i < requests.size(); i++) {
+      EmbeddingSearchRequest request = requests.get(i);
+      results.add(
+          new EmbeddingSearchResult<>(
+              toEmbeddingMatches(
+                  batchResults.get(i).getResultList(),
+                  request.queryEmbedding(),
+                  request.minScore())));
+    }
+    return results;
+  }
+
+  private SearchPoints toSearchPoints(Embedding referenceEmbedding, int maxResults) {
+    return SearchPoints.newBuilder()
+        .setCollectionName(collectionName)
+        .addAllVector(referenceEmbedding.vectorAsList())
+        .setWithVectors(WithVectorsSelectorFactory.enable(true))
+        .setWithPayload(enable(true))
+        .setLimit(maxResults)
+        .build();
+  }
+
+  private List<EmbeddingMatch<TextSegment>> toEmbeddingMatches(
+      List<ScoredPoint> results, Embedding referenceEmbedding, double minScore) {
+
     if (results.isEmpty()) {
       return emptyList();
     }
@@ -0,0 +1,149 @@
+package dev.langchain4j.simd;
+
+import dev.langchain4j.internal.ScalarVectorKernels;
+import dev.langchain4j.internal.VectorKernels;
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import java.nio.ByteBuffer;
+
+import static jdk.incubator.vector.VectorOperators.ADD;
+
+/**
+ * {@link VectorKernels} using the SIMD instructions of the CPU through the incubating Vector API.
+ * <p>
+ * Each kernel processes as many components per iteration as the preferred vector species holds,
+ * and the remaining components with the scalar loop.
+ * Lanes are accumulated separately and only reduced at the end, so results may differ from
+ * {@link ScalarVectorKernels} in the last bits.
+ * <p>
+ * Int8 dot products widen bytes to ints, they fall back to {@link ScalarVectorKernels}
+ * when the preferred species holds less than 8 ints.
+ */
+class VectorApiKernels extends ScalarVectorKernels {
+
+    private static final VectorSpecies<Float> FLOATS = FloatVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Byte> BYTES = INTS.length() < 8
+            ? null
+            : VectorSpecies.of(byte.class, VectorShape.forBitSize(INTS.length() * Byte.SIZE));
+
+    /**
+     * @return Whether the CPU has vector registers large enough for the Vector API to be faster than scalar code.
+     */
+    static boolean isSupported() {
+        return FLOATS.length() >= 4;
+    }
+
+    @Override
+    public float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector sum = FloatVector.zero(FLOATS);
+        int i = 0;
+        for (int bound = FLOATS.loopBound(length); i < bound; i += FLOATS.length()) {
+            FloatVector va = FloatVector.fromArray(FLOATS, a, aOffset + i);
+            FloatVector vb = FloatVector.fromArray(FLOATS, b, bOffset + i);
+            sum = va.mul(vb).add(sum);
+        }
+        float result = sum.reduceLanes(ADD);
+        for (; i < length; i++) {
+            result += a[aOffset + i] * b[bOffset + i];
+        }
+        return result;
+    }
+
+    @Override
+    public float dot(ByteBuffer a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector sum = FloatVector.zero(FLOATS);
+        int i = 0;
+        for (int bound = FLOATS.loopBound(length); i < bound; i += FLOATS.length()) {
+            FloatVector va = FloatVector.fromByteBuffer(FLOATS, a, (aOffset + i) * Float.BYTES, a.order());
+            FloatVector vb = FloatVector.fromArray(FLOATS, b, bOffset + i);
+            sum = va.mul(vb).add(sum);
+        }
+        float result = sum.reduceLanes(ADD);
+        for (; i < length; i++) {
+            result += a.getFloat((aOffset + i) * Float.BYTES) * b[bOffset + i];
+        }
+        return result;
+    }
+
+    @Override
+    public float dot(ByteBuffer a, int aOffset, ByteBuffer b, int bOffset, int length) {
+        FloatVector sum = FloatVector.zero(FLOATS);
+        int i = 0;
+        for (int bound = FLOATS.loopBound(length); i < bound; i += FLOATS.length()) {
+            FloatVector va = FloatVector.fromByteBuffer(FLOATS, a, (aOffset + i) * Float.BYTES, a.order());
+            FloatVector vb = FloatVector.fromByteBuffer(FLOATS, b, (bOffset + i) * Float.BYTES, b.order());
+            sum = va.mul(vb).add(sum);
+        }
+        float result = sum.reduceLanes(ADD);
+        for (; i < length; i++) {
+            result += a.getFloat((aOffset + i) * Float.BYTES) * b.getFloat((bOffset + i) * Float.BYTES);
+        }
+        return result;
+    }
+
+    @Override
+    public int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        if (BYTES == null) {
+            return super.dot(a, aOffset, b, bOffset, length);
+        }
+        IntVector sum = IntVector.zero(INTS);
+        int i = 0;
+        for (int bound = BYTES.loopBound(length); i < bound; i += BYTES.length()) {
+            IntVector va = (IntVector) ByteVector.fromArray(BYTES, a, aOffset + i).castShape(INTS, 0);
+            IntVector vb = (IntVector) ByteVector.fromArray(BYTES, b, bOffset + i).castShape(INTS, 0);
+            sum = va.mul(vb).add(sum);
+        }
+        int result = sum.reduceLanes(ADD);
+        for (; i < length; i++) {
+            result += a[aOffset + i] * b[bOffset + i];
+        }
+        return result;
+    }
+
+    @Override
+    public float cosineSimilarity(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector dot = FloatVector.zero(FLOATS);
+        FloatVector normA = FloatVector.zero(FLOATS);
+        FloatVector normB = FloatVector.zero(FLOATS);
+        int i = 0;
+        for (int bound = FLOATS.loopBound(length); i < bound; i += FLOATS.length()) {
+            FloatVector va = FloatVector.fromArray(FLOATS, a, aOffset + i);
+            FloatVector vb = FloatVector.fromArray(FLOATS, b, bOffset + i);
+            dot = va.mul(vb).add(dot);
+            normA = va.mul(va).add(normA);
+            normB = vb.mul(vb).add(normB);
+        }
+        float dotResult = dot.reduceLanes(ADD);
+        float normAResult = normA.reduceLanes(ADD);
+        float normBResult = normB.reduceLanes(ADD);
+        for (; i < length; i++) {
+            float x = a[aOffset + i], y = b[bOffset + i];
+            dotResult += x * y;
+            normAResult += x * x;
+            normBResult += y * y;
+        }
+        return cosineSimilarity(dotResult, normAResult, normBResult);
+    }
+
+    @Override
+    public float squaredEuclideanDistance(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        FloatVector sum = FloatVector.zero(FLOATS);
+        int i = 0;
+        for (int bound = FLOATS.loopBound(length); i < bound; i += FLOATS.length()) {
+            FloatVector difference = FloatVector.fromArray(FLOATS, a, aOffset + i)
+                    .sub(FloatVector.fromArray(FLOATS, b, bOffset + i));
+            sum = difference.mul(difference).add(sum);
+        }
+        float result = sum.reduceLanes(ADD);
+        for (; i < length; i++) {
+            float difference = a[aOffset + i] - b[bOffset + i];
+            result += difference * difference;
+        }
+        return result;
+    }
+}
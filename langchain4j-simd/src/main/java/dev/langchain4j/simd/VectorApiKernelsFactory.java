@@ -0,0 +1,22 @@
+package dev.langchain4j.simd;
+
+import dev.langchain4j.internal.VectorKernels;
+import dev.langchain4j.spi.vector.VectorKernelsFactory;
+
+/**
+ * Provides {@link VectorApiKernels} when the {@code jdk.incubator.vector} module is resolved,
+ * which requires starting the JVM with {@code --add-modules jdk.incubator.vector},
+ * and the CPU supports vectors of at least 4 floats.
+ */
+public class VectorApiKernelsFactory implements VectorKernelsFactory {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    @Override
+    public VectorKernels create() {
+        if (!ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent() || !VectorApiKernels.isSupported()) {
+            return null;
+        }
+        return new VectorApiKernels();
+    }
+}
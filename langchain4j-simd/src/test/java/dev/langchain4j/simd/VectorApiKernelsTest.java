@@ -0,0 +1,85 @@
+package dev.langchain4j.simd;
+
+import dev.langchain4j.internal.ScalarVectorKernels;
+import dev.langchain4j.internal.VectorKernels;
+import dev.langchain4j.internal.Vectors;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+
+import static java.nio.ByteOrder.BIG_ENDIAN;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class VectorApiKernelsTest {
+
+    private final VectorKernels scalar = new ScalarVectorKernels();
+    private final VectorKernels kernels = new VectorApiKernels();
+
+    @Test
+    void should_be_loaded_through_spi() {
+        assertThat(Vectors.kernels()).isInstanceOf(VectorApiKernels.class);
+    }
+
+    @Test
+    void should_compute_same_float_kernels_as_scalar_kernels() {
+        Random random = new Random(1);
+        for (int length = 0; length < 100; length++) {
+            for (int offset = 0; offset < 3; offset++) {
+                float[] a = randomVector(random, length + offset);
+                float[] b = randomVector(random, length);
+
+                assertThat(kernels.dot(a, offset, b, 0, length))
+                        .isCloseTo(scalar.dot(a, offset, b, 0, length), offset(1e-3f));
+                assertThat(kernels.dot(buffer(a, LITTLE_ENDIAN), offset, b, 0, length))
+                        .isCloseTo(scalar.dot(a, offset, b, 0, length), offset(1e-3f));
+                assertThat(kernels.dot(buffer(a, BIG_ENDIAN), offset, buffer(b, LITTLE_ENDIAN), 0, length))
+                        .isCloseTo(scalar.dot(a, offset, b, 0, length), offset(1e-3f));
+                assertThat(kernels.cosineSimilarity(a, offset, b, 0, length))
+                        .isCloseTo(scalar.cosineSimilarity(a, offset, b, 0, length), offset(1e-5f));
+                assertThat(kernels.squaredEuclideanDistance(a, offset, b, 0, length))
+                        .isCloseTo(scalar.squaredEuclideanDistance(a, offset, b, 0, length), offset(1e-3f));
+            }
+        }
+    }
+
+    @Test
+    void should_compute_same_byte_dot_product_as_scalar_kernels() {
+        Random random = new Random(1);
+        for (int length = 0; length < 100; length++) {
+            for (int offset = 0; offset < 3; offset++) {
+                byte[] a = new byte[length + offset];
+                byte[] b = new byte[length];
+                random.nextBytes(a);
+                random.nextBytes(b);
+
+                assertThat(kernels.dot(a, offset, b, 0, length)).isEqualTo(scalar.dot(a, offset, b, 0, length));
+            }
+        }
+    }
+
+    @Test
+    void should_consider_zero_vectors_orthogonal() {
+        float[] zeros = new float[64];
+        assertThat(kernels.cosineSimilarity(zeros, 0, zeros, 0, zeros.length)).isZero();
+    }
+
+    private static ByteBuffer buffer(float[] vector, ByteOrder order) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(vector.length * Float.BYTES).order(order);
+        for (float value : vector) {
+            buffer.putFloat(value);
+        }
+        return buffer;
+    }
+
+    private static float[] randomVector(Random random, int length) {
+        float[] vector = new float[length];
+        for (int i = 0; i < length; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return vector;
+    }
+}
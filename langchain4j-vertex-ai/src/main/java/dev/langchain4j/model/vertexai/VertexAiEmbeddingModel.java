@@ -9,10 +9,12 @@ import com.google.cloud.aiplatform.v1beta1.PredictResponse;
 import com.google.cloud.aiplatform.v1beta1.PredictionServiceClient;
 import com.google.cloud.aiplatform.v1beta1.PredictionServiceSettings;
 import com.google.cloud.aiplatform.v1beta1.TokensInfo;
+import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.Value;
 import com.google.protobuf.util.JsonFormat;
 import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.BatchingEmbeddingModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
 import dev.langchain4j.model.output.Response;
 import dev.langchain4j.model.output.TokenUsage;
@@ -20,7 +22,9 @@ import dev.langchain4j.model.vertexai.spi.VertexAiEmbeddingModelBuilderFactory;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import static com.google.cloud.aiplatform.util.ValueConverter.EMPTY_VALUE;
 import static dev.langchain4j.internal.Json.toJson;
@@ -122,48 +126,60 @@ public class VertexAiEmbeddingModel implements EmbeddingModel {
 
         try (PredictionServiceClient client = PredictionServiceClient.create(settings)) {
 
-            List<Embedding> embeddings = new ArrayList<>();
-            int inputTokenCount = 0;
-
+            // the tokens are counted by the API beforehand, all at once
             List<Integer> tokensCounts = this.calculateTokensCounts(segments);
-            List<Integer> batchSizes = groupByBatches(tokensCounts);
+            Map<String, Integer> tokensCountsByText = new HashMap<>();
+            for (int i = 0; i < segments.size(); i++) {
+                tokensCountsByText.put(segments.get(i).text(), tokensCounts.get(i));
+            }
 
-            for (int i = 0, j = 0; i < segments.size() && j < batchSizes.size(); i += batchSizes.get(j), j++) {
-                List<TextSegment> batch = segments.subList(i, i + batchSizes.get(j));
+            return BatchingEmbeddingModel.builder()
+                    .delegate(batch -> embedBatch(client, batch))
+                    .maxSegmentsPerBatch(maxSegmentsPerBatch)
+                    .maxTokensPerBatch(maxTokensPerBatch)
+                    .tokenCountEstimator(tokensCountsByText::get)
+                    .build()
+                    .embedAll(segments);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
 
-                List<Value> instances = new ArrayList<>();
-                for (TextSegment segment : batch) {
-                    VertexAiEmbeddingInstance embeddingInstance = new VertexAiEmbeddingInstance(segment.text());
-                    // Specify the type of embedding task when specified
-                    if (this.taskType != null) {
-                        embeddingInstance.setTaskType(taskType);
-                        if (this.taskType.equals(TaskType.RETRIEVAL_DOCUMENT)) {
-                            // Title metadata is used for calculating embeddings for document retrieval
-                            embeddingInstance.setTitle(segment.metadata(titleMetadataKey));
-                        }
+    private Response<List<Embedding>> embedBatch(PredictionServiceClient client, List<TextSegment> batch) {
+        try {
+            List<Value> instances = new ArrayList<>();
+            for (TextSegment segment : batch) {
+                VertexAiEmbeddingInstance embeddingInstance = new VertexAiEmbeddingInstance(segment.text());
+                // Specify the type of embedding task when specified
+                if (this.taskType != null) {
+                    embeddingInstance.setTaskType(taskType);
+                    if (this.taskType.equals(TaskType.RETRIEVAL_DOCUMENT)) {
+                        // Title metadata is used for calculating embeddings for document retrieval
+                        embeddingInstance.setTitle(segment.metadata(titleMetadataKey));
                     }
-
-                    Value.Builder instanceBuilder = Value.newBuilder();
-                    JsonFormat.parser().merge(toJson(embeddingInstance), instanceBuilder);
-                    instances.add(instanceBuilder.build());
                 }
 
-                PredictResponse response = withRetry(() -> client.predict(endpointName, instances, EMPTY_VALUE), maxRetries);
+                Value.Builder instanceBuilder = Value.newBuilder();
+                JsonFormat.parser().merge(toJson(embeddingInstance), instanceBuilder);
+                instances.add(instanceBuilder.build());
+            }
 
-                embeddings.addAll(response.getPredictionsList().stream()
-                        .map(VertexAiEmbeddingModel::toEmbedding)
-                        .collect(toList()));
+            PredictResponse response = withRetry(() -> client.predict(endpointName, instances, EMPTY_VALUE), maxRetries);
 
-                for (Value prediction : response.getPredictionsList()) {
-                    inputTokenCount += extractTokenCount(prediction);
-                }
+            List<Embedding> embeddings = response.getPredictionsList().stream()
+                    .map(VertexAiEmbeddingModel::toEmbedding)
+                    .collect(toList());
+
+            int inputTokenCount = 0;
+            for (Value prediction : response.getPredictionsList()) {
+                inputTokenCount += extractTokenCount(prediction);
             }
 
             return Response.from(
                     embeddings,
                     new TokenUsage(inputTokenCount)
             );
-        } catch (Exception e) {
+        } catch (InvalidProtocolBufferException e) {
             throw new RuntimeException(e);
         }
     }
@@ -212,39 +228,6 @@ public class VertexAiEmbeddingModel implements EmbeddingModel {
         }
     }
 
-    private List<Integer> groupByBatches(List<Integer> tokensCounts) {
-        // create a list of sublists of tokens counts
-        // where the maximum number of text segments per sublist is 250
-        // and the sum of the tokens counts in each sublist is less than 20_000
-
-        List<List<Integer>> batches = new ArrayList<>();
-
-        List<Integer> currentBatch = new ArrayList<>();
-        int currentBatchSum = 0;
-        for (Integer tokensCount : tokensCounts) {
-            if (currentBatchSum + tokensCount <= maxTokensPerBatch &&
-                currentBatch.size() < maxSegmentsPerBatch) {
-                currentBatch.add(tokensCount);
-                currentBatchSum += tokensCount;
-            } else {
-                batches.add(currentBatch);
-                currentBatch = new ArrayList<>();
-                currentBatch.add(tokensCount);
-                currentBatchSum = tokensCount;
-            }
-        }
-        if (!currentBatch.isEmpty()) {
-            batches.add(currentBatch);
-        }
-
-        // returns the list of number of text segments for each batch of embedding calculations
-
-        return batches.stream()
-            .mapToInt(List::size)
-            .boxed()
-            .collect(toList());
-    }
-
     private static Embedding toEmbedding(Value prediction) {
 
         List<Float> vector = prediction.getStructValue()
@@ -0,0 +1,98 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Binary quantization: each component of a vector is stored as its sign bit, packed into {@code long}s.
+ * <p>
+ * The query is quantized the same way, and vectors are ranked by the Hamming distance between the codes,
+ * computed with {@link Long#bitCount(long)}.
+ */
+class BinaryQuantizedVectors extends QuantizedVectors {
+
+    private volatile long[][] codes = new long[0][];
+    private volatile int size;
+
+    @Override
+    int endSlot() {
+        return size;
+    }
+
+    @Override
+    int bytesPerVector(int dimension) {
+        return words(dimension) * Long.BYTES;
+    }
+
+    private static int words(int dimension) {
+        return (dimension + Long.SIZE - 1) / Long.SIZE;
+    }
+
+    @Override
+    void add(float[] vector) {
+        ensureDimension(vector.length);
+
+        int words = words(dimension);
+        int size = this.size;
+        int chunkIndex = size / vectorsPerChunk;
+        int position = size % vectorsPerChunk;
+        long[][] codes = this.codes;
+        int capacity = requiredCapacity(chunkIndex == codes.length ? 0 : codes[chunkIndex].length / words, position);
+        if (capacity != -1) {
+            if (chunkIndex == codes.length) {
+                codes = Arrays.copyOf(codes, chunkIndex + 1);
+                codes[chunkIndex] = new long[0];
+            } else {
+                codes = codes.clone();
+            }
+            codes[chunkIndex] = Arrays.copyOf(codes[chunkIndex], capacity * words);
+        }
+
+        encode(vector, codes[chunkIndex], position * words);
+
+        this.codes = codes;
+        this.size = size + 1;
+    }
+
+    private static void encode(float[] vector, long[] target, int offset) {
+        for (int i = 0; i < vector.length; i++) {
+            if (vector[i] > 0) {
+                target[offset + i / Long.SIZE] |= 1L << (i % Long.SIZE);
+            }
+        }
+    }
+
+    /**
+     * The estimated similarity is {@code 1 - 2 * hammingDistance / dimension},
+     * which ranges from -1 (all signs differ) to 1 (all signs are equal).
+     */
+    @Override
+    void search(float[] normalizedQuery, int from, int to, IntPredicate accept, ScoreHeap heap, int maxCandidates) {
+        if (from >= to) {
+            return;
+        }
+        ensureQueryDimension(normalizedQuery);
+        int words = words(dimension);
+        long[] query = new long[words];
+        encode(normalizedQuery, query, 0);
+        float scale = 2f / dimension;
+
+        long[][] codes = this.codes;
+        int slot = from;
+        while (slot < to) {
+            long[] chunk = codes[slot / vectorsPerChunk];
+            int position = slot % vectorsPerChunk;
+            int chunkEnd = Math.min(to, slot + vectorsPerChunk - position);
+            for (int offset = position * words; slot < chunkEnd; slot++, offset += words) {
+                if (accept != null && !accept.test(slot)) {
+                    continue;
+                }
+                int distance = 0;
+                for (int i = 0; i < words; i++) {
+                    distance += Long.bitCount(query[i] ^ chunk[offset + i]);
+                }
+                heap.offer(slot, 1 - distance * scale, maxCandidates);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import java.util.Arrays;
+
+/**
+ * Objects identified by consecutive slots, stored in chunks so that appending never copies all of them.
+ * <p>
+ * Removing an object leaves a {@code null} tombstone in its slot, slots are never reused.
+ * A single thread may add or remove objects while other threads are reading:
+ * the chunks and the size are published after the object has been written.
+ *
+ * @param <T> The type of the objects.
+ */
+class EntrySlots<T> {
+
+    private static final int CHUNK_SIZE = 1 << 14;
+    private static final int INITIAL_CHUNK_SIZE = 16;
+
+    private volatile Object[][] chunks = new Object[0][];
+    private volatile int size;
+
+    /**
+     * @return The slot following the last object.
+     */
+    int endSlot() {
+        return size;
+    }
+
+    /**
+     * @return The object in the given slot, or {@code null} if it has been removed.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int slot) {
+        return (T) chunks[slot / CHUNK_SIZE][slot % CHUNK_SIZE];
+    }
+
+    /**
+     * @return The slot of the added object.
+     */
+    int add(T object) {
+        int size = this.size;
+        int chunkIndex = size / CHUNK_SIZE;
+        int position = size % CHUNK_SIZE;
+        Object[][] chunks = this.chunks;
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkIndex + 1);
+            chunks[chunkIndex] = new Object[INITIAL_CHUNK_SIZE];
+        } else if (position == chunks[chunkIndex].length) {
+            chunks = chunks.clone();
+            chunks[chunkIndex] = Arrays.copyOf(chunks[chunkIndex], Math.min(position * 2, CHUNK_SIZE));
+        }
+        chunks[chunkIndex][position] = object;
+
+        this.chunks = chunks;
+        this.size = size + 1;
+        return size;
+    }
+
+    void remove(int slot) {
+        chunks[slot / CHUNK_SIZE][slot % CHUNK_SIZE] = null;
+    }
+}
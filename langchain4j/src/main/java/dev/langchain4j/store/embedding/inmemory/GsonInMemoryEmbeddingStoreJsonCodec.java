@@ -2,29 +2,132 @@ package dev.langchain4j.store.embedding.inmemory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import dev.langchain4j.data.segment.TextSegment;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.google.gson.ToNumberPolicy.LONG_OR_DOUBLE;
 
+/**
+ * Reads and writes stores as {@code {"entries": [...]}} using the streaming API of Gson,
+ * so that entries are converted one at a time and the document is never held in memory as a whole.
+ * <p>
+ * Stores keeping vectors in half precision are written as {@code {"vectorPrecision": "FLOAT16", "entries": [...]}},
+ * and are read back with the same {@link VectorPrecision}.
+ */
 public class GsonInMemoryEmbeddingStoreJsonCodec implements InMemoryEmbeddingStoreJsonCodec {
 
     private static final Gson GSON = new GsonBuilder()
             .setObjectToNumberStrategy(LONG_OR_DOUBLE)
             .create();
 
-    private static final Type TYPE = new TypeToken<InMemoryEmbeddingStore<TextSegment>>() {
+    private static final Type ENTRY_TYPE = new TypeToken<InMemoryEmbeddingStore.Entry<TextSegment>>() {
     }.getType();
 
+    private static final String ENTRIES = "entries";
+    private static final String VECTOR_PRECISION = "vectorPrecision";
+
+    /**
+     * The number of entries read before they are added to the store.
+     */
+    private static final int READ_BATCH_SIZE = 1024;
+
     @Override
     public InMemoryEmbeddingStore<TextSegment> fromJson(String json) {
-        return GSON.fromJson(json, TYPE);
+        return read(new StringReader(json));
     }
 
     @Override
     public String toJson(InMemoryEmbeddingStore<?> store) {
-        return GSON.toJson(store);
+        StringWriter json = new StringWriter();
+        write(store, json);
+        return json.toString();
+    }
+
+    @Override
+    public InMemoryEmbeddingStore<TextSegment> read(Reader reader) {
+        VectorPrecision vectorPrecision = null;
+        InMemoryEmbeddingStore<TextSegment> store = null;
+        try {
+            JsonReader jsonReader = GSON.newJsonReader(reader);
+            jsonReader.beginObject();
+            while (jsonReader.hasNext()) {
+                String name = jsonReader.nextName();
+                if (jsonReader.peek() == JsonToken.NULL) {
+                    jsonReader.skipValue();
+                } else if (VECTOR_PRECISION.equals(name) && store == null) {
+                    vectorPrecision = VectorPrecision.valueOf(jsonReader.nextString());
+                } else if (ENTRIES.equals(name)) {
+                    store = newStore(store, vectorPrecision);
+                    readEntries(jsonReader, store);
+                } else {
+                    jsonReader.skipValue();
+                }
+            }
+            jsonReader.endObject();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return newStore(store, vectorPrecision);
+    }
+
+    private static InMemoryEmbeddingStore<TextSegment> newStore(InMemoryEmbeddingStore<TextSegment> store,
+                                                                VectorPrecision vectorPrecision) {
+        if (store != null) {
+            return store;
+        }
+        return InMemoryEmbeddingStore.<TextSegment>builder()
+                .vectorPrecision(vectorPrecision)
+                .build();
+    }
+
+    private static void readEntries(JsonReader jsonReader, InMemoryEmbeddingStore<TextSegment> store)
+            throws IOException {
+        List<InMemoryEmbeddingStore.Entry<TextSegment>> batch = new ArrayList<>();
+        jsonReader.beginArray();
+        while (jsonReader.hasNext()) {
+            batch.add(GSON.fromJson(jsonReader, ENTRY_TYPE));
+            if (batch.size() == READ_BATCH_SIZE) {
+                store.add(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        jsonReader.endArray();
+        if (!batch.isEmpty()) {
+            store.add(batch);
+        }
+    }
+
+    @Override
+    public void write(InMemoryEmbeddingStore<?> store, Writer writer) {
+        try {
+            JsonWriter jsonWriter = GSON.newJsonWriter(writer);
+            jsonWriter.beginObject();
+            if (store.vectorPrecision() != VectorPrecision.FLOAT32) {
+                jsonWriter.name(VECTOR_PRECISION).value(store.vectorPrecision().name());
+            }
+            jsonWriter.name(ENTRIES);
+            jsonWriter.beginArray();
+            store.forEachEntry(entry -> GSON.toJson(entry, ENTRY_TYPE, jsonWriter));
+            jsonWriter.endArray();
+            jsonWriter.endObject();
+            jsonWriter.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } catch (JsonIOException e) {
+            throw new RuntimeException(e.getCause());
+        }
     }
 }
@@ -0,0 +1,90 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+/**
+ * Conversions between {@code float} and the 16-bit floating point formats of {@link VectorPrecision},
+ * rounding to the nearest value, ties to even.
+ * <p>
+ * Decoding float16 uses a lookup table of all 65536 values, so that it costs a single array access
+ * in similarity kernels.
+ */
+class HalfFloats {
+
+    private static final float[] FLOAT16_VALUES = new float[1 << 16];
+
+    static {
+        for (int i = 0; i < FLOAT16_VALUES.length; i++) {
+            FLOAT16_VALUES[i] = decodeFloat16(i);
+        }
+    }
+
+    private HalfFloats() {
+    }
+
+    static short toFloat16(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        int sign = (bits >>> 16) & 0x8000;
+        int exponent = (bits >>> 23) & 0xFF;
+        int mantissa = bits & 0x7FFFFF;
+
+        if (exponent == 0xFF) {
+            // infinity, or NaN which must keep a mantissa bit
+            return (short) (sign | 0x7C00 | (mantissa != 0 ? 0x200 : 0));
+        }
+        int halfExponent = exponent - 127 + 15;
+        if (halfExponent >= 0x1F) {
+            return (short) (sign | 0x7C00);
+        }
+        if (halfExponent <= 0) {
+            if (halfExponent < -10) {
+                return (short) sign;
+            }
+            // subnormal: the implicit bit becomes explicit and the mantissa is shifted accordingly
+            mantissa |= 0x800000;
+            int shift = 14 - halfExponent;
+            int halfMantissa = mantissa >> shift;
+            int remainder = mantissa & ((1 << shift) - 1);
+            int halfway = 1 << (shift - 1);
+            if (remainder > halfway || (remainder == halfway && (halfMantissa & 1) != 0)) {
+                halfMantissa++;
+            }
+            return (short) (sign | halfMantissa);
+        }
+        int half = sign | (halfExponent << 10) | (mantissa >> 13);
+        int remainder = mantissa & 0x1FFF;
+        if (remainder > 0x1000 || (remainder == 0x1000 && (half & 1) != 0)) {
+            // a carry into the exponent is the correct rounding, up to infinity
+            half++;
+        }
+        return (short) half;
+    }
+
+    static float fromFloat16(short half) {
+        return FLOAT16_VALUES[half & 0xFFFF];
+    }
+
+    private static float decodeFloat16(int bits) {
+        int sign = (bits & 0x8000) << 16;
+        int exponent = (bits >>> 10) & 0x1F;
+        int mantissa = bits & 0x3FF;
+        if (exponent == 0x1F) {
+            return Float.intBitsToFloat(sign | 0x7F800000 | (mantissa << 13));
+        }
+        if (exponent == 0) {
+            float value = mantissa * 0x1p-24f;
+            return sign == 0 ? value : -value;
+        }
+        return Float.intBitsToFloat(sign | ((exponent - 15 + 127) << 23) | (mantissa << 13));
+    }
+
+    static short toBFloat16(float value) {
+        int bits = Float.floatToRawIntBits(value);
+        if (Float.isNaN(value)) {
+            return (short) ((bits >>> 16) | 0x40);
+        }
+        return (short) ((bits + 0x7FFF + ((bits >>> 16) & 1)) >>> 16);
+    }
+
+    static float fromBFloat16(short half) {
+        return Float.intBitsToFloat((half & 0xFFFF) << 16);
+    }
+}
@@ -0,0 +1,147 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.store.embedding.RelevanceScore;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+
+/**
+ * A {@link VectorArena} keeping normalized vectors as 16-bit floats, see {@link VectorPrecision}.
+ * <p>
+ * The norm of each vector is kept as well, so that the added vector can be reconstructed
+ * and the store does not need to keep it.
+ * Similarities are computed on the half-precision values, which are widened to {@code float} one at a time.
+ */
+class HalfPrecisionVectorArena extends VectorArena {
+
+    private final boolean bfloat16;
+    private final VectorPrecision precision;
+    private volatile short[][] chunks = new short[0][];
+    private volatile float[][] norms = new float[0][];
+    private volatile int size;
+
+    HalfPrecisionVectorArena(VectorPrecision precision, int firstSlot, int dimension) {
+        super(firstSlot);
+        if (precision == VectorPrecision.FLOAT32) {
+            throw illegalArgument("Not a half precision: %s", precision);
+        }
+        this.precision = precision;
+        this.bfloat16 = precision == VectorPrecision.BFLOAT16;
+        if (dimension != -1) {
+            initDimension(dimension);
+        }
+    }
+
+    @Override
+    int endSlot() {
+        return firstSlot + size;
+    }
+
+    @Override
+    void add(float[] vector) {
+        ensureDimension(vector.length);
+
+        int size = this.size;
+        int chunkIndex = size / vectorsPerChunk;
+        int position = size % vectorsPerChunk;
+        short[][] chunks = this.chunks;
+        float[][] norms = this.norms;
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkIndex + 1);
+            norms = Arrays.copyOf(norms, chunkIndex + 1);
+            int capacity = Math.min(INITIAL_CHUNK_VECTORS, vectorsPerChunk);
+            chunks[chunkIndex] = new short[capacity * dimension];
+            norms[chunkIndex] = new float[capacity];
+        } else if (position == norms[chunkIndex].length) {
+            chunks = chunks.clone();
+            norms = norms.clone();
+            int capacity = Math.min(position * 2, vectorsPerChunk);
+            chunks[chunkIndex] = Arrays.copyOf(chunks[chunkIndex], capacity * dimension);
+            norms[chunkIndex] = Arrays.copyOf(norms[chunkIndex], capacity);
+        }
+
+        short[] chunk = chunks[chunkIndex];
+        int offset = position * dimension;
+        float inverseNorm = inverseNorm(vector);
+        for (int i = 0; i < dimension; i++) {
+            chunk[offset + i] = precision.toHalf(vector[i] * inverseNorm);
+        }
+        norms[chunkIndex][position] = 1 / inverseNorm;
+
+        this.chunks = chunks;
+        this.norms = norms;
+        this.size = size + 1;
+    }
+
+    @Override
+    float cosineSimilarity(int slot, float[] normalizedQuery) {
+        int index = slot - firstSlot;
+        return dot(chunks[index / vectorsPerChunk], (index % vectorsPerChunk) * dimension, normalizedQuery);
+    }
+
+    @Override
+    float cosineSimilarity(int slotA, int slotB) {
+        return cosineSimilarity(slotA, vector(slotB, false));
+    }
+
+    @Override
+    void search(float[] normalizedQuery, int from, int to, IntPredicate accept,
+                double minScore, ScoreHeap heap, int maxResults) {
+        from = Math.max(from, firstSlot);
+        if (from >= to) {
+            return;
+        }
+        ensureQueryDimension(normalizedQuery);
+        int dimension = this.dimension;
+        short[][] chunks = this.chunks;
+        int slot = from;
+        while (slot < to) {
+            int index = slot - firstSlot;
+            short[] chunk = chunks[index / vectorsPerChunk];
+            int chunkEnd = Math.min(to, slot + vectorsPerChunk - index % vectorsPerChunk);
+            for (int offset = (index % vectorsPerChunk) * dimension; slot < chunkEnd; slot++, offset += dimension) {
+                if (accept != null && !accept.test(slot)) {
+                    continue;
+                }
+                float dot = dot(chunk, offset, normalizedQuery);
+                if (RelevanceScore.fromCosineSimilarity(dot) >= minScore) {
+                    heap.offer(slot, dot, maxResults);
+                }
+            }
+        }
+    }
+
+    @Override
+    float[] vector(int slot) {
+        return vector(slot, true);
+    }
+
+    private float[] vector(int slot, boolean denormalize) {
+        int index = slot - firstSlot;
+        short[] chunk = chunks[index / vectorsPerChunk];
+        int offset = (index % vectorsPerChunk) * dimension;
+        float norm = denormalize ? norms[index / vectorsPerChunk][index % vectorsPerChunk] : 1;
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = precision.fromHalf(chunk[offset + i]) * norm;
+        }
+        return vector;
+    }
+
+    private float dot(short[] chunk, int offset, float[] normalizedQuery) {
+        int dimension = this.dimension;
+        float dot = 0;
+        if (bfloat16) {
+            for (int i = 0; i < dimension; i++) {
+                dot += HalfFloats.fromBFloat16(chunk[offset + i]) * normalizedQuery[i];
+            }
+        } else {
+            for (int i = 0; i < dimension; i++) {
+                dot += HalfFloats.fromFloat16(chunk[offset + i]) * normalizedQuery[i];
+            }
+        }
+        return dot;
+    }
+}
@@ -0,0 +1,288 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+
+/**
+ * An approximate nearest neighbour index based on
+ * <a href="https://arxiv.org/abs/1603.09320">Hierarchical Navigable Small World</a> graphs.
+ * <p>
+ * Nodes are the slots of the {@link VectorArena} holding the vectors and must be added in increasing order.
+ * Similarity between nodes is the cosine similarity.
+ * <p>
+ * Searches can run concurrently with each other, insertions are serialized.
+ */
+class HnswIndex {
+
+    private final VectorArena vectors;
+    private final int m;
+    private final int maxConnections0;
+    private final int efConstruction;
+    private final double levelMultiplier;
+    private final Random random = new Random(42);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * For each node and each of its levels: the number of neighbours followed by the neighbours themselves.
+     */
+    private int[][][] neighbors = new int[16][][];
+    private int size;
+    private int entryPoint = -1;
+    private int maxLevel = -1;
+
+    HnswIndex(VectorArena vectors, int m, int efConstruction) {
+        this.vectors = vectors;
+        this.m = m;
+        this.maxConnections0 = 2 * m;
+        this.efConstruction = efConstruction;
+        this.levelMultiplier = 1 / Math.log(m);
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Adds a node to the graph, its vector must already be in the arena.
+     */
+    void add(int node) {
+        lock.writeLock().lock();
+        try {
+            if (node != size) {
+                throw illegalArgument("Expected node %s, but got %s", size, node);
+            }
+            ensureCapacity(node + 1);
+
+            int level = randomLevel();
+            neighbors[node] = new int[level + 1][];
+            for (int l = 0; l <= level; l++) {
+                neighbors[node][l] = new int[maxConnections(l) + 1];
+            }
+            size++;
+
+            if (entryPoint == -1) {
+                entryPoint = node;
+                maxLevel = level;
+                return;
+            }
+
+            int current = entryPoint;
+            for (int l = maxLevel; l > level; l--) {
+                current = greedySearch(node, current, l);
+            }
+
+            int[] entryPoints = {current};
+            for (int l = Math.min(level, maxLevel); l >= 0; l--) {
+                ScoreHeap candidates = searchLayer(node, entryPoints, efConstruction, l, new BitSet(size));
+                float[] scores = new float[candidates.size()];
+                int[] nearest = candidates.drainDescending(scores);
+                int[] selected = selectNeighbors(nearest, scores, m);
+                System.arraycopy(selected, 0, neighbors[node][l], 1, selected.length);
+                neighbors[node][l][0] = selected.length;
+                for (int neighbor : selected) {
+                    connect(neighbor, node, l);
+                }
+                entryPoints = nearest;
+            }
+
+            if (level > maxLevel) {
+                entryPoint = node;
+                maxLevel = level;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Searches for the nodes most similar to the given query.
+     *
+     * @param query  The normalized query vector.
+     * @param ef     The size of the dynamic candidate list, bounds the number of returned nodes.
+     * @param accept Only nodes accepted by this predicate are returned, all nodes are accepted when {@code null}.
+     *               Rejected nodes are still used to navigate the graph.
+     * @return Found nodes, ordered from the most to the least similar.
+     */
+    Hits search(float[] query, int ef, IntPredicate accept) {
+        lock.readLock().lock();
+        try {
+            if (entryPoint == -1) {
+                return new Hits(new int[0], new float[0], 0);
+            }
+            if (query.length != vectors.dimension()) {
+                throw illegalArgument("Length of query vector (%s) must be equal to the dimension of the store (%s)",
+                        query.length, vectors.dimension());
+            }
+            IntToFloat scorer = node -> vectors.cosineSimilarity(node, query);
+            int current = entryPoint;
+            for (int l = maxLevel; l > 0; l--) {
+                current = greedySearch(scorer, current, l);
+            }
+            BitSet visited = new BitSet(size);
+            ScoreHeap results = searchLayer(scorer, new int[]{current}, ef, 0, accept, visited);
+            float[] scores = new float[results.size()];
+            int[] nodes = results.drainDescending(scores);
+            return new Hits(nodes, scores, visited.cardinality());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int greedySearch(int node, int start, int level) {
+        return greedySearch(other -> vectors.cosineSimilarity(other, node), start, level);
+    }
+
+    private int greedySearch(IntToFloat scorer, int start, int level) {
+        int current = start;
+        float currentScore = scorer.score(current);
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            int[] list = neighbors[current][level];
+            for (int i = 1; i <= list[0]; i++) {
+                int neighbor = list[i];
+                float score = scorer.score(neighbor);
+                if (score > currentScore) {
+                    current = neighbor;
+                    currentScore = score;
+                    changed = true;
+                }
+            }
+        }
+        return current;
+    }
+
+    private ScoreHeap searchLayer(int node, int[] entryPoints, int ef, int level, BitSet visited) {
+        return searchLayer(other -> vectors.cosineSimilarity(other, node), entryPoints, ef, level, null, visited);
+    }
+
+    private ScoreHeap searchLayer(IntToFloat scorer, int[] entryPoints, int ef, int level,
+                                  IntPredicate accept, BitSet visited) {
+        // scores are negated so that the most similar candidate is at the top
+        ScoreHeap candidates = new ScoreHeap(ef);
+        ScoreHeap results = new ScoreHeap(ef);
+
+        for (int entryPoint : entryPoints) {
+            if (visited.get(entryPoint)) {
+                continue;
+            }
+            visited.set(entryPoint);
+            float score = scorer.score(entryPoint);
+            candidates.push(entryPoint, -score);
+            if (accept == null || accept.test(entryPoint)) {
+                results.offer(entryPoint, score, ef);
+            }
+        }
+
+        while (!candidates.isEmpty()) {
+            int candidate = candidates.topIndex();
+            float candidateScore = -candidates.topScore();
+            candidates.pop();
+            if (results.size() >= ef && candidateScore < results.topScore()) {
+                break;
+            }
+            int[] list = neighbors[candidate][level];
+            for (int i = 1; i <= list[0]; i++) {
+                int neighbor = list[i];
+                if (visited.get(neighbor)) {
+                    continue;
+                }
+                visited.set(neighbor);
+                float score = scorer.score(neighbor);
+                if (results.size() < ef || score > results.topScore()) {
+                    candidates.push(neighbor, -score);
+                    if (accept == null || accept.test(neighbor)) {
+                        results.offer(neighbor, score, ef);
+                    }
+                }
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Selects up to {@code max} neighbours using the heuristic from the HNSW paper:
+     * a candidate is kept only if it is closer to the base node than to any already selected neighbour.
+     *
+     * @param candidates Candidates ordered from the most to the least similar to the base node.
+     * @param scores     Similarities of candidates to the base node.
+     */
+    private int[] selectNeighbors(int[] candidates, float[] scores, int max) {
+        int[] selected = new int[Math.min(max, candidates.length)];
+        int count = 0;
+        for (int i = 0; i < candidates.length && count < selected.length; i++) {
+            boolean diverse = true;
+            for (int j = 0; j < count; j++) {
+                if (vectors.cosineSimilarity(candidates[i], selected[j]) > scores[i]) {
+                    diverse = false;
+                    break;
+                }
+            }
+            if (diverse) {
+                selected[count++] = candidates[i];
+            }
+        }
+        return count == selected.length ? selected : Arrays.copyOf(selected, count);
+    }
+
+    private void connect(int node, int neighbor, int level) {
+        int[] list = neighbors[node][level];
+        int count = list[0];
+        if (count < list.length - 1) {
+            list[count + 1] = neighbor;
+            list[0] = count + 1;
+            return;
+        }
+
+        ScoreHeap heap = new ScoreHeap(count + 1);
+        for (int i = 1; i <= count; i++) {
+            heap.push(list[i], vectors.cosineSimilarity(list[i], node));
+        }
+        heap.push(neighbor, vectors.cosineSimilarity(neighbor, node));
+        float[] scores = new float[heap.size()];
+        int[] candidates = heap.drainDescending(scores);
+        int[] selected = selectNeighbors(candidates, scores, count);
+        System.arraycopy(selected, 0, list, 1, selected.length);
+        list[0] = selected.length;
+    }
+
+    private int maxConnections(int level) {
+        return level == 0 ? maxConnections0 : m;
+    }
+
+    private int randomLevel() {
+        return (int) (-Math.log(1 - random.nextDouble()) * levelMultiplier);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > neighbors.length) {
+            neighbors = Arrays.copyOf(neighbors, Math.max(capacity, neighbors.length * 2));
+        }
+    }
+
+    private interface IntToFloat {
+
+        float score(int node);
+    }
+
+    /**
+     * Nodes found by {@link #search(float[], int, IntPredicate)}.
+     */
+    static class Hits {
+
+        final int[] nodes;
+        final float[] similarities;
+        final int visitedCount;
+
+        Hits(int[] nodes, float[] similarities, int visitedCount) {
+            this.nodes = nodes;
+            this.similarities = similarities;
+            this.visitedCount = visitedCount;
+        }
+    }
+}
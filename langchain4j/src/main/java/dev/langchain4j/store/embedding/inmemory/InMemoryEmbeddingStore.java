@@ -6,39 +6,329 @@ import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.spi.store.embedding.inmemory.InMemoryEmbeddingStoreJsonCodecFactory;
 import dev.langchain4j.store.embedding.*;
 import dev.langchain4j.store.embedding.filter.Filter;
+import lombok.Builder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
 import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+import static dev.langchain4j.internal.Utils.getOrDefault;
+import static dev.langchain4j.internal.Utils.isNullOrEmpty;
 import static dev.langchain4j.internal.Utils.randomUUID;
+import static dev.langchain4j.internal.ValidationUtils.ensureBetween;
+import static dev.langchain4j.internal.ValidationUtils.ensureGreaterThanZero;
 import static dev.langchain4j.internal.ValidationUtils.ensureNotBlank;
+import static dev.langchain4j.internal.ValidationUtils.ensureNotEmpty;
 import static dev.langchain4j.internal.ValidationUtils.ensureNotNull;
 import static dev.langchain4j.spi.ServiceHelper.loadFactories;
 import static java.nio.file.StandardOpenOption.CREATE;
 import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
-import static java.util.Comparator.comparingDouble;
+import static java.util.Collections.singletonList;
 import static java.util.stream.Collectors.toList;
 
 /**
  * An {@link EmbeddingStore} that stores embeddings in memory.
  * <p>
- * Uses a brute force approach by iterating over all embeddings to find the best matches.
+ * By default, uses a brute force approach by iterating over all embeddings to find the best matches.
+ * Vectors are copied into large contiguous arrays when added, along with their inverse norms,
+ * so that the similarity of each embedding is a single dot product. The store does not keep the added embeddings,
+ * they are copied from these arrays when returned.
+ * All embeddings in the store must have the same dimension.
+ * <p>
+ * Optionally, an approximate <a href="https://arxiv.org/abs/1603.09320">HNSW</a> index can be enabled
+ * using {@code InMemoryEmbeddingStore.builder()}. The index is built incrementally as embeddings are added,
+ * and is used for searching once the store contains at least {@code exactSearchThreshold} embeddings.
+ * The index is not persisted: stores recreated from JSON use the brute force approach.
+ * <p>
+ * Once the store contains at least {@code parallelSearchThreshold} embeddings, the brute force search
+ * is split into contiguous ranges that are scored concurrently on the {@code searchExecutor}.
+ * Each range keeps its own top results, which are merged afterwards.
+ * The results are the same as those of a sequential search.
+ * <p>
+ * To speed up the brute force search, vectors can be quantized using {@code quantization},
+ * see {@link VectorQuantization}. The search then scans the quantized vectors to select candidates,
+ * which are re-scored exactly using the full-precision vectors. These are kept as well, so quantization
+ * adds to the memory used by the vectors, unless they are kept outside the heap using {@code offHeapVectors}:
+ * only the quantized vectors are then kept on the heap.
+ * Combined with {@link #fromBinaryFile(Path, VectorQuantization)}, the full-precision vectors
+ * are read from the file when re-scoring.
+ * Quantization cannot be combined with the HNSW index.
+ * <p>
+ * Alternatively, vectors can be kept in half precision using {@code vectorPrecision}, see {@link VectorPrecision}.
+ * All searches then compute similarities on the half-precision vectors,
+ * and the embeddings the store returns are reconstructed from them.
+ * <p>
+ * For large stores, vectors can be kept outside the Java heap using {@code offHeapVectors}, in direct buffers
+ * that the garbage collector neither scans nor copies. Embedded objects stay on the heap.
+ * <p>
+ * Most of the memory of a large store is usually taken by the text and metadata of its {@link TextSegment}s,
+ * while only those of the final results of a search are needed. With a {@code payloadFile}, segments are appended
+ * to this file and the store only keeps their offsets, along with the values of the {@code indexedMetadataKeys}.
+ * Segments are read back through a memory mapping when the matches of a search are built, or when a filter
+ * uses keys that are not indexed. Only {@link TextSegment}s are supported as embedded content.
+ * The space of removed segments is only reclaimed when the store is created again.
+ * <p>
+ * When most searches are filtered by a few metadata keys, these keys can be declared as {@code indexedMetadataKeys}.
+ * Their values are indexed as entries are added, and a {@link Filter} comparing them with {@code isEqualTo},
+ * {@code isIn} or a range comparison is first used to select candidates, so that only these are scored.
+ * <p>
+ * Adding an embedding with the ID of an existing one replaces it. Replaced and removed entries are only marked
+ * as removed: they are skipped by searches, but their space is reclaimed later, once they make up
+ * {@code compactionThreshold} of the store, by a compaction running on the {@code searchExecutor}.
+ * Searches never wait for modifications or compactions, while modifications are serialized
+ * and each call to {@code addAll} or {@code removeAll} is applied as a single batch.
+ * The HNSW index is the exception: searches using it wait while embeddings are inserted into the graph.
+ * <p>
+ * For durability without rewriting the whole store, a {@code journalDirectory} can be set using
+ * {@code InMemoryEmbeddingStore.builder()}. Each modification is then appended to a log in this directory
+ * before being applied, and the store is recovered from the directory when created again with the same builder.
+ * Checkpoints write a snapshot of the store and truncate the log, see {@link #checkpoint()}.
+ * Compactions and checkpoints failing on the {@code searchExecutor} are logged, and attempted again
+ * on the next modification.
+ * Only {@link TextSegment}s are supported as embedded content.
  * <p>
  * This store can be persisted using the {@link #serializeToJson()} and {@link #serializeToFile(Path)} methods.
  * <p>
  * It can also be recreated from JSON or a file using the {@link #fromJson(String)} and {@link #fromFile(Path)} methods.
+ * Files are written and read one entry at a time, and can be compressed using {@link #serializeToFile(Path, boolean)}.
+ * <p>
+ * For large stores, the compact binary format written by {@link #serializeToBinaryFile(Path)} is preferable.
+ * A store opened with {@link #fromBinaryFile(Path)} memory-maps the vectors of the file instead of loading them
+ * onto the heap, so it can start serving queries right away.
+ * A compaction copies the vectors of the remaining memory-mapped entries onto the heap.
  *
  * @param <Embedded> The class of the object that has been embedded.
  *                   Typically, it is {@link dev.langchain4j.data.segment.TextSegment}.
  */
 public class InMemoryEmbeddingStore<Embedded> implements EmbeddingStore<Embedded> {
 
-    final CopyOnWriteArrayList<Entry<Embedded>> entries = new CopyOnWriteArrayList<>();
+    private static final Logger log = LoggerFactory.getLogger(InMemoryEmbeddingStore.class);
+
+    /**
+     * The number of vector components scored against all queries of {@link #searchAll(List)} at once:
+     * 64 KB of floats fit into the L2 cache of most CPUs.
+     */
+    private static final int SEARCH_BLOCK_FLOATS = 1 << 14;
+
+    /**
+     * The longest gap between candidates selected by the {@link MetadataIndex} that is scanned
+     * within the same run, rejecting slots with a bit test, rather than starting a new run.
+     */
+    private static final int MAX_CANDIDATE_GAP = 64;
+
+    /**
+     * The minimum number of removed entries for a compaction to be scheduled.
+     */
+    private static final int MIN_REMOVED_FOR_COMPACTION = 1024;
+
+    private static final int FILE_BUFFER_SIZE = 64 * 1024;
+
+    private final VectorQuantization quantization;
+    private final VectorPrecision vectorPrecision;
+    private final boolean offHeapVectors;
+    private final int rescoringFactor;
+    private final boolean useHnswIndex;
+    private final int hnswM;
+    private final int hnswEfConstruction;
+    private final int hnswEfSearch;
+    private final int exactSearchThreshold;
+    private final Executor searchExecutor;
+    private final int searchParallelism;
+    private final int parallelSearchThreshold;
+    private final Collection<String> indexedMetadataKeys;
+    private final double compactionThreshold;
+    private final InMemoryEmbeddingStoreJournal journal;
+    private final long journalCheckpointSize;
+    private final PayloadFile payloads;
+
+    /**
+     * Serializes modifications of the {@link #storage} and of the {@link #journal},
+     * and guards {@link #compactionScheduled} and {@link #checkpointScheduled}.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * The entries and their vectors. Searches read it once and use it without locking,
+     * a compaction replaces it as a whole.
+     */
+    private volatile Storage<Embedded> storage;
+
+    private boolean compactionScheduled;
+    private boolean checkpointScheduled;
+
+    /**
+     * Creates an in-memory embedding store that uses a brute force search.
+     */
+    public InMemoryEmbeddingStore() {
+        this(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+    }
+
+    /**
+     * Creates an in-memory embedding store.
+     *
+     * @param useHnswIndex         Whether to build an approximate HNSW index. Default: false
+     * @param hnswM                The maximum number of connections per node and layer
+     *                             (twice as many are allowed on the bottom layer), at least 2. Default: 16
+     * @param hnswEfConstruction   The size of the dynamic candidate list used while inserting. Default: 100
+     * @param hnswEfSearch         The size of the dynamic candidate list used while searching.
+     *                             Higher values give better recall at the cost of latency.
+     *                             {@link EmbeddingSearchRequest#maxResults()} is used if it is higher. Default: 100
+     * @param exactSearchThreshold The minimum number of embeddings in the store for the HNSW index to be used.
+     *                             Smaller stores are searched exactly. Default: 10000
+     * @param searchExecutor       The executor used to run the parallel brute force search and compactions.
+     *                             The search is split into as many ranges as the parallelism of the executor
+     *                             when it is a {@link ForkJoinPool}, or as the number of available processors otherwise.
+     *                             Default: {@link ForkJoinPool#commonPool()}
+     * @param parallelSearchThreshold The minimum number of embeddings in the store for the brute force search
+     *                             to run in parallel. Smaller stores are searched on the calling thread. Default: 50000
+     * @param quantization         How vectors are represented for the brute force search. Default: {@link VectorQuantization#NONE}
+     * @param rescoringFactor      When vectors are quantized, {@code maxResults * rescoringFactor} candidates
+     *                             are selected using quantized vectors and re-scored exactly.
+     *                             Default: 4 for {@link VectorQuantization#INT8}, 10 for {@link VectorQuantization#BINARY}
+     * @param indexedMetadataKeys  The metadata keys whose values are indexed to select candidates
+     *                             for filtered searches, see {@link MetadataIndex}. Default: none
+     * @param compactionThreshold  The fraction of removed or replaced entries above which the store is compacted.
+     *                             Default: 0.25
+     * @param journalDirectory     The directory of the journal, see {@link #checkpoint()}.
+     *                             When set, the store is recovered from the directory
+     *                             and all modifications are journaled there. Default: none
+     * @param journalSyncBatchSize The number of journal records after which they are forced to the storage device.
+     *                             Default: 1, every modification is durable once the method returns
+     * @param journalCheckpointSize The size in bytes of the journal log above which a checkpoint is taken
+     *                             on the {@code searchExecutor}. Default: 64 MiB
+     * @param vectorPrecision      The precision of the vectors kept by the store, see {@link VectorPrecision}.
+     *                             A half precision cannot be combined with quantization.
+     *                             Default: {@link VectorPrecision#FLOAT32}
+     * @param offHeapVectors       Whether vectors are kept in direct buffers, outside the Java heap.
+     *                             Their memory is limited by {@code -XX:MaxDirectMemorySize}, not by the heap size.
+     *                             Cannot be combined with a half precision. Default: false
+     * @param payloadFile          The file the text and metadata of the segments are kept in, instead of the heap.
+     *                             It is truncated when the store is created. Default: none
+     */
+    @Builder
+    public InMemoryEmbeddingStore(Boolean useHnswIndex,
+                                  Integer hnswM,
+                                  Integer hnswEfConstruction,
+                                  Integer hnswEfSearch,
+                                  Integer exactSearchThreshold,
+                                  Executor searchExecutor,
+                                  Integer parallelSearchThreshold,
+                                  VectorQuantization quantization,
+                                  Integer rescoringFactor,
+                                  Collection<String> indexedMetadataKeys,
+                                  Double compactionThreshold,
+                                  Path journalDirectory,
+                                  Integer journalSyncBatchSize,
+                                  Long journalCheckpointSize,
+                                  VectorPrecision vectorPrecision,
+                                  Boolean offHeapVectors,
+                                  Path payloadFile) {
+        this.quantization = getOrDefault(quantization, VectorQuantization.NONE);
+        this.useHnswIndex = getOrDefault(useHnswIndex, false);
+        if (this.quantization != VectorQuantization.NONE && this.useHnswIndex) {
+            throw illegalArgument("Quantization cannot be combined with the HNSW index");
+        }
+        this.vectorPrecision = getOrDefault(vectorPrecision, VectorPrecision.FLOAT32);
+        if (this.quantization != VectorQuantization.NONE && this.vectorPrecision != VectorPrecision.FLOAT32) {
+            throw illegalArgument("Quantization cannot be combined with a half vector precision");
+        }
+        this.offHeapVectors = getOrDefault(offHeapVectors, false);
+        if (this.offHeapVectors && this.vectorPrecision != VectorPrecision.FLOAT32) {
+            throw illegalArgument("Off-heap vectors cannot be combined with a half vector precision");
+        }
+        this.rescoringFactor = ensureGreaterThanZero(getOrDefault(rescoringFactor,
+                this.quantization == VectorQuantization.BINARY ? 10 : 4), "rescoringFactor");
+        this.hnswM = this.useHnswIndex ? getOrDefault(hnswM, 16) : 0;
+        if (this.useHnswIndex && this.hnswM < 2) {
+            throw illegalArgument("hnswM must be at least 2, but is: %s", this.hnswM);
+        }
+        this.hnswEfConstruction = this.useHnswIndex
+                ? ensureGreaterThanZero(getOrDefault(hnswEfConstruction, 100), "hnswEfConstruction")
+                : 0;
+        this.hnswEfSearch = ensureGreaterThanZero(getOrDefault(hnswEfSearch, 100), "hnswEfSearch");
+        this.exactSearchThreshold = getOrDefault(exactSearchThreshold, 10_000);
+        this.searchExecutor = getOrDefault(searchExecutor, ForkJoinPool.commonPool());
+        this.searchParallelism = this.searchExecutor instanceof ForkJoinPool
+                ? ((ForkJoinPool) this.searchExecutor).getParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.parallelSearchThreshold = getOrDefault(parallelSearchThreshold, 50_000);
+        this.indexedMetadataKeys = isNullOrEmpty(indexedMetadataKeys) ? null : new ArrayList<>(indexedMetadataKeys);
+        this.compactionThreshold = ensureBetween(getOrDefault(compactionThreshold, 0.25), 0.0, 1.0, "compactionThreshold");
+        this.journalCheckpointSize = ensureBetween(getOrDefault(journalCheckpointSize, 64L << 20), 1, Long.MAX_VALUE, "journalCheckpointSize");
+        if (payloadFile == null) {
+            this.payloads = null;
+        } else {
+            try {
+                this.payloads = PayloadFile.open(payloadFile);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        this.storage = newStorage(null);
+        if (journalDirectory == null) {
+            this.journal = null;
+        } else {
+            try {
+                this.journal = InMemoryEmbeddingStoreJournal.open(journalDirectory,
+                        ensureGreaterThanZero(getOrDefault(journalSyncBatchSize, 1), "journalSyncBatchSize"));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+            recoverFromJournal();
+        }
+    }
+
+    /**
+     * Adds the entries of the snapshot and replays the log of the journal, without journaling them again.
+     */
+    @SuppressWarnings("unchecked")
+    private void recoverFromJournal() {
+        synchronized (writeLock) {
+            try {
+                journal.replay(
+                        entries -> append(storage, (List<Entry<Embedded>>) (List<?>) entries),
+                        ids -> removeIds(storage, ids)
+                );
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private Storage<Embedded> newStorage(MappedVectors mappedVectors) {
+        QuantizedVectors quantizedVectors =
+                quantization == VectorQuantization.NONE ? null : QuantizedVectors.create(quantization);
+        VectorArena arena = mappedVectors == null || mappedVectors.size() == 0
+                ? VectorArena.create(vectorPrecision, offHeapVectors, 0, -1)
+                : VectorArena.create(vectorPrecision, offHeapVectors, mappedVectors.size(), mappedVectors.dimension());
+        return new Storage<>(
+                payloads,
+                mappedVectors,
+                arena,
+                quantizedVectors,
+                useHnswIndex ? new HnswIndex(arena, hnswM, hnswEfConstruction) : null,
+                indexedMetadataKeys == null ? null : new MetadataIndex(indexedMetadataKeys)
+        );
+    }
 
     @Override
     public String add(Embedding embedding) {
@@ -47,6 +337,11 @@ public class InMemoryEmbeddingStore<Embedded> implements EmbeddingStore<Embedded
         return id;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Replaces the embedding with the same ID, if any.
+     */
     @Override
     public void add(String id, Embedding embedding) {
         add(id, embedding, null);
@@ -59,8 +354,16 @@ public class InMemoryEmbeddingStore<Embedded> implements EmbeddingStore<Embedded
         return id;
     }
 
+    /**
+     * Adds a given embedding and the corresponding content that has been embedded to the store,
+     * replacing the embedding with the same ID, if any.
+     *
+     * @param id        The unique identifier for the embedding to be added.
+     * @param embedding The embedding to be added to the store.
+     * @param embedded  Original content that was embedded.
+     */
     public void add(String id, Embedding embedding, Embedded embedded) {
-        entries.add(new Entry<>(id, embedding, embedded));
+        add(singletonList(new Entry<>(id, embedding, embedded)));
     }
 
     @Override
@@ -86,47 +389,610 @@ public class InMemoryEmbeddingStore<Embedded> implements EmbeddingStore<Embedded
         return add(newEntries);
     }
 
-    private List<String> add(List<Entry<Embedded>> newEntries) {
+    /**
+     * Adds multiple embeddings with the given IDs and their corresponding contents that have been embedded
+     * to the store, replacing the embeddings with the same IDs, if any.
+     *
+     * @param ids        A list of unique identifiers for the embeddings to be added.
+     * @param embeddings A list of embeddings to be added to the store.
+     * @param embedded   A list of original contents that were embedded.
+     */
+    public void addAll(List<String> ids, List<Embedding> embeddings, List<Embedded> embedded) {
+        if (ids.size() != embeddings.size() || embeddings.size() != embedded.size()) {
+            throw new IllegalArgumentException("The list of ids, embeddings and embedded must have the same size");
+        }
+
+        List<Entry<Embedded>> newEntries = IntStream.range(0, embeddings.size())
+                .mapToObj(i -> new Entry<>(ids.get(i), embeddings.get(i), embedded.get(i)))
+                .collect(toList());
+
+        add(newEntries);
+    }
+
+    List<String> add(List<Entry<Embedded>> newEntries) {
 
-        entries.addAll(newEntries);
+        synchronized (writeLock) {
+            if (journal != null) {
+                ensureSameDimension(storage, newEntries);
+                journal(() -> journal.writeAdd(newEntries));
+            }
+            append(storage, newEntries);
+            scheduleCheckpointIfNeeded();
+        }
 
         return newEntries.stream()
                 .map(entry -> entry.id)
                 .collect(toList());
     }
 
+    private void append(Storage<Embedded> storage, List<Entry<Embedded>> newEntries) {
+        ensureSameDimension(storage, newEntries);
+        List<Entry<Embedded>> storedEntries = toStoredEntries(newEntries);
+        int firstSlot = storage.entries.endSlot();
+        // vectors are added first, so that searching threads never see an entry without its vector
+        for (Entry<Embedded> entry : newEntries) {
+            storage.addVector(entry.embedding.vector());
+        }
+        if (storage.metadataIndex != null) {
+            for (int i = 0; i < storedEntries.size(); i++) {
+                Entry<Embedded> entry = storedEntries.get(i);
+                if (entry instanceof PayloadEntry) {
+                    storage.metadataIndex.addMetadata(firstSlot + i, ((PayloadEntry<?>) entry).indexedMetadata);
+                } else {
+                    storage.metadataIndex.add(firstSlot + i, entry.embedded);
+                }
+            }
+        }
+        for (Entry<Embedded> entry : storedEntries) {
+            storage.put(entry);
+        }
+        if (storage.hnswIndex != null) {
+            for (int i = 0; i < newEntries.size(); i++) {
+                storage.hnswIndex.add(firstSlot + i);
+            }
+        }
+        scheduleCompactionIfNeeded(storage);
+    }
+
+    /**
+     * Returns the entries as they are kept by the storage: without their embeddings, which the arena keeps,
+     * and with their segments appended to the payload file, if any.
+     */
+    @SuppressWarnings("unchecked")
+    private List<Entry<Embedded>> toStoredEntries(List<Entry<Embedded>> newEntries) {
+        if (payloads != null) {
+            for (Entry<Embedded> entry : newEntries) {
+                if (entry.embedded != null && !(entry.embedded instanceof TextSegment)) {
+                    throw illegalArgument("Only TextSegment can be kept in a payload file, but found %s",
+                            entry.embedded.getClass().getName());
+                }
+            }
+        }
+        List<Entry<Embedded>> storedEntries = new ArrayList<>(newEntries.size());
+        for (Entry<Embedded> entry : newEntries) {
+            if (entry instanceof PayloadEntry) {
+                // moved by a compaction, the segment is already in the payload file
+                PayloadEntry<Embedded> payloadEntry = (PayloadEntry<Embedded>) entry;
+                storedEntries.add(new PayloadEntry<>(entry.id, null,
+                        payloadEntry.payloadOffset, payloadEntry.indexedMetadata));
+            } else if (payloads != null && entry.embedded != null) {
+                TextSegment segment = (TextSegment) entry.embedded;
+                storedEntries.add(new PayloadEntry<>(entry.id, null,
+                        appendPayload(segment), indexedMetadata(segment)));
+            } else {
+                storedEntries.add(new Entry<>(entry.id, entry.embedded));
+            }
+        }
+        return storedEntries;
+    }
+
+    private long appendPayload(TextSegment segment) {
+        try {
+            return payloads.append(segment);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return The values of the {@code indexedMetadataKeys} in the metadata of the segment,
+     * or {@code null} if no key is indexed.
+     */
+    private Metadata indexedMetadata(TextSegment segment) {
+        if (indexedMetadataKeys == null) {
+            return null;
+        }
+        Map<String, Object> values = new HashMap<>();
+        for (String key : indexedMetadataKeys) {
+            Object value = segment.metadata().getObject(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return Metadata.from(values);
+    }
+
+    private static void ensureSameDimension(Storage<?> storage, List<? extends Entry<?>> newEntries) {
+        int dimension = storage.dimension();
+        for (Entry<?> entry : newEntries) {
+            int entryDimension = entry.embedding.dimension();
+            if (dimension == -1) {
+                dimension = entryDimension;
+            } else if (entryDimension != dimension) {
+                throw illegalArgument("All embeddings in the store must have the same dimension, " +
+                        "but found %s and %s", dimension, entryDimension);
+            }
+        }
+    }
+
     @Override
-    public EmbeddingSearchResult<Embedded> search(EmbeddingSearchRequest embeddingSearchRequest) {
+    public void removeAll(Collection<String> ids) {
+        ensureNotEmpty(ids, "ids");
 
-        Comparator<EmbeddingMatch<Embedded>> comparator = comparingDouble(EmbeddingMatch::score);
-        PriorityQueue<EmbeddingMatch<Embedded>> matches = new PriorityQueue<>(comparator);
+        synchronized (writeLock) {
+            if (journal != null) {
+                journal(() -> journal.writeRemove(ids));
+            }
+            removeIds(storage, ids);
+            scheduleCheckpointIfNeeded();
+        }
+    }
 
-        Filter filter = embeddingSearchRequest.filter();
+    private void removeIds(Storage<Embedded> storage, Collection<String> ids) {
+        for (String id : ids) {
+            Integer slot = storage.slotsById.remove(id);
+            if (slot != null) {
+                storage.remove(slot);
+            }
+        }
+        scheduleCompactionIfNeeded(storage);
+    }
 
-        for (Entry<Embedded> entry : entries) {
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Embeddings without a {@link TextSegment} are never removed.
+     */
+    @Override
+    public void removeAll(Filter filter) {
+        ensureNotNull(filter, "filter");
 
-            if (filter != null && entry.embedded instanceof TextSegment) {
-                Metadata metadata = ((TextSegment) entry.embedded).metadata();
-                if (!filter.test(metadata)) {
+        synchronized (writeLock) {
+            Storage<Embedded> storage = this.storage;
+            BitSet candidates = storage.metadataIndex == null ? null : storage.metadataIndex.candidates(filter);
+            boolean indexedKeysOnly = storage.metadataIndex != null && storage.metadataIndex.indexesKeysOf(filter);
+            int endSlot = storage.entries.endSlot();
+            List<String> ids = new ArrayList<>();
+            int slot = candidates == null ? 0 : candidates.nextSetBit(0);
+            while (slot != -1 && slot < endSlot) {
+                Entry<Embedded> entry = storage.entries.get(slot);
+                if (entry != null && (entry.embedded instanceof TextSegment || entry instanceof PayloadEntry)
+                        && storage.matches(filter, entry, indexedKeysOnly)) {
+                    ids.add(entry.id);
+                }
+                slot = candidates == null ? slot + 1 : candidates.nextSetBit(slot + 1);
+            }
+            if (ids.isEmpty()) {
+                return;
+            }
+            if (journal != null) {
+                journal(() -> journal.writeRemove(ids));
+            }
+            removeIds(storage, ids);
+            scheduleCheckpointIfNeeded();
+        }
+    }
+
+    /**
+     * Writes a snapshot of the store into its journal directory and truncates the journal log,
+     * so that recovering the store no longer replays the modifications made so far.
+     * <p>
+     * Checkpoints are also taken automatically once the log reaches {@code journalCheckpointSize}.
+     * Modifications wait for the checkpoint to complete, searches do not.
+     *
+     * @throws IllegalStateException if the store has no journal.
+     */
+    public void checkpoint() {
+        synchronized (writeLock) {
+            checkpointScheduled = false;
+            ensureJournal();
+            journal(() -> journal.checkpoint(this));
+        }
+    }
+
+    /**
+     * Forces the journal records written so far to the storage device,
+     * when {@code journalSyncBatchSize} is greater than 1.
+     *
+     * @throws IllegalStateException if the store has no journal.
+     */
+    public void syncJournal() {
+        synchronized (writeLock) {
+            ensureJournal();
+            journal(journal::sync);
+        }
+    }
+
+    /**
+     * Forces the pending journal records to the storage device and closes the journal.
+     * The store must not be modified afterwards. Does nothing if the store has no journal.
+     */
+    public void closeJournal() {
+        if (journal != null) {
+            synchronized (writeLock) {
+                journal(journal::close);
+            }
+        }
+    }
+
+    /**
+     * Closes the payload file. Searches can still read the segments kept in the file,
+     * but the store must not be modified afterwards. Does nothing if the store has no payload file.
+     */
+    public void closePayloadFile() {
+        if (payloads != null) {
+            synchronized (writeLock) {
+                try {
+                    payloads.close();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    private void ensureJournal() {
+        if (journal == null) {
+            throw new IllegalStateException("The store has no journal, see the journalDirectory of the builder");
+        }
+    }
+
+    private static void journal(JournalOperation operation) {
+        try {
+            operation.run();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Must be called once the journaled modification has been applied, since the checkpoint may run right away.
+     */
+    private void scheduleCheckpointIfNeeded() {
+        if (journal == null || checkpointScheduled || journal.size() < journalCheckpointSize) {
+            return;
+        }
+        checkpointScheduled = true;
+        try {
+            searchExecutor.execute(() -> {
+                try {
+                    checkpoint();
+                } catch (RuntimeException e) {
+                    // the records stay in the log, the checkpoint is attempted again on the next modification
+                    log.warn("Failed to checkpoint the journal of the store", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            checkpointScheduled = false;
+        }
+    }
+
+    private void scheduleCompactionIfNeeded(Storage<Embedded> storage) {
+        int removedCount = storage.removedCount;
+        if (compactionScheduled
+                || removedCount < MIN_REMOVED_FOR_COMPACTION
+                || removedCount < storage.entries.endSlot() * compactionThreshold) {
+            return;
+        }
+        compactionScheduled = true;
+        try {
+            searchExecutor.execute(() -> {
+                try {
+                    compact();
+                } catch (RuntimeException e) {
+                    // the current storage is kept, the compaction is attempted again on the next removal
+                    log.warn("Failed to compact the store", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            compactionScheduled = false;
+        }
+    }
+
+    /**
+     * Reclaims the space of removed entries by copying the remaining ones into a new storage,
+     * which replaces the current one once complete.
+     * Searches keep using the current storage in the meantime, modifications wait for the compaction to complete.
+     */
+    void compact() {
+        synchronized (writeLock) {
+            compactionScheduled = false;
+            Storage<Embedded> storage = this.storage;
+            if (storage.removedCount == 0) {
+                return;
+            }
+            Storage<Embedded> compacted = newStorage(null);
+            append(compacted, storage.liveEntries(false));
+            this.storage = compacted;
+        }
+    }
+
+    VectorPrecision vectorPrecision() {
+        return vectorPrecision;
+    }
+
+    /**
+     * @return The number of slots of the current storage, including those of removed entries.
+     */
+    int slotCount() {
+        return storage.entries.endSlot();
+    }
+
+    /**
+     * @return The entries of the store that have not been removed, with their embeddings on the heap.
+     */
+    List<Entry<Embedded>> entries() {
+        return storage.liveEntries(true);
+    }
+
+    /**
+     * Passes the entries of the store that have not been removed to the action, one at a time,
+     * copying embeddings onto the heap only while they are being processed.
+     */
+    void forEachEntry(Consumer<Entry<Embedded>> action) {
+        storage.forEachLiveEntry(action, true);
+    }
+
+    @Override
+    public EmbeddingSearchResult<Embedded> search(EmbeddingSearchRequest embeddingSearchRequest) {
+        return searchAll(singletonList(embeddingSearchRequest)).get(0);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Requests that are not answered using the HNSW index are processed in a single pass over the embeddings:
+     * embeddings are scanned in blocks small enough to stay in the CPU cache,
+     * and each block is scored against all queries before moving on to the next one.
+     */
+    @Override
+    public List<EmbeddingSearchResult<Embedded>> searchAll(List<EmbeddingSearchRequest> embeddingSearchRequests) {
+
+        Storage<Embedded> storage = this.storage;
+        int size = storage.entries.endSlot();
+        List<EmbeddingSearchResult<Embedded>> results =
+                new ArrayList<>(Collections.nCopies(embeddingSearchRequests.size(), null));
+        List<Query> exactQueries = new ArrayList<>();
+        List<Integer> exactQueryIndices = new ArrayList<>();
+
+        for (int i = 0; i < embeddingSearchRequests.size(); i++) {
+            Query query = toQuery(storage, embeddingSearchRequests.get(i));
+            if (storage.hnswIndex != null && size >= exactSearchThreshold
+                    && query.candidateCount(size) >= exactSearchThreshold) {
+                List<EmbeddingMatch<Embedded>> matches = approximateSearch(storage, query);
+                if (matches != null) {
+                    results.set(i, new EmbeddingSearchResult<>(matches));
                     continue;
                 }
             }
+            exactQueries.add(query);
+            exactQueryIndices.add(i);
+        }
+
+        if (!exactQueries.isEmpty()) {
+            List<List<EmbeddingMatch<Embedded>>> matches =
+                    exactSearch(storage, exactQueries.toArray(new Query[0]), size);
+            for (int i = 0; i < matches.size(); i++) {
+                results.set(exactQueryIndices.get(i), new EmbeddingSearchResult<>(matches.get(i)));
+            }
+        }
+        return results;
+    }
+
+    private Query toQuery(Storage<Embedded> storage, EmbeddingSearchRequest embeddingSearchRequest) {
+        Filter filter = embeddingSearchRequest.filter();
+        int maxResults = embeddingSearchRequest.maxResults();
+        EntrySlots<Entry<Embedded>> entries = storage.entries;
+        BitSet candidates = filter == null || storage.metadataIndex == null
+                ? null
+                : storage.metadataIndex.candidates(filter);
+        boolean indexedKeysOnly = filter != null
+                && storage.metadataIndex != null
+                && storage.metadataIndex.indexesKeysOf(filter);
+        IntPredicate accept = null;
+        if (candidates != null) {
+            accept = slot -> candidates.get(slot) && storage.matches(filter, entries.get(slot), indexedKeysOnly);
+        } else if (filter != null) {
+            accept = slot -> storage.matches(filter, entries.get(slot), indexedKeysOnly);
+        } else if (storage.removedCount > 0) {
+            accept = slot -> entries.get(slot) != null;
+        }
+        return new Query(
+                VectorArena.normalize(embeddingSearchRequest.queryEmbedding().vector()),
+                accept,
+                candidates,
+                embeddingSearchRequest.minScore(),
+                maxResults,
+                storage.quantizedVectors == null ? maxResults : (int) Math.min((long) maxResults * rescoringFactor, Integer.MAX_VALUE)
+        );
+    }
+
+    /**
+     * Searches using the HNSW index.
+     *
+     * @return found matches or {@code null} if the index could not find enough matches passing the filter
+     * and the exact search should be used instead.
+     */
+    private List<EmbeddingMatch<Embedded>> approximateSearch(Storage<Embedded> storage, Query query) {
+
+        HnswIndex hnswIndex = storage.hnswIndex;
+        HnswIndex.Hits hits = hnswIndex.search(query.vector, Math.max(hnswEfSearch, query.maxResults), query.accept);
+
+        if (query.accept != null && hits.nodes.length < query.maxResults && hits.visitedCount < hnswIndex.size()) {
+            // some parts of the graph were not reachable, there might be more matches
+            return null;
+        }
+
+        int count = 0;
+        while (count < hits.nodes.length && count < query.maxResults
+                && RelevanceScore.fromCosineSimilarity(hits.similarities[count]) >= query.minScore) {
+            count++;
+        }
+        return toMatches(storage, hits.nodes, hits.similarities, count);
+    }
+
+    /**
+     * Scores all entries against each query and keeps the best ones in bounded heaps of primitive
+     * (slot, similarity) pairs. When vectors are quantized, the best candidates are re-scored exactly.
+     * {@link EmbeddingMatch}es are only created for the final results.
+     */
+    private List<List<EmbeddingMatch<Embedded>>> exactSearch(Storage<Embedded> storage, Query[] queries, int size) {
+
+        int work = 0;
+        for (Query query : queries) {
+            work = Math.max(work, query.candidateCount(size));
+        }
+        int partitions = work >= parallelSearchThreshold ? Math.min(searchParallelism, size) : 1;
+        ScoreHeap[] heaps = partitions <= 1
+                ? scan(storage, queries, 0, size)
+                : parallelScan(storage, queries, size, partitions);
+
+        List<List<EmbeddingMatch<Embedded>>> matches = new ArrayList<>(queries.length);
+        for (int i = 0; i < queries.length; i++) {
+            ScoreHeap heap = storage.quantizedVectors == null ? heaps[i] : rescore(storage, queries[i], heaps[i]);
+            float[] similarities = new float[heap.size()];
+            int[] slots = heap.drainDescending(similarities);
+            matches.add(toMatches(storage, slots, similarities, slots.length));
+        }
+        return matches;
+    }
+
+    /**
+     * Scores slots {@code [from, to)} against all queries, block by block, into a new bounded heap per query.
+     * When vectors are quantized, scores are estimated and {@code minScore} is not applied yet.
+     */
+    private static ScoreHeap[] scan(Storage<?> storage, Query[] queries, int from, int to) {
+        ScoreHeap[] heaps = new ScoreHeap[queries.length];
+        for (int i = 0; i < queries.length; i++) {
+            heaps[i] = new ScoreHeap(Math.min(queries[i].maxCandidates, to - from));
+        }
+        int blockSize = queries.length == 1
+                ? Math.max(to - from, 1)
+                : Math.max(1, SEARCH_BLOCK_FLOATS / Math.max(storage.dimension(), 1));
+        for (int blockFrom = from; blockFrom < to; blockFrom += blockSize) {
+            int blockTo = (int) Math.min(to, (long) blockFrom + blockSize);
+            for (int i = 0; i < queries.length; i++) {
+                scan(storage, queries[i], blockFrom, blockTo, heaps[i]);
+            }
+        }
+        return heaps;
+    }
+
+    private static void scan(Storage<?> storage, Query query, int from, int to, ScoreHeap heap) {
+        BitSet candidates = query.candidates;
+        if (candidates == null) {
+            scanRange(storage, query, from, to, heap);
+            return;
+        }
+        // scans runs of candidates, short gaps between them are scanned rather than starting a new run
+        int runFrom = candidates.nextSetBit(from);
+        while (runFrom != -1 && runFrom < to) {
+            int runTo = candidates.nextClearBit(runFrom);
+            int next = candidates.nextSetBit(runTo);
+            while (next != -1 && next < to && next - runTo <= MAX_CANDIDATE_GAP) {
+                runTo = candidates.nextClearBit(next);
+                next = candidates.nextSetBit(runTo);
+            }
+            scanRange(storage, query, runFrom, Math.min(runTo, to), heap);
+            runFrom = next;
+        }
+    }
+
+    private static void scanRange(Storage<?> storage, Query query, int from, int to, ScoreHeap heap) {
+        if (storage.quantizedVectors != null) {
+            storage.quantizedVectors.search(query.vector, from, to, query.accept, heap, query.maxCandidates);
+            return;
+        }
+        if (storage.mappedVectors != null) {
+            storage.mappedVectors.search(query.vector, from, to, query.accept, query.minScore, heap, query.maxCandidates);
+        }
+        storage.arena.search(query.vector, from, to, query.accept, query.minScore, heap, query.maxCandidates);
+    }
+
+    /**
+     * Splits slots {@code [0, size)} into contiguous ranges, scores all but the last one on the search executor
+     * and the last one on the calling thread, then merges the top results of all ranges.
+     * Since the heap breaks ties deterministically, the merged results are the same as those of a sequential search.
+     */
+    private ScoreHeap[] parallelScan(Storage<Embedded> storage, Query[] queries, int size, int partitions) {
 
-            double cosineSimilarity = CosineSimilarity.between(entry.embedding, embeddingSearchRequest.queryEmbedding());
-            double score = RelevanceScore.fromCosineSimilarity(cosineSimilarity);
-            if (score >= embeddingSearchRequest.minScore()) {
-                matches.add(new EmbeddingMatch<>(score, entry.id, entry.embedding, entry.embedded));
-                if (matches.size() > embeddingSearchRequest.maxResults()) {
-                    matches.poll();
+        List<CompletableFuture<ScoreHeap[]>> futures = new ArrayList<>(partitions - 1);
+        for (int i = 0; i < partitions - 1; i++) {
+            int from = (int) ((long) size * i / partitions);
+            int to = (int) ((long) size * (i + 1) / partitions);
+            futures.add(CompletableFuture.supplyAsync(() -> scan(storage, queries, from, to), searchExecutor));
+        }
+        int lastFrom = (int) ((long) size * (partitions - 1) / partitions);
+        ScoreHeap[] heaps = scan(storage, queries, lastFrom, size);
+
+        for (CompletableFuture<ScoreHeap[]> future : futures) {
+            ScoreHeap[] partials;
+            try {
+                partials = future.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+            for (int i = 0; i < queries.length; i++) {
+                ScoreHeap partial = partials[i];
+                while (!partial.isEmpty()) {
+                    heaps[i].offer(partial.topIndex(), partial.topScore(), queries[i].maxCandidates);
+                    partial.pop();
                 }
             }
         }
+        return heaps;
+    }
 
-        List<EmbeddingMatch<Embedded>> result = new ArrayList<>(matches);
-        result.sort(comparator);
-        Collections.reverse(result);
+    /**
+     * Re-scores candidates selected using quantized vectors with their exact similarity to the query.
+     */
+    private static ScoreHeap rescore(Storage<?> storage, Query query, ScoreHeap candidates) {
+        ScoreHeap heap = new ScoreHeap(Math.min(query.maxResults, candidates.size()));
+        MappedVectors mappedVectors = storage.mappedVectors;
+        while (!candidates.isEmpty()) {
+            int slot = candidates.topIndex();
+            candidates.pop();
+            float similarity;
+            if (mappedVectors != null && slot < mappedVectors.size()) {
+                similarity = mappedVectors.cosineSimilarity(slot, query.vector);
+            } else {
+                similarity = storage.arena.cosineSimilarity(slot, query.vector);
+            }
+            if (RelevanceScore.fromCosineSimilarity(similarity) >= query.minScore) {
+                heap.offer(slot, similarity, query.maxResults);
+            }
+        }
+        return heap;
+    }
 
-        return new EmbeddingSearchResult<>(result);
+    private static <Embedded> List<EmbeddingMatch<Embedded>> toMatches(Storage<Embedded> storage,
+                                                                      int[] slots,
+                                                                      float[] similarities,
+                                                                      int count) {
+        List<EmbeddingMatch<Embedded>> matches = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Entry<Embedded> entry = storage.entries.get(slots[i]);
+            if (entry == null) {
+                // removed while searching
+                continue;
+            }
+            double score = RelevanceScore.fromCosineSimilarity(similarities[i]);
+            matches.add(new EmbeddingMatch<>(score, entry.id, storage.embeddingOf(slots[i], entry), storage.embeddedOf(entry)));
+        }
+        return matches;
     }
 
     public String serializeToJson() {
@@ -134,26 +1000,47 @@ public class InMemoryEmbeddingStore<Embedded> implements EmbeddingStore<Embedded
     }
 
     public void serializeToFile(Path filePath) {
-        try {
-            String json = serializeToJson();
-            Files.write(filePath, json.getBytes(), CREATE, TRUNCATE_EXISTING);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        serializeToFile(filePath, false);
     }
 
     public void serializeToFile(String filePath) {
         serializeToFile(Paths.get(filePath));
     }
 
+    /**
+     * Writes the store into a file as JSON, one entry at a time.
+     *
+     * @param filePath The path of the file.
+     * @param compress Whether to compress the file using GZIP. {@link #fromFile(Path)} detects compressed files.
+     */
+    public void serializeToFile(Path filePath, boolean compress) {
+        try (OutputStream file = Files.newOutputStream(filePath, CREATE, TRUNCATE_EXISTING);
+             OutputStream output = compress
+                     ? new GZIPOutputStream(file, FILE_BUFFER_SIZE)
+                     : new BufferedOutputStream(file, FILE_BUFFER_SIZE)) {
+            loadCodec().write(this, output);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static InMemoryEmbeddingStore<TextSegment> fromJson(String json) {
         return loadCodec().fromJson(json);
     }
 
+    /**
+     * Reads a store from a file written by {@link #serializeToFile(Path, boolean)}, one entry at a time.
+     *
+     * @param filePath The path of the file, which may be compressed using GZIP.
+     * @return The store.
+     */
     public static InMemoryEmbeddingStore<TextSegment> fromFile(Path filePath) {
-        try {
-            String json = new String(Files.readAllBytes(filePath));
-            return fromJson(json);
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(filePath), FILE_BUFFER_SIZE)) {
+            file.mark(2);
+            boolean compressed = file.read() == (GZIPInputStream.GZIP_MAGIC & 0xFF)
+                    && file.read() == (GZIPInputStream.GZIP_MAGIC >> 8);
+            file.reset();
+            return loadCodec().read(compressed ? new GZIPInputStream(file, FILE_BUFFER_SIZE) : file);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -163,7 +1050,278 @@ public class InMemoryEmbeddingStore<Embedded> implements EmbeddingStore<Embedded
         return fromFile(Paths.get(filePath));
     }
 
-    private static class Entry<Embedded> {
+    /**
+     * Writes the store into a file using a compact binary format.
+     * Only {@link TextSegment}s are supported as embedded content and all embeddings must have the same dimension.
+     *
+     * @param filePath The path of the file.
+     */
+    public void serializeToBinaryFile(Path filePath) {
+        try {
+            InMemoryEmbeddingStoreBinaryCodec.write(this, filePath);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public void serializeToBinaryFile(String filePath) {
+        serializeToBinaryFile(Paths.get(filePath));
+    }
+
+    /**
+     * Opens a store written by {@link #serializeToBinaryFile(Path)}.
+     * The vectors are memory-mapped and read directly from the file during search,
+     * so the file must not be modified while the store is in use.
+     * Embeddings added to the returned store are kept on the heap.
+     *
+     * @param filePath The path of the file.
+     * @return The store.
+     */
+    public static InMemoryEmbeddingStore<TextSegment> fromBinaryFile(Path filePath) {
+        return fromBinaryFile(filePath, VectorQuantization.NONE);
+    }
+
+    public static InMemoryEmbeddingStore<TextSegment> fromBinaryFile(String filePath) {
+        return fromBinaryFile(Paths.get(filePath));
+    }
+
+    /**
+     * Opens a store written by {@link #serializeToBinaryFile(Path)} and quantizes its vectors.
+     * Only the quantized vectors are kept on the heap, the full-precision vectors are read from the file
+     * to re-score the candidates, see {@link VectorQuantization}.
+     *
+     * @param filePath     The path of the file.
+     * @param quantization How vectors are represented for the brute force search.
+     * @return The store.
+     */
+    public static InMemoryEmbeddingStore<TextSegment> fromBinaryFile(Path filePath, VectorQuantization quantization) {
+        try {
+            return InMemoryEmbeddingStoreBinaryCodec.read(filePath, ensureNotNull(quantization, "quantization"));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    static InMemoryEmbeddingStore<TextSegment> fromMappedVectors(MappedVectors vectors,
+                                                                 String[] ids,
+                                                                 TextSegment[] segments,
+                                                                 VectorQuantization quantization) {
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .quantization(quantization)
+                .vectorPrecision(quantization == VectorQuantization.NONE ? vectors.precision() : null)
+                .build();
+        Storage<TextSegment> storage = store.newStorage(vectors);
+        for (int i = 0; i < ids.length; i++) {
+            if (storage.quantizedVectors != null) {
+                storage.quantizedVectors.add(vectors.vector(i));
+            }
+            storage.put(new Entry<>(ids[i], segments[i]));
+        }
+        store.storage = storage;
+        return store;
+    }
+
+    /**
+     * The entries of the store and all structures referring to them by slot.
+     * Entries are only added or removed while holding the write lock of the store.
+     */
+    private static class Storage<Embedded> {
+
+        final EntrySlots<Entry<Embedded>> entries = new EntrySlots<>();
+
+        /**
+         * Slots of the entries that have not been removed, by ID. Only accessed while holding the write lock.
+         */
+        final Map<String, Integer> slotsById = new HashMap<>();
+
+        /**
+         * The file holding the segments of the {@link PayloadEntry}s, {@code null} if segments are kept on the heap.
+         */
+        final PayloadFile payloads;
+
+        /**
+         * Vectors of the first {@code mappedVectors.size()} entries when the store has been opened from a binary file.
+         * These entries do not hold their embeddings on the heap.
+         */
+        final MappedVectors mappedVectors;
+
+        /**
+         * The vectors of all entries, except those in {@link #mappedVectors}.
+         * When vectors are quantized, they are only used to re-score the candidates.
+         */
+        final VectorArena arena;
+
+        /**
+         * Quantized copies of the vectors of all entries, including those in {@link #mappedVectors}.
+         * {@code null} when vectors are not quantized.
+         */
+        final QuantizedVectors quantizedVectors;
+
+        final HnswIndex hnswIndex;
+        final MetadataIndex metadataIndex;
+
+        /**
+         * The number of slots of removed entries.
+         */
+        volatile int removedCount;
+
+        Storage(PayloadFile payloads,
+                MappedVectors mappedVectors,
+                VectorArena arena,
+                QuantizedVectors quantizedVectors,
+                HnswIndex hnswIndex,
+                MetadataIndex metadataIndex) {
+            this.payloads = payloads;
+            this.mappedVectors = mappedVectors;
+            this.arena = arena;
+            this.quantizedVectors = quantizedVectors;
+            this.hnswIndex = hnswIndex;
+            this.metadataIndex = metadataIndex;
+        }
+
+        /**
+         * @return The dimension of the embeddings in the store, or {@code -1} if it is empty.
+         */
+        int dimension() {
+            return quantizedVectors != null ? quantizedVectors.dimension() : arena.dimension();
+        }
+
+        void addVector(float[] vector) {
+            arena.add(vector);
+            if (quantizedVectors != null) {
+                quantizedVectors.add(vector);
+            }
+        }
+
+        /**
+         * Adds the entry into the next slot, removing the entry with the same ID, if any.
+         */
+        void put(Entry<Embedded> entry) {
+            int slot = entries.add(entry);
+            Integer previousSlot = slotsById.put(entry.id, slot);
+            if (previousSlot != null) {
+                remove(previousSlot);
+            }
+        }
+
+        void remove(int slot) {
+            entries.remove(slot);
+            removedCount++;
+        }
+
+        List<Entry<Embedded>> liveEntries(boolean readPayloads) {
+            List<Entry<Embedded>> liveEntries = new ArrayList<>(Math.max(entries.endSlot() - removedCount, 0));
+            forEachLiveEntry(liveEntries::add, readPayloads);
+            return liveEntries;
+        }
+
+        /**
+         * Passes the entries that have not been removed to the action, with their embeddings.
+         *
+         * @param readPayloads Whether the segments of {@link PayloadEntry}s are read from the payload file,
+         *                     or the entries are passed as they are.
+         */
+        void forEachLiveEntry(Consumer<Entry<Embedded>> action, boolean readPayloads) {
+            int endSlot = entries.endSlot();
+            for (int slot = 0; slot < endSlot; slot++) {
+                Entry<Embedded> entry = entries.get(slot);
+                if (entry == null) {
+                    continue;
+                }
+                if (readPayloads && entry instanceof PayloadEntry) {
+                    entry = new Entry<>(entry.id, embeddingOf(slot, entry), embeddedOf(entry));
+                } else if (entry.embedding == null) {
+                    entry = entry.withEmbedding(embeddingOf(slot, entry));
+                }
+                action.accept(entry);
+            }
+        }
+
+        /**
+         * Returns the embedded object of the entry, reading it from the payload file if necessary.
+         */
+        @SuppressWarnings("unchecked")
+        Embedded embeddedOf(Entry<Embedded> entry) {
+            if (entry instanceof PayloadEntry) {
+                return (Embedded) payloads.read(((PayloadEntry<?>) entry).payloadOffset);
+            }
+            return entry.embedded;
+        }
+
+        /**
+         * Tests the filter on the metadata of the entry. Entries without a {@link TextSegment} pass any filter.
+         *
+         * @param indexedKeysOnly Whether the filter only uses indexed metadata keys,
+         *                        so that the segment of a {@link PayloadEntry} does not need to be read.
+         */
+        boolean matches(Filter filter, Entry<?> entry, boolean indexedKeysOnly) {
+            if (entry == null) {
+                return false;
+            }
+            if (entry instanceof PayloadEntry) {
+                PayloadEntry<?> payloadEntry = (PayloadEntry<?>) entry;
+                Metadata metadata = indexedKeysOnly
+                        ? payloadEntry.indexedMetadata
+                        : payloads.read(payloadEntry.payloadOffset).metadata();
+                return filter.test(metadata);
+            }
+            if (entry.embedded instanceof TextSegment) {
+                Metadata metadata = ((TextSegment) entry.embedded).metadata();
+                return filter.test(metadata);
+            }
+            return true;
+        }
+
+        /**
+         * Returns the embedding of the entry at the given slot,
+         * copying it from the mapped file or the arena if necessary.
+         */
+        Embedding embeddingOf(int slot, Entry<?> entry) {
+            if (entry.embedding != null) {
+                return entry.embedding;
+            }
+            if (mappedVectors != null && slot < mappedVectors.size()) {
+                return Embedding.from(mappedVectors.vector(slot));
+            }
+            return Embedding.from(arena.vector(slot));
+        }
+    }
+
+    /**
+     * A normalized query vector with the criteria of its search request.
+     */
+    private static class Query {
+
+        final float[] vector;
+        final IntPredicate accept;
+        /**
+         * Slots selected by the {@link MetadataIndex}, {@code null} if all slots must be scanned.
+         */
+        final BitSet candidates;
+        final double minScore;
+        final int maxResults;
+        final int maxCandidates;
+
+        Query(float[] vector, IntPredicate accept, BitSet candidates, double minScore, int maxResults, int maxCandidates) {
+            this.vector = vector;
+            this.accept = accept;
+            this.candidates = candidates;
+            this.minScore = minScore;
+            this.maxResults = maxResults;
+            this.maxCandidates = maxCandidates;
+        }
+
+        int candidateCount(int size) {
+            return candidates == null ? size : candidates.cardinality();
+        }
+    }
+
+    private interface JournalOperation {
+
+        void run() throws IOException;
+    }
+
+    static class Entry<Embedded> {
 
         String id;
         Embedding embedding;
@@ -179,6 +1337,21 @@ public class InMemoryEmbeddingStore<Embedded> implements EmbeddingStore<Embedded
             this.embedded = embedded;
         }
 
+        /**
+         * Creates an entry whose embedding is stored outside the entry.
+         */
+        Entry(String id, Embedded embedded) {
+            this.id = ensureNotBlank(id, "id");
+            this.embedded = embedded;
+        }
+
+        /**
+         * @return A copy of the entry holding the given embedding.
+         */
+        Entry<Embedded> withEmbedding(Embedding embedding) {
+            return new Entry<>(id, embedding, embedded);
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -195,6 +1368,30 @@ public class InMemoryEmbeddingStore<Embedded> implements EmbeddingStore<Embedded
         }
     }
 
+    /**
+     * An entry whose {@link TextSegment} is kept in the {@link PayloadFile} of the store.
+     */
+    static class PayloadEntry<Embedded> extends Entry<Embedded> {
+
+        final long payloadOffset;
+        /**
+         * The values of the indexed metadata keys, {@code null} if no key is indexed.
+         */
+        final Metadata indexedMetadata;
+
+        PayloadEntry(String id, Embedding embedding, long payloadOffset, Metadata indexedMetadata) {
+            super(id, (Embedded) null);
+            this.embedding = embedding;
+            this.payloadOffset = payloadOffset;
+            this.indexedMetadata = indexedMetadata;
+        }
+
+        @Override
+        Entry<Embedded> withEmbedding(Embedding embedding) {
+            return new PayloadEntry<>(id, embedding, payloadOffset, indexedMetadata);
+        }
+    }
+
     private static InMemoryEmbeddingStoreJsonCodec loadCodec() {
         for (InMemoryEmbeddingStoreJsonCodecFactory factory : loadFactories(InMemoryEmbeddingStoreJsonCodecFactory.class)) {
             return factory.create();
@@ -0,0 +1,457 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.internal.Vectors;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Reads and writes {@link InMemoryEmbeddingStore} snapshots in a compact, versioned binary format.
+ * <p>
+ * All numbers are little-endian. The file consists of:
+ * <ul>
+ *     <li>a fixed-size header: magic, version, entry count, dimension, offsets of all following sections
+ *     and, since version 2, the {@link VectorPrecision} of the vectors</li>
+ *     <li>the vector block: vectors stored contiguously, {@code count * dimension} values,
+ *     either float32 values or, with a half precision, 16-bit values of the normalized vectors</li>
+ *     <li>the norm block: the L2 norm of each vector as float32</li>
+ *     <li>the id block: UTF-8 encoded ids, followed by the id offset table: {@code count + 1} int64 offsets</li>
+ *     <li>the segment block: one length-prefixed record per entry with the text and metadata of its segment,
+ *     followed by the segment offset table: {@code count + 1} int64 offsets</li>
+ * </ul>
+ * The vector block is memory-mapped when reading, so vectors are not deserialized onto the heap.
+ * Files are written to a temporary sibling, forced to the storage device and atomically moved into place.
+ */
+class InMemoryEmbeddingStoreBinaryCodec {
+
+    static final int MAGIC = 0x534A344C; // "L4JS"
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 128;
+
+    private static final byte NO_SEGMENT = 0;
+    private static final byte TEXT_SEGMENT = 1;
+
+    private static final byte STRING = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte FLOAT = 4;
+    private static final byte DOUBLE = 5;
+
+    private InMemoryEmbeddingStoreBinaryCodec() {
+    }
+
+    static void write(InMemoryEmbeddingStore<?> store, Path filePath) throws IOException {
+        List<? extends InMemoryEmbeddingStore.Entry<?>> entries = store.entries();
+        VectorPrecision precision = store.vectorPrecision();
+        int count = entries.size();
+        float[][] vectors = new float[count][];
+        int dimension = 0;
+        for (int i = 0; i < count; i++) {
+            vectors[i] = entries.get(i).embedding.vector();
+            if (i == 0) {
+                dimension = vectors[i].length;
+            } else if (vectors[i].length != dimension) {
+                throw illegalArgument("All embeddings must have the same dimension to be written to a binary file, " +
+                        "but found %s and %s", dimension, vectors[i].length);
+            }
+        }
+
+        // the file is written next to its destination and moved into place once complete, so that a failure
+        // never leaves a truncated file behind, and stores reading the previous file keep a consistent copy of it
+        Path temporaryFile = filePath.resolveSibling(filePath.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, CREATE, TRUNCATE_EXISTING, WRITE)) {
+            Output output = new Output(channel, HEADER_SIZE);
+
+            long vectorsOffset = output.position();
+            for (float[] vector : vectors) {
+                if (precision == VectorPrecision.FLOAT32) {
+                    for (float value : vector) {
+                        output.writeFloat(value);
+                    }
+                } else {
+                    float inverseNorm = VectorArena.inverseNorm(vector);
+                    for (float value : vector) {
+                        output.writeShort(precision.toHalf(value * inverseNorm));
+                    }
+                }
+            }
+
+            long normsOffset = output.position();
+            for (float[] vector : vectors) {
+                output.writeFloat((float) Math.sqrt(Vectors.dot(vector, vector)));
+            }
+
+            long idsOffset = output.position();
+            long[] idOffsets = new long[count + 1];
+            for (int i = 0; i < count; i++) {
+                idOffsets[i] = output.position() - idsOffset;
+                output.writeBytes(entries.get(i).id.getBytes(UTF_8));
+            }
+            idOffsets[count] = output.position() - idsOffset;
+
+            long idOffsetsOffset = output.position();
+            for (long idOffset : idOffsets) {
+                output.writeLong(idOffset);
+            }
+
+            long segmentsOffset = output.position();
+            long[] segmentOffsets = new long[count + 1];
+            for (int i = 0; i < count; i++) {
+                segmentOffsets[i] = output.position() - segmentsOffset;
+                writeSegment(output, entries.get(i).embedded);
+            }
+            segmentOffsets[count] = output.position() - segmentsOffset;
+
+            long segmentOffsetsOffset = output.position();
+            for (long segmentOffset : segmentOffsets) {
+                output.writeLong(segmentOffset);
+            }
+            output.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(LITTLE_ENDIAN);
+            header.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putInt(count)
+                    .putInt(dimension)
+                    .putLong(vectorsOffset)
+                    .putLong(normsOffset)
+                    .putLong(idsOffset)
+                    .putLong(idOffsetsOffset)
+                    .putLong(segmentsOffset)
+                    .putLong(segmentOffsetsOffset)
+                    .putInt(precision.ordinal());
+            header.rewind();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temporaryFile, filePath, ATOMIC_MOVE, REPLACE_EXISTING);
+    }
+
+    static InMemoryEmbeddingStore<TextSegment> read(Path filePath, VectorQuantization quantization)
+            throws IOException {
+        try (FileChannel channel = FileChannel.open(filePath, READ)) {
+            Input header = new Input(channel, 0, HEADER_SIZE);
+            int magic = header.readInt();
+            if (magic != MAGIC) {
+                throw illegalArgument("%s is not a binary InMemoryEmbeddingStore file", filePath);
+            }
+            int version = header.readInt();
+            if (version < 1 || version > VERSION) {
+                throw illegalArgument("Unsupported binary InMemoryEmbeddingStore file version: %s", version);
+            }
+            int count = header.readInt();
+            int dimension = header.readInt();
+            long vectorsOffset = header.readLong();
+            long normsOffset = header.readLong();
+            long idsOffset = header.readLong();
+            long idOffsetsOffset = header.readLong();
+            long segmentsOffset = header.readLong();
+            long segmentOffsetsOffset = header.readLong();
+            VectorPrecision precision = version == 1 ? VectorPrecision.FLOAT32 : VectorPrecision.values()[header.readInt()];
+
+            float[] norms = new float[count];
+            Input normsInput = new Input(channel, normsOffset, (long) count * Float.BYTES);
+            for (int i = 0; i < count; i++) {
+                norms[i] = normsInput.readFloat();
+            }
+            MappedVectors vectors = MappedVectors.map(channel, vectorsOffset, count, dimension, norms, precision);
+
+            Input idOffsetsInput = new Input(channel, idOffsetsOffset, (long) (count + 1) * Long.BYTES);
+            long[] idOffsets = new long[count + 1];
+            for (int i = 0; i <= count; i++) {
+                idOffsets[i] = idOffsetsInput.readLong();
+            }
+            String[] ids = new String[count];
+            Input idsInput = new Input(channel, idsOffset, idOffsets[count]);
+            for (int i = 0; i < count; i++) {
+                ids[i] = new String(idsInput.readBytes((int) (idOffsets[i + 1] - idOffsets[i])), UTF_8);
+            }
+
+            TextSegment[] segments = new TextSegment[count];
+            Input segmentsInput = new Input(channel, segmentsOffset, segmentOffsetsOffset - segmentsOffset);
+            for (int i = 0; i < count; i++) {
+                segments[i] = readSegment(segmentsInput);
+            }
+
+            return InMemoryEmbeddingStore.fromMappedVectors(vectors, ids, segments, quantization);
+        }
+    }
+
+    private static void writeSegment(Output output, Object embedded) throws IOException {
+        ByteBuffer record = putSegment(ByteBuffer.allocate(256).order(LITTLE_ENDIAN), embedded);
+        record.flip();
+        output.writeInt(record.remaining());
+        output.writeBytes(record.array(), record.remaining());
+    }
+
+    private static TextSegment readSegment(Input input) throws IOException {
+        int length = input.readInt();
+        return getSegment(ByteBuffer.wrap(input.readBytes(length)).order(LITTLE_ENDIAN));
+    }
+
+    /**
+     * Appends the text and metadata of the embedded {@link TextSegment}, or a marker if it is {@code null}.
+     *
+     * @return The buffer, or a bigger copy of it if it was too small.
+     */
+    static ByteBuffer putSegment(ByteBuffer buffer, Object embedded) {
+        if (embedded == null) {
+            return put(buffer, NO_SEGMENT);
+        }
+        if (!(embedded instanceof TextSegment)) {
+            throw illegalArgument("Only TextSegment can be written to a binary file, but found %s",
+                    embedded.getClass().getName());
+        }
+        TextSegment segment = (TextSegment) embedded;
+
+        buffer = put(buffer, TEXT_SEGMENT);
+        buffer = putString(buffer, segment.text());
+        Map<String, Object> metadata = segment.metadata().toMap();
+        buffer = putInt(buffer, metadata.size());
+        for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+            buffer = putString(buffer, entry.getKey());
+            buffer = putValue(buffer, entry.getValue());
+        }
+        return buffer;
+    }
+
+    static TextSegment getSegment(ByteBuffer buffer) {
+        if (buffer.get() == NO_SEGMENT) {
+            return null;
+        }
+        String text = getString(buffer);
+        int metadataSize = buffer.getInt();
+        Map<String, Object> metadata = new HashMap<>(metadataSize * 2);
+        for (int i = 0; i < metadataSize; i++) {
+            String key = getString(buffer);
+            metadata.put(key, getValue(buffer));
+        }
+        return TextSegment.from(text, Metadata.from(metadata));
+    }
+
+    private static ByteBuffer putValue(ByteBuffer buffer, Object value) {
+        if (value instanceof String) {
+            return putString(put(buffer, STRING), (String) value);
+        } else if (value instanceof Integer) {
+            return putInt(put(buffer, INTEGER), (Integer) value);
+        } else if (value instanceof Long) {
+            buffer = ensureRemaining(put(buffer, LONG), Long.BYTES);
+            return buffer.putLong((Long) value);
+        } else if (value instanceof Float) {
+            buffer = ensureRemaining(put(buffer, FLOAT), Float.BYTES);
+            return buffer.putFloat((Float) value);
+        } else if (value instanceof Double) {
+            buffer = ensureRemaining(put(buffer, DOUBLE), Double.BYTES);
+            return buffer.putDouble((Double) value);
+        }
+        throw illegalArgument("Unsupported metadata value type: %s", value.getClass().getName());
+    }
+
+    private static Object getValue(ByteBuffer buffer) {
+        byte type = buffer.get();
+        switch (type) {
+            case STRING:
+                return getString(buffer);
+            case INTEGER:
+                return buffer.getInt();
+            case LONG:
+                return buffer.getLong();
+            case FLOAT:
+                return buffer.getFloat();
+            case DOUBLE:
+                return buffer.getDouble();
+            default:
+                throw illegalArgument("Unknown metadata value type: %s", type);
+        }
+    }
+
+    static ByteBuffer put(ByteBuffer buffer, byte value) {
+        return ensureRemaining(buffer, 1).put(value);
+    }
+
+    static ByteBuffer putInt(ByteBuffer buffer, int value) {
+        return ensureRemaining(buffer, Integer.BYTES).putInt(value);
+    }
+
+    static ByteBuffer putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(UTF_8);
+        return ensureRemaining(putInt(buffer, bytes.length), bytes.length).put(bytes);
+    }
+
+    static String getString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+
+    static ByteBuffer ensureRemaining(ByteBuffer buffer, int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return buffer;
+        }
+        ByteBuffer bigger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes))
+                .order(LITTLE_ENDIAN);
+        buffer.flip();
+        return bigger.put(buffer);
+    }
+
+    /**
+     * Buffered little-endian writer appending to a {@link FileChannel}.
+     */
+    static class Output {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024).order(LITTLE_ENDIAN);
+        private long position;
+
+        Output(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        long position() {
+            return position + buffer.position();
+        }
+
+        void writeByte(byte value) throws IOException {
+            ensureRemaining(1).put(value);
+        }
+
+        void writeInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES).putInt(value);
+        }
+
+        void writeShort(short value) throws IOException {
+            ensureRemaining(Short.BYTES).putShort(value);
+        }
+
+        void writeLong(long value) throws IOException {
+            ensureRemaining(Long.BYTES).putLong(value);
+        }
+
+        void writeFloat(float value) throws IOException {
+            ensureRemaining(Float.BYTES).putFloat(value);
+        }
+
+        void writeBytes(byte[] bytes) throws IOException {
+            writeBytes(bytes, bytes.length);
+        }
+
+        void writeBytes(byte[] bytes, int length) throws IOException {
+            int written = 0;
+            while (written < length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int chunk = Math.min(buffer.remaining(), length - written);
+                buffer.put(bytes, written, chunk);
+                written += chunk;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+            buffer.clear();
+        }
+
+        private ByteBuffer ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+    }
+
+    /**
+     * Buffered little-endian reader of a region of a {@link FileChannel}.
+     */
+    static class Input {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024).order(LITTLE_ENDIAN);
+        private long position;
+        private final long end;
+
+        Input(FileChannel channel, long position, long length) {
+            this.channel = channel;
+            this.position = position;
+            this.end = position + length;
+            buffer.limit(0);
+        }
+
+        int readInt() throws IOException {
+            return ensureAvailable(Integer.BYTES).getInt();
+        }
+
+        long readLong() throws IOException {
+            return ensureAvailable(Long.BYTES).getLong();
+        }
+
+        float readFloat() throws IOException {
+            return ensureAvailable(Float.BYTES).getFloat();
+        }
+
+        byte[] readBytes(int length) throws IOException {
+            byte[] bytes = new byte[length];
+            int read = 0;
+            while (read < length) {
+                if (!buffer.hasRemaining()) {
+                    fill();
+                }
+                int chunk = Math.min(buffer.remaining(), length - read);
+                buffer.get(bytes, read, chunk);
+                read += chunk;
+            }
+            return bytes;
+        }
+
+        private ByteBuffer ensureAvailable(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                fill();
+                if (buffer.remaining() < bytes) {
+                    throw new EOFException();
+                }
+            }
+            return buffer;
+        }
+
+        private void fill() throws IOException {
+            buffer.compact();
+            buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + (end - position)));
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+            buffer.flip();
+            if (!buffer.hasRemaining()) {
+                throw new EOFException();
+            }
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreBinaryCodec.ensureRemaining;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreBinaryCodec.getSegment;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreBinaryCodec.getString;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreBinaryCodec.put;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreBinaryCodec.putInt;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreBinaryCodec.putSegment;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreBinaryCodec.putString;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * An append-only log of the modifications of an {@link InMemoryEmbeddingStore}, on top of a snapshot.
+ * <p>
+ * The journal directory contains:
+ * <ul>
+ *     <li>{@code snapshot.bin}: the entries of the store at the last checkpoint,
+ *     in the format of {@link InMemoryEmbeddingStoreBinaryCodec}</li>
+ *     <li>{@code journal.log}: one record per modification since the last checkpoint</li>
+ * </ul>
+ * Each record consists of the int32 length and the CRC32 of its payload, followed by the payload:
+ * a type byte, then either the id, vector and segment of each added entry, or the ids of removed entries.
+ * All numbers are little-endian.
+ * <p>
+ * Records are forced to the storage device every {@code syncBatchSize} records, and on {@link #sync()}.
+ * Records written in between survive a crash of the process, but not of the operating system.
+ * A record that was only partially written when the process crashed is discarded when the journal is opened.
+ * <p>
+ * A checkpoint writes a new snapshot, atomically replaces the previous one and truncates the log.
+ * Since adding replaces entries with the same ID and removing ignores unknown IDs,
+ * replaying the log over a snapshot that already contains its records leaves the store unchanged,
+ * so a crash between both steps loses nothing.
+ * <p>
+ * This class is not thread-safe: the store serializes all calls.
+ */
+class InMemoryEmbeddingStoreJournal {
+
+    static final String SNAPSHOT_FILE = "snapshot.bin";
+    static final String LOG_FILE = "journal.log";
+
+    private static final byte ADD = 1;
+    private static final byte REMOVE = 2;
+
+    private static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private final FileChannel channel;
+    private final int syncBatchSize;
+    private long size;
+    private int unsyncedRecords;
+
+    private InMemoryEmbeddingStoreJournal(Path directory, FileChannel channel, int syncBatchSize) throws IOException {
+        this.directory = directory;
+        this.channel = channel;
+        this.syncBatchSize = syncBatchSize;
+        this.size = channel.size();
+    }
+
+    static InMemoryEmbeddingStoreJournal open(Path directory, int syncBatchSize) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel channel = FileChannel.open(directory.resolve(LOG_FILE), CREATE, READ, WRITE);
+        return new InMemoryEmbeddingStoreJournal(directory, channel, syncBatchSize);
+    }
+
+    /**
+     * Reads the snapshot, then the records of the log, and discards a partially written last record.
+     *
+     * @param added   Called with the entries of the snapshot and of each add record, in order.
+     * @param removed Called with the ids of each remove record, in order.
+     */
+    void replay(Consumer<List<InMemoryEmbeddingStore.Entry<TextSegment>>> added,
+                Consumer<List<String>> removed) throws IOException {
+
+        Path snapshot = directory.resolve(SNAPSHOT_FILE);
+        if (Files.exists(snapshot)) {
+            added.accept(InMemoryEmbeddingStoreBinaryCodec.read(snapshot, VectorQuantization.NONE).entries());
+        }
+
+        long position = 0;
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_SIZE).order(LITTLE_ENDIAN);
+        while (position + RECORD_HEADER_SIZE <= size) {
+            header.clear();
+            readFully(header, position);
+            int length = header.getInt(0);
+            int checksum = header.getInt(Integer.BYTES);
+            if (length <= 0 || position + RECORD_HEADER_SIZE + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length).order(LITTLE_ENDIAN);
+            readFully(payload, position + RECORD_HEADER_SIZE);
+            if (checksum(payload) != checksum) {
+                break;
+            }
+            payload.rewind();
+            byte type = payload.get();
+            if (type == ADD) {
+                added.accept(getEntries(payload));
+            } else if (type == REMOVE) {
+                removed.accept(getIds(payload));
+            } else {
+                throw illegalArgument("Unknown journal record type: %s", type);
+            }
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        if (position < size) {
+            channel.truncate(position);
+            channel.force(true);
+            size = position;
+        }
+    }
+
+    /**
+     * Encodes the entries before writing anything, so that entries that cannot be journaled are rejected
+     * without leaving a record behind.
+     */
+    void writeAdd(List<? extends InMemoryEmbeddingStore.Entry<?>> entries) throws IOException {
+        ByteBuffer payload = putInt(put(newPayload(), ADD), entries.size());
+        for (InMemoryEmbeddingStore.Entry<?> entry : entries) {
+            payload = putString(payload, entry.id);
+            float[] vector = entry.embedding.vector();
+            payload = ensureRemaining(putInt(payload, vector.length), vector.length * Float.BYTES);
+            for (float value : vector) {
+                payload.putFloat(value);
+            }
+            payload = putSegment(payload, entry.embedded);
+        }
+        write(payload);
+    }
+
+    void writeRemove(Collection<String> ids) throws IOException {
+        ByteBuffer payload = putInt(put(newPayload(), REMOVE), ids.size());
+        for (String id : ids) {
+            payload = putString(payload, id);
+        }
+        write(payload);
+    }
+
+    /**
+     * Forces the records written so far to the storage device.
+     */
+    void sync() throws IOException {
+        if (unsyncedRecords > 0) {
+            channel.force(false);
+            unsyncedRecords = 0;
+        }
+    }
+
+    /**
+     * @return The size of the log in bytes.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Replaces the snapshot with the given store and truncates the log.
+     */
+    void checkpoint(InMemoryEmbeddingStore<?> store) throws IOException {
+        // the snapshot is replaced atomically, see InMemoryEmbeddingStoreBinaryCodec#write
+        InMemoryEmbeddingStoreBinaryCodec.write(store, directory.resolve(SNAPSHOT_FILE));
+
+        channel.truncate(0);
+        channel.force(true);
+        size = 0;
+        unsyncedRecords = 0;
+    }
+
+    void close() throws IOException {
+        sync();
+        channel.close();
+    }
+
+    private void write(ByteBuffer payload) throws IOException {
+        payload.flip();
+        int length = payload.remaining();
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + length).order(LITTLE_ENDIAN);
+        record.putInt(length).putInt(checksum(payload)).put(payload);
+        record.flip();
+        while (record.hasRemaining()) {
+            channel.write(record, size + record.position());
+        }
+        size += record.limit();
+
+        if (++unsyncedRecords >= syncBatchSize) {
+            sync();
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        buffer.flip();
+    }
+
+    private static List<InMemoryEmbeddingStore.Entry<TextSegment>> getEntries(ByteBuffer payload) {
+        int count = payload.getInt();
+        List<InMemoryEmbeddingStore.Entry<TextSegment>> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String id = getString(payload);
+            float[] vector = new float[payload.getInt()];
+            for (int j = 0; j < vector.length; j++) {
+                vector[j] = payload.getFloat();
+            }
+            entries.add(new InMemoryEmbeddingStore.Entry<>(id, Embedding.from(vector), getSegment(payload)));
+        }
+        return entries;
+    }
+
+    private static List<String> getIds(ByteBuffer payload) {
+        int count = payload.getInt();
+        List<String> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(getString(payload));
+        }
+        return ids;
+    }
+
+    private static ByteBuffer newPayload() {
+        return ByteBuffer.allocate(1024).order(LITTLE_ENDIAN);
+    }
+
+    private static int checksum(ByteBuffer payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
+        return (int) crc.getValue();
+    }
+}
@@ -2,8 +2,71 @@ package dev.langchain4j.store.embedding.inmemory;
 
 import dev.langchain4j.data.segment.TextSegment;
 
+import java.io.*;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
 public interface InMemoryEmbeddingStoreJsonCodec {
     InMemoryEmbeddingStore<TextSegment> fromJson(String json);
 
     String toJson(InMemoryEmbeddingStore<?> store);
+
+    /**
+     * Reads a store from JSON.
+     * The default implementation reads the whole document into a {@code String},
+     * implementations should override it to read entries one at a time.
+     *
+     * @param reader The reader of the JSON document. It is not closed.
+     * @return The store.
+     */
+    default InMemoryEmbeddingStore<TextSegment> read(Reader reader) {
+        try {
+            StringWriter json = new StringWriter();
+            char[] buffer = new char[8192];
+            int read;
+            while ((read = reader.read(buffer)) != -1) {
+                json.write(buffer, 0, read);
+            }
+            return fromJson(json.toString());
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Reads a store from UTF-8 encoded JSON.
+     *
+     * @param inputStream The stream of the JSON document. It is not closed.
+     * @return The store.
+     */
+    default InMemoryEmbeddingStore<TextSegment> read(InputStream inputStream) {
+        return read(new BufferedReader(new InputStreamReader(inputStream, UTF_8)));
+    }
+
+    /**
+     * Writes a store as JSON.
+     * The default implementation builds the whole document as a {@code String},
+     * implementations should override it to write entries one at a time.
+     *
+     * @param store  The store.
+     * @param writer The writer of the JSON document. It is flushed, but not closed.
+     */
+    default void write(InMemoryEmbeddingStore<?> store, Writer writer) {
+        try {
+            writer.write(toJson(store));
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Writes a store as UTF-8 encoded JSON.
+     *
+     * @param store        The store.
+     * @param outputStream The stream of the JSON document. It is flushed, but not closed.
+     */
+    default void write(InMemoryEmbeddingStore<?> store, OutputStream outputStream) {
+        write(store, new BufferedWriter(new OutputStreamWriter(outputStream, UTF_8)));
+    }
 }
@@ -0,0 +1,107 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.internal.Vectors;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * Scalar quantization: each component of a vector is stored as a signed byte, scaled by the largest absolute
+ * component of that vector. The scale, combined with the inverse norm of the vector, is stored as a float.
+ * <p>
+ * The query is quantized the same way, so that the estimated similarity is an integer dot product.
+ */
+class Int8QuantizedVectors extends QuantizedVectors {
+
+    private volatile byte[][] codes = new byte[0][];
+    private volatile float[][] scales = new float[0][];
+    private volatile int size;
+
+    @Override
+    int endSlot() {
+        return size;
+    }
+
+    @Override
+    int bytesPerVector(int dimension) {
+        return dimension;
+    }
+
+    @Override
+    void add(float[] vector) {
+        ensureDimension(vector.length);
+
+        int size = this.size;
+        int chunkIndex = size / vectorsPerChunk;
+        int position = size % vectorsPerChunk;
+        byte[][] codes = this.codes;
+        float[][] scales = this.scales;
+        int capacity = requiredCapacity(chunkIndex == scales.length ? 0 : scales[chunkIndex].length, position);
+        if (capacity != -1) {
+            if (chunkIndex == codes.length) {
+                codes = Arrays.copyOf(codes, chunkIndex + 1);
+                scales = Arrays.copyOf(scales, chunkIndex + 1);
+                codes[chunkIndex] = new byte[0];
+                scales[chunkIndex] = new float[0];
+            } else {
+                codes = codes.clone();
+                scales = scales.clone();
+            }
+            codes[chunkIndex] = Arrays.copyOf(codes[chunkIndex], capacity * dimension);
+            scales[chunkIndex] = Arrays.copyOf(scales[chunkIndex], capacity);
+        }
+
+        byte[] chunk = codes[chunkIndex];
+        float scale = quantize(vector, chunk, position * dimension);
+        scales[chunkIndex][position] = scale * VectorArena.inverseNorm(vector);
+
+        this.codes = codes;
+        this.scales = scales;
+        this.size = size + 1;
+    }
+
+    /**
+     * Writes the quantized components of the vector into {@code target}.
+     *
+     * @return The scale by which the quantized components must be multiplied to approximate the vector.
+     */
+    private static float quantize(float[] vector, byte[] target, int offset) {
+        float max = 0;
+        for (float value : vector) {
+            max = Math.max(max, Math.abs(value));
+        }
+        float multiplier = max == 0 ? 0 : Byte.MAX_VALUE / max;
+        for (int i = 0; i < vector.length; i++) {
+            target[offset + i] = (byte) Math.round(vector[i] * multiplier);
+        }
+        return max / Byte.MAX_VALUE;
+    }
+
+    @Override
+    void search(float[] normalizedQuery, int from, int to, IntPredicate accept, ScoreHeap heap, int maxCandidates) {
+        if (from >= to) {
+            return;
+        }
+        ensureQueryDimension(normalizedQuery);
+        int dimension = this.dimension;
+        byte[] query = new byte[dimension];
+        float queryScale = quantize(normalizedQuery, query, 0);
+        byte[][] codes = this.codes;
+        float[][] scales = this.scales;
+        int slot = from;
+        while (slot < to) {
+            int chunkIndex = slot / vectorsPerChunk;
+            byte[] chunk = codes[chunkIndex];
+            float[] chunkScales = scales[chunkIndex];
+            int position = slot % vectorsPerChunk;
+            int chunkEnd = Math.min(to, slot + vectorsPerChunk - position);
+            for (int offset = position * dimension; slot < chunkEnd; slot++, position++, offset += dimension) {
+                if (accept != null && !accept.test(slot)) {
+                    continue;
+                }
+                int dot = Vectors.dot(query, 0, chunk, offset, dimension);
+                heap.offer(slot, dot * queryScale * chunkScales[position], maxCandidates);
+            }
+        }
+    }
+}
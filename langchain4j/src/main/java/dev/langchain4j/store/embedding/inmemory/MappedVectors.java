@@ -0,0 +1,154 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.internal.Vectors;
+import dev.langchain4j.store.embedding.RelevanceScore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.IntPredicate;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+import static dev.langchain4j.store.embedding.CosineSimilarity.EPSILON;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+
+/**
+ * Read-only vectors stored as contiguous little-endian float32 values in a memory-mapped file,
+ * or as 16-bit values of the normalized vectors when written with a half {@link VectorPrecision}.
+ * <p>
+ * Vectors are never copied onto the heap as a whole, they are read directly from the mapping.
+ * Since a single mapping is limited to 2 GB, the vector block is mapped in several chunks,
+ * each containing a whole number of vectors.
+ */
+class MappedVectors {
+
+    private static final long MAX_CHUNK_BYTES = Integer.MAX_VALUE;
+
+    private final ByteBuffer[] chunks;
+    /**
+     * The chunks when vectors have a half precision, {@code null} otherwise.
+     */
+    private final ShortBuffer[] halfChunks;
+    private final VectorPrecision precision;
+    private final int vectorsPerChunk;
+    private final int dimension;
+    private final int size;
+    /**
+     * The inverse norms of float32 vectors, or the norms of the original vectors when they are normalized.
+     */
+    private final float[] inverseNorms;
+
+    private MappedVectors(ByteBuffer[] chunks, ShortBuffer[] halfChunks, VectorPrecision precision,
+                          int vectorsPerChunk, int dimension, int size, float[] inverseNorms) {
+        this.chunks = chunks;
+        this.halfChunks = halfChunks;
+        this.precision = precision;
+        this.vectorsPerChunk = vectorsPerChunk;
+        this.dimension = dimension;
+        this.size = size;
+        this.inverseNorms = inverseNorms;
+    }
+
+    static MappedVectors map(FileChannel channel, long offset, int size, int dimension, float[] norms,
+                             VectorPrecision precision) throws IOException {
+        int bytes = precision.bytes();
+        long vectorBytes = (long) Math.max(dimension, 1) * bytes;
+        int vectorsPerChunk = (int) Math.max(1, MAX_CHUNK_BYTES / vectorBytes);
+        int chunkCount = size == 0 ? 0 : (size - 1) / vectorsPerChunk + 1;
+
+        boolean half = precision != VectorPrecision.FLOAT32;
+        ByteBuffer[] chunks = half ? null : new ByteBuffer[chunkCount];
+        ShortBuffer[] halfChunks = half ? new ShortBuffer[chunkCount] : null;
+        for (int i = 0; i < chunkCount; i++) {
+            int vectorsInChunk = Math.min(vectorsPerChunk, size - i * vectorsPerChunk);
+            long chunkOffset = offset + i * (long) vectorsPerChunk * dimension * bytes;
+            ByteBuffer chunk = channel.map(READ_ONLY, chunkOffset, (long) vectorsInChunk * dimension * bytes)
+                    .order(LITTLE_ENDIAN);
+            if (half) {
+                halfChunks[i] = chunk.asShortBuffer();
+            } else {
+                chunks[i] = chunk;
+            }
+        }
+
+        float[] inverseNorms = new float[size];
+        for (int i = 0; i < size; i++) {
+            inverseNorms[i] = half ? norms[i] : 1 / Math.max(norms[i], EPSILON);
+        }
+        return new MappedVectors(chunks, halfChunks, precision, vectorsPerChunk, dimension, size, inverseNorms);
+    }
+
+    int size() {
+        return size;
+    }
+
+    VectorPrecision precision() {
+        return precision;
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Calculates cosine similarity between the stored vector and the given normalized query vector.
+     */
+    float cosineSimilarity(int slot, float[] normalizedQuery) {
+        int base = (slot % vectorsPerChunk) * dimension;
+        if (halfChunks != null) {
+            ShortBuffer chunk = halfChunks[slot / vectorsPerChunk];
+            float dot = 0;
+            for (int i = 0; i < dimension; i++) {
+                dot += precision.fromHalf(chunk.get(base + i)) * normalizedQuery[i];
+            }
+            return dot;
+        }
+        return Vectors.dot(chunks[slot / vectorsPerChunk], base, normalizedQuery, 0, dimension) * inverseNorms[slot];
+    }
+
+    /**
+     * Scores the vectors in slots {@code [from, to)} against a normalized query vector
+     * and keeps the {@code maxResults} most similar ones in the heap.
+     *
+     * @see VectorArena#search(float[], int, int, IntPredicate, double, ScoreHeap, int)
+     */
+    void search(float[] normalizedQuery, int from, int to, IntPredicate accept,
+                double minScore, ScoreHeap heap, int maxResults) {
+        to = Math.min(to, size);
+        if (from < to && normalizedQuery.length != dimension) {
+            throw illegalArgument("Length of query vector (%s) must be equal to the dimension of the store (%s)",
+                    normalizedQuery.length, dimension);
+        }
+        for (int slot = from; slot < to; slot++) {
+            if (accept != null && !accept.test(slot)) {
+                continue;
+            }
+            float cosineSimilarity = cosineSimilarity(slot, normalizedQuery);
+            if (RelevanceScore.fromCosineSimilarity(cosineSimilarity) >= minScore) {
+                heap.offer(slot, cosineSimilarity, maxResults);
+            }
+        }
+    }
+
+    /**
+     * Copies the stored vector onto the heap.
+     */
+    float[] vector(int slot) {
+        int base = (slot % vectorsPerChunk) * dimension;
+        float[] vector = new float[dimension];
+        if (halfChunks != null) {
+            ShortBuffer chunk = halfChunks[slot / vectorsPerChunk];
+            for (int i = 0; i < dimension; i++) {
+                vector[i] = precision.fromHalf(chunk.get(base + i)) * inverseNorms[slot];
+            }
+        } else {
+            ByteBuffer chunk = chunks[slot / vectorsPerChunk];
+            for (int i = 0; i < dimension; i++) {
+                vector[i] = chunk.getFloat((base + i) * Float.BYTES);
+            }
+        }
+        return vector;
+    }
+}
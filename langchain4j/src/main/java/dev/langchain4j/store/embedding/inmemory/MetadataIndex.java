@@ -0,0 +1,311 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.filter.Filter;
+import dev.langchain4j.store.embedding.filter.comparison.*;
+import dev.langchain4j.store.embedding.filter.logical.And;
+import dev.langchain4j.store.embedding.filter.logical.Not;
+import dev.langchain4j.store.embedding.filter.logical.Or;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+
+/**
+ * Secondary indexes on the values of declared metadata keys, used to select candidate slots before scoring.
+ * <p>
+ * For each key, string values are indexed in a hash table for {@link IsEqualTo} and {@link IsIn},
+ * and numeric values in a sorted map that also serves range comparisons.
+ * Each distinct value maps to the ascending list of slots having it.
+ * <p>
+ * Candidates are a superset of the matching slots: numeric bounds are widened slightly,
+ * since filters compare numbers of different types by their decimal representation.
+ * The filter must still be tested on every candidate.
+ * Filters that cannot be answered using the indexes, for example {@link IsNotEqualTo} or keys that are not indexed,
+ * do not narrow the candidates. Neither do comparisons with values of a type not found in the index,
+ * so that the filter reports the type mismatch as usual.
+ * <p>
+ * Slots must be added in increasing order. Selecting candidates can run concurrently, additions are serialized.
+ */
+class MetadataIndex {
+
+    /**
+     * The relative tolerance used for numeric bounds, larger than the precision of {@code float}.
+     */
+    private static final double RELATIVE_TOLERANCE = 1e-6;
+
+    private final Map<String, KeyIndex> keyIndexes = new HashMap<>();
+    /**
+     * Slots of entries whose embedded object is not a {@link TextSegment}, they pass any filter.
+     */
+    private final Postings withoutMetadata = new Postings();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private int endSlot;
+
+    MetadataIndex(Collection<String> keys) {
+        for (String key : keys) {
+            keyIndexes.put(key, new KeyIndex());
+        }
+    }
+
+    /**
+     * @return The slot following the last indexed one.
+     */
+    int endSlot() {
+        lock.readLock().lock();
+        try {
+            return endSlot;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void add(int slot, Object embedded) {
+        addMetadata(slot, embedded instanceof TextSegment ? ((TextSegment) embedded).metadata() : null);
+    }
+
+    /**
+     * Indexes the metadata of the slot.
+     *
+     * @param metadata The metadata, or {@code null} if the embedded object of the slot is not a {@link TextSegment}.
+     */
+    void addMetadata(int slot, Metadata metadata) {
+        lock.writeLock().lock();
+        try {
+            if (slot != endSlot) {
+                throw illegalArgument("Expected slot %s, but got %s", endSlot, slot);
+            }
+            if (metadata != null) {
+                keyIndexes.forEach((key, keyIndex) -> {
+                    Object value = metadata.getObject(key);
+                    if (value != null) {
+                        keyIndex.add(slot, value);
+                    }
+                });
+            } else {
+                withoutMetadata.add(slot);
+            }
+            endSlot = slot + 1;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Selects the slots that may pass the filter.
+     *
+     * @return The candidate slots, or {@code null} if the filter cannot be answered using the indexes.
+     */
+    BitSet candidates(Filter filter) {
+        lock.readLock().lock();
+        try {
+            BitSet candidates = select(filter);
+            if (candidates != null) {
+                withoutMetadata.addTo(candidates);
+            }
+            return candidates;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return Whether all metadata keys used by the filter are indexed,
+     * so that it can be tested on the values of the indexed keys alone.
+     */
+    boolean indexesKeysOf(Filter filter) {
+        if (filter instanceof And) {
+            return indexesKeysOf(((And) filter).left()) && indexesKeysOf(((And) filter).right());
+        } else if (filter instanceof Or) {
+            return indexesKeysOf(((Or) filter).left()) && indexesKeysOf(((Or) filter).right());
+        } else if (filter instanceof Not) {
+            return indexesKeysOf(((Not) filter).expression());
+        }
+        String key = keyOf(filter);
+        return key != null && keyIndexes.containsKey(key);
+    }
+
+    private static String keyOf(Filter filter) {
+        if (filter instanceof IsEqualTo) {
+            return ((IsEqualTo) filter).key();
+        } else if (filter instanceof IsNotEqualTo) {
+            return ((IsNotEqualTo) filter).key();
+        } else if (filter instanceof IsIn) {
+            return ((IsIn) filter).key();
+        } else if (filter instanceof IsNotIn) {
+            return ((IsNotIn) filter).key();
+        } else if (filter instanceof IsGreaterThan) {
+            return ((IsGreaterThan) filter).key();
+        } else if (filter instanceof IsGreaterThanOrEqualTo) {
+            return ((IsGreaterThanOrEqualTo) filter).key();
+        } else if (filter instanceof IsLessThan) {
+            return ((IsLessThan) filter).key();
+        } else if (filter instanceof IsLessThanOrEqualTo) {
+            return ((IsLessThanOrEqualTo) filter).key();
+        }
+        return null;
+    }
+
+    private BitSet select(Filter filter) {
+        if (filter instanceof And) {
+            BitSet left = select(((And) filter).left());
+            BitSet right = select(((And) filter).right());
+            if (left == null) {
+                return right;
+            } else if (right != null) {
+                left.and(right);
+            }
+            return left;
+        } else if (filter instanceof Or) {
+            BitSet left = select(((Or) filter).left());
+            if (left == null) {
+                return null;
+            }
+            BitSet right = select(((Or) filter).right());
+            if (right == null) {
+                return null;
+            }
+            left.or(right);
+            return left;
+        } else if (filter instanceof IsEqualTo) {
+            IsEqualTo isEqualTo = (IsEqualTo) filter;
+            KeyIndex keyIndex = keyIndexes.get(isEqualTo.key());
+            return keyIndex == null ? null : keyIndex.in(Collections.singleton(isEqualTo.comparisonValue()));
+        } else if (filter instanceof IsIn) {
+            IsIn isIn = (IsIn) filter;
+            KeyIndex keyIndex = keyIndexes.get(isIn.key());
+            return keyIndex == null ? null : keyIndex.in(isIn.comparisonValues());
+        } else if (filter instanceof IsGreaterThan) {
+            IsGreaterThan isGreaterThan = (IsGreaterThan) filter;
+            return range(isGreaterThan.key(), isGreaterThan.comparisonValue(), null);
+        } else if (filter instanceof IsGreaterThanOrEqualTo) {
+            IsGreaterThanOrEqualTo isGreaterThanOrEqualTo = (IsGreaterThanOrEqualTo) filter;
+            return range(isGreaterThanOrEqualTo.key(), isGreaterThanOrEqualTo.comparisonValue(), null);
+        } else if (filter instanceof IsLessThan) {
+            IsLessThan isLessThan = (IsLessThan) filter;
+            return range(isLessThan.key(), null, isLessThan.comparisonValue());
+        } else if (filter instanceof IsLessThanOrEqualTo) {
+            IsLessThanOrEqualTo isLessThanOrEqualTo = (IsLessThanOrEqualTo) filter;
+            return range(isLessThanOrEqualTo.key(), null, isLessThanOrEqualTo.comparisonValue());
+        }
+        return null;
+    }
+
+    private BitSet range(String key, Object from, Object to) {
+        KeyIndex keyIndex = keyIndexes.get(key);
+        return keyIndex == null ? null : keyIndex.range(from, to);
+    }
+
+    private static class KeyIndex {
+
+        private final Map<String, Postings> strings = new HashMap<>();
+        private final NavigableMap<Double, Postings> numbers = new TreeMap<>();
+        /**
+         * Whether some values are not finite numbers, which filters cannot compare.
+         */
+        private boolean hasNonFiniteNumbers;
+
+        void add(int slot, Object value) {
+            if (value instanceof String) {
+                strings.computeIfAbsent((String) value, v -> new Postings()).add(slot);
+            } else if (value instanceof Number) {
+                double number = ((Number) value).doubleValue();
+                if (Double.isNaN(number) || Double.isInfinite(number)) {
+                    hasNonFiniteNumbers = true;
+                } else {
+                    // adding 0.0 turns -0.0 into 0.0
+                    numbers.computeIfAbsent(number + 0.0, v -> new Postings()).add(slot);
+                }
+            }
+        }
+
+        BitSet in(Collection<?> values) {
+            BitSet candidates = new BitSet();
+            for (Object value : values) {
+                if (value instanceof String) {
+                    if (!numbers.isEmpty() || hasNonFiniteNumbers) {
+                        return null;
+                    }
+                    Postings postings = strings.get(value);
+                    if (postings != null) {
+                        postings.addTo(candidates);
+                    }
+                } else {
+                    Double number = toIndexedNumber(value);
+                    if (number == null) {
+                        return null;
+                    }
+                    double tolerance = tolerance(number);
+                    for (Postings postings : numbers.subMap(number - tolerance, true, number + tolerance, true).values()) {
+                        postings.addTo(candidates);
+                    }
+                }
+            }
+            return candidates;
+        }
+
+        /**
+         * @param from The lower bound, {@code null} if unbounded.
+         * @param to   The upper bound, {@code null} if unbounded.
+         */
+        BitSet range(Object from, Object to) {
+            Double lower = from == null ? Double.valueOf(Double.NEGATIVE_INFINITY) : toIndexedNumber(from);
+            Double upper = to == null ? Double.valueOf(Double.POSITIVE_INFINITY) : toIndexedNumber(to);
+            if (lower == null || upper == null) {
+                return null;
+            }
+            BitSet candidates = new BitSet();
+            NavigableMap<Double, Postings> range = numbers.subMap(
+                    lower - tolerance(lower), true, upper + tolerance(upper), true);
+            for (Postings postings : range.values()) {
+                postings.addTo(candidates);
+            }
+            return candidates;
+        }
+
+        /**
+         * @return The comparison value as indexed, or {@code null} if it cannot be looked up in the numeric index.
+         */
+        private Double toIndexedNumber(Object value) {
+            if (!(value instanceof Number) || !strings.isEmpty() || hasNonFiniteNumbers) {
+                return null;
+            }
+            double number = ((Number) value).doubleValue();
+            if (Double.isNaN(number) || Double.isInfinite(number)) {
+                return null;
+            }
+            return number;
+        }
+
+        private static double tolerance(double number) {
+            if (Double.isInfinite(number)) {
+                return 0;
+            }
+            return Math.max(Math.abs(number) * RELATIVE_TOLERANCE, Float.MIN_NORMAL);
+        }
+    }
+
+    /**
+     * An ascending list of slots.
+     */
+    private static class Postings {
+
+        private int[] slots = new int[1];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+
+        void addTo(BitSet bitSet) {
+            for (int i = 0; i < size; i++) {
+                bitSet.set(slots[i]);
+            }
+        }
+    }
+}
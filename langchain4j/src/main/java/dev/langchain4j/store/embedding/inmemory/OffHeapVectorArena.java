@@ -0,0 +1,143 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.internal.Vectors;
+import dev.langchain4j.store.embedding.RelevanceScore;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+/**
+ * A {@link VectorArena} keeping vectors in direct {@link ByteBuffer}s, outside the Java heap.
+ * <p>
+ * Vectors are kept as they were added, in the native byte order, along with their inverse norms on the heap.
+ * The store does not need to keep the added vectors, and the garbage collector never scans nor copies them.
+ * The memory of a chunk is released once its buffer is garbage collected, after the arena is discarded.
+ */
+class OffHeapVectorArena extends VectorArena {
+
+    private volatile ByteBuffer[] chunks = new ByteBuffer[0];
+    private volatile float[][] inverseNorms = new float[0][];
+    private volatile int size;
+
+    OffHeapVectorArena(int firstSlot, int dimension) {
+        super(firstSlot);
+        if (dimension != -1) {
+            initDimension(dimension);
+        }
+    }
+
+    @Override
+    int endSlot() {
+        return firstSlot + size;
+    }
+
+    @Override
+    void add(float[] vector) {
+        ensureDimension(vector.length);
+
+        int size = this.size;
+        int chunkIndex = size / vectorsPerChunk;
+        int position = size % vectorsPerChunk;
+        ByteBuffer[] chunks = this.chunks;
+        float[][] inverseNorms = this.inverseNorms;
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkIndex + 1);
+            inverseNorms = Arrays.copyOf(inverseNorms, chunkIndex + 1);
+            int capacity = Math.min(INITIAL_CHUNK_VECTORS, vectorsPerChunk);
+            chunks[chunkIndex] = allocate(capacity * dimension);
+            inverseNorms[chunkIndex] = new float[capacity];
+        } else if (position == inverseNorms[chunkIndex].length) {
+            chunks = chunks.clone();
+            inverseNorms = inverseNorms.clone();
+            int capacity = Math.min(position * 2, vectorsPerChunk);
+            ByteBuffer chunk = allocate(capacity * dimension);
+            chunk.put(chunks[chunkIndex].duplicate()).clear();
+            chunks[chunkIndex] = chunk;
+            inverseNorms[chunkIndex] = Arrays.copyOf(inverseNorms[chunkIndex], capacity);
+        }
+
+        ByteBuffer chunk = chunks[chunkIndex];
+        int index = position * dimension * Float.BYTES;
+        for (int i = 0; i < dimension; i++, index += Float.BYTES) {
+            chunk.putFloat(index, vector[i]);
+        }
+        inverseNorms[chunkIndex][position] = inverseNorm(vector);
+
+        this.chunks = chunks;
+        this.inverseNorms = inverseNorms;
+        this.size = size + 1;
+    }
+
+    private static ByteBuffer allocate(int components) {
+        return ByteBuffer.allocateDirect(components * Float.BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    @Override
+    float[] vector(int slot) {
+        int index = slot - firstSlot;
+        ByteBuffer chunk = chunks[index / vectorsPerChunk];
+        int byteIndex = (index % vectorsPerChunk) * dimension * Float.BYTES;
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++, byteIndex += Float.BYTES) {
+            vector[i] = chunk.getFloat(byteIndex);
+        }
+        return vector;
+    }
+
+    @Override
+    float cosineSimilarity(int slot, float[] normalizedQuery) {
+        int index = slot - firstSlot;
+        int chunkIndex = index / vectorsPerChunk;
+        int position = index % vectorsPerChunk;
+        return Vectors.dot(chunks[chunkIndex], position * dimension, normalizedQuery, 0, dimension)
+                * inverseNorms[chunkIndex][position];
+    }
+
+    @Override
+    float cosineSimilarity(int slotA, int slotB) {
+        ByteBuffer[] chunks = this.chunks;
+        float[][] inverseNorms = this.inverseNorms;
+        int indexA = slotA - firstSlot;
+        int chunkA = indexA / vectorsPerChunk;
+        int positionA = indexA % vectorsPerChunk;
+        int indexB = slotB - firstSlot;
+        int chunkB = indexB / vectorsPerChunk;
+        int positionB = indexB % vectorsPerChunk;
+        float dot = Vectors.dot(chunks[chunkA], positionA * dimension, chunks[chunkB], positionB * dimension, dimension);
+        return dot * inverseNorms[chunkA][positionA] * inverseNorms[chunkB][positionB];
+    }
+
+    @Override
+    void search(float[] normalizedQuery, int from, int to, IntPredicate accept,
+                double minScore, ScoreHeap heap, int maxResults) {
+        from = Math.max(from, firstSlot);
+        if (from >= to) {
+            return;
+        }
+        ensureQueryDimension(normalizedQuery);
+        int dimension = this.dimension;
+        ByteBuffer[] chunks = this.chunks;
+        float[][] inverseNorms = this.inverseNorms;
+        int slot = from;
+        while (slot < to) {
+            int index = slot - firstSlot;
+            int chunkIndex = index / vectorsPerChunk;
+            ByteBuffer chunk = chunks[chunkIndex];
+            float[] chunkInverseNorms = inverseNorms[chunkIndex];
+            int position = index % vectorsPerChunk;
+            int chunkEnd = Math.min(to, slot + vectorsPerChunk - position);
+            for (int offset = position * dimension; slot < chunkEnd; slot++, position++, offset += dimension) {
+                if (accept != null && !accept.test(slot)) {
+                    continue;
+                }
+                float cosineSimilarity = Vectors.dot(chunk, offset, normalizedQuery, 0, dimension)
+                        * chunkInverseNorms[position];
+                if (RelevanceScore.fromCosineSimilarity(cosineSimilarity) >= minScore) {
+                    heap.offer(slot, cosineSimilarity, maxResults);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.segment.TextSegment;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreBinaryCodec.getSegment;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreBinaryCodec.putSegment;
+import static java.nio.ByteOrder.LITTLE_ENDIAN;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * An append-only file holding the text and metadata of {@link TextSegment}s, referenced by their offsets.
+ * <p>
+ * Each record consists of its int32 length, followed by the segment in the format of
+ * {@link InMemoryEmbeddingStoreBinaryCodec}. All numbers are little-endian.
+ * Records are read through memory-mapped regions of {@link #REGION_SIZE} bytes, so a record never crosses
+ * the boundary of a region: the remainder of a region too small for the next record is left unused.
+ * A region is mapped again, up to the end of the file, when a record beyond its mapped part is read.
+ * <p>
+ * The file is truncated when opened: it only extends the memory of a store and is not a persistence format.
+ * Appends are serialized by the store, reads can run concurrently with them.
+ */
+class PayloadFile {
+
+    static final int REGION_SIZE = 1 << 30;
+
+    private final FileChannel channel;
+    private ByteBuffer buffer = ByteBuffer.allocate(4096).order(LITTLE_ENDIAN);
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+    private volatile long size;
+
+    private PayloadFile(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    static PayloadFile open(Path path) throws IOException {
+        return new PayloadFile(FileChannel.open(path, CREATE, TRUNCATE_EXISTING, READ, WRITE));
+    }
+
+    /**
+     * @return The size of the file in bytes.
+     */
+    long size() {
+        return size;
+    }
+
+    /**
+     * Appends the segment to the file.
+     *
+     * @return The offset of its record, to be passed to {@link #read(long)}.
+     */
+    long append(Object embedded) throws IOException {
+        buffer.clear();
+        buffer.putInt(0);
+        buffer = putSegment(buffer, embedded);
+        int length = buffer.position();
+        if (length > REGION_SIZE) {
+            throw illegalArgument("The segment takes %s bytes, more than the %s bytes of a region of the payload file",
+                    length, REGION_SIZE);
+        }
+        buffer.putInt(0, length - Integer.BYTES);
+        buffer.flip();
+
+        long offset = size;
+        if (offset % REGION_SIZE + length > REGION_SIZE) {
+            offset += REGION_SIZE - offset % REGION_SIZE;
+        }
+        for (long position = offset; buffer.hasRemaining(); ) {
+            position += channel.write(buffer, position);
+        }
+        size = offset + length;
+        return offset;
+    }
+
+    /**
+     * Reads the segment of the record at the given offset.
+     */
+    TextSegment read(long offset) {
+        int regionIndex = (int) (offset / REGION_SIZE);
+        int position = (int) (offset % REGION_SIZE);
+        ByteBuffer region = region(regionIndex, position + Integer.BYTES);
+        int length = region.getInt(position);
+        region = region(regionIndex, position + Integer.BYTES + length).duplicate();
+        region.order(LITTLE_ENDIAN)
+                .limit(position + Integer.BYTES + length)
+                .position(position + Integer.BYTES);
+        return getSegment(region);
+    }
+
+    /**
+     * Returns the mapping of the region, mapping it again if it does not extend to {@code end}.
+     */
+    private ByteBuffer region(int index, int end) {
+        MappedByteBuffer[] regions = this.regions;
+        if (index < regions.length && regions[index] != null && regions[index].capacity() >= end) {
+            return regions[index];
+        }
+        synchronized (this) {
+            regions = this.regions;
+            if (index < regions.length && regions[index] != null && regions[index].capacity() >= end) {
+                return regions[index];
+            }
+            regions = Arrays.copyOf(regions, Math.max(regions.length, index + 1));
+            regions[index] = map(index);
+            this.regions = regions;
+            return regions[index];
+        }
+    }
+
+    private MappedByteBuffer map(int index) {
+        long start = (long) index * REGION_SIZE;
+        try {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                    Math.min(size - start, REGION_SIZE));
+            region.order(LITTLE_ENDIAN);
+            return region;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Maps the whole file and closes it. Records can still be read afterwards, but no longer appended.
+     */
+    void close() throws IOException {
+        synchronized (this) {
+            MappedByteBuffer[] regions = new MappedByteBuffer[(int) ((size + REGION_SIZE - 1) / REGION_SIZE)];
+            for (int i = 0; i < regions.length; i++) {
+                regions[i] = map(i);
+            }
+            this.regions = regions;
+        }
+        channel.close();
+    }
+}
@@ -0,0 +1,84 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import java.util.function.IntPredicate;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+
+/**
+ * Compact, approximate representations of vectors, used to select candidates for exact re-scoring.
+ * <p>
+ * Vectors are identified by slots, starting at 0.
+ * A single thread may add vectors while other threads are searching.
+ */
+abstract class QuantizedVectors {
+
+    static final int MAX_CHUNK_BYTES = 1 << 20;
+    static final int INITIAL_CHUNK_VECTORS = 16;
+
+    int dimension = -1;
+    int vectorsPerChunk;
+
+    static QuantizedVectors create(VectorQuantization quantization) {
+        switch (quantization) {
+            case INT8:
+                return new Int8QuantizedVectors();
+            case BINARY:
+                return new BinaryQuantizedVectors();
+            default:
+                throw illegalArgument("Unsupported quantization: %s", quantization);
+        }
+    }
+
+    /**
+     * @return The slot following the last vector.
+     */
+    abstract int endSlot();
+
+    int dimension() {
+        return dimension;
+    }
+
+    /**
+     * Quantizes and adds a vector, it does not need to be normalized.
+     */
+    abstract void add(float[] vector);
+
+    /**
+     * Estimates the similarity of the vectors in slots {@code [from, to)} to a normalized query vector
+     * and keeps the {@code maxCandidates} most similar ones in the heap.
+     *
+     * @param accept Only slots accepted by this predicate are scored, all are accepted when {@code null}.
+     */
+    abstract void search(float[] normalizedQuery, int from, int to, IntPredicate accept,
+                         ScoreHeap heap, int maxCandidates);
+
+    abstract int bytesPerVector(int dimension);
+
+    void ensureDimension(int length) {
+        if (dimension == -1) {
+            dimension = length;
+            vectorsPerChunk = Math.max(1, MAX_CHUNK_BYTES / Math.max(bytesPerVector(length), 1));
+        } else if (length != dimension) {
+            throw illegalArgument("Length of vector (%s) must be equal to the dimension of the store (%s)",
+                    length, dimension);
+        }
+    }
+
+    void ensureQueryDimension(float[] normalizedQuery) {
+        if (normalizedQuery.length != dimension) {
+            throw illegalArgument("Length of query vector (%s) must be equal to the dimension of the store (%s)",
+                    normalizedQuery.length, dimension);
+        }
+    }
+
+    /**
+     * Returns the new capacity, in vectors, of a chunk that must hold a vector at the given position,
+     * or {@code -1} if its current capacity is sufficient. Chunks grow geometrically up to {@link #vectorsPerChunk}.
+     */
+    int requiredCapacity(int currentCapacity, int position) {
+        if (position < currentCapacity) {
+            return -1;
+        }
+        return Math.min(Math.max(currentCapacity * 2, INITIAL_CHUNK_VECTORS), vectorsPerChunk);
+    }
+}
@@ -0,0 +1,138 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import java.util.Arrays;
+
+/**
+ * A binary min-heap of primitive {@code (index, score)} pairs.
+ * <p>
+ * The element at the top of the heap is the "worst" one: the lowest score,
+ * and among equal scores the highest index. This makes bounded top-k selection
+ * deterministic regardless of the order in which candidates are offered.
+ */
+class ScoreHeap {
+
+    private int[] indices;
+    private float[] scores;
+    private int size;
+
+    ScoreHeap(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+        this.indices = new int[capacity];
+        this.scores = new float[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int topIndex() {
+        return indices[0];
+    }
+
+    float topScore() {
+        return scores[0];
+    }
+
+    void push(int index, float score) {
+        if (size == indices.length) {
+            int capacity = indices.length * 2;
+            indices = Arrays.copyOf(indices, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+        }
+        indices[size] = index;
+        scores[size] = score;
+        siftUp(size++);
+    }
+
+    /**
+     * Adds the pair if the heap holds less than {@code maxSize} elements,
+     * or replaces the current top if the pair is better than it.
+     *
+     * @return {@code true} if the pair has been added.
+     */
+    boolean offer(int index, float score, int maxSize) {
+        if (size < maxSize) {
+            push(index, score);
+            return true;
+        }
+        if (isWorse(index, score, indices[0], scores[0])) {
+            return false;
+        }
+        indices[0] = index;
+        scores[0] = score;
+        siftDown(0);
+        return true;
+    }
+
+    void pop() {
+        size--;
+        if (size > 0) {
+            indices[0] = indices[size];
+            scores[0] = scores[size];
+            siftDown(0);
+        }
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drains the heap into an array of indices ordered from the best to the worst score.
+     * The corresponding scores are written into {@code scoresOut}.
+     */
+    int[] drainDescending(float[] scoresOut) {
+        int[] result = new int[size];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = indices[0];
+            scoresOut[i] = scores[0];
+            pop();
+        }
+        return result;
+    }
+
+    private void siftUp(int i) {
+        int index = indices[i];
+        float score = scores[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!isWorse(index, score, indices[parent], scores[parent])) {
+                break;
+            }
+            indices[i] = indices[parent];
+            scores[i] = scores[parent];
+            i = parent;
+        }
+        indices[i] = index;
+        scores[i] = score;
+    }
+
+    private void siftDown(int i) {
+        int index = indices[i];
+        float score = scores[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && isWorse(indices[right], scores[right], indices[child], scores[child])) {
+                child = right;
+            }
+            if (!isWorse(indices[child], scores[child], index, score)) {
+                break;
+            }
+            indices[i] = indices[child];
+            scores[i] = scores[child];
+            i = child;
+        }
+        indices[i] = index;
+        scores[i] = score;
+    }
+
+    static boolean isWorse(int indexA, float scoreA, int indexB, float scoreB) {
+        return scoreA < scoreB || (scoreA == scoreB && indexA > indexB);
+    }
+}
@@ -0,0 +1,206 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.internal.Vectors;
+import dev.langchain4j.store.embedding.RelevanceScore;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+
+import static dev.langchain4j.internal.Exceptions.illegalArgument;
+import static dev.langchain4j.store.embedding.CosineSimilarity.EPSILON;
+
+/**
+ * Vectors stored contiguously in large chunks of a {@code float[]}.
+ * <p>
+ * Vectors are kept as they were added, along with their inverse norms, so that cosine similarity is reduced
+ * to a dot product scaled by the inverse norm, and no per-vector object has to be dereferenced while searching.
+ * The store does not need to keep the added vectors.
+ * Dot products are computed by the kernels of {@link Vectors}.
+ * <p>
+ * Vectors are identified by slots, starting at {@code firstSlot}.
+ * A single thread may add vectors while other threads are searching:
+ * the chunks and the size are published after the vector has been written.
+ *
+ * @see HalfPrecisionVectorArena
+ * @see OffHeapVectorArena
+ */
+class VectorArena {
+
+    static final int MAX_CHUNK_COMPONENTS = 1 << 20;
+    static final int INITIAL_CHUNK_VECTORS = 16;
+
+    final int firstSlot;
+    int dimension = -1;
+    int vectorsPerChunk;
+    private volatile float[][] chunks = new float[0][];
+    private volatile float[][] inverseNorms = new float[0][];
+    private volatile int size;
+
+    VectorArena(int firstSlot) {
+        this.firstSlot = firstSlot;
+    }
+
+    VectorArena(int firstSlot, int dimension) {
+        this(firstSlot);
+        initDimension(dimension);
+    }
+
+    static VectorArena create(VectorPrecision precision, boolean offHeap, int firstSlot, int dimension) {
+        if (precision != VectorPrecision.FLOAT32) {
+            return new HalfPrecisionVectorArena(precision, firstSlot, dimension);
+        }
+        if (offHeap) {
+            return new OffHeapVectorArena(firstSlot, dimension);
+        }
+        return dimension == -1 ? new VectorArena(firstSlot) : new VectorArena(firstSlot, dimension);
+    }
+
+    /**
+     * @return The slot following the last vector.
+     */
+    int endSlot() {
+        return firstSlot + size;
+    }
+
+    int dimension() {
+        return dimension;
+    }
+
+    void add(float[] vector) {
+        ensureDimension(vector.length);
+
+        int size = this.size;
+        int chunkIndex = size / vectorsPerChunk;
+        int position = size % vectorsPerChunk;
+        float[][] chunks = this.chunks;
+        float[][] inverseNorms = this.inverseNorms;
+        if (chunkIndex == chunks.length) {
+            chunks = Arrays.copyOf(chunks, chunkIndex + 1);
+            inverseNorms = Arrays.copyOf(inverseNorms, chunkIndex + 1);
+            int capacity = Math.min(INITIAL_CHUNK_VECTORS, vectorsPerChunk);
+            chunks[chunkIndex] = new float[capacity * dimension];
+            inverseNorms[chunkIndex] = new float[capacity];
+        } else if (position == inverseNorms[chunkIndex].length) {
+            chunks = chunks.clone();
+            inverseNorms = inverseNorms.clone();
+            int capacity = Math.min(position * 2, vectorsPerChunk);
+            chunks[chunkIndex] = Arrays.copyOf(chunks[chunkIndex], capacity * dimension);
+            inverseNorms[chunkIndex] = Arrays.copyOf(inverseNorms[chunkIndex], capacity);
+        }
+
+        System.arraycopy(vector, 0, chunks[chunkIndex], position * dimension, dimension);
+        inverseNorms[chunkIndex][position] = inverseNorm(vector);
+
+        this.chunks = chunks;
+        this.inverseNorms = inverseNorms;
+        this.size = size + 1;
+    }
+
+    void ensureDimension(int length) {
+        if (dimension == -1) {
+            initDimension(length);
+        } else if (length != dimension) {
+            throw illegalArgument("Length of vector (%s) must be equal to the dimension of the store (%s)",
+                    length, dimension);
+        }
+    }
+
+    void ensureQueryDimension(float[] normalizedQuery) {
+        if (normalizedQuery.length != dimension) {
+            throw illegalArgument("Length of query vector (%s) must be equal to the dimension of the store (%s)",
+                    normalizedQuery.length, dimension);
+        }
+    }
+
+    void initDimension(int dimension) {
+        this.dimension = dimension;
+        this.vectorsPerChunk = Math.max(1, MAX_CHUNK_COMPONENTS / Math.max(dimension, 1));
+    }
+
+    /**
+     * Returns the vector in the given slot as it was added, within the precision of the arena.
+     */
+    float[] vector(int slot) {
+        int index = slot - firstSlot;
+        int offset = (index % vectorsPerChunk) * dimension;
+        return Arrays.copyOfRange(chunks[index / vectorsPerChunk], offset, offset + dimension);
+    }
+
+    /**
+     * Calculates cosine similarity between the vector in the given slot and a normalized query vector.
+     */
+    float cosineSimilarity(int slot, float[] normalizedQuery) {
+        int index = slot - firstSlot;
+        int chunkIndex = index / vectorsPerChunk;
+        int position = index % vectorsPerChunk;
+        return Vectors.dot(chunks[chunkIndex], position * dimension, normalizedQuery, 0, dimension)
+                * inverseNorms[chunkIndex][position];
+    }
+
+    /**
+     * Calculates cosine similarity between the vectors in the given slots.
+     */
+    float cosineSimilarity(int slotA, int slotB) {
+        float[][] chunks = this.chunks;
+        float[][] inverseNorms = this.inverseNorms;
+        int indexA = slotA - firstSlot;
+        int chunkA = indexA / vectorsPerChunk;
+        int positionA = indexA % vectorsPerChunk;
+        int indexB = slotB - firstSlot;
+        int chunkB = indexB / vectorsPerChunk;
+        int positionB = indexB % vectorsPerChunk;
+        float dot = Vectors.dot(chunks[chunkA], positionA * dimension, chunks[chunkB], positionB * dimension, dimension);
+        return dot * inverseNorms[chunkA][positionA] * inverseNorms[chunkB][positionB];
+    }
+
+    /**
+     * Scores the vectors in slots {@code [from, to)} against a normalized query vector
+     * and keeps the {@code maxResults} most similar ones in the heap.
+     *
+     * @param accept   Only slots accepted by this predicate are scored, all are accepted when {@code null}.
+     * @param minScore Slots with a relevance score below this value are skipped.
+     */
+    void search(float[] normalizedQuery, int from, int to, IntPredicate accept,
+                double minScore, ScoreHeap heap, int maxResults) {
+        from = Math.max(from, firstSlot);
+        if (from >= to) {
+            return;
+        }
+        ensureQueryDimension(normalizedQuery);
+        int dimension = this.dimension;
+        float[][] chunks = this.chunks;
+        float[][] inverseNorms = this.inverseNorms;
+        int slot = from;
+        while (slot < to) {
+            int index = slot - firstSlot;
+            int chunkIndex = index / vectorsPerChunk;
+            float[] chunk = chunks[chunkIndex];
+            float[] chunkInverseNorms = inverseNorms[chunkIndex];
+            int position = index % vectorsPerChunk;
+            int chunkEnd = Math.min(to, slot + vectorsPerChunk - position);
+            for (int offset = position * dimension; slot < chunkEnd; slot++, position++, offset += dimension) {
+                if (accept != null && !accept.test(slot)) {
+                    continue;
+                }
+                float cosineSimilarity = Vectors.dot(chunk, offset, normalizedQuery, 0, dimension)
+                        * chunkInverseNorms[position];
+                if (RelevanceScore.fromCosineSimilarity(cosineSimilarity) >= minScore) {
+                    heap.offer(slot, cosineSimilarity, maxResults);
+                }
+            }
+        }
+    }
+
+    static float inverseNorm(float[] vector) {
+        return (float) (1 / Math.max(Math.sqrt(Vectors.dot(vector, vector)), EPSILON));
+    }
+
+    static float[] normalize(float[] vector) {
+        float inverseNorm = inverseNorm(vector);
+        float[] normalized = new float[vector.length];
+        for (int i = 0; i < vector.length; i++) {
+            normalized[i] = vector[i] * inverseNorm;
+        }
+        return normalized;
+    }
+}
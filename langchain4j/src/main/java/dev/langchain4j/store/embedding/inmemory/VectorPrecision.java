@@ -0,0 +1,62 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+/**
+ * The precision of the vectors kept by {@link InMemoryEmbeddingStore}.
+ * <p>
+ * With half precision, the store keeps 2 bytes per dimension instead of 4, and no longer keeps the original
+ * {@code float[]} of each embedding: similarities are computed directly on the half-precision values,
+ * and embeddings returned by the store are reconstructed from them, so they are only approximately
+ * equal to the added ones. For embeddings produced by typical models, the loss of precision does not change
+ * the ranking of search results in a measurable way.
+ */
+public enum VectorPrecision {
+
+    /**
+     * Vectors are kept as 32-bit floats, embeddings are returned exactly as added.
+     */
+    FLOAT32,
+
+    /**
+     * Vectors are kept as IEEE 754 half-precision floats: 11 significant bits, magnitudes from about
+     * {@code 6e-8} to {@code 65504}. Normalized vectors are stored, so components are always in range.
+     */
+    FLOAT16,
+
+    /**
+     * Vectors are kept as bfloat16: the 16 most significant bits of a 32-bit float, with 8 significant bits
+     * and the same range as {@code float}. Less precise than {@link #FLOAT16}, but cheaper to convert.
+     */
+    BFLOAT16;
+
+    /**
+     * @return The number of bytes per vector component.
+     */
+    int bytes() {
+        return this == FLOAT32 ? Float.BYTES : Short.BYTES;
+    }
+
+    /**
+     * Rounds a value to the nearest half-precision value.
+     */
+    short toHalf(float value) {
+        switch (this) {
+            case FLOAT16:
+                return HalfFloats.toFloat16(value);
+            case BFLOAT16:
+                return HalfFloats.toBFloat16(value);
+            default:
+                throw new IllegalStateException("Not a half precision: " + this);
+        }
+    }
+
+    float fromHalf(short half) {
+        switch (this) {
+            case FLOAT16:
+                return HalfFloats.fromFloat16(half);
+            case BFLOAT16:
+                return HalfFloats.fromBFloat16(half);
+            default:
+                throw new IllegalStateException("Not a half precision: " + this);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+/**
+ * How {@link InMemoryEmbeddingStore} represents vectors for the first pass of the brute force search.
+ * <p>
+ * With quantization, the store keeps compact codes in addition to the full-precision vectors.
+ * Codes are scanned to select {@code maxResults * rescoringFactor} candidates, which are then re-scored
+ * exactly using the full-precision vectors, so the returned scores are always exact.
+ * A faster scan is traded for a possibly lower recall. The heap only holds the codes when the full-precision
+ * vectors are kept off-heap, or read from the file of a store opened using
+ * {@link InMemoryEmbeddingStore#fromBinaryFile(java.nio.file.Path, VectorQuantization)}.
+ */
+public enum VectorQuantization {
+
+    /**
+     * Only the full-precision vectors are kept, with the inverse of their norms. The search is exact.
+     */
+    NONE,
+
+    /**
+     * Each vector is kept as one signed byte per dimension and a scale factor, 4 times smaller than 32-bit floats.
+     */
+    INT8,
+
+    /**
+     * Each vector is kept as one sign bit per dimension, 32 times smaller than 32-bit floats.
+     * Candidates are selected by Hamming distance, so a higher {@code rescoringFactor} is usually needed.
+     */
+    BINARY
+}
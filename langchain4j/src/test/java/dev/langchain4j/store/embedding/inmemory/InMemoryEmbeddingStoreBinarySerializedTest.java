@@ -0,0 +1,150 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.AllMiniLmL6V2QuantizedEmbeddingModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.EmbeddingStoreWithFilteringIT;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Tests if InMemoryEmbeddingStore works correctly after being written to a binary file and opened back.
+ * See awaitUntilPersisted()
+ */
+class InMemoryEmbeddingStoreBinarySerializedTest extends EmbeddingStoreWithFilteringIT {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    InMemoryEmbeddingStore<TextSegment> embeddingStore = new InMemoryEmbeddingStore<>();
+
+    EmbeddingModel embeddingModel = new AllMiniLmL6V2QuantizedEmbeddingModel();
+
+    @Override
+    protected void awaitUntilPersisted() {
+        Path filePath = temporaryDirectory.resolve("embedding-store.bin");
+        embeddingStore.serializeToBinaryFile(filePath);
+        embeddingStore = InMemoryEmbeddingStore.fromBinaryFile(filePath);
+    }
+
+    @Test
+    void should_serialize_to_json_after_being_opened_from_binary_file() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> originalEmbeddingStore = new InMemoryEmbeddingStore<>();
+        TextSegment segment = TextSegment.from("first");
+        originalEmbeddingStore.add(embeddingModel.embed(segment).content(), segment);
+        TextSegment segmentWithMetadata = TextSegment.from("second", Metadata.from("key", "value"));
+        originalEmbeddingStore.add(embeddingModel.embed(segmentWithMetadata).content(), segmentWithMetadata);
+        originalEmbeddingStore.add(embeddingModel.embed("without segment").content());
+
+        Path filePath = temporaryDirectory.resolve("embedding-store.bin");
+        originalEmbeddingStore.serializeToBinaryFile(filePath.toString());
+
+        // when
+        InMemoryEmbeddingStore<TextSegment> openedEmbeddingStore = InMemoryEmbeddingStore.fromBinaryFile(filePath.toString());
+
+        // then
+        assertThat(InMemoryEmbeddingStore.fromJson(openedEmbeddingStore.serializeToJson()).entries())
+                .isEqualTo(originalEmbeddingStore.entries());
+    }
+
+    @Test
+    void should_add_embeddings_after_being_opened_from_binary_file() {
+
+        // given
+        Embedding first = embeddingModel.embed("hello").content();
+        String firstId = embeddingStore.add(first);
+        awaitUntilPersisted();
+
+        // when
+        Embedding second = embeddingModel.embed("hi").content();
+        String secondId = embeddingStore.add(second);
+
+        // then
+        List<EmbeddingMatch<TextSegment>> matches = embeddingStore.findRelevant(second, 2);
+        assertThat(matches).hasSize(2);
+        assertThat(matches.get(0).embeddingId()).isEqualTo(secondId);
+        assertThat(matches.get(0).embedding()).isEqualTo(second);
+        assertThat(matches.get(1).embeddingId()).isEqualTo(firstId);
+        assertThat(matches.get(1).embedding()).isEqualTo(first);
+    }
+
+    @Test
+    void should_replace_file_of_store_opened_from_it() {
+
+        // given
+        Embedding first = embeddingModel.embed("hello").content();
+        String firstId = embeddingStore.add(first);
+        awaitUntilPersisted();
+        Embedding second = embeddingModel.embed("hi").content();
+        embeddingStore.add(second);
+        Path filePath = temporaryDirectory.resolve("embedding-store.bin");
+
+        // when
+        embeddingStore.serializeToBinaryFile(filePath);
+
+        // then
+        List<EmbeddingMatch<TextSegment>> matches = embeddingStore.findRelevant(first, 1);
+        assertThat(matches.get(0).embeddingId()).isEqualTo(firstId);
+        assertThat(matches.get(0).embedding()).isEqualTo(first);
+        assertThat(InMemoryEmbeddingStore.fromBinaryFile(filePath).entries()).isEqualTo(embeddingStore.entries());
+        assertThat(temporaryDirectory.resolve("embedding-store.bin.tmp")).doesNotExist();
+    }
+
+    @Test
+    void should_keep_previous_file_when_writing_fails() {
+
+        // given
+        embeddingStore.add(embeddingModel.embed("hello").content(), TextSegment.from("hello"));
+        Path filePath = temporaryDirectory.resolve("embedding-store.bin");
+        embeddingStore.serializeToBinaryFile(filePath);
+        InMemoryEmbeddingStore<Object> unsupportedStore = new InMemoryEmbeddingStore<>();
+        unsupportedStore.add(embeddingModel.embed("hi").content(), new Object());
+
+        // when
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> unsupportedStore.serializeToBinaryFile(filePath))
+                .withMessageStartingWith("Only TextSegment can be written to a binary file");
+
+        // then
+        assertThat(InMemoryEmbeddingStore.fromBinaryFile(filePath).entries()).isEqualTo(embeddingStore.entries());
+    }
+
+    @Test
+    void should_fail_to_open_invalid_file() throws Exception {
+
+        Path jsonFile = temporaryDirectory.resolve("embedding-store.json");
+        Files.write(jsonFile, new byte[InMemoryEmbeddingStoreBinaryCodec.HEADER_SIZE]);
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> InMemoryEmbeddingStore.fromBinaryFile(jsonFile))
+                .withMessageContaining("is not a binary InMemoryEmbeddingStore file");
+
+        assertThatExceptionOfType(RuntimeException.class)
+                .isThrownBy(() -> InMemoryEmbeddingStore.fromBinaryFile(temporaryDirectory.resolve("missing/store.bin")))
+                .withCauseInstanceOf(NoSuchFileException.class);
+    }
+
+    @Override
+    protected EmbeddingStore<TextSegment> embeddingStore() {
+        return embeddingStore;
+    }
+
+    @Override
+    protected EmbeddingModel embeddingModel() {
+        return embeddingModel;
+    }
+}
@@ -0,0 +1,241 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static dev.langchain4j.store.embedding.inmemory.HalfFloats.fromBFloat16;
+import static dev.langchain4j.store.embedding.inmemory.HalfFloats.fromFloat16;
+import static dev.langchain4j.store.embedding.inmemory.HalfFloats.toBFloat16;
+import static dev.langchain4j.store.embedding.inmemory.HalfFloats.toFloat16;
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+import static org.junit.jupiter.params.provider.EnumSource.Mode.EXCLUDE;
+
+class InMemoryEmbeddingStoreHalfPrecisionTest {
+
+    private static final int DIMENSION = 64;
+
+    @TempDir
+    Path temporaryDirectory;
+
+    @Test
+    void should_convert_float16() {
+
+        assertThat(toFloat16(1f)).isEqualTo((short) 0x3C00);
+        assertThat(toFloat16(-2f)).isEqualTo((short) 0xC000);
+        assertThat(toFloat16(65504f)).isEqualTo((short) 0x7BFF);
+        assertThat(toFloat16(65520f)).isEqualTo((short) 0x7C00);
+        assertThat(toFloat16(0x1p-24f)).isEqualTo((short) 0x0001);
+        assertThat(toFloat16(0x1p-25f)).isEqualTo((short) 0x0000);
+        assertThat(toFloat16(-0f)).isEqualTo((short) 0x8000);
+        // halfway cases are rounded to even
+        assertThat(toFloat16(1 + 0x1p-11f)).isEqualTo((short) 0x3C00);
+        assertThat(toFloat16(1 + 3 * 0x1p-11f)).isEqualTo((short) 0x3C02);
+        assertThat(fromFloat16(toFloat16(Float.NaN))).isNaN();
+
+        for (int bits = 0; bits < 1 << 16; bits++) {
+            float value = fromFloat16((short) bits);
+            if (!Float.isNaN(value)) {
+                assertThat(toFloat16(value)).isEqualTo((short) bits);
+            }
+        }
+    }
+
+    @Test
+    void should_convert_bfloat16() {
+
+        assertThat(toBFloat16(1f)).isEqualTo((short) 0x3F80);
+        assertThat(fromBFloat16(toBFloat16(3.14159f))).isEqualTo(3.140625f);
+        // halfway cases are rounded to even
+        assertThat(toBFloat16(Float.intBitsToFloat(0x3F808000))).isEqualTo((short) 0x3F80);
+        assertThat(toBFloat16(Float.intBitsToFloat(0x3F818000))).isEqualTo((short) 0x3F82);
+        assertThat(fromBFloat16(toBFloat16(Float.NaN))).isNaN();
+        assertThat(fromBFloat16(toBFloat16(Float.MAX_VALUE))).isInfinite();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = VectorPrecision.class, names = "FLOAT32", mode = EXCLUDE)
+    void should_return_same_results_as_float32_store(VectorPrecision precision) {
+
+        // given
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+        InMemoryEmbeddingStore<TextSegment> halfStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .vectorPrecision(precision)
+                .build();
+        InMemoryEmbeddingStore<TextSegment> halfHnswStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .vectorPrecision(precision)
+                .useHnswIndex(true)
+                .exactSearchThreshold(100)
+                .build();
+        Map<String, Embedding> embeddings = new HashMap<>();
+        for (int i = 0; i < 2_000; i++) {
+            Embedding embedding = randomEmbedding(random, DIMENSION);
+            TextSegment segment = TextSegment.from("segment " + i);
+            String id = store.add(embedding, segment);
+            embeddings.put(id, embedding);
+            halfStore.add(id, embedding, segment);
+            halfHnswStore.add(id, embedding, segment);
+        }
+
+        int sameResults = 0;
+        int queries = 50;
+        for (int i = 0; i < queries; i++) {
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(randomEmbedding(random, DIMENSION))
+                    .maxResults(10)
+                    .build();
+
+            // when
+            List<EmbeddingMatch<TextSegment>> expected = store.search(request).matches();
+            List<EmbeddingMatch<TextSegment>> actual = halfStore.search(request).matches();
+
+            // then
+            assertThat(actual).hasSameSizeAs(expected);
+            for (int j = 0; j < actual.size(); j++) {
+                EmbeddingMatch<TextSegment> match = actual.get(j);
+                assertThat(match.score()).isCloseTo(expected.get(j).score(), offset(0.01));
+                assertThat(match.embedding().vector())
+                        .containsExactly(embeddings.get(match.embeddingId()).vector(), offset(0.1f));
+            }
+            if (ids(actual).equals(ids(expected))) {
+                sameResults++;
+            }
+            assertThat(halfHnswStore.search(request).matches()).hasSize(10);
+        }
+        assertThat(sameResults).isGreaterThanOrEqualTo(queries * 8 / 10);
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = VectorPrecision.class, names = "FLOAT32", mode = EXCLUDE)
+    void should_keep_precision_when_serialized(VectorPrecision precision) throws IOException {
+
+        // given
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .vectorPrecision(precision)
+                .build();
+        InMemoryEmbeddingStore<TextSegment> float32Store = new InMemoryEmbeddingStore<>();
+        for (int i = 0; i < 100; i++) {
+            Embedding embedding = randomEmbedding(random, DIMENSION);
+            TextSegment segment = TextSegment.from("segment " + i, new Metadata().put("index", i));
+            String id = store.add(embedding, segment);
+            float32Store.add(id, embedding, segment);
+        }
+        Path binaryFile = temporaryDirectory.resolve("store.bin");
+        Path float32BinaryFile = temporaryDirectory.resolve("store-float32.bin");
+
+        // when
+        store.serializeToBinaryFile(binaryFile);
+        float32Store.serializeToBinaryFile(float32BinaryFile);
+        InMemoryEmbeddingStore<TextSegment> fromBinaryFile = InMemoryEmbeddingStore.fromBinaryFile(binaryFile);
+        InMemoryEmbeddingStore<TextSegment> fromJson = InMemoryEmbeddingStore.fromJson(store.serializeToJson());
+
+        // then
+        assertThat(Files.size(binaryFile)).isLessThan(Files.size(float32BinaryFile));
+        for (InMemoryEmbeddingStore<TextSegment> deserialized : new InMemoryEmbeddingStore[]{fromBinaryFile, fromJson}) {
+            assertThat(deserialized.vectorPrecision()).isEqualTo(precision);
+            assertThat(deserialized.entries()).hasSameSizeAs(store.entries());
+            for (int i = 0; i < store.entries().size(); i++) {
+                assertThat(deserialized.entries().get(i).id).isEqualTo(store.entries().get(i).id);
+                assertThat(deserialized.entries().get(i).embedding.vector())
+                        .containsExactly(store.entries().get(i).embedding.vector(), offset(0.02f));
+            }
+
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(randomEmbedding(random, DIMENSION))
+                    .maxResults(5)
+                    .build();
+            assertThat(ids(deserialized.search(request).matches())).isEqualTo(ids(store.search(request).matches()));
+        }
+    }
+
+    @Test
+    void should_recover_half_precision_store_from_journal() {
+
+        // given
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .vectorPrecision(VectorPrecision.FLOAT16)
+                .journalDirectory(temporaryDirectory)
+                .build();
+        String id = store.add(randomEmbedding(random, DIMENSION), TextSegment.from("first"));
+        store.checkpoint();
+        store.add(randomEmbedding(random, DIMENSION), TextSegment.from("second"));
+        store.remove(id);
+        store.closeJournal();
+
+        // when
+        InMemoryEmbeddingStore<TextSegment> recovered = InMemoryEmbeddingStore.<TextSegment>builder()
+                .vectorPrecision(VectorPrecision.FLOAT16)
+                .journalDirectory(temporaryDirectory)
+                .build();
+
+        // then
+        assertThat(recovered.entries()).extracting(entry -> entry.embedded.text()).containsExactly("second");
+        assertThat(recovered.entries().get(0).embedding.vector())
+                .containsExactly(store.entries().get(0).embedding.vector(), offset(0.01f));
+    }
+
+    @Test
+    void should_return_same_results_after_compaction() {
+
+        // given
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .vectorPrecision(VectorPrecision.BFLOAT16)
+                .build();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            ids.add(store.add(randomEmbedding(random, DIMENSION), TextSegment.from("segment " + i)));
+        }
+        store.removeAll(ids.subList(0, 500));
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                .queryEmbedding(randomEmbedding(random, DIMENSION))
+                .maxResults(10)
+                .build();
+        List<EmbeddingMatch<TextSegment>> expected = store.search(request).matches();
+
+        // when
+        store.compact();
+
+        // then
+        assertThat(store.slotCount()).isEqualTo(500);
+        List<EmbeddingMatch<TextSegment>> actual = store.search(request).matches();
+        assertThat(ids(actual)).isEqualTo(ids(expected));
+    }
+
+    @Test
+    void should_fail_to_combine_half_precision_with_quantization() {
+
+        assertThatThrownBy(() -> InMemoryEmbeddingStore.builder()
+                .vectorPrecision(VectorPrecision.FLOAT16)
+                .quantization(VectorQuantization.INT8)
+                .build())
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Quantization cannot be combined with a half vector precision");
+    }
+
+    private static List<String> ids(List<EmbeddingMatch<TextSegment>> matches) {
+        return matches.stream().map(EmbeddingMatch::embeddingId).collect(toList());
+    }
+}
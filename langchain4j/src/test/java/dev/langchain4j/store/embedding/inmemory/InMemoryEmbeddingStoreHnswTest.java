@@ -0,0 +1,156 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.AllMiniLmL6V2QuantizedEmbeddingModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.EmbeddingStoreWithFilteringIT;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+/**
+ * Runs the standard test suite against a store that always searches using the HNSW index
+ * and compares the recall of the index with the exact search.
+ */
+class InMemoryEmbeddingStoreHnswTest extends EmbeddingStoreWithFilteringIT {
+
+    InMemoryEmbeddingStore<TextSegment> embeddingStore = InMemoryEmbeddingStore.<TextSegment>builder()
+            .useHnswIndex(true)
+            .exactSearchThreshold(0)
+            .build();
+
+    EmbeddingModel embeddingModel = new AllMiniLmL6V2QuantizedEmbeddingModel();
+
+    @Test
+    void should_have_high_recall_compared_to_exact_search() {
+
+        // given
+        int dimension = 32;
+        int size = 5_000;
+        int queries = 100;
+        int maxResults = 10;
+        Random random = new Random(1);
+
+        InMemoryEmbeddingStore<TextSegment> exactStore = new InMemoryEmbeddingStore<>();
+        InMemoryEmbeddingStore<TextSegment> approximateStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .useHnswIndex(true)
+                .exactSearchThreshold(0)
+                .build();
+
+        List<Embedding> embeddings = new ArrayList<>();
+        List<TextSegment> segments = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            embeddings.add(randomEmbedding(random, dimension));
+            segments.add(TextSegment.from("segment " + i, new Metadata().put("parity", i % 2)));
+        }
+        List<String> ids = exactStore.addAll(embeddings, segments);
+        for (int i = 0; i < size; i++) {
+            approximateStore.add(ids.get(i), embeddings.get(i), segments.get(i));
+        }
+
+        // when
+        int found = 0;
+        int foundWithFilter = 0;
+        for (int i = 0; i < queries; i++) {
+            Embedding queryEmbedding = randomEmbedding(random, dimension);
+
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(queryEmbedding)
+                    .maxResults(maxResults)
+                    .build();
+            Set<String> expected = ids(exactStore.search(request).matches());
+            Set<String> actual = ids(approximateStore.search(request).matches());
+            found += intersection(expected, actual);
+
+            EmbeddingSearchRequest requestWithFilter = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(queryEmbedding)
+                    .maxResults(maxResults)
+                    .filter(metadataKey("parity").isEqualTo(1))
+                    .build();
+            Set<String> expectedWithFilter = ids(exactStore.search(requestWithFilter).matches());
+            Set<String> actualWithFilter = ids(approximateStore.search(requestWithFilter).matches());
+            assertThat(actualWithFilter).hasSize(maxResults);
+            foundWithFilter += intersection(expectedWithFilter, actualWithFilter);
+        }
+
+        // then
+        double recall = (double) found / (queries * maxResults);
+        double recallWithFilter = (double) foundWithFilter / (queries * maxResults);
+        assertThat(recall).isGreaterThan(0.9);
+        assertThat(recallWithFilter).isGreaterThan(0.9);
+    }
+
+    @Test
+    void should_use_exact_search_below_threshold() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .useHnswIndex(true)
+                .hnswM(4)
+                .hnswEfSearch(1)
+                .exactSearchThreshold(1_000)
+                .build();
+        InMemoryEmbeddingStore<TextSegment> exactStore = new InMemoryEmbeddingStore<>();
+        Random random = new Random(2);
+        for (int i = 0; i < 500; i++) {
+            Embedding embedding = randomEmbedding(random, 16);
+            String id = store.add(embedding);
+            exactStore.add(id, embedding);
+        }
+
+        // when
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                .queryEmbedding(randomEmbedding(random, 16))
+                .maxResults(20)
+                .build();
+
+        // then
+        assertThat(store.search(request).matches()).isEqualTo(exactStore.search(request).matches());
+    }
+
+    @Test
+    void should_fail_with_less_than_2_connections_per_node() {
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> InMemoryEmbeddingStore.<TextSegment>builder()
+                        .useHnswIndex(true)
+                        .hnswM(1)
+                        .build())
+                .withMessage("hnswM must be at least 2, but is: 1");
+    }
+
+    private static Set<String> ids(List<EmbeddingMatch<TextSegment>> matches) {
+        return matches.stream().map(EmbeddingMatch::embeddingId).collect(toSet());
+    }
+
+    private static int intersection(Set<String> expected, Set<String> actual) {
+        Set<String> intersection = new HashSet<>(expected);
+        intersection.retainAll(actual);
+        return intersection.size();
+    }
+
+    @Override
+    protected EmbeddingStore<TextSegment> embeddingStore() {
+        return embeddingStore;
+    }
+
+    @Override
+    protected EmbeddingModel embeddingModel() {
+        return embeddingModel;
+    }
+}
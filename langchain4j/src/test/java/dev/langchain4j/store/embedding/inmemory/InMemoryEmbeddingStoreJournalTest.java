@@ -0,0 +1,200 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreJournal.LOG_FILE;
+import static dev.langchain4j.store.embedding.inmemory.InMemoryEmbeddingStoreJournal.SNAPSHOT_FILE;
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryEmbeddingStoreJournalTest {
+
+    private static final int DIMENSION = 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void should_recover_modifications_from_journal() {
+
+        // given
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> store = openStore();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            ids.add(store.add(randomEmbedding(random, DIMENSION), TextSegment.from("segment " + i, new Metadata().put("index", i))));
+        }
+        store.addAll(asList(randomEmbedding(random, DIMENSION), randomEmbedding(random, DIMENSION)));
+        store.add(ids.get(0), randomEmbedding(random, DIMENSION), TextSegment.from("replaced"));
+        store.remove(ids.get(1));
+        store.removeAll(metadataKey("index").isGreaterThan(7));
+        store.closeJournal();
+
+        // when
+        InMemoryEmbeddingStore<TextSegment> recovered = openStore();
+
+        // then
+        assertThat(recovered.entries()).containsExactlyInAnyOrderElementsOf(store.entries());
+        assertThat(recovered.entries()).hasSize(9);
+    }
+
+    @Test
+    void should_recover_from_snapshot_and_journal_after_checkpoint() throws IOException {
+
+        // given
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> store = openStore();
+        String id = store.add(randomEmbedding(random, DIMENSION), TextSegment.from("first"));
+        store.add(randomEmbedding(random, DIMENSION), TextSegment.from("second"));
+
+        // when
+        store.checkpoint();
+
+        // then
+        assertThat(directory.resolve(SNAPSHOT_FILE)).exists();
+        assertThat(Files.size(directory.resolve(LOG_FILE))).isZero();
+
+        // when
+        store.add(randomEmbedding(random, DIMENSION), TextSegment.from("third"));
+        store.remove(id);
+        store.closeJournal();
+        InMemoryEmbeddingStore<TextSegment> recovered = openStore();
+
+        // then
+        assertThat(recovered.entries()).containsExactlyElementsOf(store.entries());
+        assertThat(recovered.entries()).extracting(entry -> entry.embedded.text()).containsExactly("second", "third");
+    }
+
+    @Test
+    void should_discard_partially_written_record() throws IOException {
+
+        // given
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> store = openStore();
+        store.add(randomEmbedding(random, DIMENSION), TextSegment.from("first"));
+        store.closeJournal();
+        long size = Files.size(directory.resolve(LOG_FILE));
+        Files.write(directory.resolve(LOG_FILE), new byte[]{100, 0, 0, 0, 1, 2, 3}, APPEND);
+
+        // when
+        InMemoryEmbeddingStore<TextSegment> recovered = openStore();
+
+        // then
+        assertThat(recovered.entries()).containsExactlyElementsOf(store.entries());
+        assertThat(Files.size(directory.resolve(LOG_FILE))).isEqualTo(size);
+
+        // when
+        recovered.add(randomEmbedding(random, DIMENSION), TextSegment.from("second"));
+        recovered.closeJournal();
+
+        // then
+        assertThat(openStore().entries()).hasSize(2);
+    }
+
+    @Test
+    void should_checkpoint_when_journal_reaches_checkpoint_size() throws IOException {
+
+        // given
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .journalDirectory(directory)
+                .journalSyncBatchSize(100)
+                .journalCheckpointSize(1024L)
+                .searchExecutor(Runnable::run)
+                .build();
+
+        // when
+        for (int i = 0; i < 100; i++) {
+            store.add(randomEmbedding(random, DIMENSION), TextSegment.from("segment " + i));
+        }
+        store.syncJournal();
+
+        // then
+        assertThat(Files.size(directory.resolve(LOG_FILE))).isLessThan(1024L);
+        store.closeJournal();
+        assertThat(openStore().entries()).containsExactlyElementsOf(store.entries());
+    }
+
+    @Test
+    void should_keep_journaling_when_background_checkpoint_fails() throws IOException {
+
+        // given
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .journalDirectory(directory)
+                .journalCheckpointSize(1024L)
+                .searchExecutor(Runnable::run)
+                .build();
+        // the snapshot cannot be written while a directory takes its place
+        Path blocker = Files.createDirectories(directory.resolve(SNAPSHOT_FILE + ".tmp").resolve("blocker"));
+
+        // when
+        for (int i = 0; i < 50; i++) {
+            store.add(randomEmbedding(random, DIMENSION), TextSegment.from("segment " + i));
+        }
+
+        // then
+        assertThat(Files.size(directory.resolve(LOG_FILE))).isGreaterThanOrEqualTo(1024L);
+
+        // when
+        Files.delete(blocker);
+        Files.delete(blocker.getParent());
+        store.add(randomEmbedding(random, DIMENSION), TextSegment.from("segment 50"));
+
+        // then
+        assertThat(Files.size(directory.resolve(LOG_FILE))).isZero();
+        store.closeJournal();
+        assertThat(openStore().entries()).containsExactlyElementsOf(store.entries());
+    }
+
+    @Test
+    void should_not_journal_rejected_modifications() throws IOException {
+
+        // given
+        InMemoryEmbeddingStore<Object> store = InMemoryEmbeddingStore.builder()
+                .journalDirectory(directory)
+                .build();
+        store.add(Embedding.from(new float[]{1, 0}));
+        long size = Files.size(directory.resolve(LOG_FILE));
+
+        // when-then
+        assertThatThrownBy(() -> store.add(Embedding.from(new float[]{1, 0}), new Object()))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Only TextSegment");
+        assertThatThrownBy(() -> store.add(Embedding.from(new float[]{1, 0, 0})))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("All embeddings in the store must have the same dimension");
+        assertThat(store.entries()).hasSize(1);
+        assertThat(Files.size(directory.resolve(LOG_FILE))).isEqualTo(size);
+    }
+
+    @Test
+    void should_fail_to_checkpoint_without_journal() {
+
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+
+        assertThatThrownBy(store::checkpoint)
+                .isExactlyInstanceOf(IllegalStateException.class);
+    }
+
+    private InMemoryEmbeddingStore<TextSegment> openStore() {
+        return InMemoryEmbeddingStore.<TextSegment>builder()
+                .journalDirectory(directory)
+                .build();
+    }
+}
@@ -0,0 +1,136 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.AllMiniLmL6V2QuantizedEmbeddingModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.EmbeddingStoreWithFilteringIT;
+import dev.langchain4j.store.embedding.filter.Filter;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static dev.langchain4j.store.embedding.filter.Filter.not;
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the standard test suite against a store indexing the filtered metadata keys
+ * and compares the results with a store without indexes.
+ */
+class InMemoryEmbeddingStoreMetadataIndexTest extends EmbeddingStoreWithFilteringIT {
+
+    InMemoryEmbeddingStore<TextSegment> embeddingStore = InMemoryEmbeddingStore.<TextSegment>builder()
+            .indexedMetadataKeys(asList("key", "name", "age", "city"))
+            .build();
+
+    EmbeddingModel embeddingModel = new AllMiniLmL6V2QuantizedEmbeddingModel();
+
+    @Test
+    void should_return_same_results_as_store_without_indexes() {
+
+        // given
+        int dimension = 16;
+        Random random = new Random(1);
+
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+        InMemoryEmbeddingStore<TextSegment> indexedStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .indexedMetadataKeys(asList("tenant", "score"))
+                .build();
+        InMemoryEmbeddingStore<TextSegment> indexedHnswStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .indexedMetadataKeys(asList("tenant", "score"))
+                .useHnswIndex(true)
+                .exactSearchThreshold(100)
+                .build();
+
+        for (int i = 0; i < 5_000; i++) {
+            Embedding embedding = randomEmbedding(random, dimension);
+            TextSegment segment = null;
+            if (i % 100 != 0) {
+                Metadata metadata = new Metadata().put("tenant", "tenant-" + (i % 50));
+                if (i % 3 == 0) {
+                    metadata.put("score", i % 7);
+                } else if (i % 3 == 1) {
+                    metadata.put("score", (i % 7) + 0.1f);
+                } else {
+                    metadata.put("score", (i % 7) + 0.1);
+                }
+                segment = TextSegment.from("segment " + i, metadata);
+            }
+            String id = store.add(embedding, segment);
+            indexedStore.add(id, embedding, segment);
+            indexedHnswStore.add(id, embedding, segment);
+        }
+
+        List<Filter> filters = asList(
+                metadataKey("tenant").isEqualTo("tenant-7"),
+                metadataKey("tenant").isEqualTo("unknown"),
+                metadataKey("tenant").isIn("tenant-1", "tenant-2", "unknown"),
+                metadataKey("score").isEqualTo(3),
+                metadataKey("score").isEqualTo(3.1),
+                metadataKey("score").isEqualTo(3.1f),
+                metadataKey("score").isIn(2, 4.1, 5.1f),
+                metadataKey("score").isGreaterThan(5),
+                metadataKey("score").isGreaterThanOrEqualTo(5.1f),
+                metadataKey("score").isLessThan(1.1),
+                metadataKey("score").isLessThanOrEqualTo(1L),
+                metadataKey("tenant").isEqualTo("tenant-3").and(metadataKey("score").isGreaterThan(2)),
+                metadataKey("tenant").isEqualTo("tenant-3").or(metadataKey("tenant").isEqualTo("tenant-4")),
+                metadataKey("tenant").isEqualTo("tenant-3").or(metadataKey("other").isEqualTo("x")),
+                metadataKey("tenant").isEqualTo("tenant-3").and(not(metadataKey("score").isEqualTo(3))),
+                metadataKey("tenant").isNotEqualTo("tenant-3")
+        );
+
+        for (Filter filter : filters) {
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(randomEmbedding(random, dimension))
+                    .filter(filter)
+                    .maxResults(20)
+                    .build();
+
+            // when
+            List<?> expected = store.search(request).matches();
+
+            // then
+            assertThat(indexedStore.search(request).matches()).as(filter.toString()).isEqualTo(expected);
+            assertThat(indexedHnswStore.search(request).matches()).as(filter.toString()).hasSameSizeAs(expected);
+        }
+    }
+
+    @Test
+    void should_report_type_mismatch_of_indexed_key() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .indexedMetadataKeys(asList("key"))
+                .build();
+        store.add(Embedding.from(new float[]{1, 0}), TextSegment.from("text", new Metadata().put("key", 1)));
+
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                .queryEmbedding(Embedding.from(new float[]{1, 0}))
+                .filter(metadataKey("key").isEqualTo("1"))
+                .build();
+
+        // when-then
+        assertThatThrownBy(() -> store.search(request))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Type mismatch");
+    }
+
+    @Override
+    protected EmbeddingStore<TextSegment> embeddingStore() {
+        return embeddingStore;
+    }
+
+    @Override
+    protected EmbeddingModel embeddingModel() {
+        return embeddingModel;
+    }
+}
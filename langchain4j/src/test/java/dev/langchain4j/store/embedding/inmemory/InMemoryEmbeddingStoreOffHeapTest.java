@@ -0,0 +1,148 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.AllMiniLmL6V2QuantizedEmbeddingModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.EmbeddingStoreWithFilteringIT;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Runs the standard test suite against a store keeping its vectors outside the Java heap.
+ */
+class InMemoryEmbeddingStoreOffHeapTest extends EmbeddingStoreWithFilteringIT {
+
+    InMemoryEmbeddingStore<TextSegment> embeddingStore = InMemoryEmbeddingStore.<TextSegment>builder()
+            .offHeapVectors(true)
+            .build();
+
+    EmbeddingModel embeddingModel = new AllMiniLmL6V2QuantizedEmbeddingModel();
+
+    @Test
+    void should_return_same_results_as_heap_store() {
+
+        // given
+        int dimension = 32;
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> heapStore = new InMemoryEmbeddingStore<>();
+        InMemoryEmbeddingStore<TextSegment> offHeapStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .offHeapVectors(true)
+                .build();
+        InMemoryEmbeddingStore<TextSegment> offHeapHnswStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .offHeapVectors(true)
+                .useHnswIndex(true)
+                .exactSearchThreshold(100)
+                .build();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            Embedding embedding = randomEmbedding(random, dimension);
+            TextSegment segment = TextSegment.from("segment " + i, new Metadata().put("index", i));
+            String id = heapStore.add(embedding, segment);
+            offHeapStore.add(id, embedding, segment);
+            offHeapHnswStore.add(id, embedding, segment);
+            ids.add(id);
+        }
+        heapStore.removeAll(ids.subList(0, 2_000));
+        offHeapStore.removeAll(ids.subList(0, 2_000));
+
+        for (int i = 0; i < 20; i++) {
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(randomEmbedding(random, dimension))
+                    .maxResults(10)
+                    .build();
+
+            // when
+            List<EmbeddingMatch<TextSegment>> expected = heapStore.search(request).matches();
+            List<EmbeddingMatch<TextSegment>> actual = offHeapStore.search(request).matches();
+
+            // then
+            assertThat(actual).hasSameSizeAs(expected);
+            for (int j = 0; j < actual.size(); j++) {
+                assertThat(actual.get(j).embeddingId()).isEqualTo(expected.get(j).embeddingId());
+                assertThat(actual.get(j).score()).isCloseTo(expected.get(j).score(), offset(1e-6));
+                assertThat(actual.get(j).embedding()).isEqualTo(expected.get(j).embedding());
+            }
+            assertThat(offHeapHnswStore.search(request).matches()).hasSize(10);
+        }
+
+        // when
+        offHeapStore.compact();
+
+        // then
+        assertThat(offHeapStore.slotCount()).isEqualTo(3_000);
+        assertThat(offHeapStore.entries()).isEqualTo(heapStore.entries());
+    }
+
+    @Test
+    void should_rescore_quantized_candidates_with_off_heap_vectors() {
+
+        // given
+        int dimension = 32;
+        Random random = new Random(1);
+        InMemoryEmbeddingStore<TextSegment> heapStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .quantization(VectorQuantization.INT8)
+                .build();
+        InMemoryEmbeddingStore<TextSegment> offHeapStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .quantization(VectorQuantization.INT8)
+                .offHeapVectors(true)
+                .build();
+        for (int i = 0; i < 2_000; i++) {
+            Embedding embedding = randomEmbedding(random, dimension);
+            String id = heapStore.add(embedding);
+            offHeapStore.add(id, embedding);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(randomEmbedding(random, dimension))
+                    .maxResults(10)
+                    .build();
+
+            // when
+            List<EmbeddingMatch<TextSegment>> expected = heapStore.search(request).matches();
+            List<EmbeddingMatch<TextSegment>> actual = offHeapStore.search(request).matches();
+
+            // then
+            assertThat(actual).hasSize(10);
+            for (int j = 0; j < actual.size(); j++) {
+                assertThat(actual.get(j).embeddingId()).isEqualTo(expected.get(j).embeddingId());
+                assertThat(actual.get(j).score()).isEqualTo(expected.get(j).score());
+                assertThat(actual.get(j).embedding()).isEqualTo(expected.get(j).embedding());
+            }
+        }
+    }
+
+    @Test
+    void should_fail_to_combine_off_heap_vectors_with_half_precision() {
+
+        assertThatThrownBy(() -> InMemoryEmbeddingStore.builder()
+                .offHeapVectors(true)
+                .vectorPrecision(VectorPrecision.FLOAT16)
+                .build())
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Off-heap vectors cannot be combined with a half vector precision");
+    }
+
+    @Override
+    protected EmbeddingStore<TextSegment> embeddingStore() {
+        return embeddingStore;
+    }
+
+    @Override
+    protected EmbeddingModel embeddingModel() {
+        return embeddingModel;
+    }
+}
@@ -0,0 +1,104 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.AllMiniLmL6V2QuantizedEmbeddingModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.EmbeddingStoreWithFilteringIT;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the standard test suite against a store that always searches in parallel
+ * and compares the results with the sequential search.
+ */
+class InMemoryEmbeddingStoreParallelSearchTest extends EmbeddingStoreWithFilteringIT {
+
+    static final ForkJoinPool SEARCH_POOL = new ForkJoinPool(4);
+
+    InMemoryEmbeddingStore<TextSegment> embeddingStore = InMemoryEmbeddingStore.<TextSegment>builder()
+            .searchExecutor(SEARCH_POOL)
+            .parallelSearchThreshold(0)
+            .build();
+
+    EmbeddingModel embeddingModel = new AllMiniLmL6V2QuantizedEmbeddingModel();
+
+    @AfterAll
+    static void shutdownSearchPool() {
+        SEARCH_POOL.shutdown();
+    }
+
+    @Test
+    void should_return_same_results_as_sequential_search() {
+
+        // given
+        int dimension = 32;
+        int size = 20_000;
+        int queries = 50;
+        Random random = new Random(1);
+
+        InMemoryEmbeddingStore<TextSegment> sequentialStore = new InMemoryEmbeddingStore<>();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        InMemoryEmbeddingStore<TextSegment> parallelStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .searchExecutor(executor)
+                .parallelSearchThreshold(1_000)
+                .build();
+
+        List<Embedding> embeddings = new ArrayList<>();
+        List<TextSegment> segments = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            // every vector is added twice, so that ties between ranges have to be broken consistently
+            Embedding embedding = i % 2 == 0 ? randomEmbedding(random, dimension) : embeddings.get(i - 1);
+            embeddings.add(embedding);
+            segments.add(TextSegment.from("segment " + i, new Metadata().put("bucket", i % 3)));
+        }
+        List<String> ids = sequentialStore.addAll(embeddings, segments);
+        for (int i = 0; i < size; i++) {
+            parallelStore.add(ids.get(i), embeddings.get(i), segments.get(i));
+        }
+
+        try {
+            for (int i = 0; i < queries; i++) {
+                EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                        .queryEmbedding(randomEmbedding(random, dimension))
+                        .maxResults(1 + random.nextInt(100))
+                        .minScore(i % 2 == 0 ? 0 : 0.6)
+                        .filter(i % 3 == 0 ? metadataKey("bucket").isNotEqualTo(1) : null)
+                        .build();
+
+                // when
+                List<?> expected = sequentialStore.search(request).matches();
+                List<?> actual = parallelStore.search(request).matches();
+
+                // then
+                assertThat(actual).isEqualTo(expected);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Override
+    protected EmbeddingStore<TextSegment> embeddingStore() {
+        return embeddingStore;
+    }
+
+    @Override
+    protected EmbeddingModel embeddingModel() {
+        return embeddingModel;
+    }
+}
@@ -0,0 +1,154 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.AllMiniLmL6V2QuantizedEmbeddingModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.EmbeddingStoreWithFilteringIT;
+import dev.langchain4j.store.embedding.filter.Filter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static dev.langchain4j.store.embedding.filter.Filter.not;
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs the standard test suite against a store keeping its segments in a payload file,
+ * with filters on both indexed and non-indexed metadata keys.
+ */
+class InMemoryEmbeddingStorePayloadFileTest extends EmbeddingStoreWithFilteringIT {
+
+    @TempDir
+    static Path directory;
+
+    InMemoryEmbeddingStore<TextSegment> embeddingStore = InMemoryEmbeddingStore.<TextSegment>builder()
+            .payloadFile(directory.resolve("payloads.bin"))
+            .indexedMetadataKeys(asList("key", "name"))
+            .build();
+
+    EmbeddingModel embeddingModel = new AllMiniLmL6V2QuantizedEmbeddingModel();
+
+    @Test
+    void should_return_same_results_as_heap_store() throws IOException {
+
+        // given
+        int dimension = 16;
+        Random random = new Random(1);
+        Path payloadFile = directory.resolve("same-results.bin");
+        InMemoryEmbeddingStore<TextSegment> heapStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .indexedMetadataKeys(singletonList("tenant"))
+                .build();
+        InMemoryEmbeddingStore<TextSegment> payloadStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .indexedMetadataKeys(singletonList("tenant"))
+                .payloadFile(payloadFile)
+                .build();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            Embedding embedding = randomEmbedding(random, dimension);
+            TextSegment segment = i % 100 == 0
+                    ? null
+                    : TextSegment.from("segment " + i, new Metadata()
+                    .put("tenant", "tenant-" + (i % 10))
+                    .put("score", i % 7));
+            String id = heapStore.add(embedding, segment);
+            payloadStore.add(id, embedding, segment);
+            ids.add(id);
+        }
+        heapStore.removeAll(ids.subList(0, 1_500));
+        payloadStore.removeAll(ids.subList(0, 1_500));
+        payloadStore.removeAll(metadataKey("score").isEqualTo(3));
+        heapStore.removeAll(metadataKey("score").isEqualTo(3));
+
+        List<Filter> filters = asList(
+                null,
+                metadataKey("tenant").isEqualTo("tenant-3"),
+                not(metadataKey("tenant").isIn("tenant-1", "tenant-2")),
+                metadataKey("score").isGreaterThan(4),
+                metadataKey("tenant").isEqualTo("tenant-5").and(metadataKey("score").isLessThan(2))
+        );
+        for (Filter filter : filters) {
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(randomEmbedding(random, dimension))
+                    .maxResults(10)
+                    .filter(filter)
+                    .build();
+
+            // when
+            List<EmbeddingMatch<TextSegment>> expected = heapStore.search(request).matches();
+            List<EmbeddingMatch<TextSegment>> actual = payloadStore.search(request).matches();
+
+            // then
+            assertThat(actual).isEqualTo(expected);
+        }
+
+        // when
+        long payloadFileSize = Files.size(payloadFile);
+        payloadStore.compact();
+
+        // then
+        assertThat(payloadStore.slotCount()).isEqualTo(heapStore.entries().size());
+        assertThat(payloadStore.entries()).isEqualTo(heapStore.entries());
+        assertThat(Files.size(payloadFile)).isEqualTo(payloadFileSize);
+    }
+
+    @Test
+    void should_read_segments_after_closing_payload_file() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .payloadFile(directory.resolve("closed.bin"))
+                .build();
+        TextSegment segment = TextSegment.from("text", new Metadata().put("key", "value"));
+        store.add(Embedding.from(new float[]{1, 2, 3}), segment);
+
+        // when
+        store.closePayloadFile();
+
+        // then
+        List<EmbeddingMatch<TextSegment>> matches = store.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(Embedding.from(new float[]{1, 2, 3}))
+                .filter(metadataKey("key").isEqualTo("value"))
+                .build()).matches();
+        assertThat(matches).hasSize(1);
+        assertThat(matches.get(0).embedded()).isEqualTo(segment);
+    }
+
+    @Test
+    void should_fail_to_keep_other_objects_than_text_segments() {
+
+        InMemoryEmbeddingStore<Object> store = InMemoryEmbeddingStore.builder()
+                .payloadFile(directory.resolve("objects.bin"))
+                .build();
+
+        assertThatThrownBy(() -> store.add(Embedding.from(new float[]{1, 2, 3}), "text"))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Only TextSegment can be kept in a payload file, but found java.lang.String");
+        assertThat(store.entries()).isEmpty();
+    }
+
+    @Override
+    protected EmbeddingStore<TextSegment> embeddingStore() {
+        return embeddingStore;
+    }
+
+    @Override
+    protected EmbeddingModel embeddingModel() {
+        return embeddingModel;
+    }
+}
@@ -0,0 +1,186 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.model.embedding.AllMiniLmL6V2QuantizedEmbeddingModel;
+import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingStore;
+import dev.langchain4j.store.embedding.EmbeddingStoreWithFilteringIT;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static java.util.stream.Collectors.toSet;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.offset;
+
+/**
+ * Runs the standard test suite against a store with int8 quantized vectors
+ * and compares recall of the quantized representations with the exact search.
+ */
+class InMemoryEmbeddingStoreQuantizationTest extends EmbeddingStoreWithFilteringIT {
+
+    @TempDir
+    Path temporaryDirectory;
+
+    InMemoryEmbeddingStore<TextSegment> embeddingStore = InMemoryEmbeddingStore.<TextSegment>builder()
+            .quantization(VectorQuantization.INT8)
+            .build();
+
+    EmbeddingModel embeddingModel = new AllMiniLmL6V2QuantizedEmbeddingModel();
+
+    @ParameterizedTest
+    @CsvSource({
+            "INT8, 1, 0.9",
+            "INT8, 4, 0.99",
+            "BINARY, 10, 0.75",
+            "BINARY, 40, 0.95"
+    })
+    void should_have_high_recall_compared_to_exact_search(VectorQuantization quantization,
+                                                          int rescoringFactor,
+                                                          double minRecall) {
+
+        // given
+        int dimension = 128;
+        int size = 10_000;
+        int queries = 100;
+        int maxResults = 10;
+        Random random = new Random(1);
+
+        InMemoryEmbeddingStore<TextSegment> exactStore = new InMemoryEmbeddingStore<>();
+        InMemoryEmbeddingStore<TextSegment> quantizedStore = InMemoryEmbeddingStore.<TextSegment>builder()
+                .quantization(quantization)
+                .rescoringFactor(rescoringFactor)
+                .build();
+
+        // real embeddings are not uniformly distributed, so vectors are grouped around a few centroids
+        List<Embedding> centroids = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            centroids.add(randomEmbedding(random, dimension));
+        }
+        List<Embedding> embeddings = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            embeddings.add(nearbyEmbedding(random, centroids.get(random.nextInt(centroids.size()))));
+        }
+        List<String> ids = exactStore.addAll(embeddings);
+        for (int i = 0; i < size; i++) {
+            quantizedStore.add(ids.get(i), embeddings.get(i));
+        }
+
+        // when
+        int found = 0;
+        for (int i = 0; i < queries; i++) {
+            EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(nearbyEmbedding(random, centroids.get(random.nextInt(centroids.size()))))
+                    .maxResults(maxResults)
+                    .build();
+            List<EmbeddingMatch<TextSegment>> expected = exactStore.search(request).matches();
+            List<EmbeddingMatch<TextSegment>> actual = quantizedStore.search(request).matches();
+            found += intersection(ids(expected), ids(actual));
+
+            // re-scored matches have exact scores
+            for (EmbeddingMatch<TextSegment> match : actual) {
+                EmbeddingMatch<TextSegment> exactMatch = expected.stream()
+                        .filter(it -> it.embeddingId().equals(match.embeddingId()))
+                        .findFirst()
+                        .orElse(null);
+                if (exactMatch != null) {
+                    assertThat(match.score()).isCloseTo(exactMatch.score(), offset(1e-6));
+                }
+            }
+        }
+
+        // then
+        double recall = (double) found / (queries * maxResults);
+        assertThat(recall).isGreaterThan(minRecall);
+    }
+
+    @Test
+    void should_rescore_using_vectors_from_binary_file() {
+
+        // given
+        Random random = new Random(2);
+        InMemoryEmbeddingStore<TextSegment> originalStore = new InMemoryEmbeddingStore<>();
+        for (int i = 0; i < 1_000; i++) {
+            originalStore.add(randomEmbedding(random, 64), TextSegment.from("segment " + i));
+        }
+        Path filePath = temporaryDirectory.resolve("embedding-store.bin");
+        originalStore.serializeToBinaryFile(filePath);
+
+        // when
+        InMemoryEmbeddingStore<TextSegment> quantizedStore =
+                InMemoryEmbeddingStore.fromBinaryFile(filePath, VectorQuantization.BINARY);
+        Embedding added = randomEmbedding(random, 64);
+        String addedId = quantizedStore.add(added);
+        originalStore.add(addedId, added);
+
+        // then
+        EmbeddingSearchRequest request = EmbeddingSearchRequest.builder()
+                .queryEmbedding(added)
+                .maxResults(1)
+                .build();
+        assertThat(quantizedStore.search(request).matches().get(0).embeddingId()).isEqualTo(addedId);
+
+        Embedding query = originalStore.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(randomEmbedding(random, 64))
+                .maxResults(1)
+                .build()).matches().get(0).embedding();
+        EmbeddingMatch<TextSegment> match = quantizedStore.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(query)
+                .maxResults(1)
+                .build()).matches().get(0);
+        assertThat(match.embedding()).isEqualTo(query);
+        assertThat(match.score()).isCloseTo(1, offset(1e-6));
+    }
+
+    @Test
+    void should_fail_to_combine_quantization_with_hnsw_index() {
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> InMemoryEmbeddingStore.<TextSegment>builder()
+                        .useHnswIndex(true)
+                        .quantization(VectorQuantization.INT8)
+                        .build())
+                .withMessage("Quantization cannot be combined with the HNSW index");
+    }
+
+    private static Set<String> ids(List<EmbeddingMatch<TextSegment>> matches) {
+        return matches.stream().map(EmbeddingMatch::embeddingId).collect(toSet());
+    }
+
+    private static int intersection(Set<String> expected, Set<String> actual) {
+        Set<String> intersection = new HashSet<>(expected);
+        intersection.retainAll(actual);
+        return intersection.size();
+    }
+
+    private static Embedding nearbyEmbedding(Random random, Embedding centroid) {
+        float[] vector = centroid.vector().clone();
+        for (int i = 0; i < vector.length; i++) {
+            vector[i] += (float) random.nextGaussian() * 0.5f;
+        }
+        return Embedding.from(vector);
+    }
+
+    @Override
+    protected EmbeddingStore<TextSegment> embeddingStore() {
+        return embeddingStore;
+    }
+
+    @Override
+    protected EmbeddingModel embeddingModel() {
+        return embeddingModel;
+    }
+}
@@ -0,0 +1,191 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.document.Metadata;
+import dev.langchain4j.data.embedding.Embedding;
+import dev.langchain4j.data.segment.TextSegment;
+import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InMemoryEmbeddingStoreRemovalTest {
+
+    private static final int DIMENSION = 8;
+
+    @Test
+    void should_remove_by_id() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+        Embedding embedding = Embedding.from(new float[]{1, 0});
+        String id1 = store.add(embedding, TextSegment.from("first"));
+        String id2 = store.add(embedding, TextSegment.from("second"));
+        String id3 = store.add(embedding, TextSegment.from("third"));
+
+        // when
+        store.remove(id2);
+        store.removeAll(asList(id3, "unknown"));
+
+        // then
+        List<EmbeddingMatch<TextSegment>> matches = search(store, embedding, 10);
+        assertThat(matches).extracting(EmbeddingMatch::embeddingId).containsExactly(id1);
+        assertThat(store.entries()).extracting(entry -> entry.id).containsExactly(id1);
+    }
+
+    @Test
+    void should_fail_to_remove_without_ids() {
+
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+
+        assertThatThrownBy(() -> store.removeAll(Collections.<String>emptyList()))
+                .isExactlyInstanceOf(IllegalArgumentException.class)
+                .hasMessage("ids cannot be null or empty");
+    }
+
+    @Test
+    void should_remove_by_filter() {
+
+        for (InMemoryEmbeddingStore<TextSegment> store : asList(
+                new InMemoryEmbeddingStore<TextSegment>(),
+                InMemoryEmbeddingStore.<TextSegment>builder().indexedMetadataKeys(singletonList("tenant")).build())) {
+
+            // given
+            Embedding embedding = Embedding.from(new float[]{1, 0});
+            String id1 = store.add(embedding, TextSegment.from("first", new Metadata().put("tenant", "a")));
+            store.add(embedding, TextSegment.from("second", new Metadata().put("tenant", "b")));
+            String id3 = store.add(embedding, TextSegment.from("third", new Metadata().put("tenant", "c")));
+            String id4 = store.add(embedding);
+
+            // when
+            store.removeAll(metadataKey("tenant").isEqualTo("b"));
+
+            // then
+            List<EmbeddingMatch<TextSegment>> matches = search(store, embedding, 10);
+            assertThat(matches).extracting(EmbeddingMatch::embeddingId).containsExactlyInAnyOrder(id1, id3, id4);
+        }
+    }
+
+    @Test
+    void should_replace_embedding_with_same_id() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+        store.add("id", Embedding.from(new float[]{1, 0}), TextSegment.from("old"));
+        String otherId = store.add(Embedding.from(new float[]{0.5f, 0.5f}), TextSegment.from("other"));
+
+        // when
+        store.addAll(singletonList("id"), singletonList(Embedding.from(new float[]{0, 1})), singletonList(TextSegment.from("new")));
+
+        // then
+        List<EmbeddingMatch<TextSegment>> matches = search(store, Embedding.from(new float[]{0, 1}), 10);
+        assertThat(matches).extracting(EmbeddingMatch::embeddingId).containsExactly("id", otherId);
+        assertThat(matches.get(0).embedded().text()).isEqualTo("new");
+        assertThat(matches.get(0).score()).isEqualTo(1.0);
+    }
+
+    @Test
+    void should_return_same_results_after_compaction() {
+
+        for (InMemoryEmbeddingStore<TextSegment> store : asList(
+                new InMemoryEmbeddingStore<TextSegment>(),
+                InMemoryEmbeddingStore.<TextSegment>builder().useHnswIndex(true).exactSearchThreshold(100).build(),
+                InMemoryEmbeddingStore.<TextSegment>builder().quantization(VectorQuantization.INT8).build(),
+                InMemoryEmbeddingStore.<TextSegment>builder().indexedMetadataKeys(singletonList("parity")).build())) {
+
+            // given
+            Random random = new Random(1);
+            List<String> ids = new ArrayList<>();
+            for (int i = 0; i < 1_000; i++) {
+                TextSegment segment = TextSegment.from("segment " + i, new Metadata().put("parity", i % 2));
+                ids.add(store.add(randomEmbedding(random, DIMENSION), segment));
+            }
+            store.removeAll(ids.stream().filter(id -> ids.indexOf(id) % 3 == 0).collect(toList()));
+
+            Embedding query = randomEmbedding(random, DIMENSION);
+            EmbeddingSearchRequest filteredRequest = EmbeddingSearchRequest.builder()
+                    .queryEmbedding(query)
+                    .filter(metadataKey("parity").isEqualTo(1))
+                    .maxResults(10)
+                    .build();
+            List<EmbeddingMatch<TextSegment>> expected = search(store, query, 10);
+            List<EmbeddingMatch<TextSegment>> expectedFiltered = store.search(filteredRequest).matches();
+            assertThat(expected).noneMatch(match -> ids.indexOf(match.embeddingId()) % 3 == 0);
+
+            // when
+            store.compact();
+
+            // then
+            assertThat(store.slotCount()).isEqualTo(666);
+            assertThat(search(store, query, 10)).isEqualTo(expected);
+            assertThat(store.search(filteredRequest).matches()).isEqualTo(expectedFiltered);
+        }
+    }
+
+    @Test
+    void should_compact_in_background_when_threshold_is_reached() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> store = InMemoryEmbeddingStore.<TextSegment>builder()
+                .searchExecutor(Runnable::run)
+                .compactionThreshold(0.5)
+                .build();
+        Random random = new Random(1);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 4_000; i++) {
+            ids.add(store.add(randomEmbedding(random, DIMENSION), TextSegment.from("segment " + i)));
+        }
+
+        // when
+        store.removeAll(ids.subList(0, 1_500));
+
+        // then
+        assertThat(store.slotCount()).isEqualTo(4_000);
+
+        // when
+        store.removeAll(ids.subList(1_500, 2_000));
+
+        // then
+        assertThat(store.slotCount()).isEqualTo(2_000);
+        assertThat(search(store, randomEmbedding(random, DIMENSION), 2_000))
+                .extracting(EmbeddingMatch::embeddingId)
+                .containsExactlyInAnyOrderElementsOf(ids.subList(2_000, 4_000));
+    }
+
+    @Test
+    void should_serialize_to_json_after_removal() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+        String id1 = store.add(Embedding.from(new float[]{1, 0}), TextSegment.from("first"));
+        String id2 = store.add(Embedding.from(new float[]{0, 1}), TextSegment.from("second"));
+        store.remove(id1);
+
+        // when
+        InMemoryEmbeddingStore<TextSegment> deserialized = InMemoryEmbeddingStore.fromJson(store.serializeToJson());
+
+        // then
+        assertThat(deserialized.entries()).isEqualTo(store.entries());
+        assertThat(deserialized.entries()).extracting(entry -> entry.id).containsExactly(id2);
+    }
+
+    private static List<EmbeddingMatch<TextSegment>> search(InMemoryEmbeddingStore<TextSegment> store,
+                                                            Embedding query,
+                                                            int maxResults) {
+        return store.search(EmbeddingSearchRequest.builder()
+                .queryEmbedding(query)
+                .maxResults(maxResults)
+                .build()).matches();
+    }
+}
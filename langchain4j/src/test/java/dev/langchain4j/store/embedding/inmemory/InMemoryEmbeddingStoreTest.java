@@ -5,19 +5,34 @@ import dev.langchain4j.data.embedding.Embedding;
 import dev.langchain4j.data.segment.TextSegment;
 import dev.langchain4j.model.embedding.AllMiniLmL6V2QuantizedEmbeddingModel;
 import dev.langchain4j.model.embedding.EmbeddingModel;
+import dev.langchain4j.store.embedding.CosineSimilarity;
 import dev.langchain4j.store.embedding.EmbeddingMatch;
+import dev.langchain4j.store.embedding.EmbeddingSearchRequest;
+import dev.langchain4j.store.embedding.EmbeddingSearchResult;
 import dev.langchain4j.store.embedding.EmbeddingStore;
 import dev.langchain4j.store.embedding.EmbeddingStoreWithFilteringIT;
+import dev.langchain4j.store.embedding.RelevanceScore;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.Random;
 
+import static dev.langchain4j.store.embedding.filter.MetadataFilterBuilder.metadataKey;
+import static dev.langchain4j.store.embedding.inmemory.RandomEmbeddings.randomEmbedding;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Comparator.comparingDouble;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.assertj.core.api.Assertions.offset;
 
 class InMemoryEmbeddingStoreTest extends EmbeddingStoreWithFilteringIT {
 
@@ -36,8 +51,7 @@ class InMemoryEmbeddingStoreTest extends EmbeddingStoreWithFilteringIT {
         String json = originalEmbeddingStore.serializeToJson();
         InMemoryEmbeddingStore<TextSegment> deserializedEmbeddingStore = InMemoryEmbeddingStore.fromJson(json);
 
-        assertThat(deserializedEmbeddingStore.entries).isEqualTo(originalEmbeddingStore.entries);
-        assertThat(deserializedEmbeddingStore.entries).isInstanceOf(CopyOnWriteArrayList.class);
+        assertThat(deserializedEmbeddingStore.entries()).isEqualTo(originalEmbeddingStore.entries());
     }
 
     @Test
@@ -63,20 +77,47 @@ class InMemoryEmbeddingStoreTest extends EmbeddingStoreWithFilteringIT {
             originalEmbeddingStore.serializeToFile(filePath);
             InMemoryEmbeddingStore<TextSegment> deserializedEmbeddingStore = InMemoryEmbeddingStore.fromFile(filePath);
 
-            assertThat(deserializedEmbeddingStore.entries)
-                    .isEqualTo(originalEmbeddingStore.entries)
-                    .hasSameHashCodeAs(originalEmbeddingStore.entries);
-            assertThat(deserializedEmbeddingStore.entries).isInstanceOf(CopyOnWriteArrayList.class);
+            assertThat(deserializedEmbeddingStore.entries())
+                    .isEqualTo(originalEmbeddingStore.entries())
+                    .hasSameHashCodeAs(originalEmbeddingStore.entries());
         }
         {
             originalEmbeddingStore.serializeToFile(filePath.toString());
             InMemoryEmbeddingStore<TextSegment> deserializedEmbeddingStore = InMemoryEmbeddingStore.fromFile(filePath);
 
-            assertThat(deserializedEmbeddingStore.entries).isEqualTo(originalEmbeddingStore.entries);
-            assertThat(deserializedEmbeddingStore.entries).isInstanceOf(CopyOnWriteArrayList.class);
+            assertThat(deserializedEmbeddingStore.entries()).isEqualTo(originalEmbeddingStore.entries());
         }
     }
 
+    @Test
+    void should_serialize_to_and_deserialize_from_compressed_file() throws IOException {
+
+        InMemoryEmbeddingStore<TextSegment> originalEmbeddingStore = createEmbeddingStore();
+        originalEmbeddingStore.add(embeddingModel.embed("without segment").content());
+        Path filePath = temporaryDirectory.resolve("embedding-store.json.gz");
+
+        originalEmbeddingStore.serializeToFile(filePath, true);
+        InMemoryEmbeddingStore<TextSegment> deserializedEmbeddingStore = InMemoryEmbeddingStore.fromFile(filePath);
+
+        assertThat(deserializedEmbeddingStore.entries()).isEqualTo(originalEmbeddingStore.entries());
+        assertThat(Files.size(filePath)).isLessThan(originalEmbeddingStore.serializeToJson().length());
+    }
+
+    @Test
+    void should_stream_same_json_as_serialize_to_json() {
+
+        InMemoryEmbeddingStore<TextSegment> originalEmbeddingStore = createEmbeddingStore();
+        InMemoryEmbeddingStoreJsonCodec codec = new GsonInMemoryEmbeddingStoreJsonCodec();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        codec.write(originalEmbeddingStore, output);
+        InMemoryEmbeddingStore<TextSegment> deserializedEmbeddingStore =
+                codec.read(new ByteArrayInputStream(output.toByteArray()));
+
+        assertThat(new String(output.toByteArray(), UTF_8)).isEqualTo(originalEmbeddingStore.serializeToJson());
+        assertThat(deserializedEmbeddingStore.entries()).isEqualTo(originalEmbeddingStore.entries());
+    }
+
     @Test
     void test_backwards_compatibility_with_0_27_1() {
 
@@ -102,6 +143,81 @@ class InMemoryEmbeddingStoreTest extends EmbeddingStoreWithFilteringIT {
         assertThat(matches.get(1).embedded()).isEqualTo(expectedSegment2);
     }
 
+    @Test
+    void should_score_like_cosine_similarity() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+        Random random = new Random(1);
+        List<Embedding> embeddings = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            embeddings.add(randomEmbedding(random, 64));
+        }
+        store.addAll(embeddings);
+        Embedding queryEmbedding = randomEmbedding(random, 64);
+
+        // when
+        List<EmbeddingMatch<TextSegment>> matches = store.findRelevant(queryEmbedding, 1_000);
+
+        // then
+        assertThat(matches).hasSize(1_000);
+        assertThat(matches).isSortedAccordingTo(comparingDouble(EmbeddingMatch<TextSegment>::score).reversed());
+        for (EmbeddingMatch<TextSegment> match : matches) {
+            double expectedScore = RelevanceScore.fromCosineSimilarity(
+                    CosineSimilarity.between(match.embedding(), queryEmbedding));
+            assertThat(match.score()).isCloseTo(expectedScore, offset(1e-6));
+        }
+    }
+
+    @Test
+    void should_fail_to_add_embedding_with_different_dimension() {
+
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+        store.add(Embedding.from(new float[]{1, 2, 3}));
+
+        assertThatExceptionOfType(IllegalArgumentException.class)
+                .isThrownBy(() -> store.addAll(asList(
+                        Embedding.from(new float[]{1, 2, 3}),
+                        Embedding.from(new float[]{1, 2}))))
+                .withMessage("All embeddings in the store must have the same dimension, but found 3 and 2");
+
+        assertThat(store.findRelevant(Embedding.from(new float[]{1, 2, 3}), 10)).hasSize(1);
+    }
+
+    @Test
+    void should_search_all_with_same_results_as_search() {
+
+        // given
+        InMemoryEmbeddingStore<TextSegment> store = new InMemoryEmbeddingStore<>();
+        Random random = new Random(2);
+        List<Embedding> embeddings = new ArrayList<>();
+        List<TextSegment> segments = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            embeddings.add(randomEmbedding(random, 64));
+            segments.add(TextSegment.from("segment " + i, new Metadata().put("bucket", i % 4)));
+        }
+        store.addAll(embeddings, segments);
+
+        List<EmbeddingSearchRequest> requests = new ArrayList<>();
+        for (int i = 0; i < 16; i++) {
+            requests.add(EmbeddingSearchRequest.builder()
+                    .queryEmbedding(randomEmbedding(random, 64))
+                    .maxResults(1 + random.nextInt(20))
+                    .minScore(i % 2 == 0 ? 0 : 0.6)
+                    .filter(i % 3 == 0 ? metadataKey("bucket").isIn(1, 2) : null)
+                    .build());
+        }
+
+        // when
+        List<EmbeddingSearchResult<TextSegment>> results = store.searchAll(requests);
+
+        // then
+        assertThat(results).hasSize(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            assertThat(results.get(i).matches()).isEqualTo(store.search(requests.get(i)).matches());
+        }
+    }
+
     private InMemoryEmbeddingStore<TextSegment> createEmbeddingStore() {
 
         InMemoryEmbeddingStore<TextSegment> embeddingStore = new InMemoryEmbeddingStore<>();
@@ -0,0 +1,22 @@
+package dev.langchain4j.store.embedding.inmemory;
+
+import dev.langchain4j.data.embedding.Embedding;
+
+import java.util.Random;
+
+/**
+ * Embeddings with normally distributed components, shared by the tests of {@link InMemoryEmbeddingStore}.
+ */
+class RandomEmbeddings {
+
+    private RandomEmbeddings() {
+    }
+
+    static Embedding randomEmbedding(Random random, int dimension) {
+        float[] vector = new float[dimension];
+        for (int i = 0; i < dimension; i++) {
+            vector[i] = (float) random.nextGaussian();
+        }
+        return Embedding.from(vector);
+    }
+}